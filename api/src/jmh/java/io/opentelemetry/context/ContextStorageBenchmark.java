@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks the {@link ThreadLocalContextStorage} against the {@link GrpcContextStorage}. */
+@State(Scope.Thread)
+public class ContextStorageBenchmark {
+  private static final Context.Key<String> KEY = Context.keyWithDefault("benchmark", "default");
+
+  @Param({"threadlocal", "grpc"})
+  public String storage;
+
+  private ContextStorage.Slot<String> slot;
+
+  @Setup
+  public void setup() {
+    ContextStorage contextStorage =
+        "grpc".equals(storage) ? new GrpcContextStorage() : new ThreadLocalContextStorage();
+    slot = contextStorage.createSlot(KEY);
+  }
+
+  /** Reads the current value. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String get() {
+    return slot.get();
+  }
+
+  /** Attaches a value, reads it and restores the previous one, like a span scope. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String attachAndClose() {
+    io.opentelemetry.context.Scope scope = slot.attach("value");
+    try {
+      return slot.get();
+    } finally {
+      scope.close();
+    }
+  }
+}
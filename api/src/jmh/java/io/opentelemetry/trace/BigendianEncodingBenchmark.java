@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks the base16 codecs of {@link BigendianEncoding}. */
+@State(Scope.Thread)
+public class BigendianEncodingBenchmark {
+  private static final String BASE16 = "ff00ab0c9d4e8f71";
+
+  private final ByteBuffer heapBuffer =
+      ByteBuffer.wrap(BASE16.getBytes(Charset.forName("US-ASCII")));
+  private final ByteBuffer directBuffer = toDirect(heapBuffer);
+  private final char[] base16Chars = BASE16.toCharArray();
+  private final char[] chars = new char[BigendianEncoding.LONG_BASE16];
+  private final byte[] bytes = new byte[BigendianEncoding.LONG_BASE16];
+  private final long value = BigendianEncoding.longFromBase16String(BASE16, 0);
+
+  private static ByteBuffer toDirect(ByteBuffer buffer) {
+    ByteBuffer direct = ByteBuffer.allocateDirect(buffer.remaining());
+    direct.put(buffer.duplicate());
+    return direct;
+  }
+
+  /** Decodes a {@code long} from a {@code String}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long longFromBase16String() {
+    return BigendianEncoding.longFromBase16String(BASE16, 0);
+  }
+
+  /** Decodes a {@code long} from a {@code char[]}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long longFromBase16String_CharArray() {
+    return BigendianEncoding.longFromBase16String(base16Chars, 0);
+  }
+
+  /** Decodes a {@code long} from a heap buffer, through its backing array. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long longFromBase16Bytes_HeapBuffer() {
+    return BigendianEncoding.longFromBase16Bytes(heapBuffer, 0);
+  }
+
+  /** Decodes a {@code long} from a direct buffer. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long longFromBase16Bytes_DirectBuffer() {
+    return BigendianEncoding.longFromBase16Bytes(directBuffer, 0);
+  }
+
+  /** Encodes a {@code long} into a {@code char[]}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public char[] longToBase16String() {
+    BigendianEncoding.longToBase16String(value, chars, 0);
+    return chars;
+  }
+
+  /** Encodes a {@code long} into a {@code byte[]}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public byte[] longToBase16Bytes() {
+    BigendianEncoding.longToBase16Bytes(value, bytes, 0);
+    return bytes;
+  }
+}
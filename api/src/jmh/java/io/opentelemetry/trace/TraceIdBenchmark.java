@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks the base16 conversions of {@link TraceId} and {@link SpanId}. */
+@State(Scope.Thread)
+public class TraceIdBenchmark {
+  private static final String TRACE_ID_BASE16 = "905734c59b913b4a905734c59b913b4a";
+  private static final String SPAN_ID_BASE16 = "9909983295041501";
+
+  private final TraceId traceId = TraceId.fromLowerBase16(TRACE_ID_BASE16, 0);
+  private final SpanId spanId = SpanId.fromLowerBase16(SPAN_ID_BASE16, 0);
+
+  /** Parses a {@code TraceId}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public TraceId traceIdFromLowerBase16() {
+    return TraceId.fromLowerBase16(TRACE_ID_BASE16, 0);
+  }
+
+  /** Encodes a new {@code TraceId}, for example when injecting a new span. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String traceIdToLowerBase16_First() {
+    return new TraceId(1, 2).toLowerBase16();
+  }
+
+  /** Encodes the same {@code TraceId} again, for example for every log line of a request. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String traceIdToLowerBase16_Repeated() {
+    return traceId.toLowerBase16();
+  }
+
+  /** Parses a {@code SpanId}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanId spanIdFromLowerBase16() {
+    return SpanId.fromLowerBase16(SPAN_ID_BASE16, 0);
+  }
+
+  /** Encodes the same {@code SpanId} again. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String spanIdToLowerBase16_Repeated() {
+    return spanId.toLowerBase16();
+  }
+}
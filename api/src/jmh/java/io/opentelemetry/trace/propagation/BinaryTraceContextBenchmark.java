@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks the array and the {@link ByteBuffer} methods of {@link BinaryTraceContext}. */
+@State(Scope.Thread)
+public class BinaryTraceContextBenchmark {
+  private final BinaryTraceContext binaryTraceContext = new BinaryTraceContext();
+  private final SpanContext spanContext =
+      SpanContext.create(
+          TraceId.fromLowerBase16("0af7651916cd43dd8448eb211c80319c", 0),
+          SpanId.fromLowerBase16("b7ad6b7169203331", 0),
+          TraceFlags.builder().setIsSampled(true).build(),
+          Tracestate.getDefault());
+
+  @Param({"true", "false"})
+  public boolean direct;
+
+  private byte[] bytes;
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setup() {
+    bytes = binaryTraceContext.toByteArray(spanContext);
+    buffer = direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+  }
+
+  /** Serializes into a new array. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public byte[] toByteArray() {
+    return binaryTraceContext.toByteArray(spanContext);
+  }
+
+  /** Serializes into the reused buffer. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public ByteBuffer writeTo() {
+    buffer.clear();
+    binaryTraceContext.writeTo(spanContext, buffer);
+    buffer.flip();
+    return buffer;
+  }
+
+  /** Parses an array. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext fromByteArray() {
+    return binaryTraceContext.fromByteArray(bytes);
+  }
+
+  /** Parses the buffer in place. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext readFrom() {
+    return binaryTraceContext.readFrom(buffer);
+  }
+}
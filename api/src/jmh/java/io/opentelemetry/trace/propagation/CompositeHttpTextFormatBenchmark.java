@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the extraction by a {@link CompositeHttpTextFormat} of W3C, B3 multi-header and B3
+ * single-header requests, in this order of priority.
+ */
+@State(Scope.Thread)
+public class CompositeHttpTextFormatBenchmark {
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  @Param({"w3c", "b3multi", "b3single"})
+  public String incoming;
+
+  private final CompositeHttpTextFormat format =
+      CompositeHttpTextFormat.create(
+          Arrays.<HttpTextFormat<SpanContext>>asList(
+              new HttpTraceContext(), new B3MultiHeaderFormat(), new B3SingleHeaderFormat()));
+  private final Map<String, String> carrier = new HashMap<>();
+
+  @Setup
+  public void setup() {
+    SpanContext spanContext =
+        SpanContext.create(
+            TraceId.fromLowerBase16("905734c59b913b4a905734c59b913b4a", 0),
+            SpanId.fromLowerBase16("9909983295041501", 0),
+            TraceFlags.builder().setIsSampled(true).build(),
+            Tracestate.getDefault());
+    HttpTextFormat<SpanContext> incomingFormat;
+    if ("w3c".equals(incoming)) {
+      incomingFormat = new HttpTraceContext();
+    } else if ("b3multi".equals(incoming)) {
+      incomingFormat = new B3MultiHeaderFormat();
+    } else {
+      incomingFormat = new B3SingleHeaderFormat();
+    }
+    incomingFormat.inject(spanContext, carrier, setter);
+  }
+
+  /** Extracts the {@code SpanContext} with the first format that finds its headers. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext extract() {
+    return format.extract(carrier, getter);
+  }
+}
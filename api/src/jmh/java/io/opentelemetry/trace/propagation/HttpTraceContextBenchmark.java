@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import io.opentelemetry.context.propagation.ByteHttpTextFormat.ByteGetter;
+import io.opentelemetry.context.propagation.ByteHttpTextFormat.ByteSetter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.trace.SpanContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks {@link HttpTraceContext} with realistic {@code tracestate} headers. */
+@State(Scope.Thread)
+public class HttpTraceContextBenchmark {
+  private static final String TRACEPARENT_HEADER =
+      "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+  // List-members as written by different vendors, including multi-tenant keys and white space.
+  private static final String[] MEMBERS = {
+    "congo=t61rcWkgMzE",
+    "rojo=00f067aa0ba902b7",
+    "dd=s:1;o:rum;t.dm:-4",
+    "tenant1@vendor=ZGVhZGJlZWYtY2FmZS0xMjM0",
+    "ot=p:8;r:62",
+    "sw=a3ce929d0e0e4736-01",
+    "es=s:0.5",
+    "lightstep=t:9f2d88c7b1e0a441"
+  };
+
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  // Writes all the fields one after the other in a single buffer, like a request encoder would.
+  private static final ByteSetter<ByteBuffer> byteSetter =
+      new ByteSetter<ByteBuffer>() {
+        @Override
+        public ByteBuffer put(ByteBuffer carrier, String key, int length) {
+          return carrier;
+        }
+      };
+  private static final ByteGetter<Map<String, ByteBuffer>> byteGetter =
+      new ByteGetter<Map<String, ByteBuffer>>() {
+        @Override
+        public ByteBuffer get(Map<String, ByteBuffer> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  @Param({"1", "8", "32"})
+  public int members;
+
+  private final HttpTraceContext httpTraceContext = new HttpTraceContext();
+  private final Map<String, String> carrier = new HashMap<>();
+  private final Map<String, String> injected = new HashMap<>();
+  private final Map<String, ByteBuffer> byteCarrier = new HashMap<>();
+  private final ByteBuffer byteInjected = ByteBuffer.allocate(1024);
+  private SpanContext spanContext;
+
+  @Setup
+  public void setup() {
+    StringBuilder tracestate = new StringBuilder();
+    for (int i = 0; i < members; i++) {
+      if (i > 0) {
+        tracestate.append(i % 4 == 0 ? " , " : ",");
+      }
+      String member = MEMBERS[i % MEMBERS.length];
+      if (i >= MEMBERS.length) {
+        // Keys must be unique, number the repeated vendors.
+        int delimiter = member.indexOf('=');
+        member = member.substring(0, delimiter) + i + member.substring(delimiter);
+      }
+      tracestate.append(member);
+    }
+    carrier.put(HttpTraceContext.TRACEPARENT, TRACEPARENT_HEADER);
+    carrier.put(HttpTraceContext.TRACESTATE, tracestate.toString());
+    spanContext = httpTraceContext.extract(carrier, getter);
+    Charset ascii = Charset.forName("US-ASCII");
+    byteCarrier.put(
+        HttpTraceContext.TRACEPARENT, ByteBuffer.wrap(TRACEPARENT_HEADER.getBytes(ascii)));
+    byteCarrier.put(
+        HttpTraceContext.TRACESTATE, ByteBuffer.wrap(tracestate.toString().getBytes(ascii)));
+  }
+
+  /** Parses the {@code traceparent} and {@code tracestate} headers. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext extract() {
+    return httpTraceContext.extract(carrier, getter);
+  }
+
+  /** Writes the {@code traceparent} and {@code tracestate} headers. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Map<String, String> inject() {
+    httpTraceContext.inject(spanContext, injected, setter);
+    return injected;
+  }
+
+  /** Parses the {@code traceparent} and {@code tracestate} headers from bytes. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext extractBytes() {
+    return httpTraceContext.extractBytes(byteCarrier, byteGetter);
+  }
+
+  /** Writes the {@code traceparent} and {@code tracestate} headers as bytes. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public ByteBuffer injectBytes() {
+    byteInjected.clear();
+    httpTraceContext.injectBytes(spanContext, byteInjected, byteSetter);
+    return byteInjected;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Storage of the values, such as the current {@code Span} or {@code DistributedContext}, that are
+ * attached to the current thread of execution.
+ *
+ * <p>The implementation is chosen once per class loader: the class named by the {@value
+ * #STORAGE_PROPERTY} system property if it is set, otherwise {@link ThreadLocalContextStorage}.
+ * {@link GrpcContextStorage} keeps the values in the {@link io.grpc.Context} instead, for
+ * applications that propagate it between threads or that attach values with the {@code
+ * ContextUtils.withValue} methods.
+ *
+ * <p>Users should interact with the current values via the public APIs in {@code Tracer} and {@code
+ * DistributedContextManager} and avoid accessing this class directly.
+ *
+ * @since 0.1.0
+ */
+@ThreadSafe
+public abstract class ContextStorage {
+  /**
+   * The system property with the fully qualified name of the {@code ContextStorage} to use. The
+   * class must have a public no-argument constructor.
+   *
+   * @since 0.1.0
+   */
+  public static final String STORAGE_PROPERTY = "io.opentelemetry.context.ContextStorage";
+
+  private static final ContextStorage INSTANCE = loadStorage();
+
+  /**
+   * Returns the {@code ContextStorage} used by the API.
+   *
+   * @return the {@code ContextStorage} used by the API.
+   * @since 0.1.0
+   */
+  public static ContextStorage getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Creates a new {@link Slot} for the values of the given {@code key}. Slots are created once per
+   * kind of value, when the class that owns them is initialized.
+   *
+   * @param key the key of the values in the {@link io.grpc.Context}, its default value is returned
+   *     when no value is attached.
+   * @param <T> the type of the values.
+   * @return a new {@code Slot}.
+   * @since 0.1.0
+   */
+  public abstract <T> Slot<T> createSlot(Context.Key<T> key);
+
+  /**
+   * Wraps a {@link Runnable} so that it executes with the values attached to the current thread,
+   * whatever the thread that runs it.
+   *
+   * @param runnable the {@code Runnable} to wrap.
+   * @return the wrapped {@code Runnable}.
+   * @since 0.1.0
+   */
+  public abstract Runnable wrap(Runnable runnable);
+
+  /**
+   * The current value of one kind, for example the current {@code Span}.
+   *
+   * @param <T> the type of the value.
+   * @since 0.1.0
+   */
+  @ThreadSafe
+  public abstract static class Slot<T> {
+    /**
+     * Returns the value attached to the current thread, or the default value of the key if none.
+     *
+     * @return the value attached to the current thread.
+     * @since 0.1.0
+     */
+    public abstract T get();
+
+    /**
+     * Attaches the {@code value} to the current thread until the returned {@link Scope} is closed.
+     * Closing the {@code Scope} restores the previous value, it must be done on the same thread.
+     *
+     * @param value the value to attach.
+     * @return the {@code Scope} of the attached value.
+     * @since 0.1.0
+     */
+    public abstract Scope attach(T value);
+  }
+
+  private static ContextStorage loadStorage() {
+    String storageClass = System.getProperty(STORAGE_PROPERTY);
+    if (storageClass == null) {
+      return new ThreadLocalContextStorage();
+    }
+    try {
+      return Class.forName(storageClass)
+          .asSubclass(ContextStorage.class)
+          .getConstructor()
+          .newInstance();
+    } catch (Exception e) {
+      throw new IllegalStateException(
+          String.format("Context storage %s could not be created", storageClass), e);
+    }
+  }
+}
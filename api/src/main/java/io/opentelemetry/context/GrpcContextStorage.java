@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link ContextStorage} that keeps the values in the {@link io.grpc.Context}.
+ *
+ * <p>Values attached with {@code ContextUtils.withValue(...).attach()} are visible to the API, and
+ * values attached by the API are propagated wherever the {@link io.grpc.Context} is, for example by
+ * {@link io.grpc.Context#wrap(Runnable)}. Every attach allocates a new {@link io.grpc.Context}.
+ *
+ * @since 0.1.0
+ */
+@ThreadSafe
+public final class GrpcContextStorage extends ContextStorage {
+
+  @Override
+  public <T> Slot<T> createSlot(Context.Key<T> key) {
+    return new GrpcSlot<>(key);
+  }
+
+  @Override
+  public Runnable wrap(Runnable runnable) {
+    return Context.current().wrap(runnable);
+  }
+
+  private static final class GrpcSlot<T> extends Slot<T> {
+    private final Context.Key<T> key;
+
+    private GrpcSlot(Context.Key<T> key) {
+      this.key = key;
+    }
+
+    @Override
+    public T get() {
+      return key.get();
+    }
+
+    @Override
+    public Scope attach(T value) {
+      Context current = Context.current().withValue(key, value);
+      return new GrpcScope(current, current.attach());
+    }
+  }
+
+  private static final class GrpcScope implements Scope {
+    private final Context current;
+    private final Context previous;
+
+    private GrpcScope(Context current, Context previous) {
+      this.current = current;
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      current.detach(previous);
+    }
+  }
+}
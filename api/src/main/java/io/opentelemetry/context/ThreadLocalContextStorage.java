@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The default {@link ContextStorage}, with a dedicated {@link ThreadLocal} per {@link
+ * ContextStorage.Slot}.
+ *
+ * <p>Reading the current value is a single thread-local lookup, attaching a value allocates only
+ * the {@link Scope}. The values are not visible in the {@link io.grpc.Context}, and are propagated
+ * to other threads only by {@link #wrap(Runnable)}.
+ *
+ * @since 0.1.0
+ */
+@ThreadSafe
+public final class ThreadLocalContextStorage extends ContextStorage {
+  // Slots are created once per kind of value, so the list stays small and is rarely written.
+  private final List<ThreadLocalSlot<?>> slots = new CopyOnWriteArrayList<>();
+
+  @Override
+  public <T> Slot<T> createSlot(Context.Key<T> key) {
+    ThreadLocalSlot<T> slot = new ThreadLocalSlot<>(key.get(Context.ROOT));
+    slots.add(slot);
+    return slot;
+  }
+
+  @Override
+  public Runnable wrap(Runnable runnable) {
+    ThreadLocalSlot<?>[] wrappedSlots = slots.toArray(new ThreadLocalSlot<?>[0]);
+    Object[] values = new Object[wrappedSlots.length];
+    for (int i = 0; i < wrappedSlots.length; i++) {
+      values[i] = wrappedSlots[i].current.get();
+    }
+    return new WrappedRunnable(wrappedSlots, values, runnable);
+  }
+
+  private static final class ThreadLocalSlot<T> extends Slot<T> {
+    // Holds T, typed as Object so that wrap() can capture and restore the values of every slot.
+    // Not static, but slots are created once per kind of value and never released.
+    @SuppressWarnings("ThreadLocalUsage")
+    private final ThreadLocal<Object> current = new ThreadLocal<>();
+    private final T defaultValue;
+
+    private ThreadLocalSlot(T defaultValue) {
+      this.defaultValue = defaultValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+      Object value = current.get();
+      // Like io.grpc.Context.Key, a null value stands for the default one.
+      return value == null ? defaultValue : (T) value;
+    }
+
+    @Override
+    public Scope attach(T value) {
+      Object previous = current.get();
+      current.set(value);
+      return new ThreadLocalScope(current, previous);
+    }
+  }
+
+  private static final class ThreadLocalScope implements Scope {
+    private final ThreadLocal<Object> current;
+    @Nullable private final Object previous;
+
+    private ThreadLocalScope(ThreadLocal<Object> current, @Nullable Object previous) {
+      this.current = current;
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      current.set(previous);
+    }
+  }
+
+  private static final class WrappedRunnable implements Runnable {
+    private final ThreadLocalSlot<?>[] slots;
+    private final Object[] values;
+    private final Runnable runnable;
+
+    private WrappedRunnable(ThreadLocalSlot<?>[] slots, Object[] values, Runnable runnable) {
+      this.slots = slots;
+      this.values = values;
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+      Object[] previous = new Object[slots.length];
+      for (int i = 0; i < slots.length; i++) {
+        previous[i] = slots[i].current.get();
+        slots[i].current.set(values[i]);
+      }
+      try {
+        runnable.run();
+      } finally {
+        for (int i = 0; i < slots.length; i++) {
+          slots[i].current.set(previous[i]);
+        }
+      }
+    }
+  }
+}
@@ -16,11 +16,16 @@
 
 package io.opentelemetry.context.propagation;
 
+import java.nio.ByteBuffer;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Formatter to serializing and deserializing a value with into a binary format.
  *
+ * <p>The {@link ByteBuffer} methods let carriers that own their buffers, heap or direct, propagate
+ * the value without the intermediate arrays of {@link #toByteArray(Object)} and {@link
+ * #fromByteArray(byte[])}.
+ *
  * @since 0.1.0
  */
 @ThreadSafe
@@ -46,4 +51,42 @@ public interface BinaryFormat<V> {
    * @since 0.1.0
    */
   V fromByteArray(byte[] bytes);
+
+  /**
+   * Returns the number of bytes that {@link #writeTo(Object, ByteBuffer)} writes for the {@code
+   * value}.
+   *
+   * @param value the value to serialize.
+   * @return the size in bytes of the on-the-wire representation of {@code value}.
+   * @since 0.1.0
+   */
+  int serializedSize(V value);
+
+  /**
+   * Serializes the {@code value} into the {@code dest} buffer, starting at its position.
+   *
+   * <p>Exactly {@link #serializedSize(Object)} bytes are written, then the position of {@code dest}
+   * is advanced past them.
+   *
+   * @param value the value to serialize.
+   * @param dest the buffer that receives the on-the-wire representation of {@code value}.
+   * @throws IllegalArgumentException if {@code dest} has fewer bytes remaining than the serialized
+   *     size of {@code value}.
+   * @since 0.1.0
+   */
+  void writeTo(V value, ByteBuffer dest);
+
+  /**
+   * Creates a value from the on-the-wire representation held between the position and the limit of
+   * the {@code src} buffer.
+   *
+   * <p>The buffer is not modified and no reference to it is kept, so the carrier can pass a view of
+   * its own storage. If the value could not be parsed, the underlying implementation will decide to
+   * return ether an empty value, an invalid value, or a valid value.
+   *
+   * @param src the buffer that holds the on-the-wire representation of the value.
+   * @return a value deserialized from {@code src}.
+   * @since 0.1.0
+   */
+  V readFrom(ByteBuffer src);
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context.propagation;
+
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Optional extension of {@link HttpTextFormat} for carriers that hold the field values as ASCII
+ * bytes, for example the headers of a Netty request.
+ *
+ * <p>The values are written to and read from the carrier's own buffers, without building
+ * intermediate {@code String} values. The encoding of the values is the same as for {@link
+ * HttpTextFormat}.
+ *
+ * @since 0.1.0
+ */
+@ThreadSafe
+public interface ByteHttpTextFormat<V> extends HttpTextFormat<V> {
+
+  /**
+   * Injects the value downstream, writing the fields directly into the buffers returned by the
+   * {@code setter}.
+   *
+   * @param value the value to be injected.
+   * @param carrier holds propagation fields. For example, an outgoing message or http request.
+   * @param setter invoked for each propagation key to add.
+   * @param <C> carrier of propagation fields, such as an http request
+   * @since 0.1.0
+   */
+  <C> void injectBytes(V value, C carrier, ByteSetter<C> setter);
+
+  /**
+   * Class that allows a {@code ByteHttpTextFormat} to write propagated fields into a carrier.
+   *
+   * <p>{@code ByteSetter} is stateless and allows to be saved as a constant to avoid runtime
+   * allocations.
+   *
+   * @param <C> carrier of propagation fields, such as an http request
+   * @since 0.1.0
+   */
+  interface ByteSetter<C> {
+
+    /**
+     * Replaces a propagated field, returning the buffer where the format writes the new value.
+     *
+     * <p>The format writes exactly {@code length} ASCII bytes starting at the position of the
+     * returned buffer, then advances the position by {@code length}. The carrier must not use the
+     * value before this call returns to the format, e.g. it can write the field when the next field
+     * is put or when the request is sent.
+     *
+     * @param carrier holds propagation fields. For example, an outgoing message or http request.
+     * @param key the key of the field.
+     * @param length the number of bytes of the value.
+     * @return a buffer with at least {@code length} bytes remaining.
+     * @since 0.1.0
+     */
+    ByteBuffer put(C carrier, String key, int length);
+  }
+
+  /**
+   * Extracts the value from upstream, reading the fields directly from the buffers returned by the
+   * {@code getter}.
+   *
+   * <p>If the value could not be parsed, the underlying implementation will decide to return an
+   * object representing either an empty value, an invalid value, or a valid value. Implementation
+   * must not return {@code null}.
+   *
+   * @param carrier holds propagation fields. For example, an outgoing message or http request.
+   * @param getter invoked for each propagation key to get.
+   * @param <C> carrier of propagation fields, such as an http request.
+   * @return the extracted value, never {@code null}.
+   * @since 0.1.0
+   */
+  <C> V extractBytes(C carrier, ByteGetter<C> getter);
+
+  /**
+   * Interface that allows a {@code ByteHttpTextFormat} to read propagated fields from a carrier.
+   *
+   * <p>{@code ByteGetter} is stateless and allows to be saved as a constant to avoid runtime
+   * allocations.
+   *
+   * @param <C> carrier of propagation fields, such as an http request.
+   * @since 0.1.0
+   */
+  interface ByteGetter<C> {
+
+    /**
+     * Returns the first value of the given propagation {@code key} as the bytes between the
+     * position and the limit of a buffer, or returns {@code null}.
+     *
+     * <p>The format neither modifies the buffer nor keeps a reference to it after the call to
+     * {@code extract}, so the carrier can return a view of its own storage.
+     *
+     * @param carrier carrier of propagation fields, such as an http request.
+     * @param key the key of the field.
+     * @return the first value of the given propagation {@code key} or returns {@code null}.
+     * @since 0.1.0
+     */
+    @Nullable
+    ByteBuffer get(C carrier, String key);
+  }
+}
@@ -21,6 +21,7 @@ import io.opentelemetry.context.propagation.BinaryFormat;
 import io.opentelemetry.context.propagation.HttpTextFormat;
 import io.opentelemetry.distributedcontext.unsafe.ContextUtils;
 import io.opentelemetry.internal.Utils;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.concurrent.Immutable;
@@ -125,6 +126,24 @@ public final class DefaultDistributedContextManager implements DistributedContex
       Utils.checkNotNull(bytes, "bytes");
       return EmptyDistributedContext.getInstance();
     }
+
+    @Override
+    public int serializedSize(DistributedContext distContext) {
+      Utils.checkNotNull(distContext, "distContext");
+      return 0;
+    }
+
+    @Override
+    public void writeTo(DistributedContext distContext, ByteBuffer dest) {
+      Utils.checkNotNull(distContext, "distContext");
+      Utils.checkNotNull(dest, "dest");
+    }
+
+    @Override
+    public DistributedContext readFrom(ByteBuffer src) {
+      Utils.checkNotNull(src, "src");
+      return EmptyDistributedContext.getInstance();
+    }
   }
 
   @Immutable
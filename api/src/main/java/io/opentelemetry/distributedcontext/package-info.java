@@ -17,9 +17,9 @@
 /**
  * API for associating entries with scoped operations.
  *
- * <p>This package manages a set of entries in the {@code io.grpc.Context}. The entries can be used
- * to label anything that is associated with a specific operation. For example, the {@code
- * opentelemetry.stats} package labels all stats with the current entries.
+ * <p>This package manages a set of entries in the {@code io.opentelemetry.context.ContextStorage}.
+ * The entries can be used to label anything that is associated with a specific operation. For
+ * example, the {@code opentelemetry.stats} package labels all stats with the current entries.
  *
  * <p>{@link io.opentelemetry.distributedcontext.Entry Entrys} are key-value pairs. The {@link
  * io.opentelemetry.distributedcontext.EntryKey keys} and {@link
@@ -27,7 +27,7 @@
  * stored as a map in a {@link io.opentelemetry.distributedcontext.DistributedContext}.
  *
  * <p>Note that entries are independent of the tracing data that is propagated in the {@code
- * io.grpc.Context}, such as trace ID.
+ * io.opentelemetry.context.ContextStorage}, such as trace ID.
  */
 // TODO: Add code examples.
 package io.opentelemetry.distributedcontext;
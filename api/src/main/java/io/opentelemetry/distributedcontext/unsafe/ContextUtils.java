@@ -17,14 +17,18 @@
 package io.opentelemetry.distributedcontext.unsafe;
 
 import io.grpc.Context;
+import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.distributedcontext.DistributedContext;
 import io.opentelemetry.distributedcontext.EmptyDistributedContext;
 import javax.annotation.concurrent.Immutable;
 
 /**
- * Utility methods for accessing the {@link DistributedContext} contained in the {@link
- * io.grpc.Context}.
+ * Utility methods for accessing the current {@link DistributedContext}.
+ *
+ * <p>The current {@code DistributedContext} is kept in the {@link ContextStorage}. The methods that
+ * take or return an {@link io.grpc.Context} only work on the gRPC {@code Context}, which is the
+ * current storage only when {@link io.opentelemetry.context.GrpcContextStorage} is used.
  *
  * <p>Most code should interact with the current context via the public APIs in {@link
  * DistributedContext} and avoid accessing this class directly.
@@ -36,6 +40,8 @@ public final class ContextUtils {
   private static final Context.Key<DistributedContext> DIST_CONTEXT_KEY =
       Context.keyWithDefault(
           "opentelemetry-dist-context-key", EmptyDistributedContext.getInstance());
+  private static final ContextStorage.Slot<DistributedContext> DIST_CONTEXT_SLOT =
+      ContextStorage.getInstance().createSlot(DIST_CONTEXT_KEY);
 
   /**
    * Creates a new {@code Context} with the given value set.
@@ -61,13 +67,13 @@ public final class ContextUtils {
   }
 
   /**
-   * Returns the value from the current {@code Context}.
+   * Returns the current value from the {@link ContextStorage}.
    *
-   * @return the value from the specified {@code Context}.
+   * @return the current value from the {@link ContextStorage}.
    * @since 0.1.0
    */
   public static DistributedContext getValue() {
-    return DIST_CONTEXT_KEY.get();
+    return DIST_CONTEXT_SLOT.get();
   }
 
   /**
@@ -82,15 +88,15 @@ public final class ContextUtils {
   }
 
   /**
-   * Returns a new {@link Scope} encapsulating the provided {@code DistributedContext} added to the
-   * current {@code Context}.
+   * Returns a new {@link Scope} encapsulating the provided {@code DistributedContext} attached to
+   * the {@link ContextStorage}.
    *
-   * @param distContext the {@code DistributedContext} to be added to the current {@code Context}.
-   * @return the {@link Scope} for the updated {@code Context}.
+   * @param distContext the {@code DistributedContext} to be attached to the {@link ContextStorage}.
+   * @return the {@link Scope} of the attached {@code DistributedContext}.
    * @since 0.1.0
    */
   public static Scope withDistributedContext(DistributedContext distContext) {
-    return DistributedContextInScope.create(distContext);
+    return DIST_CONTEXT_SLOT.attach(distContext);
   }
 
   private ContextUtils() {}
@@ -17,6 +17,8 @@
 package io.opentelemetry.trace;
 
 import io.opentelemetry.internal.Utils;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 final class BigendianEncoding {
@@ -27,6 +29,9 @@ final class BigendianEncoding {
   private static final int ASCII_CHARACTERS = 128;
   private static final char[] ENCODING = buildEncodingArray();
   private static final byte[] DECODING = buildDecodingArray();
+  // Decodes two characters per lookup: maps (hi << 7 | lo) to the decoded byte, or -1.
+  private static final int DECODING_PAIR_SHIFT = 7;
+  private static final short[] DECODING_PAIRS = buildDecodingPairsArray();
 
   private static char[] buildEncodingArray() {
     char[] encoding = new char[512];
@@ -47,6 +52,19 @@ final class BigendianEncoding {
     return decoding;
   }
 
+  private static short[] buildDecodingPairsArray() {
+    short[] decodingPairs = new short[ASCII_CHARACTERS << DECODING_PAIR_SHIFT];
+    for (int hi = 0; hi < ASCII_CHARACTERS; hi++) {
+      for (int lo = 0; lo < ASCII_CHARACTERS; lo++) {
+        decodingPairs[hi << DECODING_PAIR_SHIFT | lo] =
+            DECODING[hi] == -1 || DECODING[lo] == -1
+                ? -1
+                : (short) (DECODING[hi] << 4 | DECODING[lo]);
+      }
+    }
+    return decodingPairs;
+  }
+
   /**
    * Returns the {@code long} value whose big-endian representation is stored in the first 8 bytes
    * of {@code bytes} starting from the {@code offset}.
@@ -88,6 +106,36 @@ final class BigendianEncoding {
     dest[destOffset] = (byte) (value >> 56 & 0xFFL);
   }
 
+  /**
+   * Returns the {@code long} value whose big-endian representation is stored in the 8 bytes of
+   * {@code src} starting from the absolute {@code index}, whatever the byte order of {@code src}.
+   * The position of {@code src} is not changed.
+   *
+   * @param src the buffer that holds the representation of the {@code long}.
+   * @param index the starting index in the buffer.
+   * @return the {@code long} value whose big-endian representation is given.
+   * @throws IllegalArgumentException if {@code src} has fewer than 8 bytes after {@code index}.
+   */
+  static long longFromByteBuffer(ByteBuffer src, int index) {
+    Utils.checkArgument(src.limit() >= index + LONG_BYTES, "buffer too small");
+    long value = src.getLong(index);
+    return src.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+  }
+
+  /**
+   * Stores the big-endian representation of {@code value} in the {@code dest} starting from the
+   * absolute {@code index}, whatever the byte order of {@code dest}. The position of {@code dest}
+   * is not changed.
+   *
+   * @param value the value to be converted.
+   * @param dest the destination buffer.
+   * @param index the starting index in the destination buffer.
+   */
+  static void longToByteBuffer(long value, ByteBuffer dest, int index) {
+    Utils.checkArgument(dest.limit() >= index + LONG_BYTES, "buffer too small");
+    dest.putLong(index, dest.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+  }
+
   /**
    * Returns the {@code long} value whose base16 representation is stored in the first 16 chars of
    * {@code chars} starting from the {@code offset}.
@@ -97,14 +145,28 @@ final class BigendianEncoding {
    */
   static long longFromBase16String(CharSequence chars, int offset) {
     Utils.checkArgument(chars.length() >= offset + LONG_BASE16, "chars too small");
-    return (decodeByte(chars.charAt(offset), chars.charAt(offset + 1)) & 0xFFL) << 56
-        | (decodeByte(chars.charAt(offset + 2), chars.charAt(offset + 3)) & 0xFFL) << 48
-        | (decodeByte(chars.charAt(offset + 4), chars.charAt(offset + 5)) & 0xFFL) << 40
-        | (decodeByte(chars.charAt(offset + 6), chars.charAt(offset + 7)) & 0xFFL) << 32
-        | (decodeByte(chars.charAt(offset + 8), chars.charAt(offset + 9)) & 0xFFL) << 24
-        | (decodeByte(chars.charAt(offset + 10), chars.charAt(offset + 11)) & 0xFFL) << 16
-        | (decodeByte(chars.charAt(offset + 12), chars.charAt(offset + 13)) & 0xFFL) << 8
-        | (decodeByte(chars.charAt(offset + 14), chars.charAt(offset + 15)) & 0xFFL);
+    long result = 0;
+    for (int i = offset; i < offset + LONG_BASE16; i += BYTE_BASE16) {
+      result = result << Byte.SIZE | decodePair(chars.charAt(i), chars.charAt(i + 1));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the {@code long} value whose base16 representation is stored in the first 16 chars of
+   * {@code chars} starting from the {@code offset}. Reads the array directly, without the {@link
+   * CharSequence#charAt(int)} call per character of the {@code CharSequence} variant.
+   *
+   * @param chars the base16 representation of the {@code long}.
+   * @param offset the starting offset in the char array.
+   */
+  static long longFromBase16String(char[] chars, int offset) {
+    Utils.checkArgument(chars.length >= offset + LONG_BASE16, "chars too small");
+    long result = 0;
+    for (int i = offset; i < offset + LONG_BASE16; i += BYTE_BASE16) {
+      result = result << Byte.SIZE | decodePair(chars[i], chars[i + 1]);
+    }
+    return result;
   }
 
   /**
@@ -150,11 +212,130 @@ final class BigendianEncoding {
     return decodeByte(chars.charAt(offset), chars.charAt(offset + 1));
   }
 
+  /**
+   * Returns the {@code long} value whose base16 representation is stored in the 16 bytes of {@code
+   * src} starting from the absolute {@code index}. The position of {@code src} is not changed.
+   *
+   * @param src the ASCII base16 representation of the {@code long}.
+   * @param index the starting index in the {@code ByteBuffer}.
+   */
+  static long longFromBase16Bytes(ByteBuffer src, int index) {
+    Utils.checkArgument(src.limit() >= index + LONG_BASE16, "buffer too small");
+    if (src.hasArray()) {
+      return longFromBase16Bytes(src.array(), src.arrayOffset() + index);
+    }
+    long result = 0;
+    for (int i = index; i < index + LONG_BASE16; i += BYTE_BASE16) {
+      result = result << Byte.SIZE | decodePair(src.get(i), src.get(i + 1));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the {@code long} value whose base16 representation is stored in the 16 ASCII bytes of
+   * {@code src} starting from the {@code offset}.
+   *
+   * @param src the ASCII base16 representation of the {@code long}.
+   * @param offset the starting offset in the byte array.
+   */
+  static long longFromBase16Bytes(byte[] src, int offset) {
+    Utils.checkArgument(src.length >= offset + LONG_BASE16, "array too small");
+    long result = 0;
+    for (int i = offset; i < offset + LONG_BASE16; i += BYTE_BASE16) {
+      result = result << Byte.SIZE | decodePair(src[i], src[i + 1]);
+    }
+    return result;
+  }
+
+  /**
+   * Writes the ASCII base16 encoding of the specified {@code value} to the {@code dest} starting
+   * from the absolute {@code index}. The position of {@code dest} is not changed.
+   *
+   * @param value the value to be converted.
+   * @param dest the destination buffer.
+   * @param index the starting index in the destination buffer.
+   */
+  static void longToBase16Bytes(long value, ByteBuffer dest, int index) {
+    Utils.checkArgument(dest.limit() >= index + LONG_BASE16, "buffer too small");
+    if (dest.hasArray()) {
+      longToBase16Bytes(value, dest.array(), dest.arrayOffset() + index);
+      return;
+    }
+    for (int i = LONG_BYTES - 1; i >= 0; i--) {
+      byteToBase16((byte) value, dest, index + i * BYTE_BASE16);
+      value >>>= Byte.SIZE;
+    }
+  }
+
+  /**
+   * Writes the ASCII base16 encoding of the specified {@code value} to the {@code dest} starting
+   * from the {@code destOffset}.
+   *
+   * @param value the value to be converted.
+   * @param dest the destination byte array.
+   * @param destOffset the starting offset in the destination byte array.
+   */
+  static void longToBase16Bytes(long value, byte[] dest, int destOffset) {
+    Utils.checkArgument(dest.length >= destOffset + LONG_BASE16, "array too small");
+    for (int i = destOffset + LONG_BASE16 - BYTE_BASE16; i >= destOffset; i -= BYTE_BASE16) {
+      int b = (int) value & 0xFF;
+      dest[i] = (byte) ENCODING[b];
+      dest[i + 1] = (byte) ENCODING[b | 0x100];
+      value >>>= Byte.SIZE;
+    }
+  }
+
+  /**
+   * Decodes the two bytes of {@code src} starting from the absolute {@code index}, and returns the
+   * resulting {@code byte}. The position of {@code src} is not changed.
+   *
+   * @param src the ASCII base16 representation of the {@code byte}.
+   * @param index the starting index in the {@code ByteBuffer}.
+   * @return the resulting {@code byte}
+   * @throws IllegalArgumentException if the input is not a valid encoded string according to this
+   *     encoding.
+   */
+  static byte byteFromBase16Bytes(ByteBuffer src, int index) {
+    Utils.checkArgument(src.limit() >= index + BYTE_BASE16, "buffer too small");
+    return decodeByte(src, index);
+  }
+
+  /**
+   * Writes the ASCII base16 encoding of the specified {@code byte} to the {@code dest} starting
+   * from the absolute {@code index}. The position of {@code dest} is not changed.
+   *
+   * @param value the value to be converted.
+   * @param dest the destination buffer.
+   * @param index the starting index in the destination buffer.
+   */
+  static void byteToBase16Bytes(byte value, ByteBuffer dest, int index) {
+    Utils.checkArgument(dest.limit() >= index + BYTE_BASE16, "buffer too small");
+    byteToBase16(value, dest, index);
+  }
+
   private static byte decodeByte(char hi, char lo) {
-    Utils.checkArgument(lo < ASCII_CHARACTERS && DECODING[lo] != -1, "invalid character " + lo);
-    Utils.checkArgument(hi < ASCII_CHARACTERS && DECODING[hi] != -1, "invalid character " + hi);
-    int decoded = DECODING[hi] << 4 | DECODING[lo];
-    return (byte) decoded;
+    return (byte) decodePair(hi, lo);
+  }
+
+  private static byte decodeByte(ByteBuffer src, int index) {
+    return (byte) decodePair(src.get(index), src.get(index + 1));
+  }
+
+  // Returns the byte encoded by the two characters, as an int in [0, 255].
+  private static int decodePair(char hi, char lo) {
+    if ((hi | lo) < ASCII_CHARACTERS) {
+      int decoded = DECODING_PAIRS[hi << DECODING_PAIR_SHIFT | lo];
+      if (decoded != -1) {
+        return decoded;
+      }
+    }
+    // Only build the message when failing, the low character is reported first.
+    char invalid = lo < ASCII_CHARACTERS && DECODING[lo] != -1 ? hi : lo;
+    throw new IllegalArgumentException("invalid character " + invalid);
+  }
+
+  private static int decodePair(byte hi, byte lo) {
+    return decodePair((char) (hi & 0xFF), (char) (lo & 0xFF));
   }
 
   private static void byteToBase16(byte value, char[] dest, int destOffset) {
@@ -163,5 +344,11 @@ final class BigendianEncoding {
     dest[destOffset + 1] = ENCODING[b | 0x100];
   }
 
+  private static void byteToBase16(byte value, ByteBuffer dest, int index) {
+    int b = value & 0xFF;
+    dest.put(index, (byte) ENCODING[b]);
+    dest.put(index + 1, (byte) ENCODING[b | 0x100]);
+  }
+
   private BigendianEncoding() {}
 }
@@ -22,6 +22,7 @@ import io.opentelemetry.context.propagation.HttpTextFormat;
 import io.opentelemetry.internal.Utils;
 import io.opentelemetry.trace.propagation.HttpTraceContext;
 import io.opentelemetry.trace.unsafe.ContextUtils;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -167,6 +168,24 @@ public final class DefaultTracer implements Tracer {
       return SpanContext.getInvalid();
     }
 
+    @Override
+    public int serializedSize(SpanContext spanContext) {
+      Utils.checkNotNull(spanContext, "spanContext");
+      return 0;
+    }
+
+    @Override
+    public void writeTo(SpanContext spanContext, ByteBuffer dest) {
+      Utils.checkNotNull(spanContext, "spanContext");
+      Utils.checkNotNull(dest, "dest");
+    }
+
+    @Override
+    public SpanContext readFrom(ByteBuffer src) {
+      Utils.checkNotNull(src, "src");
+      return SpanContext.getInvalid();
+    }
+
     private NoopBinaryFormat() {}
   }
 }
@@ -17,6 +17,7 @@
 package io.opentelemetry.trace;
 
 import io.opentelemetry.internal.Utils;
+import java.nio.ByteBuffer;
 import java.util.Random;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -37,6 +38,9 @@ public final class SpanId implements Comparable<SpanId> {
 
   // The internal representation of the SpanId.
   private final long id;
+  // Lazily computed lowercase base16 encoding, racy single-check is fine since Strings are
+  // immutable.
+  @Nullable private String lowerBase16;
 
   /**
    * Constructs a {@code SpanId} whose representation is specified by a long value.
@@ -107,6 +111,24 @@ public final class SpanId implements Comparable<SpanId> {
     return new SpanId(BigendianEncoding.longFromByteArray(src, srcOffset));
   }
 
+  /**
+   * Returns a {@code SpanId} whose representation is copied from the {@code src} buffer beginning
+   * at the absolute {@code srcIndex}. The position of the buffer is not changed.
+   *
+   * @param src the buffer where the representation of the {@code SpanId} is copied.
+   * @param srcIndex the absolute index in the buffer where the representation of the {@code SpanId}
+   *     begins.
+   * @return a {@code SpanId} whose representation is copied from the buffer.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if {@code srcIndex+SpanId.getSize()} is greater than the limit
+   *     of {@code src}.
+   * @since 0.1.0
+   */
+  public static SpanId fromBytes(ByteBuffer src, int srcIndex) {
+    Utils.checkNotNull(src, "src");
+    return new SpanId(BigendianEncoding.longFromByteBuffer(src, srcIndex));
+  }
+
   /**
    * Copies the byte array representations of the {@code SpanId} into the {@code dest} beginning at
    * the {@code destOffset} offset.
@@ -122,6 +144,21 @@ public final class SpanId implements Comparable<SpanId> {
     BigendianEncoding.longToByteArray(id, dest, destOffset);
   }
 
+  /**
+   * Copies the byte array representations of the {@code SpanId} into the {@code dest} buffer
+   * beginning at the absolute {@code destIndex}. The position of the buffer is not changed.
+   *
+   * @param dest the destination buffer.
+   * @param destIndex the absolute starting index in the destination buffer.
+   * @throws NullPointerException if {@code dest} is null.
+   * @throws IllegalArgumentException if {@code destIndex+SpanId.getSize()} is greater than the
+   *     limit of {@code dest}.
+   * @since 0.1.0
+   */
+  public void copyBytesTo(ByteBuffer dest, int destIndex) {
+    BigendianEncoding.longToByteBuffer(id, dest, destIndex);
+  }
+
   /**
    * Returns a {@code SpanId} built from a lowercase base16 representation.
    *
@@ -139,6 +176,40 @@ public final class SpanId implements Comparable<SpanId> {
     return new SpanId(BigendianEncoding.longFromBase16String(src, srcOffset));
   }
 
+  /**
+   * Returns a {@code SpanId} built from a lowercase base16 representation in a char array, as
+   * written by {@link #copyLowerBase16To(char[], int)}.
+   *
+   * @param src the char array that holds the lowercase base16 representation.
+   * @param srcOffset the offset in the array where the representation of the {@code SpanId} begins.
+   * @return a {@code SpanId} built from a lowercase base16 representation.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if not enough characters in the {@code src} from the {@code
+   *     srcOffset}.
+   * @since 0.1.0
+   */
+  public static SpanId fromLowerBase16(char[] src, int srcOffset) {
+    Utils.checkNotNull(src, "src");
+    return new SpanId(BigendianEncoding.longFromBase16String(src, srcOffset));
+  }
+
+  /**
+   * Returns a {@code SpanId} built from a lowercase base16 representation in ASCII bytes.
+   *
+   * @param src the buffer that holds the lowercase base16 representation.
+   * @param srcIndex the absolute index in the buffer where the representation of the {@code SpanId}
+   *     begins. The position of the buffer is not changed.
+   * @return a {@code SpanId} built from a lowercase base16 representation.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if not enough bytes in the {@code src} from the {@code
+   *     srcIndex}.
+   * @since 0.1.0
+   */
+  public static SpanId fromLowerBase16(ByteBuffer src, int srcIndex) {
+    Utils.checkNotNull(src, "src");
+    return new SpanId(BigendianEncoding.longFromBase16Bytes(src, srcIndex));
+  }
+
   /**
    * Copies the lowercase base16 representations of the {@code SpanId} into the {@code dest}
    * beginning at the {@code destOffset} offset.
@@ -153,6 +224,20 @@ public final class SpanId implements Comparable<SpanId> {
     BigendianEncoding.longToBase16String(id, dest, destOffset);
   }
 
+  /**
+   * Writes the lowercase base16 representation of the {@code SpanId} in ASCII bytes into the {@code
+   * dest} beginning at the absolute {@code destIndex}. The position of the buffer is not changed.
+   *
+   * @param dest the destination buffer.
+   * @param destIndex the starting index in the destination buffer.
+   * @throws IllegalArgumentException if {@code destIndex + 2 * SpanId.getSize()} is greater than
+   *     {@code dest.limit()}.
+   * @since 0.1.0
+   */
+  public void copyLowerBase16To(ByteBuffer dest, int destIndex) {
+    BigendianEncoding.longToBase16Bytes(id, dest, destIndex);
+  }
+
   /**
    * Returns whether the span identifier is valid. A valid span identifier is an 8-byte array with
    * at least one non-zero byte.
@@ -167,13 +252,20 @@ public final class SpanId implements Comparable<SpanId> {
   /**
    * Returns the lowercase base16 encoding of this {@code SpanId}.
    *
+   * <p>The encoding is computed on the first call and then reused.
+   *
    * @return the lowercase base16 encoding of this {@code SpanId}.
    * @since 0.1.0
    */
   public String toLowerBase16() {
-    char[] chars = new char[BASE16_SIZE];
-    copyLowerBase16To(chars, 0);
-    return new String(chars);
+    String result = lowerBase16;
+    if (result == null) {
+      char[] chars = new char[BASE16_SIZE];
+      copyLowerBase16To(chars, 0);
+      result = new String(chars);
+      lowerBase16 = result;
+    }
+    return result;
   }
 
   @Override
@@ -17,6 +17,7 @@
 package io.opentelemetry.trace;
 
 import io.opentelemetry.internal.Utils;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -94,6 +95,23 @@ public final class TraceFlags {
     return new TraceFlags(BigendianEncoding.byteFromBase16String(src, srcOffset));
   }
 
+  /**
+   * Returns a {@code TraceFlags} built from a lowercase base16 representation in ASCII bytes.
+   *
+   * @param src the buffer that holds the lowercase base16 representation.
+   * @param srcIndex the absolute index in the buffer where the representation of the {@code
+   *     TraceFlags} begins. The position of the buffer is not changed.
+   * @return a {@code TraceFlags} built from a lowercase base16 representation.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if not enough bytes in the {@code src} from the {@code
+   *     srcIndex} or if they are not valid base16 characters.
+   * @since 0.1.0
+   */
+  public static TraceFlags fromLowerBase16(ByteBuffer src, int srcIndex) {
+    Utils.checkNotNull(src, "src");
+    return new TraceFlags(BigendianEncoding.byteFromBase16Bytes(src, srcIndex));
+  }
+
   /**
    * Returns the one byte representation of the {@code TraceFlags}.
    *
@@ -140,6 +158,20 @@ public final class TraceFlags {
     BigendianEncoding.byteToBase16String(options, dest, destOffset);
   }
 
+  /**
+   * Writes the lowercase base16 representation of the {@code TraceFlags} in ASCII bytes into the
+   * {@code dest} beginning at the absolute {@code destIndex}. The position of the buffer is not
+   * changed.
+   *
+   * @param dest the destination buffer.
+   * @param destIndex the starting index in the destination buffer.
+   * @throws IllegalArgumentException if {@code destIndex + 2} is greater than {@code dest.limit()}.
+   * @since 0.1.0
+   */
+  public void copyLowerBase16To(ByteBuffer dest, int destIndex) {
+    BigendianEncoding.byteToBase16Bytes(options, dest, destIndex);
+  }
+
   /**
    * Returns the lowercase base16 encoding of this {@code TraceFlags}.
    *
@@ -17,6 +17,7 @@
 package io.opentelemetry.trace;
 
 import io.opentelemetry.internal.Utils;
+import java.nio.ByteBuffer;
 import java.util.Random;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -38,6 +39,9 @@ public final class TraceId implements Comparable<TraceId> {
   // The internal representation of the TraceId.
   private final long idHi;
   private final long idLo;
+  // Lazily computed lowercase base16 encoding, racy single-check is fine since Strings are
+  // immutable.
+  @Nullable private String lowerBase16;
 
   /**
    * Constructs a {@code TraceId} whose representation is specified by two long values representing
@@ -115,6 +119,26 @@ public final class TraceId implements Comparable<TraceId> {
         BigendianEncoding.longFromByteArray(src, srcOffset + BigendianEncoding.LONG_BYTES));
   }
 
+  /**
+   * Returns a {@code TraceId} whose representation is copied from the {@code src} buffer beginning
+   * at the absolute {@code srcIndex}. The position of the buffer is not changed.
+   *
+   * @param src the buffer where the representation of the {@code TraceId} is copied.
+   * @param srcIndex the absolute index in the buffer where the representation of the {@code
+   *     TraceId} begins.
+   * @return a {@code TraceId} whose representation is copied from the buffer.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if {@code srcIndex+TraceId.getSize()} is greater than the
+   *     limit of {@code src}.
+   * @since 0.1.0
+   */
+  public static TraceId fromBytes(ByteBuffer src, int srcIndex) {
+    Utils.checkNotNull(src, "src");
+    return new TraceId(
+        BigendianEncoding.longFromByteBuffer(src, srcIndex),
+        BigendianEncoding.longFromByteBuffer(src, srcIndex + BigendianEncoding.LONG_BYTES));
+  }
+
   /**
    * Copies the byte array representations of the {@code TraceId} into the {@code dest} beginning at
    * the {@code destOffset} offset.
@@ -131,6 +155,22 @@ public final class TraceId implements Comparable<TraceId> {
     BigendianEncoding.longToByteArray(idLo, dest, destOffset + BigendianEncoding.LONG_BYTES);
   }
 
+  /**
+   * Copies the byte array representations of the {@code TraceId} into the {@code dest} buffer
+   * beginning at the absolute {@code destIndex}. The position of the buffer is not changed.
+   *
+   * @param dest the destination buffer.
+   * @param destIndex the absolute starting index in the destination buffer.
+   * @throws NullPointerException if {@code dest} is null.
+   * @throws IllegalArgumentException if {@code destIndex+TraceId.getSize()} is greater than the
+   *     limit of {@code dest}.
+   * @since 0.1.0
+   */
+  public void copyBytesTo(ByteBuffer dest, int destIndex) {
+    BigendianEncoding.longToByteBuffer(idHi, dest, destIndex);
+    BigendianEncoding.longToByteBuffer(idLo, dest, destIndex + BigendianEncoding.LONG_BYTES);
+  }
+
   /**
    * Returns a {@code TraceId} built from a lowercase base16 representation.
    *
@@ -150,6 +190,45 @@ public final class TraceId implements Comparable<TraceId> {
         BigendianEncoding.longFromBase16String(src, srcOffset + BigendianEncoding.LONG_BASE16));
   }
 
+  /**
+   * Returns a {@code TraceId} built from a lowercase base16 representation in a char array, as
+   * written by {@link #copyLowerBase16To(char[], int)}.
+   *
+   * @param src the char array that holds the lowercase base16 representation.
+   * @param srcOffset the offset in the array where the representation of the {@code TraceId}
+   *     begins.
+   * @return a {@code TraceId} built from a lowercase base16 representation.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if not enough characters in the {@code src} from the {@code
+   *     srcOffset}.
+   * @since 0.1.0
+   */
+  public static TraceId fromLowerBase16(char[] src, int srcOffset) {
+    Utils.checkNotNull(src, "src");
+    return new TraceId(
+        BigendianEncoding.longFromBase16String(src, srcOffset),
+        BigendianEncoding.longFromBase16String(src, srcOffset + BigendianEncoding.LONG_BASE16));
+  }
+
+  /**
+   * Returns a {@code TraceId} built from a lowercase base16 representation in ASCII bytes.
+   *
+   * @param src the buffer that holds the lowercase base16 representation.
+   * @param srcIndex the absolute index in the buffer where the representation of the {@code
+   *     TraceId} begins. The position of the buffer is not changed.
+   * @return a {@code TraceId} built from a lowercase base16 representation.
+   * @throws NullPointerException if {@code src} is null.
+   * @throws IllegalArgumentException if not enough bytes in the {@code src} from the {@code
+   *     srcIndex}.
+   * @since 0.1.0
+   */
+  public static TraceId fromLowerBase16(ByteBuffer src, int srcIndex) {
+    Utils.checkNotNull(src, "src");
+    return new TraceId(
+        BigendianEncoding.longFromBase16Bytes(src, srcIndex),
+        BigendianEncoding.longFromBase16Bytes(src, srcIndex + BigendianEncoding.LONG_BASE16));
+  }
+
   /**
    * Copies the lowercase base16 representations of the {@code TraceId} into the {@code dest}
    * beginning at the {@code destOffset} offset.
@@ -165,6 +244,22 @@ public final class TraceId implements Comparable<TraceId> {
     BigendianEncoding.longToBase16String(idLo, dest, destOffset + BASE16_SIZE / 2);
   }
 
+  /**
+   * Writes the lowercase base16 representation of the {@code TraceId} in ASCII bytes into the
+   * {@code dest} beginning at the absolute {@code destIndex}. The position of the buffer is not
+   * changed.
+   *
+   * @param dest the destination buffer.
+   * @param destIndex the starting index in the destination buffer.
+   * @throws IllegalArgumentException if {@code destIndex + 2 * TraceId.getSize()} is greater than
+   *     {@code dest.limit()}.
+   * @since 0.1.0
+   */
+  public void copyLowerBase16To(ByteBuffer dest, int destIndex) {
+    BigendianEncoding.longToBase16Bytes(idHi, dest, destIndex);
+    BigendianEncoding.longToBase16Bytes(idLo, dest, destIndex + BASE16_SIZE / 2);
+  }
+
   /**
    * Returns whether the {@code TraceId} is valid. A valid trace identifier is a 16-byte array with
    * at least one non-zero byte.
@@ -179,13 +274,20 @@ public final class TraceId implements Comparable<TraceId> {
   /**
    * Returns the lowercase base16 encoding of this {@code TraceId}.
    *
+   * <p>The encoding is computed on the first call and then reused.
+   *
    * @return the lowercase base16 encoding of this {@code TraceId}.
    * @since 0.1.0
    */
   public String toLowerBase16() {
-    char[] chars = new char[BASE16_SIZE];
-    copyLowerBase16To(chars, 0);
-    return new String(chars);
+    String result = lowerBase16;
+    if (result == null) {
+      char[] chars = new char[BASE16_SIZE];
+      copyLowerBase16To(chars, 0);
+      result = new String(chars);
+      lowerBase16 = result;
+    }
+    return result;
   }
 
   @Override
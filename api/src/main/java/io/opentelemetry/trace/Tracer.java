@@ -29,10 +29,12 @@ import javax.annotation.concurrent.ThreadSafe;
  * <p>Users may choose to use manual or automatic Context propagation. Because of that this class
  * offers APIs to facilitate both usages.
  *
- * <p>The automatic context propagation is done using {@link io.grpc.Context} which is a gRPC
- * independent implementation for in-process Context propagation mechanism which can carry
- * scoped-values across API boundaries and between threads. Users of the library must propagate the
- * {@link io.grpc.Context} between different threads.
+ * <p>The automatic context propagation is done using the {@link
+ * io.opentelemetry.context.ContextStorage}, by default a thread-local slot per kind of value. Users
+ * of the library must propagate the current {@link Span} between different threads, or select the
+ * {@link io.opentelemetry.context.GrpcContextStorage} to carry it in the {@link io.grpc.Context}, a
+ * gRPC independent implementation for in-process Context propagation which can carry scoped-values
+ * across API boundaries and between threads.
  *
  * <p>Example usage with automatic context propagation:
  *
@@ -45,6 +45,12 @@ public abstract class Tracestate {
   private static final int VALUE_MAX_SIZE = 256;
   private static final int MAX_KEY_VALUE_PAIRS = 32;
   private static final Tracestate DEFAULT = Tracestate.builder().build();
+  private static final char KEY_VALUE_DELIMITER = '=';
+  private static final char ENTRY_DELIMITER = ',';
+
+  // Lazily computed encoding, racy single-check like String.hashCode because the result is always
+  // the same immutable String.
+  @javax.annotation.Nullable private String encoding;
 
   /**
    * Returns the default {@code Tracestate} with no entries.
@@ -83,6 +89,41 @@ public abstract class Tracestate {
    */
   public abstract List<Entry> getEntries();
 
+  /**
+   * Returns the entries encoded as a comma-separated list of {@code key=value} pairs, in the order
+   * of {@link #getEntries()}, as in the W3C {@code tracestate} header (e.g. {@code
+   * "congo=t61rcWkgMzE,rojo=00f067aa0ba902b7"}). The encoding is computed once for every instance.
+   *
+   * @return the entries encoded as a comma-separated list of {@code key=value} pairs.
+   * @since 0.1.0
+   */
+  public String encode() {
+    String result = encoding;
+    if (result == null) {
+      result = encode(getEntries());
+      encoding = result;
+    }
+    return result;
+  }
+
+  private static String encode(List<Entry> entries) {
+    // Compute the exact size, so the encoding is built without growing the buffer.
+    int size = Math.max(entries.size() - 1, 0);
+    for (int i = 0; i < entries.size(); i++) {
+      Entry entry = entries.get(i);
+      size += entry.getKey().length() + 1 + entry.getValue().length();
+    }
+    StringBuilder stringBuilder = new StringBuilder(size);
+    for (int i = 0; i < entries.size(); i++) {
+      Entry entry = entries.get(i);
+      if (i != 0) {
+        stringBuilder.append(ENTRY_DELIMITER);
+      }
+      stringBuilder.append(entry.getKey()).append(KEY_VALUE_DELIMITER).append(entry.getValue());
+    }
+    return stringBuilder.toString();
+  }
+
   /**
    * Returns a {@code Builder} based on an empty {@code Tracestate}.
    *
@@ -110,7 +151,8 @@ public abstract class Tracestate {
    */
   public static final class Builder {
     private final Tracestate parent;
-    @javax.annotation.Nullable private ArrayList<Entry> entries;
+    // The entries in reverse order, so that adding an entry in front of the list is an append.
+    @javax.annotation.Nullable private ArrayList<Entry> reversedEntries;
 
     // Needs to be in this class to avoid initialization deadlock because super class depends on
     // subclass (the auto-value generate class).
@@ -119,7 +161,7 @@ public abstract class Tracestate {
     private Builder(Tracestate parent) {
       Utils.checkNotNull(parent, "parent");
       this.parent = parent;
-      this.entries = null;
+      this.reversedEntries = null;
     }
 
     /**
@@ -131,23 +173,13 @@ public abstract class Tracestate {
      * @return this.
      * @since 0.1.0
      */
-    @SuppressWarnings("nullness")
     public Builder set(String key, String value) {
       // Initially create the Entry to validate input.
       Entry entry = Entry.create(key, value);
-      if (entries == null) {
-        // Copy entries from the parent.
-        entries = new ArrayList<>(parent.getEntries());
-      }
-      for (int i = 0; i < entries.size(); i++) {
-        if (entries.get(i).getKey().equals(entry.getKey())) {
-          entries.remove(i);
-          // Exit now because the entries list cannot contain duplicates.
-          break;
-        }
-      }
-      // Inserts the element at the front of this list.
-      entries.add(0, entry);
+      ArrayList<Entry> entries = getReversedEntries();
+      removeKey(entries, entry.getKey());
+      // Adds the element at the front of the list of entries.
+      entries.add(entry);
       return this;
     }
 
@@ -158,20 +190,9 @@ public abstract class Tracestate {
      * @return this.
      * @since 0.1.0
      */
-    @SuppressWarnings("nullness")
     public Builder remove(String key) {
       Utils.checkNotNull(key, "key");
-      if (entries == null) {
-        // Copy entries from the parent.
-        entries = new ArrayList<>(parent.getEntries());
-      }
-      for (int i = 0; i < entries.size(); i++) {
-        if (entries.get(i).getKey().equals(key)) {
-          entries.remove(i);
-          // Exit now because the entries list cannot contain duplicates.
-          break;
-        }
-      }
+      removeKey(getReversedEntries(), key);
       return this;
     }
 
@@ -183,11 +204,39 @@ public abstract class Tracestate {
      * @since 0.1.0
      */
     public Tracestate build() {
-      if (entries == null) {
+      if (reversedEntries == null) {
         return parent;
       }
+      ArrayList<Entry> entries = new ArrayList<>(reversedEntries.size());
+      for (int i = reversedEntries.size() - 1; i >= 0; i--) {
+        entries.add(reversedEntries.get(i));
+      }
       return Tracestate.create(entries);
     }
+
+    private ArrayList<Entry> getReversedEntries() {
+      ArrayList<Entry> entries = reversedEntries;
+      if (entries == null) {
+        // Copy entries from the parent.
+        List<Entry> parentEntries = parent.getEntries();
+        entries = new ArrayList<>(Math.max(parentEntries.size() + 1, 4));
+        for (int i = parentEntries.size() - 1; i >= 0; i--) {
+          entries.add(parentEntries.get(i));
+        }
+        reversedEntries = entries;
+      }
+      return entries;
+    }
+
+    private static void removeKey(ArrayList<Entry> entries, String key) {
+      for (int i = 0; i < entries.size(); i++) {
+        if (entries.get(i).getKey().equals(key)) {
+          entries.remove(i);
+          // Exit now because the entries list cannot contain duplicates.
+          return;
+        }
+      }
+    }
   }
 
   /**
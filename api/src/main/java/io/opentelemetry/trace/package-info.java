@@ -26,8 +26,8 @@
  * <p>{@link io.opentelemetry.trace.Span} represents a single operation within a trace.
  *
  * <p>{@link io.opentelemetry.trace.Span Spans} are propagated in-process in the {@code
- * io.grpc.Context} and between process using one of the wire propagation formats supported in the
- * {@code opentelemetry.trace.propagation} package.
+ * io.opentelemetry.context.ContextStorage} and between process using one of the wire propagation
+ * formats supported in the {@code opentelemetry.trace.propagation} package.
  */
 // TODO: Add code examples.
 package io.opentelemetry.trace;
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static io.opentelemetry.internal.Utils.checkArgument;
+
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+
+/** Encoding of the identifiers and of the sampling state shared by the B3 formats. */
+final class B3Encoding {
+  static final int TRACE_ID_HEX_SIZE = 2 * TraceId.getSize();
+  // B3 also allows 64-bit trace ids, which are left-padded with zeros.
+  static final int SHORT_TRACE_ID_HEX_SIZE = TRACE_ID_HEX_SIZE / 2;
+  static final int SPAN_ID_HEX_SIZE = 2 * SpanId.getSize();
+  static final char SAMPLED = '1';
+  static final char NOT_SAMPLED = '0';
+  static final char DEBUG = 'd';
+  static final TraceFlags SAMPLED_FLAGS = TraceFlags.builder().setIsSampled(true).build();
+  static final TraceFlags NOT_SAMPLED_FLAGS = TraceFlags.getDefault();
+
+  private static final String SHORT_TRACE_ID_PADDING = "0000000000000000";
+
+  /**
+   * Parses a 32 or 16 characters trace id in {@code [start, end)}.
+   *
+   * @throws IllegalArgumentException if the trace id is not valid.
+   */
+  static TraceId parseTraceId(String value, int start, int end) {
+    int length = end - start;
+    if (length == TRACE_ID_HEX_SIZE) {
+      return TraceId.fromLowerBase16(value, start);
+    }
+    checkArgument(length == SHORT_TRACE_ID_HEX_SIZE, "Invalid trace id length.");
+    return TraceId.fromLowerBase16(
+        SHORT_TRACE_ID_PADDING + value.substring(start, end), /* srcOffset= */ 0);
+  }
+
+  /**
+   * Parses a 16 characters span id in {@code [start, end)}.
+   *
+   * @throws IllegalArgumentException if the span id is not valid.
+   */
+  static SpanId parseSpanId(String value, int start, int end) {
+    checkArgument(end - start == SPAN_ID_HEX_SIZE, "Invalid span id length.");
+    return SpanId.fromLowerBase16(value, start);
+  }
+
+  static TraceFlags traceFlags(boolean sampled) {
+    return sampled ? SAMPLED_FLAGS : NOT_SAMPLED_FLAGS;
+  }
+
+  private B3Encoding() {}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Implementation of the B3 propagation protocol with one header per field. See <a
+ * href=https://github.com/openzipkin/b3-propagation>openzipkin/b3-propagation</a>.
+ *
+ * <p>The trace id is always injected with 32 characters, 16 characters trace ids are accepted when
+ * extracting. The debug flag is extracted as sampled, the parent span id is ignored.
+ */
+@Immutable
+public class B3MultiHeaderFormat implements HttpTextFormat<SpanContext> {
+  static final String TRACE_ID_HEADER = "X-B3-TraceId";
+  static final String SPAN_ID_HEADER = "X-B3-SpanId";
+  static final String SAMPLED_HEADER = "X-B3-Sampled";
+  static final String FLAGS_HEADER = "X-B3-Flags";
+  private static final List<String> FIELDS =
+      Collections.unmodifiableList(
+          Arrays.asList(TRACE_ID_HEADER, SPAN_ID_HEADER, SAMPLED_HEADER, FLAGS_HEADER));
+  private static final String SAMPLED = String.valueOf(B3Encoding.SAMPLED);
+  private static final String NOT_SAMPLED = String.valueOf(B3Encoding.NOT_SAMPLED);
+  // Older implementations send "true" instead of "1".
+  private static final String SAMPLED_TRUE = "true";
+
+  @Override
+  public List<String> fields() {
+    return FIELDS;
+  }
+
+  @Override
+  public <C> void inject(SpanContext spanContext, C carrier, Setter<C> setter) {
+    checkNotNull(spanContext, "spanContext");
+    checkNotNull(setter, "setter");
+    checkNotNull(carrier, "carrier");
+    char[] traceId = new char[B3Encoding.TRACE_ID_HEX_SIZE];
+    spanContext.getTraceId().copyLowerBase16To(traceId, 0);
+    setter.put(carrier, TRACE_ID_HEADER, new String(traceId));
+    char[] spanId = new char[B3Encoding.SPAN_ID_HEX_SIZE];
+    spanContext.getSpanId().copyLowerBase16To(spanId, 0);
+    setter.put(carrier, SPAN_ID_HEADER, new String(spanId));
+    setter.put(
+        carrier, SAMPLED_HEADER, spanContext.getTraceFlags().isSampled() ? SAMPLED : NOT_SAMPLED);
+  }
+
+  @Override
+  public <C> SpanContext extract(C carrier, Getter<C> getter) {
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+    String traceIdHeader = getter.get(carrier, TRACE_ID_HEADER);
+    if (traceIdHeader == null) {
+      throw new IllegalArgumentException(TRACE_ID_HEADER + " not present");
+    }
+    String spanIdHeader = getter.get(carrier, SPAN_ID_HEADER);
+    if (spanIdHeader == null) {
+      throw new IllegalArgumentException(SPAN_ID_HEADER + " not present");
+    }
+    TraceId traceId;
+    SpanId spanId;
+    try {
+      traceId = B3Encoding.parseTraceId(traceIdHeader, 0, traceIdHeader.length());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid " + TRACE_ID_HEADER + ": " + traceIdHeader, e);
+    }
+    try {
+      spanId = B3Encoding.parseSpanId(spanIdHeader, 0, spanIdHeader.length());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid " + SPAN_ID_HEADER + ": " + spanIdHeader, e);
+    }
+    boolean sampled =
+        SAMPLED.equals(getter.get(carrier, FLAGS_HEADER))
+            || isSampled(getter.get(carrier, SAMPLED_HEADER));
+    return SpanContext.create(
+        traceId, spanId, B3Encoding.traceFlags(sampled), Tracestate.getDefault());
+  }
+
+  private static boolean isSampled(@Nullable String sampled) {
+    return SAMPLED.equals(sampled) || SAMPLED_TRUE.equals(sampled);
+  }
+}
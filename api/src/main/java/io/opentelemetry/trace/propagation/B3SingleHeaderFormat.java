@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static io.opentelemetry.internal.Utils.checkArgument;
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Implementation of the B3 propagation protocol in the single {@code b3} header. See <a
+ * href=https://github.com/openzipkin/b3-propagation>openzipkin/b3-propagation</a>.
+ *
+ * <p>The header is {@code {TraceId}-{SpanId}-{SamplingState}-{ParentSpanId}}, where the last two
+ * fields are optional. The trace id is always injected with 32 characters, 16 characters trace ids
+ * are accepted when extracting. The debug sampling state is extracted as sampled, the parent span
+ * id is ignored.
+ */
+@Immutable
+public class B3SingleHeaderFormat implements HttpTextFormat<SpanContext> {
+  static final String B3 = "b3";
+  private static final List<String> FIELDS = Collections.singletonList(B3);
+  private static final char DELIMITER = '-';
+  private static final int SPAN_ID_OFFSET = B3Encoding.TRACE_ID_HEX_SIZE + 1;
+  private static final int SAMPLING_STATE_OFFSET = SPAN_ID_OFFSET + B3Encoding.SPAN_ID_HEX_SIZE + 1;
+  private static final int HEADER_SIZE = SAMPLING_STATE_OFFSET + 1;
+
+  @Override
+  public List<String> fields() {
+    return FIELDS;
+  }
+
+  @Override
+  public <C> void inject(SpanContext spanContext, C carrier, Setter<C> setter) {
+    checkNotNull(spanContext, "spanContext");
+    checkNotNull(setter, "setter");
+    checkNotNull(carrier, "carrier");
+    char[] chars = new char[HEADER_SIZE];
+    spanContext.getTraceId().copyLowerBase16To(chars, 0);
+    chars[SPAN_ID_OFFSET - 1] = DELIMITER;
+    spanContext.getSpanId().copyLowerBase16To(chars, SPAN_ID_OFFSET);
+    chars[SAMPLING_STATE_OFFSET - 1] = DELIMITER;
+    chars[SAMPLING_STATE_OFFSET] =
+        spanContext.getTraceFlags().isSampled() ? B3Encoding.SAMPLED : B3Encoding.NOT_SAMPLED;
+    setter.put(carrier, B3, new String(chars));
+  }
+
+  @Override
+  public <C> SpanContext extract(C carrier, Getter<C> getter) {
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+    String b3 = getter.get(carrier, B3);
+    if (b3 == null) {
+      throw new IllegalArgumentException("b3 not present");
+    }
+    try {
+      int traceIdEnd = b3.indexOf(DELIMITER);
+      // A header with only the sampling state does not carry a span context.
+      checkArgument(traceIdEnd != -1, "Missing span id.");
+      int spanIdEnd = b3.indexOf(DELIMITER, traceIdEnd + 1);
+      if (spanIdEnd == -1) {
+        spanIdEnd = b3.length();
+      }
+      TraceId traceId = B3Encoding.parseTraceId(b3, 0, traceIdEnd);
+      SpanId spanId = B3Encoding.parseSpanId(b3, traceIdEnd + 1, spanIdEnd);
+      boolean sampled = false;
+      if (spanIdEnd < b3.length()) {
+        // The sampling state is a single character, optionally followed by the parent span id.
+        int samplingStateEnd = spanIdEnd + 2;
+        checkArgument(
+            samplingStateEnd == b3.length()
+                || (samplingStateEnd < b3.length() && b3.charAt(samplingStateEnd) == DELIMITER),
+            "Invalid sampling state.");
+        char samplingState = b3.charAt(spanIdEnd + 1);
+        checkArgument(
+            samplingState == B3Encoding.SAMPLED
+                || samplingState == B3Encoding.NOT_SAMPLED
+                || samplingState == B3Encoding.DEBUG,
+            "Invalid sampling state.");
+        sampled = samplingState != B3Encoding.NOT_SAMPLED;
+      }
+      return SpanContext.create(
+          traceId, spanId, B3Encoding.traceFlags(sampled), Tracestate.getDefault());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid b3: " + b3, e);
+    }
+  }
+}
@@ -23,6 +23,7 @@ import io.opentelemetry.trace.SpanId;
 import io.opentelemetry.trace.TraceFlags;
 import io.opentelemetry.trace.TraceId;
 import io.opentelemetry.trace.Tracestate;
+import java.nio.ByteBuffer;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -97,13 +98,7 @@ public final class BinaryTraceContext implements BinaryFormat<SpanContext> {
   public byte[] toByteArray(SpanContext spanContext) {
     Utils.checkNotNull(spanContext, "spanContext");
     byte[] bytes = new byte[ALL_FORMAT_LENGTH];
-    bytes[VERSION_ID_OFFSET] = VERSION_ID;
-    bytes[TRACE_ID_FIELD_ID_OFFSET] = TRACE_ID_FIELD_ID;
-    spanContext.getTraceId().copyBytesTo(bytes, TRACE_ID_OFFSET);
-    bytes[SPAN_ID_FIELD_ID_OFFSET] = SPAN_ID_FIELD_ID;
-    spanContext.getSpanId().copyBytesTo(bytes, SPAN_ID_OFFSET);
-    bytes[TRACE_OPTION_FIELD_ID_OFFSET] = TRACE_OPTION_FIELD_ID;
-    spanContext.getTraceFlags().copyBytesTo(bytes, TRACE_OPTIONS_OFFSET);
+    writeTo(spanContext, ByteBuffer.wrap(bytes));
     return bytes;
   }
 
@@ -111,10 +106,41 @@ public final class BinaryTraceContext implements BinaryFormat<SpanContext> {
   @Override
   public SpanContext fromByteArray(byte[] bytes) {
     Utils.checkNotNull(bytes, "bytes");
-    if (bytes.length == 0 || bytes[0] != VERSION_ID) {
+    return readFrom(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public int serializedSize(SpanContext spanContext) {
+    Utils.checkNotNull(spanContext, "spanContext");
+    return ALL_FORMAT_LENGTH;
+  }
+
+  @Override
+  public void writeTo(SpanContext spanContext, ByteBuffer dest) {
+    Utils.checkNotNull(spanContext, "spanContext");
+    Utils.checkNotNull(dest, "dest");
+    Utils.checkArgument(dest.remaining() >= ALL_FORMAT_LENGTH, "buffer too small");
+    // Absolute writes, the position is only advanced once at the end.
+    int start = dest.position();
+    dest.put(start + VERSION_ID_OFFSET, VERSION_ID);
+    dest.put(start + TRACE_ID_FIELD_ID_OFFSET, TRACE_ID_FIELD_ID);
+    spanContext.getTraceId().copyBytesTo(dest, start + TRACE_ID_OFFSET);
+    dest.put(start + SPAN_ID_FIELD_ID_OFFSET, SPAN_ID_FIELD_ID);
+    spanContext.getSpanId().copyBytesTo(dest, start + SPAN_ID_OFFSET);
+    dest.put(start + TRACE_OPTION_FIELD_ID_OFFSET, TRACE_OPTION_FIELD_ID);
+    dest.put(start + TRACE_OPTIONS_OFFSET, spanContext.getTraceFlags().getByte());
+    dest.position(start + ALL_FORMAT_LENGTH);
+  }
+
+  @Override
+  public SpanContext readFrom(ByteBuffer src) {
+    Utils.checkNotNull(src, "src");
+    int start = src.position();
+    int length = src.remaining();
+    if (length == 0 || src.get(start) != VERSION_ID) {
       throw new IllegalArgumentException("Unsupported version.");
     }
-    if (bytes.length < REQUIRED_FORMAT_LENGTH) {
+    if (length < REQUIRED_FORMAT_LENGTH) {
       throw new IllegalArgumentException("Invalid input: truncated");
     }
     // TODO: the following logic assumes that fields are written in ID order. The spec does not say
@@ -123,15 +149,15 @@ public final class BinaryTraceContext implements BinaryFormat<SpanContext> {
     SpanId spanId;
     TraceFlags traceFlags = TraceFlags.getDefault();
     int pos = 1;
-    if (bytes[pos] == TRACE_ID_FIELD_ID) {
-      traceId = TraceId.fromBytes(bytes, pos + ID_SIZE);
+    if (src.get(start + pos) == TRACE_ID_FIELD_ID) {
+      traceId = TraceId.fromBytes(src, start + pos + ID_SIZE);
       pos += ID_SIZE + TraceId.getSize();
     } else {
       // TODO: update the spec to suggest that the trace ID is not actually optional
       throw new IllegalArgumentException("Invalid input: expected trace ID at offset " + pos);
     }
-    if (bytes[pos] == SPAN_ID_FIELD_ID) {
-      spanId = SpanId.fromBytes(bytes, pos + ID_SIZE);
+    if (src.get(start + pos) == SPAN_ID_FIELD_ID) {
+      spanId = SpanId.fromBytes(src, start + pos + ID_SIZE);
       pos += ID_SIZE + SpanId.getSize();
     } else {
       // TODO: update the spec to suggest that the span ID is not actually optional.
@@ -140,11 +166,11 @@ public final class BinaryTraceContext implements BinaryFormat<SpanContext> {
     // Check to see if we are long enough to include an options field, and also that the next field
     // is an options field. Per spec we simply stop parsing at first unknown field instead of
     // failing.
-    if (bytes.length > pos && bytes[pos] == TRACE_OPTION_FIELD_ID) {
-      if (bytes.length < ALL_FORMAT_LENGTH) {
+    if (length > pos && src.get(start + pos) == TRACE_OPTION_FIELD_ID) {
+      if (length < ALL_FORMAT_LENGTH) {
         throw new IllegalArgumentException("Invalid input: truncated");
       }
-      traceFlags = TraceFlags.fromByte(bytes[pos + ID_SIZE]);
+      traceFlags = TraceFlags.fromByte(src.get(start + pos + ID_SIZE));
     }
     return SpanContext.create(traceId, spanId, traceFlags, TRACESTATE_DEFAULT);
   }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static io.opentelemetry.internal.Utils.checkArgument;
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.SpanContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An {@link HttpTextFormat} that combines several formats, for example to accept both the W3C
+ * {@link HttpTraceContext} and the B3 headers during a migration.
+ *
+ * <p>{@link #inject(SpanContext, Object, Setter)} injects the {@code SpanContext} with every
+ * format. {@link #extract(Object, Getter)} tries the formats in priority order and returns the
+ * first {@code SpanContext} extracted. Every header is fetched from the carrier at most once per
+ * extraction, whatever the number of formats that read it, and formats without any of their {@link
+ * #fields()} in the carrier are skipped without calling them.
+ *
+ * @since 0.1.0
+ */
+@Immutable
+public final class CompositeHttpTextFormat implements HttpTextFormat<SpanContext> {
+  private final List<HttpTextFormat<SpanContext>> formats;
+  private final List<String> fields;
+
+  private CompositeHttpTextFormat(List<HttpTextFormat<SpanContext>> formats, List<String> fields) {
+    this.formats = formats;
+    this.fields = fields;
+  }
+
+  /**
+   * Returns a new {@code CompositeHttpTextFormat} with the given formats.
+   *
+   * @param formats the formats, in priority order for the extraction.
+   * @return a new {@code CompositeHttpTextFormat} with the given formats.
+   * @throws NullPointerException if {@code formats} or one of its elements is {@code null}.
+   * @throws IllegalArgumentException if {@code formats} is empty.
+   * @since 0.1.0
+   */
+  public static CompositeHttpTextFormat create(
+      List<? extends HttpTextFormat<SpanContext>> formats) {
+    checkNotNull(formats, "formats");
+    checkArgument(!formats.isEmpty(), "formats is empty.");
+    List<HttpTextFormat<SpanContext>> formatsCopy = new ArrayList<>(formats.size());
+    List<String> fields = new ArrayList<>();
+    for (HttpTextFormat<SpanContext> format : formats) {
+      formatsCopy.add(checkNotNull(format, "format"));
+      for (String field : format.fields()) {
+        if (!fields.contains(field)) {
+          fields.add(field);
+        }
+      }
+    }
+    return new CompositeHttpTextFormat(
+        Collections.unmodifiableList(formatsCopy), Collections.unmodifiableList(fields));
+  }
+
+  @Override
+  public List<String> fields() {
+    return fields;
+  }
+
+  @Override
+  public <C> void inject(SpanContext spanContext, C carrier, Setter<C> setter) {
+    checkNotNull(spanContext, "spanContext");
+    checkNotNull(setter, "setter");
+    checkNotNull(carrier, "carrier");
+    for (int i = 0; i < formats.size(); i++) {
+      formats.get(i).inject(spanContext, carrier, setter);
+    }
+  }
+
+  @Override
+  public <C> SpanContext extract(C carrier, Getter<C> getter) {
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+    FieldCache<C> fieldCache = new FieldCache<>(fields, getter);
+    IllegalArgumentException failure = null;
+    for (int i = 0; i < formats.size(); i++) {
+      HttpTextFormat<SpanContext> format = formats.get(i);
+      if (!fieldCache.containsAny(carrier, format.fields())) {
+        continue;
+      }
+      try {
+        return format.extract(carrier, fieldCache);
+      } catch (IllegalArgumentException e) {
+        // Keep the failure of the format with the highest priority.
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    throw new IllegalArgumentException("No format could extract the SpanContext.", failure);
+  }
+
+  // Getter that remembers the values of the composite fields fetched during one extraction.
+  private static final class FieldCache<C> implements Getter<C> {
+    private final List<String> fields;
+    private final Getter<C> getter;
+    private final String[] values;
+    private final boolean[] fetched;
+
+    private FieldCache(List<String> fields, Getter<C> getter) {
+      this.fields = fields;
+      this.getter = getter;
+      this.values = new String[fields.size()];
+      this.fetched = new boolean[fields.size()];
+    }
+
+    @Nullable
+    @Override
+    public String get(C carrier, String key) {
+      int index = fields.indexOf(key);
+      if (index == -1) {
+        // Not declared in fields(), not worth caching.
+        return getter.get(carrier, key);
+      }
+      if (!fetched[index]) {
+        values[index] = getter.get(carrier, key);
+        fetched[index] = true;
+      }
+      return values[index];
+    }
+
+    private boolean containsAny(C carrier, List<String> keys) {
+      for (int i = 0; i < keys.size(); i++) {
+        if (get(carrier, keys.get(i)) != null) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
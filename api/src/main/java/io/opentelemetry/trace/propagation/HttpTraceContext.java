@@ -19,24 +19,27 @@ package io.opentelemetry.trace.propagation;
 import static io.opentelemetry.internal.Utils.checkArgument;
 import static io.opentelemetry.internal.Utils.checkNotNull;
 
-import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.context.propagation.ByteHttpTextFormat;
 import io.opentelemetry.trace.SpanContext;
 import io.opentelemetry.trace.SpanId;
 import io.opentelemetry.trace.TraceFlags;
 import io.opentelemetry.trace.TraceId;
 import io.opentelemetry.trace.Tracestate;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 import javax.annotation.concurrent.Immutable;
 
 /**
  * Implementation of the TraceContext propagation protocol. See <a
  * href=https://github.com/w3c/distributed-tracing>w3c/distributed-tracing</a>.
+ *
+ * <p>Carriers that hold the headers as bytes can use the {@link ByteHttpTextFormat} methods, which
+ * write and parse the {@code traceparent} header without intermediate {@code String} values.
  */
 @Immutable
-public class HttpTraceContext implements HttpTextFormat<SpanContext> {
+public class HttpTraceContext implements ByteHttpTextFormat<SpanContext> {
   private static final Tracestate TRACESTATE_DEFAULT = Tracestate.builder().build();
   static final String TRACEPARENT = "traceparent";
   static final String TRACESTATE = "tracestate";
@@ -58,10 +61,12 @@ public class HttpTraceContext implements HttpTextFormat<SpanContext> {
   private static final int TRACEPARENT_HEADER_SIZE = TRACE_OPTION_OFFSET + TRACE_OPTION_HEX_SIZE;
   private static final int TRACESTATE_MAX_SIZE = 512;
   private static final int TRACESTATE_MAX_MEMBERS = 32;
+  // Upstream services mostly send the same few tracestate values, parse each of them only once.
+  private static final int TRACESTATE_CACHE_SIZE = 64;
+  private static final TracestateCache TRACESTATE_CACHE =
+      new TracestateCache(TRACESTATE_CACHE_SIZE, TRACESTATE_MAX_SIZE);
   private static final char TRACESTATE_KEY_VALUE_DELIMITER = '=';
   private static final char TRACESTATE_ENTRY_DELIMITER = ',';
-  private static final Pattern TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN =
-      Pattern.compile("[ \t]*" + TRACESTATE_ENTRY_DELIMITER + "[ \t]*");
 
   @Override
   public List<String> fields() {
@@ -83,22 +88,42 @@ public class HttpTraceContext implements HttpTextFormat<SpanContext> {
     chars[TRACE_OPTION_OFFSET - 1] = TRACEPARENT_DELIMITER;
     spanContext.getTraceFlags().copyLowerBase16To(chars, TRACE_OPTION_OFFSET);
     setter.put(carrier, TRACEPARENT, new String(chars));
-    List<Tracestate.Entry> entries = spanContext.getTracestate().getEntries();
-    if (entries.isEmpty()) {
+    Tracestate tracestate = spanContext.getTracestate();
+    if (tracestate.getEntries().isEmpty()) {
       // No need to add an empty "tracestate" header.
       return;
     }
-    StringBuilder stringBuilder = new StringBuilder(TRACESTATE_MAX_SIZE);
-    for (Tracestate.Entry entry : entries) {
-      if (stringBuilder.length() != 0) {
-        stringBuilder.append(TRACESTATE_ENTRY_DELIMITER);
-      }
-      stringBuilder
-          .append(entry.getKey())
-          .append(TRACESTATE_KEY_VALUE_DELIMITER)
-          .append(entry.getValue());
+    setter.put(carrier, TRACESTATE, tracestate.encode());
+  }
+
+  @Override
+  public <C> void injectBytes(SpanContext spanContext, C carrier, ByteSetter<C> setter) {
+    checkNotNull(spanContext, "spanContext");
+    checkNotNull(setter, "setter");
+    checkNotNull(carrier, "carrier");
+    ByteBuffer traceparent = setter.put(carrier, TRACEPARENT, TRACEPARENT_HEADER_SIZE);
+    int start = traceparent.position();
+    traceparent.put(start, (byte) VERSION.charAt(0));
+    traceparent.put(start + 1, (byte) VERSION.charAt(1));
+    traceparent.put(start + 2, (byte) TRACEPARENT_DELIMITER);
+    spanContext.getTraceId().copyLowerBase16To(traceparent, start + TRACE_ID_OFFSET);
+    traceparent.put(start + SPAN_ID_OFFSET - 1, (byte) TRACEPARENT_DELIMITER);
+    spanContext.getSpanId().copyLowerBase16To(traceparent, start + SPAN_ID_OFFSET);
+    traceparent.put(start + TRACE_OPTION_OFFSET - 1, (byte) TRACEPARENT_DELIMITER);
+    spanContext.getTraceFlags().copyLowerBase16To(traceparent, start + TRACE_OPTION_OFFSET);
+    traceparent.position(start + TRACEPARENT_HEADER_SIZE);
+    Tracestate tracestate = spanContext.getTracestate();
+    if (tracestate.getEntries().isEmpty()) {
+      // No need to add an empty "tracestate" header.
+      return;
+    }
+    // The encoding is computed once for every Tracestate.
+    String encoded = tracestate.encode();
+    ByteBuffer buffer = setter.put(carrier, TRACESTATE, encoded.length());
+    for (int i = 0; i < encoded.length(); i++) {
+      // Tracestate only allows printable ASCII characters.
+      buffer.put((byte) encoded.charAt(i));
     }
-    setter.put(carrier, TRACESTATE, stringBuilder.toString());
   }
 
   @Override
@@ -136,22 +161,107 @@ public class HttpTraceContext implements HttpTextFormat<SpanContext> {
       if (tracestate == null || tracestate.isEmpty()) {
         return SpanContext.create(traceId, spanId, traceFlags, TRACESTATE_DEFAULT);
       }
-      Tracestate.Builder tracestateBuilder = Tracestate.builder();
-      String[] listMembers = TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN.split(tracestate);
+      return SpanContext.create(traceId, spanId, traceFlags, getTracestate(tracestate));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid tracestate: " + tracestate, e);
+    }
+  }
+
+  @Override
+  public <C> SpanContext extractBytes(C carrier, ByteGetter<C> getter) {
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+    TraceId traceId;
+    SpanId spanId;
+    TraceFlags traceFlags;
+    ByteBuffer traceparent = getter.get(carrier, TRACEPARENT);
+    if (traceparent == null) {
+      throw new IllegalArgumentException("Traceparent not present");
+    }
+    int start = traceparent.position();
+    int length = traceparent.remaining();
+    try {
       checkArgument(
-          listMembers.length <= TRACESTATE_MAX_MEMBERS, "Tracestate has too many elements.");
-      // Iterate in reverse order because when call builder set the elements is added in the
-      // front of the list.
-      for (int i = listMembers.length - 1; i >= 0; i--) {
-        String listMember = listMembers[i];
-        int index = listMember.indexOf(TRACESTATE_KEY_VALUE_DELIMITER);
-        checkArgument(index != -1, "Invalid tracestate list-member format.");
-        tracestateBuilder.set(
-            listMember.substring(0, index), listMember.substring(index + 1, listMember.length()));
-      }
-      return SpanContext.create(traceId, spanId, traceFlags, tracestateBuilder.build());
+          (length == TRACEPARENT_HEADER_SIZE
+                  || (length > TRACEPARENT_HEADER_SIZE
+                      && traceparent.get(start + TRACEPARENT_HEADER_SIZE) == TRACEPARENT_DELIMITER))
+              && traceparent.get(start + SPAN_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
+              && traceparent.get(start + TRACE_OPTION_OFFSET - 1) == TRACEPARENT_DELIMITER,
+          "Missing or malformed TRACEPARENT.");
+
+      traceId = TraceId.fromLowerBase16(traceparent, start + TRACE_ID_OFFSET);
+      spanId = SpanId.fromLowerBase16(traceparent, start + SPAN_ID_OFFSET);
+      traceFlags = TraceFlags.fromLowerBase16(traceparent, start + TRACE_OPTION_OFFSET);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid traceparent: " + toAsciiString(traceparent), e);
+    }
+
+    ByteBuffer tracestateBytes = getter.get(carrier, TRACESTATE);
+    if (tracestateBytes == null || !tracestateBytes.hasRemaining()) {
+      return SpanContext.create(traceId, spanId, traceFlags, TRACESTATE_DEFAULT);
+    }
+    // Tracestate entries hold Strings, the header is converted once and then looked up in the
+    // cache.
+    String tracestate = toAsciiString(tracestateBytes);
+    try {
+      return SpanContext.create(traceId, spanId, traceFlags, getTracestate(tracestate));
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid tracestate: " + tracestate, e);
     }
   }
+
+  private static Tracestate getTracestate(String tracestate) {
+    Tracestate parsed = TRACESTATE_CACHE.get(tracestate);
+    if (parsed == null) {
+      parsed = decodeTracestate(tracestate);
+      TRACESTATE_CACHE.put(tracestate, parsed);
+    }
+    return parsed;
+  }
+
+  // Converts the remaining bytes, non-ASCII bytes end up as invalid characters.
+  private static String toAsciiString(ByteBuffer buffer) {
+    char[] chars = new char[buffer.remaining()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) (buffer.get(buffer.position() + i) & 0xFF);
+    }
+    return new String(chars);
+  }
+
+  // Parses the list-members in a single pass, from the last one to the first one because the
+  // builder adds every new entry in front of the list. Empty list-members are ignored and the
+  // optional white space around the delimiters is trimmed.
+  private static Tracestate decodeTracestate(String tracestate) {
+    Tracestate.Builder tracestateBuilder = Tracestate.builder();
+    int members = 0;
+    int memberEnd = tracestate.length();
+    while (memberEnd >= 0) {
+      int memberStart = tracestate.lastIndexOf(TRACESTATE_ENTRY_DELIMITER, memberEnd - 1) + 1;
+      int start = memberStart;
+      int end = memberEnd;
+      while (start < end && isOptionalWhiteSpace(tracestate.charAt(start))) {
+        start++;
+      }
+      while (end > start && isOptionalWhiteSpace(tracestate.charAt(end - 1))) {
+        end--;
+      }
+      if (start < end) {
+        checkArgument(++members <= TRACESTATE_MAX_MEMBERS, "Tracestate has too many elements.");
+        int delimiter = start;
+        while (delimiter < end && tracestate.charAt(delimiter) != TRACESTATE_KEY_VALUE_DELIMITER) {
+          delimiter++;
+        }
+        checkArgument(delimiter != end, "Invalid tracestate list-member format.");
+        tracestateBuilder.set(
+            tracestate.substring(start, delimiter), tracestate.substring(delimiter + 1, end));
+      }
+      // Skip the delimiter, ends the loop after the first list-member.
+      memberEnd = memberStart - 1;
+    }
+    return tracestateBuilder.build();
+  }
+
+  private static boolean isOptionalWhiteSpace(char c) {
+    return c == ' ' || c == '\t';
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.trace.Tracestate;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A small bounded cache from {@code tracestate} header values to the parsed {@link Tracestate}.
+ *
+ * <p>The cache is direct-mapped: every header value has a single slot chosen by its hash code, and
+ * a new value replaces whatever was in its slot. Lookups and updates are lock-free, which is good
+ * enough because services mostly receive the same few header values again and again.
+ */
+@ThreadSafe
+final class TracestateCache {
+  private final int maxHeaderLength;
+  private final int mask;
+  private final AtomicReferenceArray<CacheEntry> slots;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param size the number of slots, must be a power of two.
+   * @param maxHeaderLength longer header values are not cached, to bound the memory used.
+   */
+  TracestateCache(int size, int maxHeaderLength) {
+    Utils.checkArgument(size > 0 && (size & (size - 1)) == 0, "size must be a power of two.");
+    this.maxHeaderLength = maxHeaderLength;
+    this.mask = size - 1;
+    this.slots = new AtomicReferenceArray<>(size);
+  }
+
+  /**
+   * Returns the {@code Tracestate} cached for the given header value, or {@code null} if not
+   * cached.
+   *
+   * @param header the {@code tracestate} header value.
+   * @return the {@code Tracestate} cached for the given header value, or {@code null}.
+   */
+  @Nullable
+  Tracestate get(String header) {
+    CacheEntry entry = slots.get(slot(header));
+    if (entry != null && entry.header.equals(header)) {
+      return entry.tracestate;
+    }
+    return null;
+  }
+
+  /**
+   * Caches the {@code Tracestate} parsed from the given header value.
+   *
+   * @param header the {@code tracestate} header value.
+   * @param tracestate the {@code Tracestate} parsed from {@code header}.
+   */
+  void put(String header, Tracestate tracestate) {
+    if (header.length() <= maxHeaderLength) {
+      slots.set(slot(header), new CacheEntry(header, tracestate));
+    }
+  }
+
+  private int slot(String header) {
+    int hash = header.hashCode();
+    // Spread the high bits, like HashMap does.
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  @Immutable
+  private static final class CacheEntry {
+    private final String header;
+    private final Tracestate tracestate;
+
+    private CacheEntry(String header, Tracestate tracestate) {
+      this.header = header;
+      this.tracestate = tracestate;
+    }
+  }
+}
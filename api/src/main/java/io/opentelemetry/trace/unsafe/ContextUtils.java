@@ -17,6 +17,7 @@
 package io.opentelemetry.trace.unsafe;
 
 import io.grpc.Context;
+import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
@@ -24,7 +25,11 @@ import io.opentelemetry.trace.Tracer;
 import javax.annotation.concurrent.Immutable;
 
 /**
- * Util methods/functionality to interact with the {@link io.grpc.Context}.
+ * Util methods/functionality to interact with the current {@code Span}.
+ *
+ * <p>The current {@code Span} is kept in the {@link ContextStorage}. The methods that take or
+ * return an {@link io.grpc.Context} only work on the gRPC {@code Context}, which is the current
+ * storage only when {@link io.opentelemetry.context.GrpcContextStorage} is used.
  *
  * <p>Users must interact with the current Context via the public APIs in {@link Tracer} and avoid
  * accessing this class directly.
@@ -35,6 +40,8 @@ import javax.annotation.concurrent.Immutable;
 public final class ContextUtils {
   private static final Context.Key<Span> CONTEXT_SPAN_KEY =
       Context.<Span>keyWithDefault("opentelemetry-trace-span-key", DefaultSpan.getInvalid());
+  private static final ContextStorage.Slot<Span> SPAN_SLOT =
+      ContextStorage.getInstance().createSlot(CONTEXT_SPAN_KEY);
 
   /**
    * Creates a new {@code Context} with the given value set.
@@ -60,13 +67,13 @@ public final class ContextUtils {
   }
 
   /**
-   * Returns the value from the current {@code Context}.
+   * Returns the current value from the {@link ContextStorage}.
    *
-   * @return the value from the specified {@code Context}.
+   * @return the current value from the {@link ContextStorage}.
    * @since 0.1.0
    */
   public static Span getValue() {
-    return CONTEXT_SPAN_KEY.get();
+    return SPAN_SLOT.get();
   }
 
   /**
@@ -81,15 +88,15 @@ public final class ContextUtils {
   }
 
   /**
-   * Returns a new {@link Scope} encapsulating the provided {@code Span} added to the current {@code
-   * Context}.
+   * Returns a new {@link Scope} encapsulating the provided {@code Span} attached to the {@link
+   * ContextStorage}.
    *
-   * @param span the {@code Span} to be added to the current {@code Context}.
-   * @return the {@link Scope} for the updated {@code Context}.
+   * @param span the {@code Span} to be attached to the {@link ContextStorage}.
+   * @return the {@link Scope} of the attached {@code Span}.
    * @since 0.1.0
    */
   public static Scope withSpan(Span span) {
-    return SpanInScope.create(span);
+    return SPAN_SLOT.attach(span);
   }
 
   private ContextUtils() {}
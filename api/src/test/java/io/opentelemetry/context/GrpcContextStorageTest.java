@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.grpc.Context;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link GrpcContextStorage}. */
+@RunWith(JUnit4.class)
+public class GrpcContextStorageTest {
+  private static final Context.Key<String> KEY = Context.keyWithDefault("key", "default");
+
+  private final GrpcContextStorage storage = new GrpcContextStorage();
+  private final ContextStorage.Slot<String> slot = storage.createSlot(KEY);
+
+  @Test
+  public void get_Default() {
+    assertThat(slot.get()).isEqualTo("default");
+  }
+
+  @Test
+  public void attach() {
+    Scope scope = slot.attach("value");
+    try {
+      assertThat(slot.get()).isEqualTo("value");
+      assertThat(KEY.get()).isEqualTo("value");
+    } finally {
+      scope.close();
+    }
+    assertThat(slot.get()).isEqualTo("default");
+  }
+
+  @Test
+  public void get_AttachedWithGrpcContext() {
+    Context orig = Context.current().withValue(KEY, "value").attach();
+    try {
+      assertThat(slot.get()).isEqualTo("value");
+    } finally {
+      Context.current().detach(orig);
+    }
+  }
+
+  @Test
+  public void wrap() throws InterruptedException {
+    final AtomicReference<String> seen = new AtomicReference<>();
+    Runnable runnable;
+    Scope scope = slot.attach("value");
+    try {
+      runnable =
+          storage.wrap(
+              new Runnable() {
+                @Override
+                public void run() {
+                  seen.set(slot.get());
+                }
+              });
+    } finally {
+      scope.close();
+    }
+    Thread thread = new Thread(runnable);
+    thread.start();
+    thread.join();
+    assertThat(seen.get()).isEqualTo("value");
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.grpc.Context;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ThreadLocalContextStorage}. */
+@RunWith(JUnit4.class)
+public class ThreadLocalContextStorageTest {
+  private static final Context.Key<String> KEY = Context.keyWithDefault("key", "default");
+  private static final Context.Key<String> OTHER_KEY = Context.key("other");
+
+  private final ThreadLocalContextStorage storage = new ThreadLocalContextStorage();
+  private final ContextStorage.Slot<String> slot = storage.createSlot(KEY);
+  private final ContextStorage.Slot<String> otherSlot = storage.createSlot(OTHER_KEY);
+
+  @Test
+  public void defaultStorage() {
+    assertThat(ContextStorage.getInstance()).isInstanceOf(ThreadLocalContextStorage.class);
+  }
+
+  @Test
+  public void get_Default() {
+    assertThat(slot.get()).isEqualTo("default");
+    assertThat(otherSlot.get()).isNull();
+  }
+
+  @Test
+  public void attach() {
+    Scope scope = slot.attach("value");
+    try {
+      assertThat(slot.get()).isEqualTo("value");
+      assertThat(otherSlot.get()).isNull();
+      Scope nested = slot.attach("nested");
+      try {
+        assertThat(slot.get()).isEqualTo("nested");
+      } finally {
+        nested.close();
+      }
+      assertThat(slot.get()).isEqualTo("value");
+    } finally {
+      scope.close();
+    }
+    assertThat(slot.get()).isEqualTo("default");
+  }
+
+  @Test
+  public void attach_Null() {
+    Scope scope = slot.attach("value");
+    try {
+      Scope nullScope = slot.attach(null);
+      try {
+        assertThat(slot.get()).isEqualTo("default");
+      } finally {
+        nullScope.close();
+      }
+      assertThat(slot.get()).isEqualTo("value");
+    } finally {
+      scope.close();
+    }
+  }
+
+  @Test
+  public void attach_NotVisibleInGrpcContext() {
+    Scope scope = slot.attach("value");
+    try {
+      assertThat(KEY.get()).isEqualTo("default");
+    } finally {
+      scope.close();
+    }
+  }
+
+  @Test
+  public void attach_NotVisibleInOtherThread() throws InterruptedException {
+    final AtomicReference<String> seen = new AtomicReference<>();
+    Scope scope = slot.attach("value");
+    try {
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  seen.set(slot.get());
+                }
+              });
+      thread.start();
+      thread.join();
+    } finally {
+      scope.close();
+    }
+    assertThat(seen.get()).isEqualTo("default");
+  }
+
+  @Test
+  public void wrap() throws InterruptedException {
+    final AtomicReference<String> seen = new AtomicReference<>();
+    final AtomicReference<String> otherSeen = new AtomicReference<>();
+    Runnable runnable;
+    Scope scope = slot.attach("value");
+    Scope otherScope = otherSlot.attach("other");
+    try {
+      runnable =
+          storage.wrap(
+              new Runnable() {
+                @Override
+                public void run() {
+                  seen.set(slot.get());
+                  otherSeen.set(otherSlot.get());
+                }
+              });
+    } finally {
+      otherScope.close();
+      scope.close();
+    }
+    Thread thread = new Thread(runnable);
+    thread.start();
+    thread.join();
+    assertThat(seen.get()).isEqualTo("value");
+    assertThat(otherSeen.get()).isEqualTo("other");
+  }
+
+  @Test
+  public void wrap_RestoresValues() {
+    Runnable runnable =
+        storage.wrap(
+            new Runnable() {
+              @Override
+              public void run() {
+                assertThat(slot.get()).isEqualTo("default");
+              }
+            });
+    Scope scope = slot.attach("value");
+    try {
+      runnable.run();
+      assertThat(slot.get()).isEqualTo("value");
+    } finally {
+      scope.close();
+    }
+  }
+}
@@ -18,7 +18,7 @@ package io.opentelemetry.distributedcontext;
 
 import static com.google.common.truth.Truth.assertThat;
 
-import io.grpc.Context;
+import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.distributedcontext.unsafe.ContextUtils;
 import java.util.Arrays;
@@ -68,13 +68,13 @@ public final class DefaultDistributedContextManagerTest {
 
   @Test
   public void getCurrentContext_ContextSetToNull() {
-    Context orig = ContextUtils.withValue(null).attach();
+    Scope scope = ContextUtils.withDistributedContext(null);
     try {
       DistributedContext distContext = defaultDistributedContextManager.getCurrentContext();
       assertThat(distContext).isNotNull();
       assertThat(distContext.getEntries()).isEmpty();
     } finally {
-      Context.current().detach(orig);
+      scope.close();
     }
   }
 
@@ -116,7 +116,7 @@ public final class DefaultDistributedContextManagerTest {
       assertThat(defaultDistributedContextManager.getCurrentContext())
           .isSameInstanceAs(DIST_CONTEXT);
       runnable =
-          Context.current()
+          ContextStorage.getInstance()
               .wrap(
                   new Runnable() {
                     @Override
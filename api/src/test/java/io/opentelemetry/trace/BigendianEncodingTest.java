@@ -18,7 +18,10 @@ package io.opentelemetry.trace;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -30,6 +33,7 @@ import org.junit.runners.JUnit4;
 public class BigendianEncodingTest {
   @Rule public ExpectedException thrown = ExpectedException.none();
 
+  private static final Charset US_ASCII = Charset.forName("US-ASCII");
   private static final long FIRST_LONG = 0x1213141516171819L;
   private static final byte[] FIRST_BYTE_ARRAY =
       new byte[] {0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19};
@@ -171,6 +175,29 @@ public class BigendianEncodingTest {
         .isEqualTo(SECOND_LONG);
   }
 
+  @Test
+  public void longFromBase16String_CharArray() {
+    assertThat(BigendianEncoding.longFromBase16String(FIRST_CHAR_ARRAY, 0)).isEqualTo(FIRST_LONG);
+    assertThat(BigendianEncoding.longFromBase16String(BOTH_CHAR_ARRAY, 0)).isEqualTo(FIRST_LONG);
+    assertThat(
+            BigendianEncoding.longFromBase16String(BOTH_CHAR_ARRAY, BigendianEncoding.LONG_BASE16))
+        .isEqualTo(SECOND_LONG);
+  }
+
+  @Test
+  public void longFromBase16String_CharArrayTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("chars too small");
+    BigendianEncoding.longFromBase16String(FIRST_CHAR_ARRAY, 1);
+  }
+
+  @Test
+  public void longFromBase16String_CharArrayUnrecongnizedCharacters() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid character g");
+    BigendianEncoding.longFromBase16String("0123456789gbcdef".toCharArray(), 0);
+  }
+
   @Test
   public void toFromBase16String() {
     toFromBase16StringValidate(0x8000000000000000L);
@@ -180,6 +207,133 @@ public class BigendianEncodingTest {
     toFromBase16StringValidate(0x7FFFFFFFFFFFFFFFL);
   }
 
+  @Test
+  public void longFromBase16Bytes() {
+    ByteBuffer buffer = ByteBuffer.wrap(new String(BOTH_CHAR_ARRAY).getBytes(US_ASCII));
+    assertThat(BigendianEncoding.longFromBase16Bytes(buffer, 0)).isEqualTo(FIRST_LONG);
+    assertThat(BigendianEncoding.longFromBase16Bytes(buffer, BigendianEncoding.LONG_BASE16))
+        .isEqualTo(SECOND_LONG);
+    assertThat(buffer.position()).isEqualTo(0);
+  }
+
+  @Test
+  public void longFromBase16Bytes_InputTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("buffer too small");
+    BigendianEncoding.longFromBase16Bytes(
+        ByteBuffer.wrap(new String(FIRST_CHAR_ARRAY).getBytes(US_ASCII)), 1);
+  }
+
+  @Test
+  public void longFromBase16Bytes_UnrecongnizedCharacters() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid character g");
+    BigendianEncoding.longFromBase16Bytes(
+        ByteBuffer.wrap("0123456789gbcdef".getBytes(US_ASCII)), 0);
+  }
+
+  @Test
+  public void longFromBase16String_AllPairs() {
+    char[] chars = new char[BigendianEncoding.LONG_BASE16];
+    for (int i = 0; i < 256; i++) {
+      long value = 0x0101010101010101L * i;
+      BigendianEncoding.longToBase16String(value, chars, 0);
+      assertThat(BigendianEncoding.longFromBase16String(new String(chars), 0)).isEqualTo(value);
+      assertThat(BigendianEncoding.longFromBase16String(chars, 0)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  public void longFromBase16String_UnrecongnizedLowCharacter() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid character G");
+    BigendianEncoding.longFromBase16String("0123456789aGcdef", 0);
+  }
+
+  @Test
+  public void longFromBase16String_NonAsciiCharacter() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid character " + (char) 0xE9);
+    BigendianEncoding.longFromBase16String("0123456789abcd" + (char) 0xE9 + "f", 0);
+  }
+
+  @Test
+  public void longFromBase16Bytes_Array() {
+    byte[] bytes = new String(BOTH_CHAR_ARRAY).getBytes(US_ASCII);
+    assertThat(BigendianEncoding.longFromBase16Bytes(bytes, 0)).isEqualTo(FIRST_LONG);
+    assertThat(BigendianEncoding.longFromBase16Bytes(bytes, BigendianEncoding.LONG_BASE16))
+        .isEqualTo(SECOND_LONG);
+  }
+
+  @Test
+  public void longFromBase16Bytes_ArrayTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("array too small");
+    BigendianEncoding.longFromBase16Bytes(new String(FIRST_CHAR_ARRAY).getBytes(US_ASCII), 1);
+  }
+
+  @Test
+  public void longFromBase16Bytes_DirectBuffer() {
+    byte[] bytes = new String(BOTH_CHAR_ARRAY).getBytes(US_ASCII);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    assertThat(BigendianEncoding.longFromBase16Bytes(buffer, BigendianEncoding.LONG_BASE16))
+        .isEqualTo(SECOND_LONG);
+  }
+
+  @Test
+  public void longFromBase16Bytes_SlicedBuffer() {
+    byte[] bytes = ("xx" + new String(BOTH_CHAR_ARRAY)).getBytes(US_ASCII);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.position(2);
+    ByteBuffer slice = buffer.slice();
+    assertThat(BigendianEncoding.longFromBase16Bytes(slice, 0)).isEqualTo(FIRST_LONG);
+    assertThat(BigendianEncoding.longFromBase16Bytes(slice.asReadOnlyBuffer(), 0))
+        .isEqualTo(FIRST_LONG);
+  }
+
+  @Test
+  public void longToBase16Bytes_Array() {
+    byte[] bytes = new byte[2 * BigendianEncoding.LONG_BASE16];
+    BigendianEncoding.longToBase16Bytes(FIRST_LONG, bytes, 0);
+    BigendianEncoding.longToBase16Bytes(SECOND_LONG, bytes, BigendianEncoding.LONG_BASE16);
+    assertThat(new String(bytes, US_ASCII)).isEqualTo(new String(BOTH_CHAR_ARRAY));
+  }
+
+  @Test
+  public void longToBase16Bytes_ArrayTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("array too small");
+    BigendianEncoding.longToBase16Bytes(FIRST_LONG, new byte[BigendianEncoding.LONG_BASE16], 1);
+  }
+
+  @Test
+  public void longToBase16Bytes_SlicedBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(BigendianEncoding.LONG_BASE16 + 2);
+    buffer.position(2);
+    BigendianEncoding.longToBase16Bytes(SECOND_LONG, buffer.slice(), 0);
+    assertThat(new String(buffer.array(), 2, BigendianEncoding.LONG_BASE16, US_ASCII))
+        .isEqualTo(new String(SECOND_CHAR_ARRAY));
+  }
+
+  @Test
+  public void longToBase16Bytes() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(2 * BigendianEncoding.LONG_BASE16);
+    BigendianEncoding.longToBase16Bytes(FIRST_LONG, buffer, 0);
+    BigendianEncoding.longToBase16Bytes(SECOND_LONG, buffer, BigendianEncoding.LONG_BASE16);
+    byte[] bytes = new byte[buffer.capacity()];
+    buffer.get(bytes);
+    assertThat(new String(bytes, US_ASCII)).isEqualTo(new String(BOTH_CHAR_ARRAY));
+  }
+
+  @Test
+  public void byteToFromBase16Bytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(BigendianEncoding.BYTE_BASE16);
+    BigendianEncoding.byteToBase16Bytes((byte) 0xA5, buffer, 0);
+    assertThat(buffer.array()).isEqualTo(new byte[] {'a', '5'});
+    assertThat(BigendianEncoding.byteFromBase16Bytes(buffer, 0)).isEqualTo((byte) 0xA5);
+  }
+
   private static void toFromByteArrayValidate(long value) {
     byte[] array = new byte[BigendianEncoding.LONG_BYTES];
     BigendianEncoding.longToByteArray(value, array, 0);
@@ -191,4 +345,41 @@ public class BigendianEncodingTest {
     BigendianEncoding.longToBase16String(value, dest, 0);
     assertThat(BigendianEncoding.longFromBase16String(CharBuffer.wrap(dest), 0)).isEqualTo(value);
   }
+
+  @Test
+  public void longFromByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BOTH_BYTE_ARRAY.length);
+    buffer.put(BOTH_BYTE_ARRAY);
+    assertThat(BigendianEncoding.longFromByteBuffer(buffer, 0)).isEqualTo(FIRST_LONG);
+    assertThat(BigendianEncoding.longFromByteBuffer(buffer, BigendianEncoding.LONG_BYTES))
+        .isEqualTo(SECOND_LONG);
+    assertThat(
+            BigendianEncoding.longFromByteBuffer(
+                ByteBuffer.wrap(BOTH_BYTE_ARRAY).order(ByteOrder.LITTLE_ENDIAN), 0))
+        .isEqualTo(FIRST_LONG);
+  }
+
+  @Test
+  public void longFromByteBuffer_BufferTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("buffer too small");
+    BigendianEncoding.longFromByteBuffer(ByteBuffer.wrap(FIRST_BYTE_ARRAY), 1);
+  }
+
+  @Test
+  public void longToByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(BOTH_BYTE_ARRAY.length).order(ByteOrder.LITTLE_ENDIAN);
+    BigendianEncoding.longToByteBuffer(FIRST_LONG, buffer, 0);
+    BigendianEncoding.longToByteBuffer(SECOND_LONG, buffer, BigendianEncoding.LONG_BYTES);
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(buffer.array()).isEqualTo(BOTH_BYTE_ARRAY);
+  }
+
+  @Test
+  public void longToByteBuffer_BufferTooSmall() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("buffer too small");
+    BigendianEncoding.longToByteBuffer(
+        FIRST_LONG, ByteBuffer.allocate(BigendianEncoding.LONG_BYTES), 1);
+  }
 }
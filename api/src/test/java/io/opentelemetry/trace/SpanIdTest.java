@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import com.google.common.testing.EqualsTester;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -54,6 +55,33 @@ public class SpanIdTest {
     assertThat(SpanId.fromLowerBase16("ZZff00000000000041CC", 2)).isEqualTo(second);
   }
 
+  @Test
+  public void fromLowerBase16_CharArray() {
+    assertThat(SpanId.fromLowerBase16("YY0000000000000061BB".toCharArray(), 2)).isEqualTo(first);
+    char[] chars = new char[2 * SpanId.getSize()];
+    second.copyLowerBase16To(chars, 0);
+    assertThat(SpanId.fromLowerBase16(chars, 0)).isEqualTo(second);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromLowerBase16_CharArrayTooSmall() {
+    SpanId.fromLowerBase16("0000000000000061".toCharArray(), 1);
+  }
+
+  @Test
+  public void fromLowerBase16_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.wrap("YY0000000000000061BB".getBytes(Charset.forName("UTF-8")));
+    assertThat(SpanId.fromLowerBase16(buffer, 2)).isEqualTo(first);
+    assertThat(buffer.position()).isEqualTo(0);
+  }
+
+  @Test
+  public void copyLowerBase16To_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    second.copyLowerBase16To(buffer, 0);
+    assertThat(new String(buffer.array(), Charset.forName("UTF-8"))).isEqualTo("ff00000000000041");
+  }
+
   @Test
   public void toLowerBase16() {
     assertThat(SpanId.getInvalid().toLowerBase16()).isEqualTo("0000000000000000");
@@ -61,6 +89,12 @@ public class SpanIdTest {
     assertThat(second.toLowerBase16()).isEqualTo("ff00000000000041");
   }
 
+  @Test
+  public void toLowerBase16_Memoized() {
+    SpanId id = SpanId.fromLowerBase16("ff00000000000041", 0);
+    assertThat(id.toLowerBase16()).isSameInstanceAs(id.toLowerBase16());
+  }
+
   @Test
   public void spanId_CompareTo() {
     assertThat(first.compareTo(second)).isGreaterThan(0);
@@ -85,4 +119,20 @@ public class SpanIdTest {
     assertThat(first.toString()).contains("0000000000000061");
     assertThat(second.toString()).contains("ff00000000000041");
   }
+
+  @Test
+  public void fromBytes_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 + SpanId.getSize());
+    buffer.position(1);
+    buffer.put(secondBytes);
+    assertThat(SpanId.fromBytes(buffer, 1)).isEqualTo(second);
+  }
+
+  @Test
+  public void copyBytesTo_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(1 + SpanId.getSize());
+    second.copyBytesTo(buffer, 1);
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(Arrays.copyOfRange(buffer.array(), 1, buffer.capacity())).isEqualTo(secondBytes);
+  }
 }
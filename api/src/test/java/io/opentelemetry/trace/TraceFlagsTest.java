@@ -19,6 +19,7 @@ package io.opentelemetry.trace;
 import static com.google.common.truth.Truth.assertThat;
 
 import com.google.common.testing.EqualsTester;
+import java.nio.ByteBuffer;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -62,6 +63,15 @@ public class TraceFlagsTest {
     assertThat(TraceFlags.fromLowerBase16("06", 0).toLowerBase16()).isEqualTo("06");
   }
 
+  @Test
+  public void toFromBase16_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(3);
+    TraceFlags.fromLowerBase16("06", 0).copyLowerBase16To(buffer, 1);
+    assertThat(buffer.get(1)).isEqualTo((byte) '0');
+    assertThat(buffer.get(2)).isEqualTo((byte) '6');
+    assertThat(TraceFlags.fromLowerBase16(buffer, 1).toLowerBase16()).isEqualTo("06");
+  }
+
   @Test
   public void builder_FromOptions() {
     assertThat(
@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import com.google.common.testing.EqualsTester;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -72,6 +73,40 @@ public class TraceIdTest {
         .isEqualTo(second);
   }
 
+  @Test
+  public void fromLowerBase16_CharArray() {
+    assertThat(TraceId.fromLowerBase16("XX00000000000000000000000000000061".toCharArray(), 2))
+        .isEqualTo(first);
+    char[] chars = new char[2 * TraceId.getSize()];
+    second.copyLowerBase16To(chars, 0);
+    assertThat(TraceId.fromLowerBase16(chars, 0)).isEqualTo(second);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromLowerBase16_CharArrayTooSmall() {
+    TraceId.fromLowerBase16("00000000000000000000000000000061".toCharArray(), 1);
+  }
+
+  @Test
+  public void fromLowerBase16_ByteBuffer() {
+    assertThat(TraceId.fromLowerBase16(ascii("XX00000000000000000000000000000061"), 2))
+        .isEqualTo(first);
+    assertThat(TraceId.fromLowerBase16(ascii("ff000000000000000000000000000041"), 0))
+        .isEqualTo(second);
+  }
+
+  @Test
+  public void copyLowerBase16To_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(34);
+    second.copyLowerBase16To(buffer, 1);
+    assertThat(buffer.position()).isEqualTo(0);
+    byte[] bytes = new byte[32];
+    buffer.position(1);
+    buffer.get(bytes);
+    assertThat(new String(bytes, Charset.forName("US-ASCII")))
+        .isEqualTo("ff000000000000000000000000000041");
+  }
+
   @Test
   public void toLowerBase16() {
     assertThat(TraceId.getInvalid().toLowerBase16()).isEqualTo("00000000000000000000000000000000");
@@ -79,6 +114,12 @@ public class TraceIdTest {
     assertThat(second.toLowerBase16()).isEqualTo("ff000000000000000000000000000041");
   }
 
+  @Test
+  public void toLowerBase16_Memoized() {
+    TraceId id = TraceId.fromLowerBase16("ff000000000000000000000000000041", 0);
+    assertThat(id.toLowerBase16()).isSameInstanceAs(id.toLowerBase16());
+  }
+
   @Test
   public void traceId_CompareTo() {
     assertThat(first.compareTo(second)).isGreaterThan(0);
@@ -103,4 +144,24 @@ public class TraceIdTest {
     assertThat(first.toString()).contains("00000000000000000000000000000061");
     assertThat(second.toString()).contains("ff000000000000000000000000000041");
   }
+
+  private static ByteBuffer ascii(String value) {
+    return ByteBuffer.wrap(value.getBytes(Charset.forName("US-ASCII")));
+  }
+
+  @Test
+  public void fromBytes_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 + TraceId.getSize());
+    buffer.position(1);
+    buffer.put(secondBytes);
+    assertThat(TraceId.fromBytes(buffer, 1)).isEqualTo(second);
+  }
+
+  @Test
+  public void copyBytesTo_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(1 + TraceId.getSize());
+    second.copyBytesTo(buffer, 1);
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(Arrays.copyOfRange(buffer.array(), 1, buffer.capacity())).isEqualTo(secondBytes);
+  }
 }
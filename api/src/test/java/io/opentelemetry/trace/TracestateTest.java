@@ -52,6 +52,18 @@ public class TracestateTest {
     assertThat(multiValueTracestate.get(SECOND_KEY)).isEqualTo(SECOND_VALUE);
   }
 
+  @Test
+  public void encode() {
+    assertThat(EMPTY.encode()).isEmpty();
+    assertThat(firstTracestate.encode()).isEqualTo("key_1=value.1");
+    assertThat(multiValueTracestate.encode()).isEqualTo("key_2=value.2,key_1=value.1");
+  }
+
+  @Test
+  public void encode_Memoized() {
+    assertThat(multiValueTracestate.encode()).isSameInstanceAs(multiValueTracestate.encode());
+  }
+
   @Test
   public void getEntries() {
     assertThat(firstTracestate.getEntries()).containsExactly(Entry.create(FIRST_KEY, FIRST_VALUE));
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.FLAGS_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.SAMPLED_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.SPAN_ID_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.TRACE_ID_HEADER;
+
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link B3MultiHeaderFormat}. */
+@RunWith(JUnit4.class)
+public class B3MultiHeaderFormatTest {
+  private static final String TRACE_ID_BASE16 = "ff000000000000000000000000000041";
+  private static final TraceId TRACE_ID = TraceId.fromLowerBase16(TRACE_ID_BASE16, 0);
+  private static final String SHORT_TRACE_ID_BASE16 = "ff00000000000041";
+  private static final TraceId SHORT_TRACE_ID =
+      TraceId.fromLowerBase16("0000000000000000" + SHORT_TRACE_ID_BASE16, 0);
+  private static final String SPAN_ID_BASE16 = "ff00000000000041";
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16(SPAN_ID_BASE16, 0);
+  private static final TraceFlags SAMPLED_TRACE_OPTIONS =
+      TraceFlags.builder().setIsSampled(true).build();
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  private final B3MultiHeaderFormat b3Format = new B3MultiHeaderFormat();
+  private final Map<String, String> carrier = new LinkedHashMap<>();
+  @Rule public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void fields() {
+    assertThat(b3Format.fields())
+        .containsExactly(TRACE_ID_HEADER, SPAN_ID_HEADER, SAMPLED_HEADER, FLAGS_HEADER);
+  }
+
+  @Test
+  public void inject_SampledContext() {
+    b3Format.inject(
+        SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, Tracestate.getDefault()),
+        carrier,
+        setter);
+    assertThat(carrier)
+        .containsExactly(
+            TRACE_ID_HEADER, TRACE_ID_BASE16, SPAN_ID_HEADER, SPAN_ID_BASE16, SAMPLED_HEADER, "1");
+  }
+
+  @Test
+  public void inject_NotSampledContext() {
+    b3Format.inject(
+        SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), Tracestate.getDefault()),
+        carrier,
+        setter);
+    assertThat(carrier)
+        .containsExactly(
+            TRACE_ID_HEADER, TRACE_ID_BASE16, SPAN_ID_HEADER, SPAN_ID_BASE16, SAMPLED_HEADER, "0");
+  }
+
+  @Test
+  public void extract_SampledContext() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    carrier.put(SAMPLED_HEADER, "1");
+    assertThat(b3Format.extract(carrier, getter))
+        .isEqualTo(
+            SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, Tracestate.getDefault()));
+  }
+
+  @Test
+  public void extract_SampledTrue() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    carrier.put(SAMPLED_HEADER, "true");
+    assertThat(b3Format.extract(carrier, getter).getTraceFlags().isSampled()).isTrue();
+  }
+
+  @Test
+  public void extract_DebugFlag() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    carrier.put(FLAGS_HEADER, "1");
+    assertThat(b3Format.extract(carrier, getter).getTraceFlags().isSampled()).isTrue();
+  }
+
+  @Test
+  public void extract_NotSampledContext() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    carrier.put(SAMPLED_HEADER, "0");
+    assertThat(b3Format.extract(carrier, getter))
+        .isEqualTo(
+            SpanContext.create(
+                TRACE_ID, SPAN_ID, TraceFlags.getDefault(), Tracestate.getDefault()));
+  }
+
+  @Test
+  public void extract_NoSamplingDecision() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    assertThat(b3Format.extract(carrier, getter).getTraceFlags().isSampled()).isFalse();
+  }
+
+  @Test
+  public void extract_ShortTraceId() {
+    carrier.put(TRACE_ID_HEADER, SHORT_TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    assertThat(b3Format.extract(carrier, getter).getTraceId()).isEqualTo(SHORT_TRACE_ID);
+  }
+
+  @Test
+  public void extract_NoTraceId() {
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage(TRACE_ID_HEADER + " not present");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_NoSpanId() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage(SPAN_ID_HEADER + " not present");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_InvalidTraceId() {
+    carrier.put(TRACE_ID_HEADER, "abcdefghijklmnopabcdefghijklmnop");
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid " + TRACE_ID_HEADER + ": abcdefghijklmnopabcdefghijklmnop");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_InvalidTraceIdLength() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16 + "00");
+    carrier.put(SPAN_ID_HEADER, SPAN_ID_BASE16);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid " + TRACE_ID_HEADER);
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_InvalidSpanId() {
+    carrier.put(TRACE_ID_HEADER, TRACE_ID_BASE16);
+    carrier.put(SPAN_ID_HEADER, "abcdefghijklmnop");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid " + SPAN_ID_HEADER + ": abcdefghijklmnop");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void roundTrip() {
+    SpanContext spanContext =
+        SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, Tracestate.getDefault());
+    b3Format.inject(spanContext, carrier, setter);
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(spanContext);
+  }
+}
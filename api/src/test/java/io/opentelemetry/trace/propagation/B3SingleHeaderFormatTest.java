@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.opentelemetry.trace.propagation.B3SingleHeaderFormat.B3;
+
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link B3SingleHeaderFormat}. */
+@RunWith(JUnit4.class)
+public class B3SingleHeaderFormatTest {
+  private static final String TRACE_ID_BASE16 = "ff000000000000000000000000000041";
+  private static final TraceId TRACE_ID = TraceId.fromLowerBase16(TRACE_ID_BASE16, 0);
+  private static final String SHORT_TRACE_ID_BASE16 = "ff00000000000041";
+  private static final TraceId SHORT_TRACE_ID =
+      TraceId.fromLowerBase16("0000000000000000" + SHORT_TRACE_ID_BASE16, 0);
+  private static final String SPAN_ID_BASE16 = "ff00000000000041";
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16(SPAN_ID_BASE16, 0);
+  private static final String PARENT_SPAN_ID_BASE16 = "ff00000000000042";
+  private static final TraceFlags SAMPLED_TRACE_OPTIONS =
+      TraceFlags.builder().setIsSampled(true).build();
+  private static final SpanContext SAMPLED_CONTEXT =
+      SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, Tracestate.getDefault());
+  private static final SpanContext NOT_SAMPLED_CONTEXT =
+      SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), Tracestate.getDefault());
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  private final B3SingleHeaderFormat b3Format = new B3SingleHeaderFormat();
+  private final Map<String, String> carrier = new LinkedHashMap<>();
+  @Rule public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void fields() {
+    assertThat(b3Format.fields()).containsExactly(B3);
+  }
+
+  @Test
+  public void inject_SampledContext() {
+    b3Format.inject(SAMPLED_CONTEXT, carrier, setter);
+    assertThat(carrier).containsExactly(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-1");
+  }
+
+  @Test
+  public void inject_NotSampledContext() {
+    b3Format.inject(NOT_SAMPLED_CONTEXT, carrier, setter);
+    assertThat(carrier).containsExactly(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-0");
+  }
+
+  @Test
+  public void extract_SampledContext() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-1");
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(SAMPLED_CONTEXT);
+  }
+
+  @Test
+  public void extract_NotSampledContext() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-0");
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(NOT_SAMPLED_CONTEXT);
+  }
+
+  @Test
+  public void extract_Debug() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-d");
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(SAMPLED_CONTEXT);
+  }
+
+  @Test
+  public void extract_NoSamplingState() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16);
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(NOT_SAMPLED_CONTEXT);
+  }
+
+  @Test
+  public void extract_ParentSpanId() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-1-" + PARENT_SPAN_ID_BASE16);
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(SAMPLED_CONTEXT);
+  }
+
+  @Test
+  public void extract_ShortTraceId() {
+    carrier.put(B3, SHORT_TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-1");
+    assertThat(b3Format.extract(carrier, getter).getTraceId()).isEqualTo(SHORT_TRACE_ID);
+  }
+
+  @Test
+  public void extract_NotPresent() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("b3 not present");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_OnlySamplingState() {
+    carrier.put(B3, "0");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid b3: 0");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_InvalidSpanId() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-abcdefghijklmnop-1");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid b3: ");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_InvalidSamplingState() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-x");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid b3: ");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_EmptySamplingState() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid b3: ");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_LongSamplingState() {
+    carrier.put(B3, TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-10");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid b3: ");
+    b3Format.extract(carrier, getter);
+  }
+
+  @Test
+  public void roundTrip() {
+    b3Format.inject(SAMPLED_CONTEXT, carrier, setter);
+    assertThat(b3Format.extract(carrier, getter)).isEqualTo(SAMPLED_CONTEXT);
+  }
+}
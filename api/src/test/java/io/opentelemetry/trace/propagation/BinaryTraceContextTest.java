@@ -26,6 +26,8 @@ import io.opentelemetry.trace.SpanId;
 import io.opentelemetry.trace.TraceFlags;
 import io.opentelemetry.trace.TraceId;
 import io.opentelemetry.trace.Tracestate;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -197,4 +199,69 @@ public class BinaryTraceContextTest {
     assertThat(extracted.isValid()).isTrue();
     assertThat(extracted.getTraceFlags()).isEqualTo(TraceFlags.getDefault());
   }
+
+  @Test
+  public void writeTo_DirectBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(EXAMPLE_BYTES.length + 3);
+    buffer.position(2);
+    binaryFormat.writeTo(EXAMPLE_SPAN_CONTEXT, buffer);
+    assertThat(buffer.position()).isEqualTo(2 + EXAMPLE_BYTES.length);
+    byte[] bytes = new byte[EXAMPLE_BYTES.length];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(2 + i);
+    }
+    assertThat(bytes).isEqualTo(EXAMPLE_BYTES);
+  }
+
+  @Test
+  public void writeTo_LittleEndianBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(EXAMPLE_BYTES.length).order(ByteOrder.LITTLE_ENDIAN);
+    binaryFormat.writeTo(EXAMPLE_SPAN_CONTEXT, buffer);
+    assertThat(buffer.array()).isEqualTo(EXAMPLE_BYTES);
+  }
+
+  @Test
+  public void writeTo_BufferTooSmall() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("buffer too small");
+    binaryFormat.writeTo(
+        EXAMPLE_SPAN_CONTEXT,
+        ByteBuffer.allocate(binaryFormat.serializedSize(EXAMPLE_SPAN_CONTEXT) - 1));
+  }
+
+  @Test
+  public void serializedSize() {
+    assertThat(binaryFormat.serializedSize(EXAMPLE_SPAN_CONTEXT)).isEqualTo(EXAMPLE_BYTES.length);
+  }
+
+  @Test
+  public void readFrom_DirectBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(EXAMPLE_BYTES.length + 3);
+    buffer.position(2);
+    buffer.put(EXAMPLE_BYTES);
+    buffer.position(2);
+    buffer.limit(2 + EXAMPLE_BYTES.length);
+    assertThat(binaryFormat.readFrom(buffer)).isEqualTo(EXAMPLE_SPAN_CONTEXT);
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test
+  public void readFrom_LittleEndianBuffer() {
+    assertThat(binaryFormat.readFrom(ByteBuffer.wrap(EXAMPLE_BYTES).order(ByteOrder.LITTLE_ENDIAN)))
+        .isEqualTo(EXAMPLE_SPAN_CONTEXT);
+  }
+
+  @Test
+  public void readFrom_TruncatedByLimit() {
+    ByteBuffer buffer = ByteBuffer.wrap(EXAMPLE_BYTES);
+    buffer.limit(EXAMPLE_BYTES.length - 1);
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: truncated");
+    binaryFormat.readFrom(buffer);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void readFrom_NullInput() {
+    binaryFormat.readFrom(null);
+  }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.FLAGS_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.SAMPLED_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.SPAN_ID_HEADER;
+import static io.opentelemetry.trace.propagation.B3MultiHeaderFormat.TRACE_ID_HEADER;
+import static io.opentelemetry.trace.propagation.HttpTraceContext.TRACEPARENT;
+import static io.opentelemetry.trace.propagation.HttpTraceContext.TRACESTATE;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.hamcrest.CoreMatchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link CompositeHttpTextFormat}. */
+@RunWith(JUnit4.class)
+public class CompositeHttpTextFormatTest {
+  private static final String TRACE_ID_BASE16 = "ff000000000000000000000000000041";
+  private static final TraceId TRACE_ID = TraceId.fromLowerBase16(TRACE_ID_BASE16, 0);
+  private static final String SPAN_ID_BASE16 = "ff00000000000041";
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16(SPAN_ID_BASE16, 0);
+  private static final String INVALID_TRACEPARENT =
+      "00-" + TRACE_ID_BASE16 + "-zz00000000000041-01";
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.create(
+          TRACE_ID,
+          SPAN_ID,
+          TraceFlags.builder().setIsSampled(true).build(),
+          Tracestate.getDefault());
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  private final Map<String, String> carrier = new LinkedHashMap<>();
+  // Records every lookup in the carrier.
+  private final List<String> lookups = new ArrayList<>();
+  private final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          lookups.add(key);
+          return carrier.get(key);
+        }
+      };
+  private final CompositeHttpTextFormat format =
+      CompositeHttpTextFormat.create(
+          Arrays.<HttpTextFormat<SpanContext>>asList(
+              new HttpTraceContext(), new B3MultiHeaderFormat(), new B3SingleHeaderFormat()));
+
+  @Rule public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void create_Empty() {
+    thrown.expect(IllegalArgumentException.class);
+    CompositeHttpTextFormat.create(Collections.<HttpTextFormat<SpanContext>>emptyList());
+  }
+
+  @Test
+  public void create_NullFormat() {
+    thrown.expect(NullPointerException.class);
+    CompositeHttpTextFormat.create(Collections.<HttpTextFormat<SpanContext>>singletonList(null));
+  }
+
+  @Test
+  public void fields() {
+    assertThat(format.fields())
+        .containsExactly(
+            TRACEPARENT,
+            TRACESTATE,
+            TRACE_ID_HEADER,
+            SPAN_ID_HEADER,
+            SAMPLED_HEADER,
+            FLAGS_HEADER,
+            B3SingleHeaderFormat.B3)
+        .inOrder();
+  }
+
+  @Test
+  public void fields_Deduplicated() {
+    CompositeHttpTextFormat twice =
+        CompositeHttpTextFormat.create(
+            Arrays.<HttpTextFormat<SpanContext>>asList(
+                new B3SingleHeaderFormat(), new B3SingleHeaderFormat()));
+    assertThat(twice.fields()).containsExactly(B3SingleHeaderFormat.B3);
+  }
+
+  @Test
+  public void inject_AllFormats() {
+    format.inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(carrier.keySet())
+        .containsExactly(
+            TRACEPARENT, TRACE_ID_HEADER, SPAN_ID_HEADER, SAMPLED_HEADER, B3SingleHeaderFormat.B3);
+  }
+
+  @Test
+  public void extract_FirstFormat() {
+    new HttpTraceContext().inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(format.extract(carrier, getter)).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  public void extract_FallbackFormat() {
+    new B3SingleHeaderFormat().inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(format.extract(carrier, getter)).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  public void extract_PriorityOrder() {
+    SpanContext other =
+        SpanContext.create(
+            TRACE_ID,
+            SpanId.fromLowerBase16("ff00000000000042", 0),
+            TraceFlags.getDefault(),
+            Tracestate.getDefault());
+    new B3MultiHeaderFormat().inject(other, carrier, setter);
+    new HttpTraceContext().inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(format.extract(carrier, getter)).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  public void extract_InvalidFirstFormat() {
+    carrier.put(TRACEPARENT, INVALID_TRACEPARENT);
+    new B3MultiHeaderFormat().inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(format.extract(carrier, getter)).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  public void extract_EachFieldFetchedOnce() {
+    carrier.put(TRACEPARENT, INVALID_TRACEPARENT);
+    new B3SingleHeaderFormat().inject(SPAN_CONTEXT, carrier, setter);
+    assertThat(format.extract(carrier, getter)).isEqualTo(SPAN_CONTEXT);
+    assertThat(lookups).containsNoDuplicates();
+  }
+
+  @Test
+  public void extract_NothingFound() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("No format could extract the SpanContext.");
+    format.extract(carrier, getter);
+  }
+
+  @Test
+  public void extract_AllInvalid() {
+    carrier.put(TRACEPARENT, INVALID_TRACEPARENT);
+    carrier.put(B3SingleHeaderFormat.B3, "invalid");
+    thrown.expect(IllegalArgumentException.class);
+    // The failure of the format with the highest priority is the cause.
+    thrown.expectCause(CoreMatchers.<Throwable>instanceOf(IllegalArgumentException.class));
+    format.extract(carrier, getter);
+  }
+}
@@ -20,6 +20,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static io.opentelemetry.trace.propagation.HttpTraceContext.TRACEPARENT;
 import static io.opentelemetry.trace.propagation.HttpTraceContext.TRACESTATE;
 
+import io.opentelemetry.context.propagation.ByteHttpTextFormat.ByteGetter;
+import io.opentelemetry.context.propagation.ByteHttpTextFormat.ByteSetter;
 import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
 import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
 import io.opentelemetry.trace.SpanContext;
@@ -27,6 +29,8 @@ import io.opentelemetry.trace.SpanId;
 import io.opentelemetry.trace.TraceFlags;
 import io.opentelemetry.trace.TraceId;
 import io.opentelemetry.trace.Tracestate;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -70,6 +74,26 @@ public class HttpTraceContextTest {
           return carrier.get(key);
         }
       };
+  // Writes the values in the middle of larger buffers, to check that positions are honored.
+  private static final ByteSetter<Map<String, ByteBuffer>> byteSetter =
+      new ByteSetter<Map<String, ByteBuffer>>() {
+        @Override
+        public ByteBuffer put(Map<String, ByteBuffer> carrier, String key, int length) {
+          ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+          buffer.position(2);
+          carrier.put(key, buffer);
+          return buffer;
+        }
+      };
+  private static final ByteGetter<Map<String, ByteBuffer>> byteGetter =
+      new ByteGetter<Map<String, ByteBuffer>>() {
+        @Nullable
+        @Override
+        public ByteBuffer get(Map<String, ByteBuffer> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+  private static final Charset US_ASCII = Charset.forName("US-ASCII");
   // Encoding preserves the order which is the reverse order of adding.
   private static final String TRACESTATE_NOT_DEFAULT_ENCODING = "bar=baz,foo=bar";
   private final HttpTraceContext httpTraceContext = new HttpTraceContext();
@@ -189,6 +213,70 @@ public class HttpTraceContextTest {
             SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TRACESTATE_NOT_DEFAULT));
   }
 
+  @Test
+  public void extract_SameTracestateHeader_ReusesTracestate() {
+    Map<String, String> carrier = new LinkedHashMap<String, String>();
+    carrier.put(TRACEPARENT, TRACEPARENT_HEADER_NOT_SAMPLED);
+    carrier.put(TRACESTATE, "foo=bar,cached=true");
+    Tracestate tracestate = httpTraceContext.extract(carrier, getter).getTracestate();
+    carrier.put(TRACESTATE, new StringBuilder("foo=bar,cached=true").toString());
+    assertThat(httpTraceContext.extract(carrier, getter).getTracestate())
+        .isSameInstanceAs(tracestate);
+  }
+
+  @Test
+  public void extract_NotSampledContext_TraceStateWithEmptyMembers() {
+    Map<String, String> carrier = new LinkedHashMap<String, String>();
+    carrier.put(TRACEPARENT, TRACEPARENT_HEADER_NOT_SAMPLED);
+    carrier.put(TRACESTATE, ",\tbar=baz ,, foo=bar\t,");
+    assertThat(httpTraceContext.extract(carrier, getter))
+        .isEqualTo(
+            SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TRACESTATE_NOT_DEFAULT));
+  }
+
+  @Test
+  public void extract_NotSampledContext_TraceStateWithDuplicateKeys() {
+    Map<String, String> carrier = new LinkedHashMap<String, String>();
+    carrier.put(TRACEPARENT, TRACEPARENT_HEADER_NOT_SAMPLED);
+    carrier.put(TRACESTATE, "bar=baz,foo=bar,bar=old");
+    assertThat(httpTraceContext.extract(carrier, getter))
+        .isEqualTo(
+            SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TRACESTATE_NOT_DEFAULT));
+  }
+
+  @Test
+  public void extract_TraceStateWithMaxMembers() {
+    StringBuilder tracestate = new StringBuilder();
+    Tracestate.Builder expected = Tracestate.builder();
+    for (int i = 31; i >= 0; i--) {
+      expected.set("key" + i, "value" + i);
+      tracestate.insert(0, "key" + i + "=value" + i + (i == 31 ? "" : ","));
+    }
+    Map<String, String> carrier = new LinkedHashMap<String, String>();
+    carrier.put(TRACEPARENT, TRACEPARENT_HEADER_NOT_SAMPLED);
+    carrier.put(TRACESTATE, tracestate.toString());
+    SpanContext spanContext = httpTraceContext.extract(carrier, getter);
+    assertThat(spanContext.getTracestate()).isEqualTo(expected.build());
+
+    Map<String, String> injected = new LinkedHashMap<String, String>();
+    httpTraceContext.inject(spanContext, injected, setter);
+    assertThat(injected.get(TRACESTATE)).isEqualTo(tracestate.toString());
+  }
+
+  @Test
+  public void extract_InvalidTracestate_TooManyMembers() {
+    StringBuilder tracestate = new StringBuilder();
+    for (int i = 0; i < 33; i++) {
+      tracestate.append(i == 0 ? "" : ",").append("key").append(i).append("=value");
+    }
+    Map<String, String> invalidHeaders = new HashMap<String, String>();
+    invalidHeaders.put(TRACEPARENT, "00-" + TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-01");
+    invalidHeaders.put(TRACESTATE, tracestate.toString());
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid tracestate: " + tracestate);
+    httpTraceContext.extract(invalidHeaders, getter);
+  }
+
   @Test
   public void extract_InvalidTraceId() {
     Map<String, String> invalidHeaders = new LinkedHashMap<String, String>();
@@ -285,6 +373,93 @@ public class HttpTraceContextTest {
     httpTraceContext.extract(invalidHeaders, getter);
   }
 
+  @Test
+  public void inject_Bytes() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    httpTraceContext.injectBytes(
+        SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACESTATE_NOT_DEFAULT),
+        carrier,
+        byteSetter);
+    assertThat(carrier.keySet()).containsExactly(TRACEPARENT, TRACESTATE).inOrder();
+    assertThat(written(carrier.get(TRACEPARENT))).isEqualTo(TRACEPARENT_HEADER_SAMPLED);
+    assertThat(written(carrier.get(TRACESTATE))).isEqualTo(TRACESTATE_NOT_DEFAULT_ENCODING);
+  }
+
+  @Test
+  public void inject_Bytes_EmptyTracestate() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    httpTraceContext.injectBytes(
+        SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TRACESTATE_DEFAULT),
+        carrier,
+        byteSetter);
+    assertThat(carrier.keySet()).containsExactly(TRACEPARENT);
+    assertThat(written(carrier.get(TRACEPARENT))).isEqualTo(TRACEPARENT_HEADER_NOT_SAMPLED);
+  }
+
+  @Test
+  public void extract_Bytes() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    carrier.put(TRACEPARENT, slice("-" + TRACEPARENT_HEADER_SAMPLED + ","));
+    carrier.put(TRACESTATE, slice(" " + TRACESTATE_NOT_DEFAULT_ENCODING + " "));
+    assertThat(httpTraceContext.extractBytes(carrier, byteGetter))
+        .isEqualTo(
+            SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACESTATE_NOT_DEFAULT));
+    assertThat(carrier.get(TRACEPARENT).position()).isEqualTo(1);
+  }
+
+  @Test
+  public void extract_Bytes_NoTracestate() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    carrier.put(TRACEPARENT, ByteBuffer.wrap(TRACEPARENT_HEADER_NOT_SAMPLED.getBytes(US_ASCII)));
+    assertThat(httpTraceContext.extractBytes(carrier, byteGetter))
+        .isEqualTo(
+            SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TRACESTATE_DEFAULT));
+  }
+
+  @Test
+  public void extract_Bytes_RoundTrip() {
+    SpanContext spanContext =
+        SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACESTATE_NOT_DEFAULT);
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    httpTraceContext.injectBytes(spanContext, carrier, byteSetter);
+    for (ByteBuffer buffer : carrier.values()) {
+      buffer.limit(buffer.position()).position(2);
+    }
+    assertThat(httpTraceContext.extractBytes(carrier, byteGetter)).isEqualTo(spanContext);
+  }
+
+  @Test
+  public void extract_Bytes_InvalidTraceparent() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    carrier.put(
+        TRACEPARENT,
+        ByteBuffer.wrap(
+            ("00-" + TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-gh").getBytes(US_ASCII)));
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage(
+        "Invalid traceparent: " + "00-" + TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-gh");
+    httpTraceContext.extractBytes(carrier, byteGetter);
+  }
+
+  @Test
+  public void extract_Bytes_TraceparentTooShort() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    carrier.put(TRACEPARENT, ByteBuffer.wrap(("00-" + TRACE_ID_BASE16).getBytes(US_ASCII)));
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid traceparent: " + "00-" + TRACE_ID_BASE16);
+    httpTraceContext.extractBytes(carrier, byteGetter);
+  }
+
+  @Test
+  public void extract_Bytes_InvalidTracestate() {
+    Map<String, ByteBuffer> carrier = new LinkedHashMap<String, ByteBuffer>();
+    carrier.put(TRACEPARENT, ByteBuffer.wrap(TRACEPARENT_HEADER_SAMPLED.getBytes(US_ASCII)));
+    carrier.put(TRACESTATE, ByteBuffer.wrap("foo=bar,test-test".getBytes(US_ASCII)));
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid tracestate: " + "foo=bar,test-test");
+    httpTraceContext.extractBytes(carrier, byteGetter);
+  }
+
   @Test
   public void fieldsList() {
     assertThat(httpTraceContext.fields()).containsExactly(TRACEPARENT, TRACESTATE);
@@ -295,4 +470,20 @@ public class HttpTraceContextTest {
     assertThat(TRACEPARENT).isEqualTo("traceparent");
     assertThat(TRACESTATE).isEqualTo("tracestate");
   }
+
+  // Returns the bytes written by the format, between the initial position and the current one.
+  private static String written(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.position() - 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(2 + i);
+    }
+    return new String(bytes, US_ASCII);
+  }
+
+  // Returns a buffer with the given value without its first and last characters.
+  private static ByteBuffer slice(String value) {
+    ByteBuffer buffer = ByteBuffer.wrap(value.getBytes(US_ASCII));
+    buffer.position(1).limit(value.length() - 1);
+    return buffer;
+  }
 }
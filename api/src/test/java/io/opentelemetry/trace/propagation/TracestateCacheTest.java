@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.trace.propagation;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.trace.Tracestate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link TracestateCache}. */
+@RunWith(JUnit4.class)
+public class TracestateCacheTest {
+  private static final Tracestate TRACESTATE =
+      Tracestate.builder().set("foo", "bar").set("bar", "baz").build();
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  private final TracestateCache cache = new TracestateCache(8, 32);
+
+  @Test
+  public void get_NotCached() {
+    assertThat(cache.get("bar=baz,foo=bar")).isNull();
+  }
+
+  @Test
+  public void get_EqualHeader() {
+    cache.put("bar=baz,foo=bar", TRACESTATE);
+    assertThat(cache.get(new StringBuilder("bar=baz,foo=bar").toString()))
+        .isSameInstanceAs(TRACESTATE);
+  }
+
+  @Test
+  public void get_DifferentHeader() {
+    cache.put("bar=baz,foo=bar", TRACESTATE);
+    assertThat(cache.get("bar=baz")).isNull();
+  }
+
+  @Test
+  public void put_ReplacesSlot() {
+    TracestateCache singleSlot = new TracestateCache(1, 32);
+    Tracestate other = Tracestate.builder().set("foo", "bar").build();
+    singleSlot.put("bar=baz,foo=bar", TRACESTATE);
+    singleSlot.put("foo=bar", other);
+    assertThat(singleSlot.get("bar=baz,foo=bar")).isNull();
+    assertThat(singleSlot.get("foo=bar")).isSameInstanceAs(other);
+  }
+
+  @Test
+  public void put_HeaderTooLong() {
+    String header = "bar=baz,foo=bar,aaaaaaaaaaaaaaaaa=b";
+    cache.put(header, TRACESTATE);
+    assertThat(cache.get(header)).isNull();
+  }
+
+  @Test
+  public void sizeNotPowerOfTwo() {
+    thrown.expect(IllegalArgumentException.class);
+    new TracestateCache(6, 32);
+  }
+}
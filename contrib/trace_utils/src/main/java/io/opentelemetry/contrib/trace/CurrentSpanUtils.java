@@ -16,13 +16,13 @@
 
 package io.opentelemetry.contrib.trace;
 
-import io.grpc.Context;
+import io.opentelemetry.context.Scope;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.Status;
 import io.opentelemetry.trace.unsafe.ContextUtils;
 import java.util.concurrent.Callable;
 
-/** Util methods/functionality to interact with the {@link Span} in the {@link io.grpc.Context}. */
+/** Util methods/functionality to interact with the current {@link Span}. */
 public final class CurrentSpanUtils {
   // No instance of this class.
   private CurrentSpanUtils() {}
@@ -65,7 +65,7 @@ public final class CurrentSpanUtils {
 
     @Override
     public void run() {
-      Context origContext = ContextUtils.withValue(span).attach();
+      Scope scope = ContextUtils.withSpan(span);
       try {
         runnable.run();
       } catch (Throwable t) {
@@ -77,7 +77,7 @@ public final class CurrentSpanUtils {
         }
         throw new RuntimeException("unexpected", t);
       } finally {
-        Context.current().detach(origContext);
+        scope.close();
         if (endSpan) {
           span.end();
         }
@@ -98,7 +98,7 @@ public final class CurrentSpanUtils {
 
     @Override
     public V call() throws Exception {
-      Context origContext = ContextUtils.withValue(span).attach();
+      Scope scope = ContextUtils.withSpan(span);
       try {
         return callable.call();
       } catch (Exception e) {
@@ -111,7 +111,7 @@ public final class CurrentSpanUtils {
         }
         throw new RuntimeException("unexpected", t);
       } finally {
-        Context.current().detach(origContext);
+        scope.close();
         if (endSpan) {
           span.end();
         }
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.jaeger;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.opentelemetry.exporters.jaeger.proto.api_v2.Collector.PostSpansRequest;
+import io.opentelemetry.exporters.jaeger.proto.api_v2.Collector.PostSpansResponse;
+import io.opentelemetry.exporters.jaeger.proto.api_v2.CollectorServiceGrpc;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.sdk.trace.export.BatchSpansProcessor;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the whole export pipeline: span end, {@link BatchSpansProcessor}, {@link
+ * JaegerGrpcSpanExporter} and an in-process gRPC collector that discards the spans.
+ *
+ * <p>The score is the number of spans ended per second. The auxiliary counters report, for every
+ * {@code maxQueueSize} and {@code maxExportBatchSize}:
+ *
+ * <ul>
+ *   <li>{@code exportedSpans} and {@code droppedSpans}: the spans received by the collector and the
+ *       spans dropped by the full queue, per second.
+ *   <li>{@code workerCpuNanos}: the CPU time of the worker thread per second, 1e9 is a full core.
+ *   <li>{@code workerCpuNanosPerSpan} and {@code workerBytesPerSpan}: the CPU time and the memory
+ *       allocated by the worker thread per exported span.
+ * </ul>
+ *
+ * <p>Every iteration uses a new {@link TracerSdk} and {@link BatchSpansProcessor}, shut down at the
+ * end of the iteration so that the spans still in the queue are exported and not counted as
+ * dropped. Run with {@code -prof gc} for the allocation per ended span.
+ */
+public class JaegerExportPipelineBenchmark {
+  private static final String WORKER_THREAD_NAME = "BatchSpansProcessor_WorkerThread";
+  private static final long QUIESCENCE_MILLIS = 20;
+  private static final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+  /** The collector, the exporter and the per-iteration tracer shared by all the threads. */
+  @State(Scope.Benchmark)
+  public static class PipelineState {
+    @Param({"512", "2048", "8192"})
+    public int maxQueueSize;
+
+    @Param({"64", "256", "512"})
+    public int maxExportBatchSize;
+
+    private final DiscardingCollectorService collector = new DiscardingCollectorService();
+    private final CountingSpanProcessor counter = new CountingSpanProcessor();
+    private Server server;
+    private JaegerGrpcSpanExporter exporter;
+    private TracerSdk tracer;
+    private IterationResult iterationResult;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+      String serverName = InProcessServerBuilder.generateName();
+      server = InProcessServerBuilder.forName(serverName).addService(collector).build().start();
+      ManagedChannel channel = InProcessChannelBuilder.forName(serverName).build();
+      exporter =
+          JaegerGrpcSpanExporter.newBuilder()
+              .setServiceName("benchmark")
+              .setChannel(channel)
+              .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+      Set<Long> previousWorkers = workerThreadIds();
+      tracer = new TracerSdk();
+      tracer.addSpanProcessor(counter);
+      tracer.addSpanProcessor(
+          BatchSpansProcessor.newBuilder(exporter)
+              .setMaxQueueSize(maxQueueSize)
+              .setMaxExportBatchSize(maxExportBatchSize)
+              .build());
+      Set<Long> workers = workerThreadIds();
+      workers.removeAll(previousWorkers);
+      iterationResult =
+          new IterationResult(
+              workers.isEmpty() ? -1 : workers.iterator().next(),
+              counter.endedSpans.get(),
+              collector.receivedSpans.get());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws InterruptedException {
+      exporter.shutdown();
+      server.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Flushes the spans of the iteration and returns its result, the first call does the work.
+    private synchronized IterationResult finishIteration() {
+      IterationResult result = iterationResult;
+      if (result.finished) {
+        return result;
+      }
+      result.finished = true;
+      // An export interrupted by the shutdown would be counted as dropped.
+      awaitExportsCompleted();
+      result.workerCpuNanos = threadCpuTime(result.workerThreadId);
+      result.workerBytes = threadAllocatedBytes(result.workerThreadId);
+      // Exports the spans left in the queue.
+      tracer.shutdown();
+      result.endedSpans = counter.endedSpans.get() - result.endedSpans;
+      result.exportedSpans = collector.receivedSpans.get() - result.exportedSpans;
+      return result;
+    }
+
+    // Waits until the collector received no spans for a while, the worker is then waiting for the
+    // next batch.
+    private void awaitExportsCompleted() {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+      long receivedSpans = collector.receivedSpans.get();
+      while (System.nanoTime() < deadline) {
+        try {
+          Thread.sleep(QUIESCENCE_MILLIS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        long current = collector.receivedSpans.get();
+        if (current == receivedSpans) {
+          return;
+        }
+        receivedSpans = current;
+      }
+    }
+  }
+
+  /** The export rates of an iteration, per second. */
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class ExportRates {
+    public long exportedSpans;
+    public long droppedSpans;
+    public long workerCpuNanos;
+
+    @Setup(Level.Iteration)
+    public void resetRates() {
+      exportedSpans = 0;
+      droppedSpans = 0;
+      workerCpuNanos = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void collectRates(PipelineState pipelineState) {
+      IterationResult result = pipelineState.finishIteration();
+      if (result.takeRates()) {
+        exportedSpans = result.exportedSpans;
+        droppedSpans = result.endedSpans - result.exportedSpans;
+        workerCpuNanos = result.workerCpuNanos;
+      }
+    }
+  }
+
+  /** The cost of an exported span on the worker thread. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class WorkerCosts {
+    public long workerCpuNanosPerSpan;
+    public long workerBytesPerSpan;
+
+    @Setup(Level.Iteration)
+    public void resetCosts() {
+      workerCpuNanosPerSpan = 0;
+      workerBytesPerSpan = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void collectCosts(PipelineState pipelineState) {
+      IterationResult result = pipelineState.finishIteration();
+      if (result.takeCosts() && result.exportedSpans > 0) {
+        workerCpuNanosPerSpan = result.workerCpuNanos / result.exportedSpans;
+        workerBytesPerSpan = result.workerBytes / result.exportedSpans;
+      }
+    }
+  }
+
+  /** Ends a span, from a single thread. */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Threads(1)
+  @Warmup(iterations = 5, time = 1)
+  public void endSpan_01Thread(
+      PipelineState pipelineState, ExportRates exportRates, WorkerCosts workerCosts) {
+    pipelineState.tracer.spanBuilder("span").startSpan().end();
+  }
+
+  /** Ends a span, from 4 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Threads(4)
+  @Warmup(iterations = 5, time = 1)
+  public void endSpan_04Threads(
+      PipelineState pipelineState, ExportRates exportRates, WorkerCosts workerCosts) {
+    pipelineState.tracer.spanBuilder("span").startSpan().end();
+  }
+
+  private static Set<Long> workerThreadIds() {
+    Set<Long> ids = new HashSet<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (WORKER_THREAD_NAME.equals(thread.getName())) {
+        ids.add(thread.getId());
+      }
+    }
+    return ids;
+  }
+
+  private static long threadCpuTime(long threadId) {
+    if (threadId == -1 || !threadMxBean.isThreadCpuTimeSupported()) {
+      return 0;
+    }
+    return Math.max(0, threadMxBean.getThreadCpuTime(threadId));
+  }
+
+  private static long threadAllocatedBytes(long threadId) {
+    if (threadId == -1 || !(threadMxBean instanceof com.sun.management.ThreadMXBean)) {
+      return 0;
+    }
+    return Math.max(
+        0, ((com.sun.management.ThreadMXBean) threadMxBean).getThreadAllocatedBytes(threadId));
+  }
+
+  // Counters of an iteration, the start values until the end of the iteration. Every thread reports
+  // the counters but only the first one to take them reports non-zero values, so that the sums over
+  // the threads are right.
+  private static final class IterationResult {
+    private final long workerThreadId;
+    private long endedSpans;
+    private long exportedSpans;
+    private long workerCpuNanos;
+    private long workerBytes;
+    private boolean finished;
+    private boolean ratesTaken;
+    private boolean costsTaken;
+
+    private IterationResult(long workerThreadId, long endedSpans, long exportedSpans) {
+      this.workerThreadId = workerThreadId;
+      this.endedSpans = endedSpans;
+      this.exportedSpans = exportedSpans;
+    }
+
+    private synchronized boolean takeRates() {
+      boolean taken = ratesTaken;
+      ratesTaken = true;
+      return !taken;
+    }
+
+    private synchronized boolean takeCosts() {
+      boolean taken = costsTaken;
+      costsTaken = true;
+      return !taken;
+    }
+  }
+
+  // Counts the spans ended, before they are offered to the BatchSpansProcessor.
+  private static final class CountingSpanProcessor implements SpanProcessor {
+    private final AtomicLong endedSpans = new AtomicLong();
+
+    @Override
+    public void onStart(ReadableSpan span) {}
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+      endedSpans.incrementAndGet();
+    }
+
+    @Override
+    public void shutdown() {}
+  }
+
+  // Collector that only counts the spans it receives.
+  private static final class DiscardingCollectorService
+      extends CollectorServiceGrpc.CollectorServiceImplBase {
+    private final AtomicLong receivedSpans = new AtomicLong();
+
+    @Override
+    public void postSpans(
+        PostSpansRequest request, StreamObserver<PostSpansResponse> responseObserver) {
+      receivedSpans.addAndGet(request.getBatch().getSpansCount());
+      responseObserver.onNext(PostSpansResponse.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Writes UTF-8 encoded JSON tokens into a growable byte array that is reused across batches.
+ *
+ * <p>The writer does not validate the structure of the document, callers write the punctuation.
+ */
+@NotThreadSafe
+final class JsonWriter {
+  private static final byte[] HEX = {
+    '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+  };
+  // Max number of digits of a long, plus the sign.
+  private static final int MAX_LONG_LENGTH = 20;
+
+  private final char[] idChars = new char[2 * TraceId.getSize()];
+  private byte[] buffer;
+  private int count;
+
+  JsonWriter(int initialCapacity) {
+    buffer = new byte[initialCapacity];
+  }
+
+  /** Discards the content, keeping the allocated buffer. */
+  void reset() {
+    count = 0;
+  }
+
+  /** Returns the number of bytes written since the last {@link #reset()}. */
+  int size() {
+    return count;
+  }
+
+  /** Returns the size of the allocated buffer. */
+  int capacity() {
+    return buffer.length;
+  }
+
+  /** Writes the content to the given stream. */
+  void writeTo(OutputStream out) throws IOException {
+    out.write(buffer, 0, count);
+  }
+
+  /** Returns a copy of the content. */
+  byte[] toByteArray() {
+    return Arrays.copyOf(buffer, count);
+  }
+
+  JsonWriter writeByte(char c) {
+    ensureCapacity(1);
+    buffer[count++] = (byte) c;
+    return this;
+  }
+
+  JsonWriter writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, count, bytes.length);
+    count += bytes.length;
+    return this;
+  }
+
+  /** Writes a string that is known to be ASCII and not to need escaping, e.g. a field name. */
+  JsonWriter writeAscii(String value) {
+    int length = value.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      buffer[count++] = (byte) value.charAt(i);
+    }
+    return this;
+  }
+
+  JsonWriter writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      return writeAscii(Long.toString(value));
+    }
+    ensureCapacity(MAX_LONG_LENGTH);
+    if (value < 0) {
+      buffer[count++] = '-';
+      value = -value;
+    }
+    int start = count;
+    do {
+      buffer[count++] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    // Digits were written least significant first.
+    for (int i = start, j = count - 1; i < j; i++, j--) {
+      byte tmp = buffer[i];
+      buffer[i] = buffer[j];
+      buffer[j] = tmp;
+    }
+    return this;
+  }
+
+  /** Writes the lower base16 representation of the id as a JSON string. */
+  JsonWriter writeId(TraceId traceId) {
+    traceId.copyLowerBase16To(idChars, 0);
+    return writeIdChars(idChars.length);
+  }
+
+  /** Writes the lower base16 representation of the id as a JSON string. */
+  JsonWriter writeId(SpanId spanId) {
+    spanId.copyLowerBase16To(idChars, 0);
+    return writeIdChars(2 * SpanId.getSize());
+  }
+
+  private JsonWriter writeIdChars(int length) {
+    ensureCapacity(length + 2);
+    buffer[count++] = '"';
+    for (int i = 0; i < length; i++) {
+      buffer[count++] = (byte) idChars[i];
+    }
+    buffer[count++] = '"';
+    return this;
+  }
+
+  /** Writes the value as a quoted, escaped JSON string. */
+  JsonWriter writeString(String value) {
+    int length = value.length();
+    // Worst case is 6 bytes per char (a control char escaped as \\u00XX).
+    ensureCapacity(length * 6 + 2);
+    buffer[count++] = '"';
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        writeAsciiChar(c);
+      } else if (c < 0x800) {
+        buffer[count++] = (byte) (0xc0 | (c >> 6));
+        buffer[count++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buffer[count++] = (byte) (0xf0 | (codePoint >> 18));
+        buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        // Unpaired surrogate, replaced like String#getBytes does.
+        buffer[count++] = '?';
+      } else {
+        buffer[count++] = (byte) (0xe0 | (c >> 12));
+        buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[count++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+    buffer[count++] = '"';
+    return this;
+  }
+
+  private void writeAsciiChar(char c) {
+    switch (c) {
+      case '"':
+      case '\\':
+        buffer[count++] = '\\';
+        buffer[count++] = (byte) c;
+        return;
+      case '\n':
+        buffer[count++] = '\\';
+        buffer[count++] = 'n';
+        return;
+      case '\r':
+        buffer[count++] = '\\';
+        buffer[count++] = 'r';
+        return;
+      case '\t':
+        buffer[count++] = '\\';
+        buffer[count++] = 't';
+        return;
+      default:
+        if (c < 0x20) {
+          buffer[count++] = '\\';
+          buffer[count++] = 'u';
+          buffer[count++] = '0';
+          buffer[count++] = '0';
+          buffer[count++] = HEX[c >> 4];
+          buffer[count++] = HEX[c & 0xf];
+        } else {
+          buffer[count++] = (byte) c;
+        }
+    }
+  }
+
+  private void ensureCapacity(int extra) {
+    int required = count + extra;
+    if (required > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+  }
+}
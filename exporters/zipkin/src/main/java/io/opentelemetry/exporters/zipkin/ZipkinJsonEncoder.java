@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.Status;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/** Encodes {@link SpanData} as a Zipkin v2 JSON list of spans. */
+@ThreadSafe
+final class ZipkinJsonEncoder {
+  static final String KEY_STATUS_CODE = "ot.status_code";
+  static final String KEY_STATUS_DESCRIPTION = "ot.status_description";
+  static final String KEY_ERROR = "error";
+
+  // The local endpoint is the same for all the spans, encoded once.
+  private final byte[] localEndpoint;
+
+  ZipkinJsonEncoder(String serviceName) {
+    JsonWriter writer = new JsonWriter(serviceName.length() + 32);
+    writer.writeAscii("{\"serviceName\":").writeString(serviceName).writeByte('}');
+    this.localEndpoint = writer.toByteArray();
+  }
+
+  /**
+   * Appends the given spans to the writer as a JSON array.
+   *
+   * @param spans the spans to encode.
+   * @param writer the writer to append to.
+   */
+  void encode(List<SpanData> spans, JsonWriter writer) {
+    writer.writeByte('[');
+    for (int i = 0; i < spans.size(); i++) {
+      if (i > 0) {
+        writer.writeByte(',');
+      }
+      encode(spans.get(i), writer);
+    }
+    writer.writeByte(']');
+  }
+
+  private void encode(SpanData span, JsonWriter writer) {
+    writer.writeAscii("{\"traceId\":").writeId(span.getTraceId());
+    if (span.getParentSpanId().isValid()) {
+      writer.writeAscii(",\"parentId\":").writeId(span.getParentSpanId());
+    }
+    writer.writeAscii(",\"id\":").writeId(span.getSpanId());
+    String kind = toZipkinKind(span.getKind());
+    if (kind != null) {
+      writer.writeAscii(",\"kind\":\"").writeAscii(kind).writeByte('"');
+    }
+    writer.writeAscii(",\"name\":").writeString(span.getName());
+    long startMicros = toEpochMicros(span.getStartTimestamp());
+    long endMicros = toEpochMicros(span.getEndTimestamp());
+    writer.writeAscii(",\"timestamp\":").writeLong(startMicros);
+    // Zipkin treats a zero duration as unknown.
+    writer.writeAscii(",\"duration\":").writeLong(Math.max(1, endMicros - startMicros));
+    writer.writeAscii(",\"localEndpoint\":").writeBytes(localEndpoint);
+
+    List<TimedEvent> timedEvents = span.getTimedEvents();
+    if (!timedEvents.isEmpty()) {
+      writer.writeAscii(",\"annotations\":[");
+      for (int i = 0; i < timedEvents.size(); i++) {
+        TimedEvent timedEvent = timedEvents.get(i);
+        if (i > 0) {
+          writer.writeByte(',');
+        }
+        writer
+            .writeAscii("{\"timestamp\":")
+            .writeLong(toEpochMicros(timedEvent.getTimestamp()))
+            .writeAscii(",\"value\":")
+            .writeString(timedEvent.getName())
+            .writeByte('}');
+      }
+      writer.writeByte(']');
+    }
+
+    writer.writeAscii(",\"tags\":{");
+    boolean first = true;
+    for (Map.Entry<String, AttributeValue> entry : span.getAttributes().entrySet()) {
+      if (!first) {
+        writer.writeByte(',');
+      }
+      first = false;
+      writer.writeString(entry.getKey()).writeByte(':');
+      writeTagValue(entry.getValue(), writer);
+    }
+    Status status = span.getStatus();
+    if (!first) {
+      writer.writeByte(',');
+    }
+    writer
+        .writeByte('"')
+        .writeAscii(KEY_STATUS_CODE)
+        .writeAscii("\":\"")
+        .writeAscii(status.getCanonicalCode().name())
+        .writeByte('"');
+    if (status.getDescription() != null) {
+      writer
+          .writeAscii(",\"")
+          .writeAscii(KEY_STATUS_DESCRIPTION)
+          .writeAscii("\":")
+          .writeString(status.getDescription());
+    }
+    if (!status.isOk()) {
+      // Zipkin marks a span as failed when it has an "error" tag.
+      writer
+          .writeAscii(",\"")
+          .writeAscii(KEY_ERROR)
+          .writeAscii("\":")
+          .writeString(
+              status.getDescription() != null
+                  ? status.getDescription()
+                  : status.getCanonicalCode().name());
+    }
+    writer.writeAscii("}}");
+  }
+
+  private static void writeTagValue(AttributeValue value, JsonWriter writer) {
+    switch (value.getType()) {
+      case STRING:
+        writer.writeString(value.getStringValue());
+        return;
+      case BOOLEAN:
+        writer.writeAscii(value.getBooleanValue() ? "\"true\"" : "\"false\"");
+        return;
+      case LONG:
+        writer.writeByte('"').writeLong(value.getLongValue()).writeByte('"');
+        return;
+      case DOUBLE:
+        writer.writeString(String.valueOf(value.getDoubleValue()));
+        return;
+    }
+    writer.writeAscii("\"\"");
+  }
+
+  private static long toEpochMicros(Timestamp timestamp) {
+    return timestamp.getSeconds() * 1_000_000L + timestamp.getNanos() / 1_000;
+  }
+
+  @Nullable
+  private static String toZipkinKind(Kind kind) {
+    switch (kind) {
+      case SERVER:
+        return "SERVER";
+      case CLIENT:
+        return "CLIENT";
+      case PRODUCER:
+        return "PRODUCER";
+      case CONSUMER:
+        return "CONSUMER";
+      case INTERNAL:
+        break;
+    }
+    // Zipkin represents internal spans by omitting the kind.
+    return null;
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Exports spans to Zipkin via HTTP, using Zipkin's v2 JSON model.
+ *
+ * <p>Each batch is encoded by a streaming encoder into a byte buffer taken from a small pool, so
+ * steady-state exports do not allocate encoding buffers. Requests are sent with {@link
+ * HttpURLConnection}, which keeps the connection alive and reuses it for the next batch because the
+ * response is always fully consumed.
+ */
+@ThreadSafe
+public final class ZipkinSpanExporter implements SpanExporter {
+  private static final Logger logger = Logger.getLogger(ZipkinSpanExporter.class.getName());
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  // Buffers that grew larger than this while encoding a huge batch are not kept in the pool.
+  private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+  private static final int BUFFER_POOL_SIZE = 4;
+  private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+  private static final int DRAIN_BUFFER_SIZE = 256;
+
+  private final URL endpoint;
+  private final boolean compressionEnabled;
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+  private final ZipkinJsonEncoder encoder;
+  private final BlockingQueue<JsonWriter> bufferPool = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+
+  private ZipkinSpanExporter(
+      String serviceName,
+      URL endpoint,
+      boolean compressionEnabled,
+      int connectTimeoutMillis,
+      int readTimeoutMillis) {
+    this.encoder = new ZipkinJsonEncoder(serviceName);
+    this.endpoint = endpoint;
+    this.compressionEnabled = compressionEnabled;
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  /**
+   * Submits all the given spans in a single request to the Zipkin collector.
+   *
+   * @param spans the list of sampled Spans to be exported.
+   * @return the result of the operation
+   */
+  @Override
+  public ResultCode export(List<SpanData> spans) {
+    JsonWriter writer = bufferPool.poll();
+    if (writer == null) {
+      writer = new JsonWriter(INITIAL_BUFFER_SIZE);
+    }
+    try {
+      encoder.encode(spans, writer);
+      return post(writer);
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Failed to send spans to " + endpoint, e);
+      return ResultCode.FAILED_RETRYABLE;
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Failed to export spans", t);
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    } finally {
+      if (writer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+        writer.reset();
+        bufferPool.offer(writer);
+      }
+    }
+  }
+
+  private ResultCode post(JsonWriter writer) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setConnectTimeout(connectTimeoutMillis);
+    connection.setReadTimeout(readTimeoutMillis);
+    connection.setRequestProperty("Content-Type", "application/json");
+    if (compressionEnabled) {
+      connection.setRequestProperty("Content-Encoding", "gzip");
+      connection.setChunkedStreamingMode(GZIP_BUFFER_SIZE);
+      OutputStream out = new GZIPOutputStream(connection.getOutputStream(), GZIP_BUFFER_SIZE);
+      try {
+        writer.writeTo(out);
+      } finally {
+        out.close();
+      }
+    } else {
+      connection.setFixedLengthStreamingMode(writer.size());
+      OutputStream out = connection.getOutputStream();
+      try {
+        writer.writeTo(out);
+      } finally {
+        out.close();
+      }
+    }
+
+    int responseCode = connection.getResponseCode();
+    drain(responseCode < 400 ? connection.getInputStream() : connection.getErrorStream());
+    if (responseCode >= 200 && responseCode < 300) {
+      return ResultCode.SUCCESS;
+    }
+    logger.log(Level.FINE, "Zipkin collector responded with HTTP status " + responseCode);
+    if (responseCode == 408 || responseCode == 429 || responseCode >= 500) {
+      return ResultCode.FAILED_RETRYABLE;
+    }
+    return ResultCode.FAILED_NOT_RETRYABLE;
+  }
+
+  // Reads the response until the end, otherwise the connection cannot be reused.
+  private static void drain(@Nullable InputStream in) throws IOException {
+    if (in == null) {
+      return;
+    }
+    try {
+      byte[] discarded = new byte[DRAIN_BUFFER_SIZE];
+      while (in.read(discarded) != -1) {
+        // Discard the content.
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return a new instance builder for this exporter
+   */
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Releases the pooled buffers. Idle keep-alive connections are closed by the JDK. */
+  @Override
+  public void shutdown() {
+    bufferPool.clear();
+  }
+
+  /** Builder utility for this exporter. */
+  public static class Builder {
+    private static final String DEFAULT_ENDPOINT = "http://localhost:9411/api/v2/spans";
+    private String serviceName;
+    private String endpoint = DEFAULT_ENDPOINT;
+    private boolean compressionEnabled = true;
+    private int connectTimeoutMillis = 1_000;
+    private int readTimeoutMillis = 10_000;
+
+    /**
+     * Sets the service name to be used by this exporter. Required.
+     *
+     * @param serviceName the service name
+     * @return this builder's instance
+     */
+    public Builder setServiceName(String serviceName) {
+      this.serviceName = serviceName;
+      return this;
+    }
+
+    /**
+     * Sets the URL of the Zipkin v2 spans endpoint. Optional, defaults to {@code
+     * http://localhost:9411/api/v2/spans}.
+     *
+     * @param endpoint the URL of the Zipkin v2 spans endpoint
+     * @return this builder's instance
+     */
+    public Builder setEndpoint(String endpoint) {
+      this.endpoint = endpoint;
+      return this;
+    }
+
+    /**
+     * Sets whether the requests are gzipped. Optional, enabled by default.
+     *
+     * @param compressionEnabled {@code true} to gzip the requests
+     * @return this builder's instance
+     */
+    public Builder setCompressionEnabled(boolean compressionEnabled) {
+      this.compressionEnabled = compressionEnabled;
+      return this;
+    }
+
+    /**
+     * Sets the max waiting time to open a connection to the collector. Optional.
+     *
+     * @param connectTimeoutMillis the max waiting time to connect, 0 waits indefinitely
+     * @return this builder's instance
+     */
+    public Builder setConnectTimeoutMillis(int connectTimeoutMillis) {
+      this.connectTimeoutMillis = connectTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * Sets the max waiting time for the collector to respond to each span batch. Optional.
+     *
+     * @param readTimeoutMillis the max waiting time for the response, 0 waits indefinitely
+     * @return this builder's instance
+     */
+    public Builder setReadTimeoutMillis(int readTimeoutMillis) {
+      this.readTimeoutMillis = readTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * Constructs a new instance of the exporter based on the builder's values.
+     *
+     * @return a new exporter's instance
+     * @throws IllegalArgumentException if the service name is empty or the endpoint is not a valid
+     *     http(s) URL
+     */
+    public ZipkinSpanExporter build() {
+      if (serviceName == null || serviceName.trim().length() == 0) {
+        throw new IllegalArgumentException("Service name must not be null or empty");
+      }
+      if (connectTimeoutMillis < 0 || readTimeoutMillis < 0) {
+        throw new IllegalArgumentException("Timeouts must not be negative");
+      }
+      URL url;
+      try {
+        url = new URL(endpoint);
+      } catch (MalformedURLException e) {
+        throw new IllegalArgumentException("Invalid endpoint: " + endpoint, e);
+      }
+      if (!"http".equals(url.getProtocol()) && !"https".equals(url.getProtocol())) {
+        throw new IllegalArgumentException("Endpoint must be an http(s) URL: " + endpoint);
+      }
+      return new ZipkinSpanExporter(
+          serviceName, url, compressionEnabled, connectTimeoutMillis, readTimeoutMillis);
+    }
+  }
+}
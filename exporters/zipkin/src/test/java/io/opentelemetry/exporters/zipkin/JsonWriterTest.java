@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import java.nio.charset.Charset;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link JsonWriter}. */
+@RunWith(JUnit4.class)
+public class JsonWriterTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final JsonWriter writer = new JsonWriter(1);
+
+  private String content() {
+    return new String(writer.toByteArray(), UTF_8);
+  }
+
+  @Test
+  public void writeString_Escapes() {
+    writer.writeString("a\"b\\c\nd\re\tf\u0001g/");
+    assertThat(content()).isEqualTo("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g/\"");
+  }
+
+  @Test
+  public void writeString_Utf8() {
+    String value = "é€😀";
+    writer.writeString(value);
+    assertThat(writer.toByteArray()).isEqualTo(("\"" + value + "\"").getBytes(UTF_8));
+  }
+
+  @Test
+  public void writeString_UnpairedSurrogate() {
+    writer.writeString("a" + Character.highSurrogate(0x1F600) + "b");
+    assertThat(content()).isEqualTo("\"a?b\"");
+  }
+
+  @Test
+  public void writeLong() {
+    writer
+        .writeLong(0)
+        .writeByte(',')
+        .writeLong(-42)
+        .writeByte(',')
+        .writeLong(Long.MAX_VALUE)
+        .writeByte(',')
+        .writeLong(Long.MIN_VALUE);
+    assertThat(content()).isEqualTo("0,-42," + Long.MAX_VALUE + "," + Long.MIN_VALUE);
+  }
+
+  @Test
+  public void writeId() {
+    writer
+        .writeId(TraceId.fromLowerBase16("0102030405060708090a0b0c0d0e0f10", 0))
+        .writeId(SpanId.fromLowerBase16("1112131415161718", 0));
+    assertThat(content()).isEqualTo("\"0102030405060708090a0b0c0d0e0f10\"\"1112131415161718\"");
+  }
+
+  @Test
+  public void reset_KeepsBuffer() {
+    writer.writeAscii("some content that grows the buffer");
+    int capacity = writer.capacity();
+    writer.reset();
+    assertThat(writer.size()).isEqualTo(0);
+    assertThat(writer.capacity()).isEqualTo(capacity);
+    writer.writeAscii("next");
+    assertThat(content()).isEqualTo("next");
+  }
+}
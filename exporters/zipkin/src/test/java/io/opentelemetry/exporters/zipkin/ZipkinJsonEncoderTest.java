@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.util.Events;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ZipkinJsonEncoder}. */
+@RunWith(JUnit4.class)
+public class ZipkinJsonEncoderTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final String TRACE_ID = "0102030405060708090a0b0c0d0e0f10";
+  static final String SPAN_ID = "1112131415161718";
+  static final String PARENT_SPAN_ID = "2122232425262728";
+
+  private final ZipkinJsonEncoder encoder = new ZipkinJsonEncoder("my-service");
+
+  static SpanData.Builder spanBuilder() {
+    return SpanData.newBuilder()
+        .setTraceId(TraceId.fromLowerBase16(TRACE_ID, 0))
+        .setSpanId(SpanId.fromLowerBase16(SPAN_ID, 0))
+        .setName("GET /api")
+        .setKind(Kind.SERVER)
+        .setStartTimestamp(Timestamp.create(1505855794, 194009601))
+        .setEndTimestamp(Timestamp.create(1505855799, 465726528))
+        .setStatus(Status.OK);
+  }
+
+  private String encode(List<SpanData> spans) {
+    JsonWriter writer = new JsonWriter(64);
+    encoder.encode(spans, writer);
+    return new String(writer.toByteArray(), UTF_8);
+  }
+
+  @Test
+  public void encode_FullSpan() {
+    SpanData span =
+        spanBuilder()
+            .setParentSpanId(SpanId.fromLowerBase16(PARENT_SPAN_ID, 0))
+            .setAttributes(
+                Collections.singletonMap("http.status", AttributeValue.longAttributeValue(500)))
+            .setTimedEvents(
+                Collections.singletonList(
+                    TimedEvent.create(
+                        Timestamp.create(1505855799, 433901068),
+                        Events.create("received", Collections.<String, AttributeValue>emptyMap()))))
+            .setStatus(Status.INTERNAL.withDescription("boom"))
+            .build();
+    assertThat(encode(Collections.singletonList(span)))
+        .isEqualTo(
+            "[{\"traceId\":\""
+                + TRACE_ID
+                + "\",\"parentId\":\""
+                + PARENT_SPAN_ID
+                + "\",\"id\":\""
+                + SPAN_ID
+                + "\",\"kind\":\"SERVER\",\"name\":\"GET /api\""
+                + ",\"timestamp\":1505855794194009,\"duration\":5271717"
+                + ",\"localEndpoint\":{\"serviceName\":\"my-service\"}"
+                + ",\"annotations\":[{\"timestamp\":1505855799433901,\"value\":\"received\"}]"
+                + ",\"tags\":{\"http.status\":\"500\",\"ot.status_code\":\"INTERNAL\""
+                + ",\"ot.status_description\":\"boom\",\"error\":\"boom\"}}]");
+  }
+
+  @Test
+  public void encode_InternalRootSpan() {
+    SpanData span =
+        spanBuilder()
+            .setKind(Kind.INTERNAL)
+            .setEndTimestamp(Timestamp.create(1505855794, 194009601))
+            .build();
+    assertThat(encode(Collections.singletonList(span)))
+        .isEqualTo(
+            "[{\"traceId\":\""
+                + TRACE_ID
+                + "\",\"id\":\""
+                + SPAN_ID
+                + "\",\"name\":\"GET /api\""
+                + ",\"timestamp\":1505855794194009,\"duration\":1"
+                + ",\"localEndpoint\":{\"serviceName\":\"my-service\"}"
+                + ",\"tags\":{\"ot.status_code\":\"OK\"}}]");
+  }
+
+  @Test
+  public void encode_TagTypes() {
+    SpanData span =
+        spanBuilder()
+            .setAttributes(
+                Collections.singletonMap("b", AttributeValue.booleanAttributeValue(true)))
+            .build();
+    assertThat(encode(Collections.singletonList(span))).contains("\"tags\":{\"b\":\"true\",");
+    span =
+        spanBuilder()
+            .setAttributes(Collections.singletonMap("d", AttributeValue.doubleAttributeValue(1.5)))
+            .build();
+    assertThat(encode(Collections.singletonList(span))).contains("\"tags\":{\"d\":\"1.5\",");
+  }
+
+  @Test
+  public void encode_MultipleSpans() {
+    String encoded = encode(Arrays.asList(spanBuilder().build(), spanBuilder().build()));
+    assertThat(encoded).startsWith("[{");
+    assertThat(encoded).contains("}},{");
+    assertThat(encoded).endsWith("}}]");
+  }
+
+  @Test
+  public void encode_Empty() {
+    assertThat(encode(Collections.<SpanData>emptyList())).isEqualTo("[]");
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.zipkin;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ZipkinSpanExporter} against a local HTTP server standing in for Zipkin. */
+@RunWith(JUnit4.class)
+public class ZipkinSpanExporterTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  private final FakeCollector collector = new FakeCollector();
+  private HttpServer server;
+  private String endpoint;
+
+  // Records the requests and answers with a configurable HTTP status.
+  private static final class FakeCollector implements HttpHandler {
+    private final List<String> bodies = new ArrayList<>();
+    private final List<String> contentEncodings = new ArrayList<>();
+    private final List<InetSocketAddress> clients = new ArrayList<>();
+    private volatile int responseCode = 202;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+      // Read the whole request before decompressing it, so the connection can be reused.
+      byte[] body = readAll(exchange.getRequestBody());
+      if ("gzip".equals(contentEncoding)) {
+        body = readAll(new GZIPInputStream(new ByteArrayInputStream(body)));
+      }
+      synchronized (this) {
+        bodies.add(new String(body, UTF_8));
+        contentEncodings.add(contentEncoding);
+        clients.add(exchange.getRemoteAddress());
+      }
+      exchange.sendResponseHeaders(responseCode, -1);
+      exchange.close();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] chunk = new byte[1024];
+      int read;
+      while ((read = in.read(chunk)) != -1) {
+        out.write(chunk, 0, read);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/api/v2/spans", collector);
+    server.start();
+    endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v2/spans";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  private static List<SpanData> batch() {
+    return Collections.singletonList(ZipkinJsonEncoderTest.spanBuilder().build());
+  }
+
+  private ZipkinSpanExporter.Builder exporterBuilder() {
+    return ZipkinSpanExporter.newBuilder().setServiceName("my-service").setEndpoint(endpoint);
+  }
+
+  @Test
+  public void export_Gzipped() {
+    ZipkinSpanExporter exporter = exporterBuilder().build();
+    assertThat(exporter.export(batch())).isEqualTo(ResultCode.SUCCESS);
+    exporter.shutdown();
+    synchronized (collector) {
+      assertThat(collector.contentEncodings).containsExactly("gzip");
+      assertThat(collector.bodies).hasSize(1);
+      assertThat(collector.bodies.get(0)).startsWith("[{\"traceId\":\"");
+      assertThat(collector.bodies.get(0)).contains("{\"serviceName\":\"my-service\"}");
+    }
+  }
+
+  @Test
+  public void export_Uncompressed() {
+    ZipkinSpanExporter exporter = exporterBuilder().setCompressionEnabled(false).build();
+    assertThat(exporter.export(batch())).isEqualTo(ResultCode.SUCCESS);
+    synchronized (collector) {
+      assertThat(collector.contentEncodings).containsExactly((Object) null);
+      assertThat(collector.bodies.get(0)).endsWith("}}]");
+    }
+  }
+
+  @Test
+  public void export_ReusesConnection() {
+    ZipkinSpanExporter exporter = exporterBuilder().build();
+    for (int i = 0; i < 3; i++) {
+      assertThat(exporter.export(batch())).isEqualTo(ResultCode.SUCCESS);
+    }
+    synchronized (collector) {
+      assertThat(collector.clients).hasSize(3);
+      assertThat(collector.clients.get(1)).isEqualTo(collector.clients.get(0));
+      assertThat(collector.clients.get(2)).isEqualTo(collector.clients.get(0));
+    }
+  }
+
+  @Test
+  public void export_ServerError() {
+    collector.responseCode = 503;
+    ZipkinSpanExporter exporter = exporterBuilder().build();
+    assertThat(exporter.export(batch())).isEqualTo(ResultCode.FAILED_RETRYABLE);
+  }
+
+  @Test
+  public void export_BadRequest() {
+    collector.responseCode = 400;
+    ZipkinSpanExporter exporter = exporterBuilder().build();
+    assertThat(exporter.export(batch())).isEqualTo(ResultCode.FAILED_NOT_RETRYABLE);
+  }
+
+  @Test
+  public void export_Unreachable() {
+    server.stop(0);
+    ZipkinSpanExporter exporter = exporterBuilder().build();
+    assertThat(exporter.export(batch())).isEqualTo(ResultCode.FAILED_RETRYABLE);
+  }
+
+  @Test
+  public void build_RequiresServiceName() {
+    thrown.expect(IllegalArgumentException.class);
+    ZipkinSpanExporter.newBuilder().setEndpoint(endpoint).build();
+  }
+
+  @Test
+  public void build_InvalidEndpoint() {
+    thrown.expect(IllegalArgumentException.class);
+    exporterBuilder().setEndpoint("ftp://localhost/spans").build();
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.opentracingshim;
+
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.sdk.distributedcontext.DistributedContextManagerSdk;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.util.Samplers;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.propagation.TextMapAdapter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the OpenTracing shim against the native API on the same {@link TracerSdk}: a span with
+ * a tag and a log, and the extraction of a {@code SpanContext} from HTTP headers.
+ */
+@State(Scope.Benchmark)
+public class TracerShimBenchmark {
+  private static final String SPAN_NAME = "benchmark";
+  private static final String TAG_KEY = "component";
+  private static final String TAG_VALUE = "benchmark";
+  private static final Map<String, ?> LOG_FIELDS =
+      Collections.singletonMap("message", "benchmark message");
+  private static final Map<String, AttributeValue> EVENT_ATTRIBUTES =
+      Collections.singletonMap("message", AttributeValue.stringAttributeValue("benchmark message"));
+  private static final Getter<Map<String, String>> MAP_GETTER =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  @Param({"true", "false"})
+  public boolean sampled;
+
+  private final TracerSdk tracer = new TracerSdk();
+  private final Tracer tracerShim =
+      TraceShim.createTracerShim(tracer, new DistributedContextManagerSdk());
+  // Typical request headers, with the trace context among them.
+  private final Map<String, String> headers = new LinkedHashMap<>();
+
+  @Setup
+  public void setup() {
+    tracer.updateActiveTraceConfig(
+        tracer
+            .getActiveTraceConfig()
+            .toBuilder()
+            .setSampler(sampled ? Samplers.alwaysSample() : Samplers.neverSample())
+            .build());
+    headers.put("host", "example.com");
+    headers.put("user-agent", "benchmark/1.0");
+    headers.put("accept", "application/json");
+    headers.put("accept-encoding", "gzip");
+    headers.put("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+    headers.put("content-type", "application/json");
+    headers.put("content-length", "42");
+    headers.put("connection", "keep-alive");
+  }
+
+  @TearDown
+  public void tearDown() {
+    tracer.shutdown();
+  }
+
+  /** Creates a span with a tag and a log with the native API. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Span span_Native() {
+    Span span = tracer.spanBuilder(SPAN_NAME).startSpan();
+    span.setAttribute(TAG_KEY, TAG_VALUE);
+    span.addEvent("log", EVENT_ATTRIBUTES);
+    span.end();
+    return span;
+  }
+
+  /** Creates a span with a tag and a log with the shim. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public io.opentracing.Span span_Shim() {
+    io.opentracing.Span span = tracerShim.buildSpan(SPAN_NAME).start();
+    span.setTag(TAG_KEY, TAG_VALUE);
+    span.log(LOG_FIELDS);
+    span.finish();
+    return span;
+  }
+
+  /** Extracts a {@code SpanContext} from the headers with the native API. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public SpanContext extract_Native() {
+    return tracer.getHttpTextFormat().extract(headers, MAP_GETTER);
+  }
+
+  /** Extracts a {@code SpanContext} from the headers with the shim. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public io.opentracing.SpanContext extract_Shim() {
+    return tracerShim.extract(Format.Builtin.HTTP_HEADERS, new TextMapAdapter(headers));
+  }
+}
@@ -16,17 +16,33 @@
 
 package io.opentelemetry.opentracingshim;
 
+import io.opentelemetry.context.propagation.BinaryFormat;
 import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.SpanContext;
 import io.opentracing.propagation.Binary;
 import io.opentracing.propagation.TextMapExtract;
 import io.opentracing.propagation.TextMapInject;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 final class Propagation extends BaseShimObject {
+  // Fields of both text formats, the only entries of the carrier read during the extraction.
+  private final List<String> textFormatFields;
+
   Propagation(TelemetryInfo telemetryInfo) {
     super(telemetryInfo);
+    List<String> fields = new ArrayList<>(tracer().getHttpTextFormat().fields());
+    for (String field : contextManager().getHttpTextFormat().fields()) {
+      if (!fields.contains(field)) {
+        fields.add(field);
+      }
+    }
+    this.textFormatFields = Collections.unmodifiableList(fields);
   }
 
   public void injectTextFormat(SpanContextShim contextShim, TextMapInject carrier) {
@@ -39,15 +55,12 @@ final class Propagation extends BaseShimObject {
   }
 
   public SpanContextShim extractTextFormat(TextMapExtract carrier) {
-    Map<String, String> carrierMap = new HashMap<String, String>();
-    for (Map.Entry<String, String> entry : carrier) {
-      carrierMap.put(entry.getKey(), entry.getValue());
-    }
+    TextMapFields carrierFields = new TextMapFields(carrier, textFormatFields);
 
     io.opentelemetry.trace.SpanContext context =
-        tracer().getHttpTextFormat().extract(carrierMap, TextMapGetter.INSTANCE);
+        tracer().getHttpTextFormat().extract(carrierFields, TextMapGetter.INSTANCE);
     io.opentelemetry.distributedcontext.DistributedContext distContext =
-        contextManager().getHttpTextFormat().extract(carrierMap, TextMapGetter.INSTANCE);
+        contextManager().getHttpTextFormat().extract(carrierFields, TextMapGetter.INSTANCE);
 
     return new SpanContextShim(telemetryInfo, context, distContext);
   }
@@ -63,31 +76,72 @@ final class Propagation extends BaseShimObject {
     }
   }
 
-  // We use Map<> instead of TextMap as we need to query a specified key, and iterating over
-  // *all* values per key-query *might* be a bad idea.
-  static final class TextMapGetter implements HttpTextFormat.Getter<Map<String, String>> {
+  static final class TextMapGetter implements HttpTextFormat.Getter<TextMapFields> {
     private TextMapGetter() {}
 
     public static final TextMapGetter INSTANCE = new TextMapGetter();
 
+    @Nullable
     @Override
-    public String get(Map<String, String> carrier, String key) {
+    public String get(TextMapFields carrier, String key) {
       return carrier.get(key);
     }
   }
 
+  // The fields of a TextMap carrier, read with a single pass over its entries that stops as soon
+  // as the requested field is found, instead of copying all the entries in a Map. The first entry
+  // of a field wins.
+  static final class TextMapFields {
+    private final TextMapExtract carrier;
+    private final Iterator<Map.Entry<String, String>> iterator;
+    private final List<String> fields;
+    private final String[] values;
+
+    TextMapFields(TextMapExtract carrier, List<String> fields) {
+      this.carrier = carrier;
+      this.iterator = carrier.iterator();
+      this.fields = fields;
+      this.values = new String[fields.size()];
+    }
+
+    @Nullable
+    String get(String key) {
+      int index = fields.indexOf(key);
+      if (index == -1) {
+        // Not declared in fields(), not worth remembering.
+        return find(key);
+      }
+      while (values[index] == null && iterator.hasNext()) {
+        Map.Entry<String, String> entry = iterator.next();
+        int entryIndex = fields.indexOf(entry.getKey());
+        if (entryIndex != -1 && values[entryIndex] == null) {
+          values[entryIndex] = entry.getValue();
+        }
+      }
+      return values[index];
+    }
+
+    @Nullable
+    private String find(String key) {
+      for (Map.Entry<String, String> entry : carrier) {
+        if (key.equals(entry.getKey())) {
+          return entry.getValue();
+        }
+      }
+      return null;
+    }
+  }
+
   public void injectBinaryFormat(SpanContextShim context, Binary carrier) {
-    byte[] contextBuff = tracer().getBinaryFormat().toByteArray(context.getSpanContext());
-    ByteBuffer byteBuff = carrier.injectionBuffer(contextBuff.length);
-    byteBuff.put(contextBuff);
+    BinaryFormat<SpanContext> binaryFormat = tracer().getBinaryFormat();
+    SpanContext spanContext = context.getSpanContext();
+    // Written straight into the carrier buffer, heap or direct, without an intermediate array.
+    ByteBuffer byteBuff = carrier.injectionBuffer(binaryFormat.serializedSize(spanContext));
+    binaryFormat.writeTo(spanContext, byteBuff);
   }
 
   public SpanContextShim extractBinaryFormat(Binary carrier) {
-
-    ByteBuffer byteBuff = carrier.extractionBuffer();
-    byte[] buff = new byte[byteBuff.remaining()];
-    byteBuff.get(buff);
-
-    return new SpanContextShim(telemetryInfo, tracer().getBinaryFormat().fromByteArray(buff));
+    return new SpanContextShim(
+        telemetryInfo, tracer().getBinaryFormat().readFrom(carrier.extractionBuffer()));
   }
 }
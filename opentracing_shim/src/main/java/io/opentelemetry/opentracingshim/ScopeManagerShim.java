@@ -16,11 +16,17 @@
 
 package io.opentelemetry.opentracingshim;
 
+import io.grpc.Context;
+import io.opentelemetry.context.ContextStorage;
 import io.opentracing.Scope;
 import io.opentracing.ScopeManager;
 import io.opentracing.Span;
 
 final class ScopeManagerShim extends BaseShimObject implements ScopeManager {
+  // The innermost ScopeShim, attached next to the OpenTelemetry current span so activeSpan() can
+  // return the activated SpanShim, with its baggage, instead of a new wrapper.
+  private static final ContextStorage.Slot<ScopeShim> SCOPE_SLOT =
+      ContextStorage.getInstance().createSlot(Context.<ScopeShim>key("opentracing-shim-scope"));
 
   public ScopeManagerShim(TelemetryInfo telemetryInfo) {
     super(telemetryInfo);
@@ -37,6 +43,12 @@ final class ScopeManagerShim extends BaseShimObject implements ScopeManager {
       return null;
     }
 
+    // The span may have been made current with the OpenTelemetry API after the shim activation.
+    ScopeShim scope = SCOPE_SLOT.get();
+    if (scope != null && scope.span().getSpan() == span) {
+      return scope.span();
+    }
+
     // TODO: Properly include the bagagge/distributedContext.
     return new SpanShim(telemetryInfo(), span);
   }
@@ -44,15 +56,18 @@ final class ScopeManagerShim extends BaseShimObject implements ScopeManager {
   @Override
   @SuppressWarnings("MustBeClosedChecker")
   public Scope activate(Span span) {
-    io.opentelemetry.trace.Span actualSpan = getActualSpan(span);
-    return new ScopeShim(tracer().withSpan(actualSpan));
-  }
-
-  static io.opentelemetry.trace.Span getActualSpan(Span span) {
     if (!(span instanceof SpanShim)) {
       throw new IllegalArgumentException("span is not a valid SpanShim object");
     }
 
-    return ((SpanShim) span).getSpan();
+    SpanShim spanShim = (SpanShim) span;
+    io.opentelemetry.context.Scope spanScope = tracer().withSpan(spanShim.getSpan());
+    ScopeShim scope = new ScopeShim(spanShim, spanScope);
+    scope.setShimScope(SCOPE_SLOT.attach(scope));
+    return scope;
+  }
+
+  static boolean isInnermost(ScopeShim scope) {
+    return SCOPE_SLOT.get() == scope;
   }
 }
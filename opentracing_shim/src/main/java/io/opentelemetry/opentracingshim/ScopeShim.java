@@ -17,16 +17,35 @@
 package io.opentelemetry.opentracingshim;
 
 import io.opentracing.Scope;
+import javax.annotation.Nullable;
 
 final class ScopeShim implements Scope {
-  final io.opentelemetry.context.Scope scope;
+  private final SpanShim span;
+  private final io.opentelemetry.context.Scope spanScope;
+  @Nullable private io.opentelemetry.context.Scope shimScope;
 
-  public ScopeShim(io.opentelemetry.context.Scope scope) {
-    this.scope = scope;
+  ScopeShim(SpanShim span, io.opentelemetry.context.Scope spanScope) {
+    this.span = span;
+    this.spanScope = spanScope;
+  }
+
+  SpanShim span() {
+    return span;
+  }
+
+  void setShimScope(io.opentelemetry.context.Scope shimScope) {
+    this.shimScope = shimScope;
   }
 
   @Override
   public void close() {
-    scope.close();
+    // Closed out of order, twice or from another thread, ignored as in
+    // io.opentracing.util.ThreadLocalScope so the active span is never rolled back to a stale one.
+    if (shimScope == null || !ScopeManagerShim.isInnermost(this)) {
+      return;
+    }
+    shimScope.close();
+    shimScope = null;
+    spanScope.close();
   }
 }
@@ -25,14 +25,19 @@ import io.opentracing.SpanContext;
 import io.opentracing.log.Fields;
 import io.opentracing.tag.Tag;
 import io.opentracing.tag.Tags;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 final class SpanShim extends BaseShimObject implements Span {
   private static final String DEFAULT_EVENT_NAME = "log";
 
   private final io.opentelemetry.trace.Span span;
-  private SpanContextShim contextShim;
+  private final DistributedContext distContext;
+  // Created on the first use, most spans are never asked for their context. Read without lock,
+  // replaced under the lock of this span by a copy with the new baggage item.
+  @Nullable private volatile SpanContextShim contextShim;
 
   public SpanShim(TelemetryInfo telemetryInfo, io.opentelemetry.trace.Span span) {
     this(telemetryInfo, span, EmptyDistributedContext.getInstance());
@@ -44,7 +49,7 @@ final class SpanShim extends BaseShimObject implements Span {
       DistributedContext distContext) {
     super(telemetryInfo);
     this.span = span;
-    this.contextShim = new SpanContextShim(telemetryInfo, span.getContext(), distContext);
+    this.distContext = distContext;
   }
 
   io.opentelemetry.trace.Span getSpan() {
@@ -53,9 +58,7 @@ final class SpanShim extends BaseShimObject implements Span {
 
   @Override
   public SpanContext context() {
-    synchronized (this) {
-      return contextShim;
-    }
+    return getContextShim();
   }
 
   @Override
@@ -110,14 +113,16 @@ final class SpanShim extends BaseShimObject implements Span {
 
   @Override
   public Span log(Map<String, ?> fields) {
-    span.addEvent(getEventNameFromFields(fields), convertToAttributes(fields));
+    // Nothing to convert if the event is dropped anyway.
+    if (span.isRecordingEvents()) {
+      span.addEvent(getEventNameFromFields(fields), convertToAttributes(fields));
+    }
     return this;
   }
 
   @Override
   public Span log(long timestampMicroseconds, Map<String, ?> fields) {
-    span.addEvent(getEventNameFromFields(fields), convertToAttributes(fields));
-    return this;
+    return log(fields);
   }
 
   @Override
@@ -140,7 +145,7 @@ final class SpanShim extends BaseShimObject implements Span {
     }
 
     synchronized (this) {
-      contextShim = contextShim.newWithKeyValue(key, value);
+      contextShim = getContextShim().newWithKeyValue(key, value);
     }
 
     return this;
@@ -148,9 +153,7 @@ final class SpanShim extends BaseShimObject implements Span {
 
   @Override
   public String getBaggageItem(String key) {
-    synchronized (this) {
-      return contextShim.getBaggageItem(key);
-    }
+    return getContextShim().getBaggageItem(key);
   }
 
   @Override
@@ -169,6 +172,20 @@ final class SpanShim extends BaseShimObject implements Span {
     throw new UnsupportedOperationException();
   }
 
+  private SpanContextShim getContextShim() {
+    SpanContextShim shim = contextShim;
+    if (shim == null) {
+      synchronized (this) {
+        shim = contextShim;
+        if (shim == null) {
+          shim = new SpanContextShim(telemetryInfo, span.getContext(), distContext);
+          contextShim = shim;
+        }
+      }
+    }
+    return shim;
+  }
+
   static String getEventNameFromFields(Map<String, ?> fields) {
     Object eventValue = fields == null ? null : fields.get(Fields.EVENT);
     if (eventValue != null) {
@@ -179,31 +196,46 @@ final class SpanShim extends BaseShimObject implements Span {
   }
 
   static Map<String, AttributeValue> convertToAttributes(Map<String, ?> fields) {
-    Map<String, AttributeValue> attrMap = new HashMap<>();
-
-    for (Map.Entry<String, ?> entry : fields.entrySet()) {
-      String key = entry.getKey();
-      Object value = entry.getValue();
-
-      // TODO - verify null values are NOT allowed.
-      if (value == null) {
-        continue;
-      }
+    // The map is kept by the event, sized for the fields to avoid any rehash.
+    switch (fields.size()) {
+      case 0:
+        return Collections.emptyMap();
+      case 1:
+        Map.Entry<String, ?> field = fields.entrySet().iterator().next();
+        AttributeValue attributeValue = convertToAttributeValue(field.getValue());
+        return attributeValue == null
+            ? Collections.<String, AttributeValue>emptyMap()
+            : Collections.singletonMap(field.getKey(), attributeValue);
+      default:
+        Map<String, AttributeValue> attrMap = new HashMap<>(fields.size() * 4 / 3 + 1);
+        for (Map.Entry<String, ?> entry : fields.entrySet()) {
+          AttributeValue value = convertToAttributeValue(entry.getValue());
+          if (value != null) {
+            attrMap.put(entry.getKey(), value);
+          }
+        }
+        return Collections.unmodifiableMap(attrMap);
+    }
+  }
 
-      if (value instanceof Byte
-          || value instanceof Short
-          || value instanceof Integer
-          || value instanceof Long) {
-        attrMap.put(key, AttributeValue.longAttributeValue(((Number) value).longValue()));
-      } else if (value instanceof Float || value instanceof Double) {
-        attrMap.put(key, AttributeValue.doubleAttributeValue(((Number) value).doubleValue()));
-      } else if (value instanceof Boolean) {
-        attrMap.put(key, AttributeValue.booleanAttributeValue((Boolean) value));
-      } else {
-        attrMap.put(key, AttributeValue.stringAttributeValue(value.toString()));
-      }
+  @Nullable
+  private static AttributeValue convertToAttributeValue(@Nullable Object value) {
+    // TODO - verify null values are NOT allowed.
+    if (value == null) {
+      return null;
     }
 
-    return attrMap;
+    if (value instanceof Byte
+        || value instanceof Short
+        || value instanceof Integer
+        || value instanceof Long) {
+      return AttributeValue.longAttributeValue(((Number) value).longValue());
+    } else if (value instanceof Float || value instanceof Double) {
+      return AttributeValue.doubleAttributeValue(((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      return AttributeValue.booleanAttributeValue((Boolean) value);
+    } else {
+      return AttributeValue.stringAttributeValue(value.toString());
+    }
   }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.opentracingshim;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.opentracingshim.Propagation.TextMapFields;
+import io.opentelemetry.sdk.distributedcontext.DistributedContextManagerSdk;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentracing.propagation.TextMapAdapter;
+import io.opentracing.propagation.TextMapExtract;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link Propagation}. */
+@RunWith(JUnit4.class)
+public class PropagationTest {
+  private static final List<String> FIELDS = Arrays.asList("one", "two");
+
+  private final TelemetryInfo telemetryInfo =
+      new TelemetryInfo(new TracerSdk(), new DistributedContextManagerSdk());
+  private final Propagation propagation = new Propagation(telemetryInfo);
+
+  // A TextMapExtract that may hold the same key several times and counts the entries read.
+  private static final class ListCarrier implements TextMapExtract {
+    private final List<Map.Entry<String, String>> entries = new ArrayList<>();
+    private int readEntries;
+
+    private ListCarrier add(String key, String value) {
+      entries.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+      return this;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      final Iterator<Map.Entry<String, String>> iterator = entries.iterator();
+      return new Iterator<Map.Entry<String, String>>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+          readEntries++;
+          return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+
+  @Test
+  public void textMapFields_SingleHeader() {
+    ListCarrier carrier = new ListCarrier().add("one", "1").add("other", "x").add("two", "2");
+    TextMapFields fields = new TextMapFields(carrier, FIELDS);
+    assertThat(fields.get("one")).isEqualTo("1");
+    // Stops reading the carrier as soon as the field is found.
+    assertThat(carrier.readEntries).isEqualTo(1);
+    assertThat(fields.get("two")).isEqualTo("2");
+    assertThat(carrier.readEntries).isEqualTo(3);
+    // Already read, the carrier is not read again.
+    assertThat(fields.get("one")).isEqualTo("1");
+    assertThat(carrier.readEntries).isEqualTo(3);
+  }
+
+  @Test
+  public void textMapFields_DuplicateHeaderFirstWins() {
+    ListCarrier carrier = new ListCarrier().add("two", "first").add("one", "1").add("two", "last");
+    TextMapFields fields = new TextMapFields(carrier, FIELDS);
+    assertThat(fields.get("one")).isEqualTo("1");
+    assertThat(fields.get("two")).isEqualTo("first");
+  }
+
+  @Test
+  public void textMapFields_MissingHeader() {
+    ListCarrier carrier = new ListCarrier().add("one", "1");
+    TextMapFields fields = new TextMapFields(carrier, FIELDS);
+    assertThat(fields.get("two")).isNull();
+    assertThat(fields.get("one")).isEqualTo("1");
+    assertThat(fields.get("two")).isNull();
+  }
+
+  @Test
+  public void textMapFields_KeyOutsideFields() {
+    ListCarrier carrier =
+        new ListCarrier().add("one", "1").add("extra", "first").add("extra", "last");
+    TextMapFields fields = new TextMapFields(carrier, FIELDS);
+    assertThat(fields.get("extra")).isEqualTo("first");
+    assertThat(fields.get("missing")).isNull();
+    // Undeclared keys do not disturb the declared ones.
+    assertThat(fields.get("one")).isEqualTo("1");
+  }
+
+  @Test
+  public void textFormat_RoundTrip() {
+    SpanShim span =
+        new SpanShim(telemetryInfo, telemetryInfo.tracer().spanBuilder("span").startSpan());
+    Map<String, String> headers = new HashMap<>();
+    propagation.injectTextFormat((SpanContextShim) span.context(), new TextMapAdapter(headers));
+    assertThat(headers).isNotEmpty();
+    assertThat(extractFrom(headers)).isEqualTo(span.getSpan().getContext());
+  }
+
+  @Test
+  public void textFormat_DuplicateHeaderFirstWins() {
+    Map<String, String> first = inject("first");
+    Map<String, String> last = inject("last");
+    ListCarrier carrier = new ListCarrier();
+    for (Map.Entry<String, String> entry : first.entrySet()) {
+      carrier.add(entry.getKey(), entry.getValue());
+    }
+    for (Map.Entry<String, String> entry : last.entrySet()) {
+      carrier.add(entry.getKey(), entry.getValue());
+    }
+
+    io.opentelemetry.trace.SpanContext extracted =
+        propagation.extractTextFormat(carrier).getSpanContext();
+    assertThat(extracted).isEqualTo(extractFrom(first));
+    assertThat(extracted).isNotEqualTo(extractFrom(last));
+  }
+
+  private Map<String, String> inject(String spanName) {
+    SpanShim span =
+        new SpanShim(telemetryInfo, telemetryInfo.tracer().spanBuilder(spanName).startSpan());
+    Map<String, String> headers = new HashMap<>();
+    propagation.injectTextFormat((SpanContextShim) span.context(), new TextMapAdapter(headers));
+    return headers;
+  }
+
+  private io.opentelemetry.trace.SpanContext extractFrom(Map<String, String> headers) {
+    return propagation.extractTextFormat(new TextMapAdapter(headers)).getSpanContext();
+  }
+}
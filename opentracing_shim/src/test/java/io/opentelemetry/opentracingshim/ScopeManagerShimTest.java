@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.opentracingshim;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.sdk.distributedcontext.DistributedContextManagerSdk;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.sdk.trace.export.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.export.SimpleSpansProcessor;
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ScopeManagerShim}. */
+@RunWith(JUnit4.class)
+public class ScopeManagerShimTest {
+  private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+  private final TracerSdk tracerSdk = new TracerSdk();
+  private final Tracer tracer =
+      TraceShim.createTracerShim(tracerSdk, new DistributedContextManagerSdk());
+
+  @Before
+  public void setUp() {
+    tracerSdk.addSpanProcessor(SimpleSpansProcessor.newBuilder(exporter).build());
+  }
+
+  private static io.opentelemetry.trace.Span getSpan(Span span) {
+    return ((SpanShim) span).getSpan();
+  }
+
+  private SpanData getFinishedSpan(String name) {
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    for (SpanData span : spans) {
+      if (span.getName().equals(name)) {
+        return span;
+      }
+    }
+    throw new AssertionError("No finished span named " + name + " in " + spans);
+  }
+
+  @Test
+  public void nestedActivation() {
+    Span outer = tracer.buildSpan("outer").start();
+    Span inner = tracer.buildSpan("inner").start();
+    Scope outerScope = tracer.activateSpan(outer);
+    assertThat(tracer.activeSpan()).isSameInstanceAs(outer);
+    Scope innerScope = tracer.activateSpan(inner);
+    assertThat(tracer.activeSpan()).isSameInstanceAs(inner);
+    innerScope.close();
+    assertThat(tracer.activeSpan()).isSameInstanceAs(outer);
+    outerScope.close();
+    assertThat(tracer.activeSpan()).isNull();
+    assertThat(tracerSdk.getCurrentSpan())
+        .isEqualTo(io.opentelemetry.trace.DefaultSpan.getInvalid());
+  }
+
+  @Test
+  public void outOfOrderCloseIsIgnored() {
+    Span outer = tracer.buildSpan("outer").start();
+    Span inner = tracer.buildSpan("inner").start();
+    Scope outerScope = tracer.activateSpan(outer);
+    Scope innerScope = tracer.activateSpan(inner);
+    outerScope.close();
+    assertThat(tracer.activeSpan()).isSameInstanceAs(inner);
+    assertThat(tracerSdk.getCurrentSpan()).isSameInstanceAs(getSpan(inner));
+    innerScope.close();
+    // As in io.opentracing.util.ThreadLocalScopeManager the outer scope is still open.
+    assertThat(tracer.activeSpan()).isSameInstanceAs(outer);
+    outerScope.close();
+    assertThat(tracer.activeSpan()).isNull();
+    // Closing twice is a no-op.
+    innerScope.close();
+    assertThat(tracer.activeSpan()).isNull();
+  }
+
+  @Test
+  public void activeSpanKeepsBaggage() {
+    Span span = tracer.buildSpan("span").start();
+    span.setBaggageItem("key", "value");
+    try (Scope scope = tracer.activateSpan(span)) {
+      assertThat(tracer.activeSpan().getBaggageItem("key")).isEqualTo("value");
+    }
+  }
+
+  @Test
+  public void shimSpanParentsOpenTelemetrySpan() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope scope = tracer.activateSpan(parent)) {
+      assertThat(tracerSdk.getCurrentSpan()).isSameInstanceAs(getSpan(parent));
+      tracerSdk.spanBuilder("child").startSpan().end();
+    }
+    parent.finish();
+
+    assertThat(getFinishedSpan("child").getParentSpanId())
+        .isEqualTo(getSpan(parent).getContext().getSpanId());
+  }
+
+  @Test
+  public void openTelemetrySpanParentsShimSpan() {
+    io.opentelemetry.trace.Span parent = tracerSdk.spanBuilder("parent").startSpan();
+    try (io.opentelemetry.context.Scope scope = tracerSdk.withSpan(parent)) {
+      assertThat(getSpan(tracer.activeSpan())).isSameInstanceAs(parent);
+      tracer.buildSpan("child").start().finish();
+    }
+    parent.end();
+
+    assertThat(getFinishedSpan("child").getParentSpanId())
+        .isEqualTo(parent.getContext().getSpanId());
+    assertThat(tracer.activeSpan()).isNull();
+  }
+
+  @Test
+  public void openTelemetrySpanActivatedOverShimSpan() {
+    Span shimSpan = tracer.buildSpan("shim").start();
+    io.opentelemetry.trace.Span otelSpan = tracerSdk.spanBuilder("otel").startSpan();
+    try (Scope shimScope = tracer.activateSpan(shimSpan)) {
+      try (io.opentelemetry.context.Scope otelScope = tracerSdk.withSpan(otelSpan)) {
+        assertThat(getSpan(tracer.activeSpan())).isSameInstanceAs(otelSpan);
+        tracer.buildSpan("child").start().finish();
+      }
+      assertThat(tracer.activeSpan()).isSameInstanceAs(shimSpan);
+    }
+
+    assertThat(getFinishedSpan("child").getParentSpanId())
+        .isEqualTo(otelSpan.getContext().getSpanId());
+  }
+}
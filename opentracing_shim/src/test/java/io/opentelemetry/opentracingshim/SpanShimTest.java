@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.opentracingshim;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.distributedcontext.DefaultDistributedContextManager;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentracing.log.Fields;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpanShim}. */
+@RunWith(JUnit4.class)
+public class SpanShimTest {
+  private final TelemetryInfo telemetryInfo =
+      new TelemetryInfo(new TracerSdk(), DefaultDistributedContextManager.getInstance());
+  private final SpanShim span =
+      new SpanShim(telemetryInfo, telemetryInfo.tracer().spanBuilder("span").startSpan());
+
+  private List<TimedEvent> getEvents() {
+    return ((ReadableSpan) span.getSpan()).toSpanData().getTimedEvents();
+  }
+
+  @Test
+  public void convertToAttributes_Empty() {
+    assertThat(SpanShim.convertToAttributes(Collections.<String, Object>emptyMap())).isEmpty();
+  }
+
+  @Test
+  public void convertToAttributes_OneField() {
+    assertThat(SpanShim.convertToAttributes(Collections.singletonMap("key", 1)))
+        .containsExactly("key", AttributeValue.longAttributeValue(1));
+    assertThat(SpanShim.convertToAttributes(Collections.singletonMap("key", null))).isEmpty();
+  }
+
+  @Test
+  public void convertToAttributes_MultipleFields() {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    fields.put("long", 1L);
+    fields.put("int", 2);
+    fields.put("double", 3.5);
+    fields.put("boolean", true);
+    fields.put("string", "value");
+    fields.put("object", new StringBuilder("object"));
+    fields.put("null", null);
+
+    Map<String, AttributeValue> attributes = SpanShim.convertToAttributes(fields);
+    assertThat(attributes)
+        .containsExactly(
+            "long", AttributeValue.longAttributeValue(1),
+            "int", AttributeValue.longAttributeValue(2),
+            "double", AttributeValue.doubleAttributeValue(3.5),
+            "boolean", AttributeValue.booleanAttributeValue(true),
+            "string", AttributeValue.stringAttributeValue("value"),
+            "object", AttributeValue.stringAttributeValue("object"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void convertToAttributes_Unmodifiable() {
+    Map<String, Object> fields = new HashMap<>();
+    fields.put("one", 1);
+    fields.put("two", 2);
+    SpanShim.convertToAttributes(fields).clear();
+  }
+
+  @Test
+  public void log_NoFields() {
+    span.log(Collections.<String, Object>emptyMap());
+    List<TimedEvent> events = getEvents();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getName()).isEqualTo("log");
+    assertThat(events.get(0).getAttributes()).isEmpty();
+  }
+
+  @Test
+  public void log_OneField() {
+    span.log(Collections.singletonMap(Fields.EVENT, "error"));
+    List<TimedEvent> events = getEvents();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getName()).isEqualTo("error");
+    assertThat(events.get(0).getAttributes())
+        .containsExactly(Fields.EVENT, AttributeValue.stringAttributeValue("error"));
+  }
+
+  @Test
+  public void log_MultipleFields() {
+    Map<String, Object> fields = new HashMap<>();
+    fields.put(Fields.MESSAGE, "message");
+    fields.put("count", 3);
+    span.log(123, fields);
+    List<TimedEvent> events = getEvents();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getName()).isEqualTo("log");
+    assertThat(events.get(0).getAttributes())
+        .containsExactly(
+            Fields.MESSAGE,
+            AttributeValue.stringAttributeValue("message"),
+            "count",
+            AttributeValue.longAttributeValue(3));
+  }
+
+  @Test
+  public void log_NotRecordingEvents() {
+    SpanShim notRecording = new SpanShim(telemetryInfo, DefaultSpan.getInvalid());
+    assertThat(notRecording.log(Collections.singletonMap("key", "value")))
+        .isSameInstanceAs(notRecording);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks {@link BaggageHttpTextFormat} with 1, 10 and 50 entries. */
+@State(Scope.Thread)
+public class BaggageHttpTextFormatBenchmark {
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  @Param({"1", "10", "50"})
+  public int entries;
+
+  private final BaggageHttpTextFormat format = new BaggageHttpTextFormat();
+  private final Map<String, String> carrier = new HashMap<>();
+  private final Map<String, String> injected = new HashMap<>();
+  private DistributedContext distContext;
+
+  @Setup
+  public void setup() {
+    DistributedContextSdk.Builder builder = new DistributedContextSdk.Builder();
+    builder.setNoParent();
+    for (int i = 0; i < entries; i++) {
+      // One value out of five needs percent-encoding.
+      String value = i % 5 == 0 ? "region us-east " + i : "tenant-" + i;
+      builder.put(
+          EntryKey.create("key" + i),
+          EntryValue.create(value),
+          Entry.METADATA_UNLIMITED_PROPAGATION);
+    }
+    distContext = builder.build();
+    format.inject(distContext, carrier, setter);
+  }
+
+  /** Parses the {@code baggage} header. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public DistributedContext extract() {
+    return format.extract(carrier, getter);
+  }
+
+  /** Writes the {@code baggage} header. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Map<String, String> inject() {
+    format.inject(distContext, injected, setter);
+    return injected;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks {@link BinaryDistributedContextFormat} with 1, 10 and 50 entries. */
+@State(Scope.Thread)
+public class BinaryDistributedContextFormatBenchmark {
+
+  @Param({"1", "10", "50"})
+  public int entries;
+
+  private final BinaryDistributedContextFormat format = new BinaryDistributedContextFormat();
+  private DistributedContext distContext;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    DistributedContextSdk.Builder builder = new DistributedContextSdk.Builder();
+    builder.setNoParent();
+    for (int i = 0; i < entries; i++) {
+      builder.put(
+          EntryKey.create("key" + i),
+          EntryValue.create("tenant-" + i),
+          Entry.METADATA_UNLIMITED_PROPAGATION);
+    }
+    distContext = builder.build();
+    bytes = format.toByteArray(distContext);
+  }
+
+  /** Parses the serialized context. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public DistributedContext fromByteArray() {
+    return format.fromByteArray(bytes);
+  }
+
+  /** Serializes the context. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public byte[] toByteArray() {
+    return format.toByteArray(distContext);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks lookups on {@link DistributedContextSdk} nested 1, 10 and 50 levels deep. */
+@State(Scope.Thread)
+public class DistributedContextSdkBenchmark {
+  private static final EntryKey ROOT_KEY = EntryKey.create("root");
+
+  @Param({"1", "10", "50"})
+  public int depth;
+
+  private DistributedContext distContext;
+
+  @Setup
+  public void setup() {
+    DistributedContextSdk.Builder builder = new DistributedContextSdk.Builder();
+    builder.setNoParent();
+    builder.put(ROOT_KEY, EntryValue.create("value"), Entry.METADATA_UNLIMITED_PROPAGATION);
+    distContext = builder.build();
+    for (int i = 1; i < depth; i++) {
+      distContext =
+          new DistributedContextSdk.Builder()
+              .setParent(distContext)
+              .put(
+                  EntryKey.create("key" + i),
+                  EntryValue.create("value" + i),
+                  Entry.METADATA_UNLIMITED_PROPAGATION)
+              .build();
+    }
+  }
+
+  /** Looks up the entry added by the outermost context. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Nullable
+  public EntryValue getEntryValue() {
+    return distContext.getEntryValue(ROOT_KEY);
+  }
+
+  /** Returns all the entries. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Collection<Entry> getEntries() {
+    return distContext.getEntries();
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.trace.Span;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks the recording methods of {@link RecordEventsReadableSpan} with 1, 4 and 16 threads,
+ * every thread working on its own spans created by a shared {@link TracerSdk}.
+ */
+public class RecordEventsReadableSpanBenchmark {
+
+  /** The tracer shared by all the threads. */
+  @State(Scope.Benchmark)
+  public static class TracerState {
+    final TracerSdk tracer = new TracerSdk();
+  }
+
+  /** A sampled span with attributes and events, owned by one thread. */
+  @State(Scope.Thread)
+  public static class SpanState {
+    TracerSdk tracer;
+    RecordEventsReadableSpan span;
+    RecordEventsReadableSpan endedSpan;
+
+    @Setup
+    public void setup(TracerState tracerState) {
+      tracer = tracerState.tracer;
+      endedSpan = (RecordEventsReadableSpan) tracer.spanBuilder("ended").startSpan();
+      recordAttributesAndEvent(endedSpan);
+      endedSpan.end();
+    }
+
+    // A new span for every iteration, otherwise the later iterations record into a larger span.
+    @Setup(Level.Iteration)
+    public void newSpan() {
+      span = (RecordEventsReadableSpan) tracer.spanBuilder("span").startSpan();
+    }
+  }
+
+  /** Sets 4 attributes and adds 1 event to a span, from a single thread. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(1)
+  public Span record_01Thread(SpanState spanState) {
+    return recordAttributesAndEvent(spanState.span);
+  }
+
+  /** Sets 4 attributes and adds 1 event to a span, from 4 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(4)
+  public Span record_04Threads(SpanState spanState) {
+    return recordAttributesAndEvent(spanState.span);
+  }
+
+  /** Sets 4 attributes and adds 1 event to a span, from 16 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(16)
+  public Span record_16Threads(SpanState spanState) {
+    return recordAttributesAndEvent(spanState.span);
+  }
+
+  /** Starts and ends a span, from a single thread. Subtract {@code startSpan} for {@code end}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(1)
+  public Span startAndEnd_01Thread(TracerState tracerState) {
+    return startAndEnd(tracerState.tracer);
+  }
+
+  /** Starts and ends a span, from 4 threads. Subtract {@code startSpan} for {@code end}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(4)
+  public Span startAndEnd_04Threads(TracerState tracerState) {
+    return startAndEnd(tracerState.tracer);
+  }
+
+  /** Starts and ends a span, from 16 threads. Subtract {@code startSpan} for {@code end}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(16)
+  public Span startAndEnd_16Threads(TracerState tracerState) {
+    return startAndEnd(tracerState.tracer);
+  }
+
+  /** Converts an ended span with attributes and events, from a single thread. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(1)
+  public SpanData toSpanData_01Thread(SpanState spanState) {
+    return spanState.endedSpan.toSpanData();
+  }
+
+  /** Converts an ended span with attributes and events, from 4 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(4)
+  public SpanData toSpanData_04Threads(SpanState spanState) {
+    return spanState.endedSpan.toSpanData();
+  }
+
+  /** Converts an ended span with attributes and events, from 16 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(16)
+  public SpanData toSpanData_16Threads(SpanState spanState) {
+    return spanState.endedSpan.toSpanData();
+  }
+
+  private static Span recordAttributesAndEvent(Span span) {
+    span.setAttribute("http.method", "GET");
+    span.setAttribute("http.status_code", 200L);
+    span.setAttribute("http.url", "http://example.com/benchmark");
+    span.setAttribute("error", false);
+    span.addEvent("response");
+    return span;
+  }
+
+  private static Span startAndEnd(TracerSdk tracer) {
+    Span span = tracer.spanBuilder("span").startSpan();
+    span.end();
+    return span;
+  }
+}
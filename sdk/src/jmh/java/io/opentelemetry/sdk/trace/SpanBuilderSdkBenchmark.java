@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.trace.Sampler;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.util.Samplers;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks {@link SpanBuilderSdk#startSpan()} on a {@link TracerSdk} shared by 1, 4 and 16
+ * threads, for sampled and unsampled spans with and without a parent.
+ */
+@State(Scope.Benchmark)
+public class SpanBuilderSdkBenchmark {
+  private static final String SPAN_NAME = "benchmark";
+
+  @Param({"true", "false"})
+  public boolean sampled;
+
+  @Param({"true", "false"})
+  public boolean withParent;
+
+  private final TracerSdk tracer = new TracerSdk();
+  private Sampler sampler;
+  private Span parent;
+
+  @Setup
+  public void setup() {
+    sampler = sampled ? Samplers.alwaysSample() : Samplers.neverSample();
+    parent = tracer.spanBuilder("parent").setSampler(sampler).startSpan();
+  }
+
+  /** Starts a span from a single thread. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(1)
+  public Span startSpan_01Thread() {
+    return startSpan();
+  }
+
+  /** Starts a span from 4 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(4)
+  public Span startSpan_04Threads() {
+    return startSpan();
+  }
+
+  /** Starts a span from 16 threads. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(16)
+  public Span startSpan_16Threads() {
+    return startSpan();
+  }
+
+  private Span startSpan() {
+    Span.Builder builder = tracer.spanBuilder(SPAN_NAME).setSampler(sampler);
+    if (withParent) {
+      builder.setParent(parent);
+    } else {
+      builder.setNoParent();
+    }
+    return builder.startSpan();
+  }
+}
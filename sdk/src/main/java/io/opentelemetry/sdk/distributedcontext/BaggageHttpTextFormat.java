@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.EmptyDistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryMetadata.EntryTtl;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Propagates the {@link DistributedContext} in a single HTTP header following the W3C Baggage
+ * format: a comma-separated list of percent-encoded {@code key=value} members.
+ *
+ * <p>Entries with {@link EntryTtl#NO_PROPAGATION} are not injected. Both the encoder and the
+ * decoder work in a single pass over the entries and the header: keys and values that need no
+ * escaping, by far the most common case, are copied as-is. The limits of {@value #MAX_MEMBERS}
+ * members and {@value #MAX_HEADER_LENGTH} characters are enforced while encoding, members that do
+ * not fit are dropped. Extraction ignores the members that cannot be decoded and the member
+ * properties, all the extracted entries can be propagated further.
+ */
+@Immutable
+final class BaggageHttpTextFormat implements HttpTextFormat<DistributedContext> {
+  static final String BAGGAGE = "baggage";
+  static final int MAX_MEMBERS = 180;
+  static final int MAX_HEADER_LENGTH = 8192;
+
+  private static final List<String> FIELDS = Collections.singletonList(BAGGAGE);
+  private static final char MEMBER_DELIMITER = ',';
+  private static final char KEY_VALUE_DELIMITER = '=';
+  private static final char PROPERTY_DELIMITER = ';';
+  private static final char PERCENT = '%';
+  private static final String HEX = "0123456789ABCDEF";
+  // Characters that are copied as-is, the others are percent-encoded.
+  private static final boolean[] UNESCAPED = buildUnescaped();
+
+  private static boolean[] buildUnescaped() {
+    boolean[] unescaped = new boolean[128];
+    for (char c = '!'; c <= '~'; c++) {
+      unescaped[c] = true;
+    }
+    unescaped['"'] = false;
+    unescaped[MEMBER_DELIMITER] = false;
+    unescaped[PROPERTY_DELIMITER] = false;
+    unescaped[KEY_VALUE_DELIMITER] = false;
+    unescaped['\\'] = false;
+    unescaped[PERCENT] = false;
+    return unescaped;
+  }
+
+  @Override
+  public List<String> fields() {
+    return FIELDS;
+  }
+
+  @Override
+  public <C> void inject(DistributedContext distContext, C carrier, Setter<C> setter) {
+    checkNotNull(distContext, "distContext");
+    checkNotNull(carrier, "carrier");
+    checkNotNull(setter, "setter");
+    StringBuilder header = null;
+    int members = 0;
+    for (Entry entry : distContext.getEntries()) {
+      if (entry.getEntryMetadata().getEntryTtl() == EntryTtl.NO_PROPAGATION) {
+        continue;
+      }
+      if (members == MAX_MEMBERS) {
+        break;
+      }
+      if (header == null) {
+        header = new StringBuilder();
+      }
+      int start = header.length();
+      if (start != 0) {
+        header.append(MEMBER_DELIMITER);
+      }
+      encode(entry.getKey().getName(), header);
+      header.append(KEY_VALUE_DELIMITER);
+      encode(entry.getValue().asString(), header);
+      if (header.length() > MAX_HEADER_LENGTH) {
+        // The member does not fit, the next ones may still fit.
+        header.setLength(start);
+        continue;
+      }
+      members++;
+    }
+    if (header != null && header.length() != 0) {
+      setter.put(carrier, BAGGAGE, header.toString());
+    }
+  }
+
+  @Override
+  public <C> DistributedContext extract(C carrier, Getter<C> getter) {
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+    String header = getter.get(carrier, BAGGAGE);
+    if (header == null || header.isEmpty()) {
+      return EmptyDistributedContext.getInstance();
+    }
+    DistributedContextSdk.Builder builder = new DistributedContextSdk.Builder();
+    builder.setNoParent();
+    int length = Math.min(header.length(), MAX_HEADER_LENGTH);
+    int members = 0;
+    int memberStart = 0;
+    while (memberStart < length && members < MAX_MEMBERS) {
+      int memberEnd = header.indexOf(MEMBER_DELIMITER, memberStart);
+      if (memberEnd == -1) {
+        memberEnd = header.length();
+      }
+      if (memberEnd > length) {
+        // The member is truncated by the size limit.
+        break;
+      }
+      if (decodeMember(header, memberStart, memberEnd, builder)) {
+        members++;
+      }
+      memberStart = memberEnd + 1;
+    }
+    return builder.build();
+  }
+
+  // Adds the entry of the member, returns false if the member is empty or invalid.
+  private static boolean decodeMember(
+      String header, int start, int end, DistributedContextSdk.Builder builder) {
+    end = indexOf(header, PROPERTY_DELIMITER, start, end);
+    int delimiter = indexOf(header, KEY_VALUE_DELIMITER, start, end);
+    if (delimiter == end) {
+      return false;
+    }
+    String key =
+        decode(header, trimStart(header, start, delimiter), trimEnd(header, start, delimiter));
+    String value =
+        decode(header, trimStart(header, delimiter + 1, end), trimEnd(header, delimiter + 1, end));
+    if (key == null || key.isEmpty() || value == null) {
+      return false;
+    }
+    try {
+      builder.put(
+          EntryKey.create(key), EntryValue.create(value), Entry.METADATA_UNLIMITED_PROPAGATION);
+    } catch (IllegalArgumentException e) {
+      // Not a valid key or value for a DistributedContext.
+      return false;
+    }
+    return true;
+  }
+
+  private static void encode(String value, StringBuilder dest) {
+    int length = value.length();
+    int i = 0;
+    while (i < length && isUnescaped(value.charAt(i))) {
+      i++;
+    }
+    if (i == length) {
+      dest.append(value);
+      return;
+    }
+    dest.append(value, 0, i);
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (isUnescaped(c)) {
+        dest.append(c);
+      } else {
+        // Keys and values are printable ASCII, a single byte is enough.
+        dest.append(PERCENT).append(HEX.charAt((c >> 4) & 0xF)).append(HEX.charAt(c & 0xF));
+      }
+    }
+  }
+
+  // Returns null if the percent-encoding is not valid.
+  @Nullable
+  private static String decode(String header, int start, int end) {
+    int percent = indexOf(header, PERCENT, start, end);
+    if (percent == end) {
+      return header.substring(start, end);
+    }
+    StringBuilder decoded = new StringBuilder(end - start);
+    decoded.append(header, start, percent);
+    for (int i = percent; i < end; i++) {
+      char c = header.charAt(i);
+      if (c != PERCENT) {
+        decoded.append(c);
+        continue;
+      }
+      if (i + 2 >= end) {
+        return null;
+      }
+      int hi = Character.digit(header.charAt(i + 1), 16);
+      int lo = Character.digit(header.charAt(i + 2), 16);
+      if (hi == -1 || lo == -1) {
+        return null;
+      }
+      decoded.append((char) (hi << 4 | lo));
+      i += 2;
+    }
+    return decoded.toString();
+  }
+
+  // Returns the index of the first c in [start, end), or end if not found.
+  private static int indexOf(String header, char c, int start, int end) {
+    while (start < end && header.charAt(start) != c) {
+      start++;
+    }
+    return start;
+  }
+
+  private static boolean isUnescaped(char c) {
+    return c < UNESCAPED.length && UNESCAPED[c];
+  }
+
+  private static int trimStart(String header, int start, int end) {
+    while (start < end && isWhiteSpace(header.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(String header, int start, int end) {
+    while (end > start && isWhiteSpace(header.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isWhiteSpace(char c) {
+    return c == ' ' || c == '\t';
+  }
+}
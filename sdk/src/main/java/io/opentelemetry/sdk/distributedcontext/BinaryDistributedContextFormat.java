@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import static io.opentelemetry.internal.Utils.checkArgument;
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.opentelemetry.context.propagation.BinaryFormat;
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryMetadata.EntryTtl;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.nio.ByteBuffer;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Implementation of the binary propagation protocol on {@link DistributedContext}.
+ *
+ * <p>Format:
+ *
+ * <ul>
+ *   <li>Binary value: &lt;version_id&gt;&lt;encoded_entries&gt;
+ *   <li>version_id: 1-byte representing the version id.
+ *   <li>For version_id = 0:
+ *       <ul>
+ *         <li>encoded_entries: &lt;entry&gt;*
+ *         <li>entry: &lt;field_id&gt;&lt;key_len&gt;&lt;key&gt;&lt;value_len&gt;&lt;value&gt;
+ *         <li>field_id: 1-byte, always 0 for an entry.
+ *         <li>key_len and value_len: the length in bytes of the key and of the value, encoded as
+ *             unsigned varints.
+ *         <li>key and value: the ASCII characters of the {@link EntryKey} and of the {@link
+ *             EntryValue}.
+ *         <li>Parsing stops at the first unknown field id.
+ *         <li>Valid value example:
+ *             <ul>
+ *               <li>{0, 0, 1, 107, 2, 118, 49}
+ *               <li>version_id = 0;
+ *               <li>entry key = "k", value = "v1";
+ *             </ul>
+ *       </ul>
+ * </ul>
+ *
+ * <p>Entries with {@link EntryTtl#NO_PROPAGATION} are not serialized. The serialized value is at
+ * most {@value #MAX_SIZE} bytes: the encoder computes the exact size first and then writes the
+ * entries that fit in one pass, the decoder rejects longer values before reading any entry.
+ */
+@Immutable
+final class BinaryDistributedContextFormat implements BinaryFormat<DistributedContext> {
+  static final int MAX_SIZE = 8192;
+
+  private static final byte VERSION_ID = 0;
+  private static final byte ENTRY_FIELD_ID = 0;
+  // The version_id/field_id size in bytes.
+  private static final int ID_SIZE = 1;
+  private static final int VARINT_MASK = 0x7F;
+  private static final int VARINT_CONTINUATION = 0x80;
+  // Lengths are at most MAX_SIZE, more bytes than this means a corrupted varint.
+  private static final int MAX_VARINT_SIZE = 2;
+
+  @Override
+  public byte[] toByteArray(DistributedContext distContext) {
+    byte[] bytes = new byte[serializedSize(distContext)];
+    writeTo(distContext, ByteBuffer.wrap(bytes));
+    return bytes;
+  }
+
+  @Override
+  public DistributedContext fromByteArray(byte[] bytes) {
+    checkNotNull(bytes, "bytes");
+    return readFrom(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public int serializedSize(DistributedContext distContext) {
+    checkNotNull(distContext, "distContext");
+    int size = ID_SIZE;
+    for (Entry entry : distContext.getEntries()) {
+      int entrySize = entrySize(entry);
+      if (entrySize != 0 && size + entrySize <= MAX_SIZE) {
+        size += entrySize;
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public void writeTo(DistributedContext distContext, ByteBuffer dest) {
+    checkNotNull(dest, "dest");
+    checkArgument(dest.remaining() >= serializedSize(distContext), "buffer too small");
+    int start = dest.position();
+    dest.put(start, VERSION_ID);
+    int pos = ID_SIZE;
+    for (Entry entry : distContext.getEntries()) {
+      // Same selection as serializedSize, the entries that do not fit are dropped.
+      int entrySize = entrySize(entry);
+      if (entrySize != 0 && pos + entrySize <= MAX_SIZE) {
+        dest.put(start + pos, ENTRY_FIELD_ID);
+        pos = writeString(entry.getKey().getName(), dest, start, pos + ID_SIZE);
+        pos = writeString(entry.getValue().asString(), dest, start, pos);
+      }
+    }
+    dest.position(start + pos);
+  }
+
+  @Override
+  public DistributedContext readFrom(ByteBuffer src) {
+    checkNotNull(src, "src");
+    if (!src.hasRemaining() || src.get(src.position()) != VERSION_ID) {
+      throw new IllegalArgumentException("Unsupported version.");
+    }
+    if (src.remaining() > MAX_SIZE) {
+      throw new IllegalArgumentException("Invalid input: size exceeds " + MAX_SIZE + " bytes");
+    }
+    DistributedContextSdk.Builder builder = new DistributedContextSdk.Builder();
+    builder.setNoParent();
+    Decoder decoder = new Decoder(src);
+    // Per spec we simply stop parsing at first unknown field instead of failing.
+    while (decoder.nextEntry()) {
+      String key = decoder.readString();
+      String value = decoder.readString();
+      // Throws IllegalArgumentException for invalid keys and values.
+      builder.put(
+          EntryKey.create(key), EntryValue.create(value), Entry.METADATA_UNLIMITED_PROPAGATION);
+    }
+    return builder.build();
+  }
+
+  // Returns the serialized size of the entry, or 0 if the entry is not propagated.
+  private static int entrySize(Entry entry) {
+    if (entry.getEntryMetadata().getEntryTtl() == EntryTtl.NO_PROPAGATION) {
+      return 0;
+    }
+    int keyLength = entry.getKey().getName().length();
+    int valueLength = entry.getValue().asString().length();
+    return ID_SIZE + varintSize(keyLength) + keyLength + varintSize(valueLength) + valueLength;
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    while ((value & ~VARINT_MASK) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  // Writes the length and the characters of the string at start + pos, returns the position after
+  // them relative to start.
+  private static int writeString(String value, ByteBuffer dest, int start, int pos) {
+    int length = value.length();
+    int remaining = length;
+    while ((remaining & ~VARINT_MASK) != 0) {
+      dest.put(start + pos++, (byte) ((remaining & VARINT_MASK) | VARINT_CONTINUATION));
+      remaining >>>= 7;
+    }
+    dest.put(start + pos++, (byte) remaining);
+    // Keys and values are printable ASCII, one byte per character.
+    for (int i = 0; i < length; i++) {
+      dest.put(start + pos++, (byte) value.charAt(i));
+    }
+    return pos;
+  }
+
+  // Reads the entries one after the other, checking every length against the remaining bytes. Uses
+  // absolute reads only, the position of the source buffer is left untouched.
+  private static final class Decoder {
+    private final ByteBuffer src;
+    private final int limit;
+    private int pos;
+
+    private Decoder(ByteBuffer src) {
+      this.src = src;
+      this.limit = src.limit();
+      this.pos = src.position() + ID_SIZE;
+    }
+
+    // Consumes the field id, returns false at the end of the value or at an unknown field.
+    private boolean nextEntry() {
+      if (pos < limit && src.get(pos) == ENTRY_FIELD_ID) {
+        pos += ID_SIZE;
+        return true;
+      }
+      return false;
+    }
+
+    private String readString() {
+      int length = readVarint();
+      if (length > limit - pos) {
+        throw new IllegalArgumentException("Invalid input: truncated");
+      }
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        // Non-ASCII bytes are mapped outside of the printable range and rejected by the entry.
+        chars[i] = (char) (src.get(pos++) & 0xFF);
+      }
+      return new String(chars);
+    }
+
+    private int readVarint() {
+      int value = 0;
+      for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+        if (pos >= limit) {
+          throw new IllegalArgumentException("Invalid input: truncated");
+        }
+        int b = src.get(pos++);
+        value |= (b & VARINT_MASK) << (7 * i);
+        if ((b & VARINT_CONTINUATION) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Invalid input: malformed length at offset " + pos);
+    }
+  }
+}
@@ -27,6 +27,10 @@ import io.opentelemetry.distributedcontext.unsafe.ContextUtils;
  * {@link DistributedContextManagerSdk} is SDK implementation of {@link DistributedContextManager}.
  */
 public class DistributedContextManagerSdk implements DistributedContextManager {
+  private static final BinaryFormat<DistributedContext> BINARY_FORMAT =
+      new BinaryDistributedContextFormat();
+  private static final HttpTextFormat<DistributedContext> HTTP_TEXT_FORMAT =
+      new BaggageHttpTextFormat();
 
   @Override
   public DistributedContext getCurrentContext() {
@@ -45,11 +49,11 @@ public class DistributedContextManagerSdk implements DistributedContextManager {
 
   @Override
   public BinaryFormat<DistributedContext> getBinaryFormat() {
-    throw new UnsupportedOperationException("to be implemented");
+    return BINARY_FORMAT;
   }
 
   @Override
   public HttpTextFormat<DistributedContext> getHttpTextFormat() {
-    throw new UnsupportedOperationException("to be implemented");
+    return HTTP_TEXT_FORMAT;
   }
 }
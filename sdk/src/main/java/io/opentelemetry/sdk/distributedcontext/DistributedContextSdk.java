@@ -28,11 +28,18 @@ import io.opentelemetry.internal.Utils;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
+/**
+ * The SDK implementation of {@link DistributedContext}.
+ *
+ * <p>Every context holds the flattened view of its entries, i.e. its own entries merged with the
+ * ones inherited from its parent, which is computed once when the context is built. Lookups and
+ * {@link #getEntries()} do not depend on the depth of the parent chain, and a child that does not
+ * change any entry shares the entries of its parent.
+ */
 @Immutable
 // TODO: Migrate to AutoValue
 // @AutoValue
@@ -40,49 +47,30 @@ class DistributedContextSdk implements DistributedContext {
 
   // The types of the EntryKey and Entry must match for each entry.
   private final Map<EntryKey, Entry> entries;
-  @Nullable private final DistributedContext parent;
+  // Cached unmodifiable view of the entries values.
+  private final Collection<Entry> entryValues;
 
   /**
    * Creates a new {@link DistributedContextSdk} with the given entries.
    *
-   * @param entries the initial entries for this {@code DistributedContextSdk}.
-   * @param parent providing a default set of entries
+   * @param entries the unmodifiable flattened entries of this {@code DistributedContextSdk}.
+   * @param entryValues an unmodifiable view of the values of {@code entries}.
    */
-  private DistributedContextSdk(
-      Map<? extends EntryKey, ? extends Entry> entries, DistributedContext parent) {
-    this.entries = Collections.unmodifiableMap(new HashMap<>(checkNotNull(entries, "entries")));
-    this.parent = parent;
+  private DistributedContextSdk(Map<EntryKey, Entry> entries, Collection<Entry> entryValues) {
+    this.entries = entries;
+    this.entryValues = entryValues;
   }
 
   @Override
   public Collection<Entry> getEntries() {
-    Map<EntryKey, Entry> combined = new HashMap<>(entries);
-    if (parent != null) {
-      for (Entry entry : parent.getEntries()) {
-        if (!combined.containsKey(entry.getKey())) {
-          combined.put(entry.getKey(), entry);
-        }
-      }
-    }
-    // Clean out any null values that may have been added by Builder.remove.
-    for (Iterator<Entry> it = combined.values().iterator(); it.hasNext(); ) {
-      if (it.next() == null) {
-        it.remove();
-      }
-    }
-
-    return Collections.unmodifiableCollection(combined.values());
+    return entryValues;
   }
 
   @Nullable
   @Override
   public EntryValue getEntryValue(EntryKey entryKey) {
     Entry entry = entries.get(entryKey);
-    if (entry != null) {
-      return entry.getValue();
-    } else {
-      return parent == null ? null : parent.getEntryValue(entryKey);
-    }
+    return entry == null ? null : entry.getValue();
   }
 
   @Override
@@ -95,18 +83,12 @@ class DistributedContextSdk implements DistributedContext {
     }
 
     DistributedContextSdk distContextSdk = (DistributedContextSdk) o;
-
-    if (!entries.equals(distContextSdk.entries)) {
-      return false;
-    }
-    return parent != null ? parent.equals(distContextSdk.parent) : distContextSdk.parent == null;
+    return entries.equals(distContextSdk.entries);
   }
 
   @Override
   public int hashCode() {
-    int result = entries.hashCode();
-    result = 31 * result + (parent != null ? parent.hashCode() : 0);
-    return result;
+    return entries.hashCode();
   }
 
   // TODO: Migrate to AutoValue.Builder
@@ -158,7 +140,35 @@ class DistributedContextSdk implements DistributedContext {
       if (parent == null && !noImplicitParent) {
         parent = OpenTelemetry.getDistributedContextManager().getCurrentContext();
       }
-      return new DistributedContextSdk(entries, parent);
+      if (parent instanceof DistributedContextSdk) {
+        DistributedContextSdk parentSdk = (DistributedContextSdk) parent;
+        if (entries.isEmpty()) {
+          return new DistributedContextSdk(parentSdk.entries, parentSdk.entryValues);
+        }
+        return create(new HashMap<>(parentSdk.entries), entries);
+      }
+      Map<EntryKey, Entry> combined = new HashMap<>();
+      if (parent != null) {
+        // Flatten a parent from another implementation once, at build time.
+        for (Entry entry : parent.getEntries()) {
+          combined.put(entry.getKey(), entry);
+        }
+      }
+      return create(combined, entries);
+    }
+
+    // Applies the changes to the entries of the parent, null values are removed keys.
+    private static DistributedContextSdk create(
+        Map<EntryKey, Entry> combined, Map<EntryKey, Entry> changes) {
+      for (Map.Entry<EntryKey, Entry> change : changes.entrySet()) {
+        if (change.getValue() == null) {
+          combined.remove(change.getKey());
+        } else {
+          combined.put(change.getKey(), change.getValue());
+        }
+      }
+      Map<EntryKey, Entry> unmodifiable = Collections.unmodifiableMap(combined);
+      return new DistributedContextSdk(unmodifiable, unmodifiable.values());
     }
   }
 }
@@ -17,7 +17,9 @@
 package io.opentelemetry.sdk.trace;
 
 import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Span.Kind;
 import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.Status;
 
 /** The extend Span interface used by the SDK. */
 public interface ReadableSpan {
@@ -43,6 +45,34 @@ public interface ReadableSpan {
    */
   String getName();
 
+  /**
+   * Returns the {@link Kind} of the {@code Span}.
+   *
+   * @return the {@code Kind} of the {@code Span}.
+   * @since 0.1.0
+   */
+  Kind getKind();
+
+  /**
+   * Returns the {@link Status} of the {@code Span}. If not set defaults to {@link Status#OK}.
+   *
+   * <p>The status can be changed until the {@code Span} ends, cheaper than {@link #toSpanData()}
+   * when only the status is needed.
+   *
+   * @return the {@code Status} of the {@code Span}.
+   * @since 0.1.0
+   */
+  Status getStatus();
+
+  /**
+   * Returns the latency of the {@code Span} in nanos. If still active then returns now() - start
+   * time.
+   *
+   * @return the latency of the {@code Span} in nanos.
+   * @since 0.1.0
+   */
+  long getLatencyNs();
+
   /**
    * This converts this instance into an immutable SpanData instance, for use in export.
    *
@@ -229,8 +229,8 @@ final class RecordEventsReadableSpan implements ReadableSpan, Span {
    *
    * @return the status of the {@code Span}.
    */
-  @VisibleForTesting
-  Status getStatus() {
+  @Override
+  public Status getStatus() {
     synchronized (this) {
       return getStatusWithDefault();
     }
@@ -285,7 +285,8 @@ final class RecordEventsReadableSpan implements ReadableSpan, Span {
    *
    * @return the latency of the {@code Span} in nanos.
    */
-  long getLatencyNs() {
+  @Override
+  public long getLatencyNs() {
     synchronized (this) {
       return getEndNanoTimeInternal() - startNanoTime;
     }
@@ -302,6 +303,7 @@ final class RecordEventsReadableSpan implements ReadableSpan, Span {
    *
    * @return the kind of this {@code Span}.
    */
+  @Override
   public Kind getKind() {
     return kind;
   }
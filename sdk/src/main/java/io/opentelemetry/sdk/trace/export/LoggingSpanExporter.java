@@ -0,0 +1,279 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.internal.Clock;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanExporter} that logs every span as a single compact line, meant for development and
+ * canary deployments.
+ *
+ * <p>Lines are logged at {@link Level#INFO} on the logger named after this class; nothing is
+ * formatted when that level is disabled. Each exporting thread formats into its own reused {@code
+ * StringBuilder}. At most {@code maxLinesPerSecond} spans are logged per second, the spans over the
+ * limit are counted and reported by a single summary line once the second is over.
+ *
+ * <p>Example line:
+ *
+ * <pre>{@code
+ * span name="GET /api" trace_id=0102030405060708090a0b0c0d0e0f10 span_id=1112131415161718
+ *     parent_id=2122232425262728 kind=SERVER duration_us=1532 status=OK attributes={code=200}
+ * }</pre>
+ */
+@ThreadSafe
+public final class LoggingSpanExporter implements SpanExporter {
+  private static final Logger logger = Logger.getLogger(LoggingSpanExporter.class.getName());
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int INITIAL_LINE_CAPACITY = 256;
+  // Builders that grew larger than this while formatting a huge span are not kept.
+  private static final int MAX_CACHED_LINE_CAPACITY = 4 * 1024;
+  private static final ThreadLocal<LineBuffer> lineBuffers =
+      new ThreadLocal<LineBuffer>() {
+        @Override
+        protected LineBuffer initialValue() {
+          return new LineBuffer();
+        }
+      };
+
+  private final int maxLinesPerSecond;
+  private final Clock clock;
+  private final Object monitor = new Object();
+
+  @GuardedBy("monitor")
+  private long windowStartNanos;
+
+  @GuardedBy("monitor")
+  private int linesInWindow;
+
+  @GuardedBy("monitor")
+  private long suppressedInWindow;
+
+  @GuardedBy("monitor")
+  private long suppressedTotal;
+
+  private LoggingSpanExporter(int maxLinesPerSecond, Clock clock) {
+    this.maxLinesPerSecond = maxLinesPerSecond;
+    this.clock = clock;
+    this.windowStartNanos = clock.nowNanos();
+  }
+
+  @Override
+  public ResultCode export(List<SpanData> spans) {
+    if (!logger.isLoggable(Level.INFO)) {
+      return ResultCode.SUCCESS;
+    }
+    int permitted = acquire(spans.size());
+    if (permitted == 0) {
+      return ResultCode.SUCCESS;
+    }
+    LineBuffer lineBuffer = lineBuffers.get();
+    for (int i = 0; i < permitted; i++) {
+      StringBuilder line = lineBuffer.line;
+      line.setLength(0);
+      format(spans.get(i), line, lineBuffer.ids);
+      logger.log(Level.INFO, line.toString());
+    }
+    if (lineBuffer.line.capacity() > MAX_CACHED_LINE_CAPACITY) {
+      lineBuffer.line = new StringBuilder(INITIAL_LINE_CAPACITY);
+    }
+    return ResultCode.SUCCESS;
+  }
+
+  /**
+   * Returns the total number of spans that were not logged because of the rate limit.
+   *
+   * @return the total number of spans that were not logged because of the rate limit.
+   */
+  public long getSuppressedSpans() {
+    synchronized (monitor) {
+      return suppressedTotal;
+    }
+  }
+
+  /** Logs the summary line for the spans suppressed in the current second, if any. */
+  @Override
+  public void shutdown() {
+    long suppressed;
+    synchronized (monitor) {
+      suppressed = suppressedInWindow;
+      suppressedInWindow = 0;
+    }
+    logSuppressed(suppressed);
+  }
+
+  // Returns how many of the given number of spans can be logged, starting a new window and logging
+  // the summary of the previous one if the current second is over.
+  private int acquire(int spans) {
+    long suppressedInPreviousWindow = 0;
+    int permitted;
+    synchronized (monitor) {
+      long now = clock.nowNanos();
+      if (now - windowStartNanos >= WINDOW_NANOS) {
+        suppressedInPreviousWindow = suppressedInWindow;
+        windowStartNanos = now;
+        linesInWindow = 0;
+        suppressedInWindow = 0;
+      }
+      permitted = Math.min(spans, maxLinesPerSecond - linesInWindow);
+      linesInWindow += permitted;
+      suppressedInWindow += spans - permitted;
+      suppressedTotal += spans - permitted;
+    }
+    logSuppressed(suppressedInPreviousWindow);
+    return permitted;
+  }
+
+  private void logSuppressed(long suppressed) {
+    if (suppressed > 0) {
+      logger.log(
+          Level.INFO,
+          "suppressed "
+              + suppressed
+              + " spans over the limit of "
+              + maxLinesPerSecond
+              + " lines per second");
+    }
+  }
+
+  private static void format(SpanData span, StringBuilder line, char[] ids) {
+    line.append("span name=\"").append(span.getName()).append('"');
+    span.getTraceId().copyLowerBase16To(ids, 0);
+    line.append(" trace_id=").append(ids, 0, 2 * TraceId.getSize());
+    span.getSpanId().copyLowerBase16To(ids, 0);
+    line.append(" span_id=").append(ids, 0, 2 * SpanId.getSize());
+    if (span.getParentSpanId().isValid()) {
+      span.getParentSpanId().copyLowerBase16To(ids, 0);
+      line.append(" parent_id=").append(ids, 0, 2 * SpanId.getSize());
+    }
+    line.append(" kind=").append(span.getKind().name());
+    line.append(" duration_us=")
+        .append(toMicros(span.getEndTimestamp()) - toMicros(span.getStartTimestamp()));
+    line.append(" status=").append(span.getStatus().getCanonicalCode().name());
+    if (span.getStatus().getDescription() != null) {
+      line.append(" status_description=\"").append(span.getStatus().getDescription()).append('"');
+    }
+    line.append(" attributes={");
+    boolean first = true;
+    for (Map.Entry<String, AttributeValue> entry : span.getAttributes().entrySet()) {
+      if (!first) {
+        line.append(',');
+      }
+      first = false;
+      line.append(entry.getKey()).append('=');
+      appendValue(entry.getValue(), line);
+    }
+    line.append('}');
+    if (!span.getTimedEvents().isEmpty()) {
+      line.append(" events=").append(span.getTimedEvents().size());
+    }
+    if (!span.getLinks().isEmpty()) {
+      line.append(" links=").append(span.getLinks().size());
+    }
+  }
+
+  private static void appendValue(AttributeValue value, StringBuilder line) {
+    switch (value.getType()) {
+      case STRING:
+        line.append(value.getStringValue());
+        return;
+      case BOOLEAN:
+        line.append(value.getBooleanValue());
+        return;
+      case LONG:
+        line.append(value.getLongValue());
+        return;
+      case DOUBLE:
+        line.append(value.getDoubleValue());
+        return;
+    }
+  }
+
+  private static long toMicros(Timestamp timestamp) {
+    return TimeUnit.SECONDS.toMicros(timestamp.getSeconds())
+        + TimeUnit.NANOSECONDS.toMicros(timestamp.getNanos());
+  }
+
+  /**
+   * Returns a new Builder for {@link LoggingSpanExporter}.
+   *
+   * @return a new {@link Builder}.
+   */
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Builder class for {@link LoggingSpanExporter}. */
+  public static final class Builder {
+    private static final int DEFAULT_MAX_LINES_PER_SECOND = 100;
+    private int maxLinesPerSecond = DEFAULT_MAX_LINES_PER_SECOND;
+    private Clock clock = MillisClock.getInstance();
+
+    private Builder() {}
+
+    /**
+     * Sets the maximum number of spans logged per second. The spans over the limit are dropped and
+     * reported by a summary line.
+     *
+     * <p>Default value is {@code 100}.
+     *
+     * @param maxLinesPerSecond the maximum number of spans logged per second.
+     * @return this.
+     * @throws IllegalArgumentException if {@code maxLinesPerSecond} is not positive.
+     */
+    public Builder setMaxLinesPerSecond(int maxLinesPerSecond) {
+      Utils.checkArgument(maxLinesPerSecond > 0, "maxLinesPerSecond must be positive.");
+      this.maxLinesPerSecond = maxLinesPerSecond;
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder setClock(Clock clock) {
+      this.clock = Utils.checkNotNull(clock, "clock");
+      return this;
+    }
+
+    /**
+     * Returns a new {@link LoggingSpanExporter}.
+     *
+     * @return a new {@link LoggingSpanExporter}.
+     */
+    public LoggingSpanExporter build() {
+      return new LoggingSpanExporter(maxLinesPerSecond, clock);
+    }
+  }
+
+  // The per-thread buffers used to format the lines.
+  private static final class LineBuffer {
+    private final char[] ids = new char[2 * TraceId.getSize()];
+    private StringBuilder line = new StringBuilder(INITIAL_LINE_CAPACITY);
+  }
+}
@@ -20,12 +20,23 @@ import static io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode.FAILED_N
 import static io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode.FAILED_RETRYABLE;
 import static io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode.SUCCESS;
 
+import com.google.auto.value.AutoValue;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.opentelemetry.internal.Utils;
 import io.opentelemetry.sdk.trace.SpanData;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
 
 /**
  * Implementation of the {@code SpanExporter} that simply forwards all received spans to a list of
@@ -33,37 +44,104 @@ import java.util.logging.Logger;
  *
  * <p>Can be used to export to multiple backends using the same {@code SpanProcessor} like a {@code
  * SimpleSampledSpansProcessor} or a {@code BatchSampledSpansProcessor}.
+ *
+ * <p>By default the exporters are called sequentially, so a slow exporter delays the others. In
+ * parallel mode each exporter gets its own thread and a queue of at most {@code maxQueuedBatches}
+ * batches: a batch is handed to all the exporters at once and {@link #export(List)} waits at most
+ * {@code exportTimeoutMillis} for their results. An exporter that does not answer in time keeps
+ * exporting the batch in the background and is not counted as failed; an exporter whose queue is
+ * full drops the batch and is counted as {@link ResultCode#FAILED_RETRYABLE}, so it never blocks
+ * the healthy ones. Use {@link #getExporterStats()} to monitor how far behind each exporter is.
+ *
+ * <p>On {@link #shutdown()} in parallel mode the exporters stop accepting batches and export the
+ * ones already queued, for at most {@code shutdownTimeoutMillis} in total. Only the exporters still
+ * busy after that are interrupted.
  */
 public final class MultiSpanExporter implements SpanExporter {
   private static final Logger logger = Logger.getLogger(MultiSpanExporter.class.getName());
+  private static final String WORKER_THREAD_NAME =
+      MultiSpanExporter.class.getSimpleName() + "_WorkerThread";
   private final List<SpanExporter> spanExporters;
+  // Null in sequential mode.
+  @Nullable private final List<Worker> workers;
+  private final long exportTimeoutMillis;
+  private final long shutdownTimeoutMillis;
 
   static SpanExporter create(List<SpanExporter> spanExporters) {
-    return new MultiSpanExporter(Collections.unmodifiableList(new ArrayList<>(spanExporters)));
+    return new MultiSpanExporter(
+        Collections.unmodifiableList(new ArrayList<>(spanExporters)),
+        /* parallel= */ false,
+        0,
+        0,
+        0);
   }
 
   @Override
   public ResultCode export(List<SpanData> spans) {
+    if (workers != null) {
+      return exportParallel(spans, workers);
+    }
     ResultCode currentResultCode = SUCCESS;
     for (SpanExporter spanExporter : spanExporters) {
-      try {
-        currentResultCode = mergeResultCode(currentResultCode, spanExporter.export(spans));
-      } catch (Throwable t) {
-        // If an exception was thrown by the exporter
-        logger.log(Level.WARNING, "Exception thrown by the export.", t);
-        currentResultCode = FAILED_NOT_RETRYABLE;
-      }
+      currentResultCode = mergeResultCode(currentResultCode, exportTo(spanExporter, spans));
     }
     return currentResultCode;
   }
 
+  private ResultCode exportParallel(List<SpanData> spans, List<Worker> workers) {
+    PendingExport pendingExport = new PendingExport(workers.size());
+    // The workers may still read the spans after a timeout, when the caller reuses its list.
+    List<SpanData> snapshot = Collections.unmodifiableList(new ArrayList<>(spans));
+    for (Worker worker : workers) {
+      worker.submit(new Batch(snapshot, pendingExport));
+    }
+    return pendingExport.await(exportTimeoutMillis);
+  }
+
   @Override
   public void shutdown() {
+    if (workers != null) {
+      for (Worker worker : workers) {
+        worker.stopAccepting();
+      }
+      long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+      for (Worker worker : workers) {
+        worker.awaitTermination(deadlineNanos);
+      }
+    }
     for (SpanExporter spanExporter : spanExporters) {
       spanExporter.shutdown();
     }
   }
 
+  /**
+   * Returns the current statistics of each exporter, in the order the exporters were given. Only
+   * available in parallel mode.
+   *
+   * @return the current statistics of each exporter, empty in sequential mode.
+   */
+  public List<ExporterStats> getExporterStats() {
+    if (workers == null) {
+      return Collections.emptyList();
+    }
+    long now = System.nanoTime();
+    List<ExporterStats> stats = new ArrayList<>(workers.size());
+    for (Worker worker : workers) {
+      stats.add(worker.getStats(now));
+    }
+    return Collections.unmodifiableList(stats);
+  }
+
+  private static ResultCode exportTo(SpanExporter spanExporter, List<SpanData> spans) {
+    try {
+      return spanExporter.export(spans);
+    } catch (Throwable t) {
+      // If an exception was thrown by the exporter
+      logger.log(Level.WARNING, "Exception thrown by the export.", t);
+      return FAILED_NOT_RETRYABLE;
+    }
+  }
+
   // Returns a merged error code, see the rules in the code.
   private static ResultCode mergeResultCode(
       ResultCode currentResultCode, ResultCode newResultCode) {
@@ -82,7 +160,325 @@ public final class MultiSpanExporter implements SpanExporter {
     return FAILED_RETRYABLE;
   }
 
-  private MultiSpanExporter(List<SpanExporter> spanExporters) {
+  private MultiSpanExporter(
+      List<SpanExporter> spanExporters,
+      boolean parallel,
+      int maxQueuedBatches,
+      long exportTimeoutMillis,
+      long shutdownTimeoutMillis) {
     this.spanExporters = spanExporters;
+    this.exportTimeoutMillis = exportTimeoutMillis;
+    this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    if (parallel) {
+      List<Worker> workers = new ArrayList<>(spanExporters.size());
+      for (SpanExporter spanExporter : spanExporters) {
+        workers.add(Worker.start(spanExporter, maxQueuedBatches));
+      }
+      this.workers = Collections.unmodifiableList(workers);
+    } else {
+      this.workers = null;
+    }
+  }
+
+  /**
+   * Returns a new Builder for {@link MultiSpanExporter}.
+   *
+   * @param spanExporters the {@code SpanExporter}s to where the Spans are pushed.
+   * @return a new {@link Builder}.
+   * @throws NullPointerException if the {@code spanExporters} or one of its elements is {@code
+   *     null}.
+   */
+  public static Builder newBuilder(List<SpanExporter> spanExporters) {
+    return new Builder(spanExporters);
+  }
+
+  /** Builder class for {@link MultiSpanExporter}. */
+  public static final class Builder {
+    private static final int MAX_QUEUED_BATCHES = 16;
+    private static final long EXPORT_TIMEOUT_MILLIS = 1_000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private final List<SpanExporter> spanExporters;
+    private boolean parallel = false;
+    private int maxQueuedBatches = MAX_QUEUED_BATCHES;
+    private long exportTimeoutMillis = EXPORT_TIMEOUT_MILLIS;
+    private long shutdownTimeoutMillis = SHUTDOWN_TIMEOUT_MILLIS;
+
+    private Builder(List<SpanExporter> spanExporters) {
+      Utils.checkListElementNotNull(
+          Utils.checkNotNull(spanExporters, "spanExporters"), "spanExporter");
+      this.spanExporters = Collections.unmodifiableList(new ArrayList<>(spanExporters));
+    }
+
+    /**
+     * Sets whether each exporter is called from its own thread instead of sequentially from the
+     * exporting thread.
+     *
+     * <p>Default value is {@code false}.
+     *
+     * @param parallel {@code true} to call the exporters in parallel.
+     * @return this.
+     */
+    public Builder setParallel(boolean parallel) {
+      this.parallel = parallel;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of batches queued for each exporter in parallel mode. When an
+     * exporter's queue is full the new batches are dropped for that exporter.
+     *
+     * <p>Default value is {@code 16}.
+     *
+     * @param maxQueuedBatches the maximum number of batches queued for each exporter.
+     * @return this.
+     */
+    public Builder setMaxQueuedBatches(int maxQueuedBatches) {
+      Utils.checkArgument(maxQueuedBatches > 0, "maxQueuedBatches must be positive.");
+      this.maxQueuedBatches = maxQueuedBatches;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time {@link MultiSpanExporter#export(List)} waits for the exporters in
+     * parallel mode. Exporters that did not answer in time are not counted as failed.
+     *
+     * <p>Default value is {@code 1000}ms.
+     *
+     * @param exportTimeoutMillis the maximum time to wait for the exporters.
+     * @return this.
+     */
+    public Builder setExportTimeoutMillis(long exportTimeoutMillis) {
+      Utils.checkArgument(exportTimeoutMillis >= 0, "exportTimeoutMillis must be non-negative.");
+      this.exportTimeoutMillis = exportTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time {@link MultiSpanExporter#shutdown()} waits for the exporters to export
+     * the batches already queued in parallel mode. The exporters still busy after that are
+     * interrupted and their remaining batches are dropped.
+     *
+     * <p>Default value is {@code 10000}ms.
+     *
+     * @param shutdownTimeoutMillis the maximum time to wait for the queued batches on shutdown.
+     * @return this.
+     */
+    public Builder setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+      Utils.checkArgument(
+          shutdownTimeoutMillis >= 0, "shutdownTimeoutMillis must be non-negative.");
+      this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * Returns a new {@link MultiSpanExporter}. In parallel mode this starts one thread per
+     * exporter.
+     *
+     * @return a new {@link MultiSpanExporter}.
+     */
+    public MultiSpanExporter build() {
+      return new MultiSpanExporter(
+          spanExporters, parallel, maxQueuedBatches, exportTimeoutMillis, shutdownTimeoutMillis);
+    }
+  }
+
+  /** Statistics of one of the exporters of a {@link MultiSpanExporter} in parallel mode. */
+  @Immutable
+  @AutoValue
+  public abstract static class ExporterStats {
+    ExporterStats() {}
+
+    static ExporterStats create(
+        SpanExporter spanExporter, int queuedBatches, long droppedBatches, long lagNanos) {
+      return new AutoValue_MultiSpanExporter_ExporterStats(
+          spanExporter, queuedBatches, droppedBatches, lagNanos);
+    }
+
+    /**
+     * Returns the exporter.
+     *
+     * @return the exporter.
+     */
+    public abstract SpanExporter getSpanExporter();
+
+    /**
+     * Returns the number of batches waiting to be exported, including the one being exported.
+     *
+     * @return the number of batches waiting to be exported.
+     */
+    public abstract int getQueuedBatches();
+
+    /**
+     * Returns the total number of batches dropped because the queue was full.
+     *
+     * @return the total number of batches dropped because the queue was full.
+     */
+    public abstract long getDroppedBatches();
+
+    /**
+     * Returns for how long the oldest batch not yet exported has been waiting, {@code 0} when the
+     * exporter is idle.
+     *
+     * @return the age in nanoseconds of the oldest batch not yet exported.
+     */
+    public abstract long getLagNanos();
+  }
+
+  // The results of the exporters for one batch.
+  private static final class PendingExport {
+    private final CountDownLatch remaining;
+
+    @GuardedBy("this")
+    private ResultCode resultCode = SUCCESS;
+
+    private PendingExport(int exporters) {
+      this.remaining = new CountDownLatch(exporters);
+    }
+
+    private void complete(ResultCode exporterResultCode) {
+      synchronized (this) {
+        resultCode = mergeResultCode(resultCode, exporterResultCode);
+      }
+      remaining.countDown();
+    }
+
+    private ResultCode await(long timeoutMillis) {
+      try {
+        remaining.await(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      synchronized (this) {
+        return resultCode;
+      }
+    }
+  }
+
+  private static final class Batch {
+    private final List<SpanData> spans;
+    private final PendingExport pendingExport;
+    private final long submittedNanos = System.nanoTime();
+
+    private Batch(List<SpanData> spans, PendingExport pendingExport) {
+      this.spans = spans;
+      this.pendingExport = pendingExport;
+    }
+  }
+
+  // Exports the batches queued for one exporter from a dedicated thread.
+  private static final class Worker {
+    // Queued on shutdown to wake up a worker waiting for a batch.
+    private static final Batch WAKE_UP =
+        new Batch(Collections.<SpanData>emptyList(), new PendingExport(1));
+
+    private final SpanExporter spanExporter;
+    private final BlockingQueue<Batch> queue;
+    private final AtomicLong droppedBatches = new AtomicLong();
+    private final Thread thread;
+    @Nullable private volatile Batch inFlight;
+    private volatile boolean isShutdown;
+
+    private static Worker start(SpanExporter spanExporter, int maxQueuedBatches) {
+      Worker worker = new Worker(spanExporter, maxQueuedBatches);
+      worker.thread.start();
+      return worker;
+    }
+
+    private Worker(SpanExporter spanExporter, int maxQueuedBatches) {
+      this.spanExporter = spanExporter;
+      this.queue = new ArrayBlockingQueue<>(maxQueuedBatches);
+      this.thread =
+          MoreExecutors.platformThreadFactory()
+              .newThread(
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      exportBatches();
+                    }
+                  });
+      try {
+        thread.setName(WORKER_THREAD_NAME);
+      } catch (SecurityException e) {
+        // OK if we can't set the name in this environment.
+      }
+    }
+
+    private void submit(Batch batch) {
+      if (isShutdown) {
+        batch.pendingExport.complete(FAILED_NOT_RETRYABLE);
+        return;
+      }
+      if (!queue.offer(batch)) {
+        droppedBatches.incrementAndGet();
+        batch.pendingExport.complete(FAILED_RETRYABLE);
+        return;
+      }
+      // Shut down after the check above, the worker may have drained the queue and stopped. If the
+      // batch is still queued it is not exported: it is rejected, unless the worker takes it first.
+      if (isShutdown && queue.remove(batch)) {
+        batch.pendingExport.complete(FAILED_NOT_RETRYABLE);
+      }
+    }
+
+    private void exportBatches() {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          // Once shut down, exports what is left in the queue and stops.
+          Batch batch = isShutdown ? queue.poll() : queue.take();
+          if (batch == null) {
+            return;
+          }
+          if (batch == WAKE_UP) {
+            continue;
+          }
+          inFlight = batch;
+          ResultCode resultCode = exportTo(spanExporter, batch.spans);
+          inFlight = null;
+          batch.pendingExport.complete(resultCode);
+        }
+      } catch (InterruptedException e) {
+        // Preserve the interruption status as per guidance and stop doing any work.
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private ExporterStats getStats(long now) {
+      Batch oldest = inFlight;
+      if (oldest == null) {
+        oldest = queue.peek();
+      }
+      long lagNanos = oldest == null ? 0 : Math.max(0, now - oldest.submittedNanos);
+      int queuedBatches = queue.size() + (inFlight != null ? 1 : 0);
+      return ExporterStats.create(spanExporter, queuedBatches, droppedBatches.get(), lagNanos);
+    }
+
+    private void stopAccepting() {
+      isShutdown = true;
+      // If the queue is full the worker is busy and sees the flag before its next batch.
+      queue.offer(WAKE_UP);
+    }
+
+    private void awaitTermination(long deadlineNanos) {
+      try {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos > 0) {
+          TimeUnit.NANOSECONDS.timedJoin(thread, remainingNanos);
+        }
+        if (thread.isAlive()) {
+          logger.log(
+              Level.WARNING,
+              "Timed out exporting the queued batches to "
+                  + spanExporter
+                  + ", dropping "
+                  + (queue.size() + (inFlight != null ? 1 : 0))
+                  + " batches.");
+          // Not joined again, an exporter that ignores the interruption must not block shutdown.
+          thread.interrupt();
+        }
+      } catch (InterruptedException e) {
+        thread.interrupt();
+        Thread.currentThread().interrupt();
+      }
+    }
   }
 }
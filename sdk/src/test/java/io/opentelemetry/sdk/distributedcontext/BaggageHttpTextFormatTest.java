@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.opentelemetry.sdk.distributedcontext.BaggageHttpTextFormat.BAGGAGE;
+
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.EmptyDistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryMetadata;
+import io.opentelemetry.distributedcontext.EntryMetadata.EntryTtl;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link BaggageHttpTextFormat}. */
+@RunWith(JUnit4.class)
+public class BaggageHttpTextFormatTest {
+  private static final EntryMetadata NO_PROPAGATION = EntryMetadata.create(EntryTtl.NO_PROPAGATION);
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void put(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  private final BaggageHttpTextFormat format = new BaggageHttpTextFormat();
+  private final Map<String, String> carrier = new LinkedHashMap<>();
+
+  @Test
+  public void fields() {
+    assertThat(format.fields()).containsExactly("baggage");
+  }
+
+  @Test
+  public void inject() {
+    format.inject(
+        DistributedContextTestUtil.listToDistributedContext(entry("userId", "alice")),
+        carrier,
+        setter);
+    assertThat(carrier).containsExactly(BAGGAGE, "userId=alice");
+  }
+
+  @Test
+  public void inject_NoPropagation() {
+    format.inject(
+        DistributedContextTestUtil.listToDistributedContext(
+            Entry.create(EntryKey.create("local"), EntryValue.create("secret"), NO_PROPAGATION)),
+        carrier,
+        setter);
+    assertThat(carrier).isEmpty();
+  }
+
+  @Test
+  public void inject_PercentEncoding() {
+    format.inject(
+        DistributedContextTestUtil.listToDistributedContext(entry("a key", "a,b;c=d%e\"f\\g")),
+        carrier,
+        setter);
+    assertThat(carrier).containsExactly(BAGGAGE, "a%20key=a%2Cb%3Bc%3Dd%25e%22f%5Cg");
+  }
+
+  @Test
+  public void inject_MaxMembers() {
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < BaggageHttpTextFormat.MAX_MEMBERS + 10; i++) {
+      entries.add(entry("k" + i, "v"));
+    }
+    format.inject(DistributedContextTestUtil.listToDistributedContext(entries), carrier, setter);
+    assertThat(carrier.get(BAGGAGE).split(",")).hasLength(BaggageHttpTextFormat.MAX_MEMBERS);
+  }
+
+  @Test
+  public void inject_MaxHeaderLength() {
+    List<Entry> entries = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < EntryValue.MAX_LENGTH; i++) {
+      value.append(',');
+    }
+    // Every member is encoded in more than 700 characters.
+    for (int i = 0; i < 20; i++) {
+      entries.add(entry("k" + i, value.toString()));
+    }
+    entries.add(entry("short", "value"));
+    format.inject(DistributedContextTestUtil.listToDistributedContext(entries), carrier, setter);
+    String header = carrier.get(BAGGAGE);
+    assertThat(header.length()).isAtMost(BaggageHttpTextFormat.MAX_HEADER_LENGTH);
+    assertThat(header).contains("short=value");
+  }
+
+  @Test
+  public void extract() {
+    carrier.put(BAGGAGE, "userId=alice,serverNode=DF%2028");
+    assertThat(format.extract(carrier, getter).getEntries())
+        .containsExactly(entry("userId", "alice"), entry("serverNode", "DF 28"));
+  }
+
+  @Test
+  public void extract_NoHeader() {
+    assertThat(format.extract(carrier, getter))
+        .isSameInstanceAs(EmptyDistributedContext.getInstance());
+  }
+
+  @Test
+  public void extract_WhiteSpaceAndProperties() {
+    carrier.put(BAGGAGE, " userId = alice ;ttl=1 ,\t,isProduction=false;;");
+    assertThat(format.extract(carrier, getter).getEntries())
+        .containsExactly(entry("userId", "alice"), entry("isProduction", "false"));
+  }
+
+  @Test
+  public void extract_InvalidMembersIgnored() {
+    carrier.put(BAGGAGE, "noValue,=noKey,bad=%2,bad2=%zz,nonAscii=%C3%A9,ok=1");
+    assertThat(format.extract(carrier, getter).getEntries()).containsExactly(entry("ok", "1"));
+  }
+
+  @Test
+  public void extract_TruncatedBySizeLimit() {
+    StringBuilder header = new StringBuilder("first=1,");
+    while (header.length() < BaggageHttpTextFormat.MAX_HEADER_LENGTH) {
+      header.append("x");
+    }
+    header.append("=2");
+    carrier.put(BAGGAGE, header.toString());
+    assertThat(format.extract(carrier, getter).getEntries()).containsExactly(entry("first", "1"));
+  }
+
+  @Test
+  public void roundTrip() {
+    DistributedContext distContext =
+        DistributedContextTestUtil.listToDistributedContext(
+            entry("key", "value"), entry("k=1", " spaced value "), entry("%", "100%"));
+    format.inject(distContext, carrier, setter);
+    assertThat(format.extract(carrier, getter).getEntries())
+        .containsExactlyElementsIn(distContext.getEntries());
+  }
+
+  private static Entry entry(String key, String value) {
+    return Entry.create(
+        EntryKey.create(key), EntryValue.create(value), Entry.METADATA_UNLIMITED_PROPAGATION);
+  }
+}
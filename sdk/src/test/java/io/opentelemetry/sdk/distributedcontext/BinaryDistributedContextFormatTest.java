@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.distributedcontext;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.distributedcontext.DistributedContext;
+import io.opentelemetry.distributedcontext.Entry;
+import io.opentelemetry.distributedcontext.EntryKey;
+import io.opentelemetry.distributedcontext.EntryMetadata;
+import io.opentelemetry.distributedcontext.EntryMetadata.EntryTtl;
+import io.opentelemetry.distributedcontext.EntryValue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link BinaryDistributedContextFormat}. */
+@RunWith(JUnit4.class)
+public class BinaryDistributedContextFormatTest {
+  private static final EntryMetadata NO_PROPAGATION = EntryMetadata.create(EntryTtl.NO_PROPAGATION);
+  private static final byte[] EXAMPLE_BYTES = {0, 0, 1, 'k', 2, 'v', '1'};
+
+  private final BinaryDistributedContextFormat format = new BinaryDistributedContextFormat();
+
+  @Rule public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void toByteArray() {
+    assertThat(
+            format.toByteArray(
+                DistributedContextTestUtil.listToDistributedContext(entry("k", "v1"))))
+        .isEqualTo(EXAMPLE_BYTES);
+  }
+
+  @Test
+  public void toByteArray_NoPropagation() {
+    assertThat(
+            format.toByteArray(
+                DistributedContextTestUtil.listToDistributedContext(
+                    Entry.create(
+                        EntryKey.create("local"), EntryValue.create("secret"), NO_PROPAGATION))))
+        .isEqualTo(new byte[] {0});
+  }
+
+  @Test
+  public void toByteArray_MultiByteLength() {
+    String value = repeat('v', EntryValue.MAX_LENGTH);
+    byte[] bytes =
+        format.toByteArray(DistributedContextTestUtil.listToDistributedContext(entry("k", value)));
+    assertThat(bytes).hasLength(1 + 1 + 1 + 1 + 2 + EntryValue.MAX_LENGTH);
+    // 255 = 0b1_1111111
+    assertThat(Arrays.copyOfRange(bytes, 4, 6)).isEqualTo(new byte[] {(byte) 0xFF, 1});
+    assertThat(format.fromByteArray(bytes).getEntries()).containsExactly(entry("k", value));
+  }
+
+  @Test
+  public void toByteArray_MaxSize() {
+    List<Entry> entries = new ArrayList<>();
+    String value = repeat('v', EntryValue.MAX_LENGTH);
+    // Every entry is serialized in more than 260 bytes.
+    for (int i = 0; i < 40; i++) {
+      entries.add(entry("k" + i, value));
+    }
+    entries.add(entry("short", "value"));
+    byte[] bytes = format.toByteArray(DistributedContextTestUtil.listToDistributedContext(entries));
+    assertThat(bytes.length).isAtMost(BinaryDistributedContextFormat.MAX_SIZE);
+    assertThat(format.fromByteArray(bytes).getEntries()).contains(entry("short", "value"));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void toByteArray_NullContext() {
+    format.toByteArray(null);
+  }
+
+  @Test
+  public void fromByteArray() {
+    assertThat(format.fromByteArray(EXAMPLE_BYTES).getEntries()).containsExactly(entry("k", "v1"));
+  }
+
+  @Test
+  public void fromByteArray_NoEntries() {
+    assertThat(format.fromByteArray(new byte[] {0}).getEntries()).isEmpty();
+  }
+
+  @Test
+  public void fromByteArray_StopsAtUnknownField() {
+    byte[] bytes = {0, 0, 1, 'k', 2, 'v', '1', 1, 1, 'x', 1, 'y'};
+    assertThat(format.fromByteArray(bytes).getEntries()).containsExactly(entry("k", "v1"));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void fromByteArray_NullInput() {
+    format.fromByteArray(null);
+  }
+
+  @Test
+  public void fromByteArray_EmptyInput() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Unsupported version.");
+    format.fromByteArray(new byte[0]);
+  }
+
+  @Test
+  public void fromByteArray_UnsupportedVersion() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Unsupported version.");
+    format.fromByteArray(new byte[] {66, 0, 1, 'k', 1, 'v'});
+  }
+
+  @Test
+  public void fromByteArray_Oversize() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: size exceeds");
+    format.fromByteArray(new byte[BinaryDistributedContextFormat.MAX_SIZE + 1]);
+  }
+
+  @Test
+  public void fromByteArray_Truncated() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: truncated");
+    format.fromByteArray(new byte[] {0, 0, 1, 'k', 5, 'v'});
+  }
+
+  @Test
+  public void fromByteArray_TruncatedLength() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: truncated");
+    format.fromByteArray(new byte[] {0, 0, 1, 'k', (byte) 0x80});
+  }
+
+  @Test
+  public void fromByteArray_MalformedLength() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: malformed length");
+    format.fromByteArray(new byte[] {0, 0, (byte) 0x80, (byte) 0x80, 1});
+  }
+
+  @Test
+  public void fromByteArray_InvalidKey() {
+    expectedException.expect(IllegalArgumentException.class);
+    format.fromByteArray(new byte[] {0, 0, 1, (byte) 0xE9, 1, 'v'});
+  }
+
+  @Test
+  public void roundTrip() {
+    DistributedContext distContext =
+        DistributedContextTestUtil.listToDistributedContext(
+            entry("key", "value"), entry("k=1", " spaced value "), entry("%", "100%"));
+    assertThat(format.fromByteArray(format.toByteArray(distContext)).getEntries())
+        .containsExactlyElementsIn(distContext.getEntries());
+  }
+
+  @Test
+  public void writeTo_DirectBuffer() {
+    DistributedContext distContext =
+        DistributedContextTestUtil.listToDistributedContext(entry("k", "v1"));
+    assertThat(format.serializedSize(distContext)).isEqualTo(EXAMPLE_BYTES.length);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(EXAMPLE_BYTES.length + 1);
+    buffer.position(1);
+    format.writeTo(distContext, buffer);
+    assertThat(buffer.position()).isEqualTo(buffer.limit());
+    buffer.position(1);
+    assertThat(format.readFrom(buffer).getEntries()).containsExactly(entry("k", "v1"));
+    assertThat(buffer.position()).isEqualTo(1);
+  }
+
+  @Test
+  public void writeTo_BufferTooSmall() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("buffer too small");
+    format.writeTo(
+        DistributedContextTestUtil.listToDistributedContext(entry("k", "v1")),
+        ByteBuffer.allocate(EXAMPLE_BYTES.length - 1));
+  }
+
+  @Test
+  public void readFrom_TruncatedByLimit() {
+    ByteBuffer buffer = ByteBuffer.wrap(EXAMPLE_BYTES);
+    buffer.limit(EXAMPLE_BYTES.length - 1);
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Invalid input: truncated");
+    format.readFrom(buffer);
+  }
+
+  private static Entry entry(String key, String value) {
+    return Entry.create(
+        EntryKey.create(key), EntryValue.create(value), Entry.METADATA_UNLIMITED_PROPAGATION);
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+}
@@ -18,7 +18,7 @@ package io.opentelemetry.sdk.distributedcontext;
 
 import static com.google.common.truth.Truth.assertThat;
 
-import io.grpc.Context;
+import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.distributedcontext.DistributedContext;
 import io.opentelemetry.distributedcontext.EmptyDistributedContext;
@@ -52,13 +52,13 @@ public class DistributedContextManagerSdkTest {
 
   @Test
   public void testGetCurrentContext_ContextSetToNull() {
-    Context orig = ContextUtils.withValue(null).attach();
+    Scope scope = ContextUtils.withDistributedContext(null);
     try {
       DistributedContext distContext = contextManager.getCurrentContext();
       assertThat(distContext).isNotNull();
       assertThat(distContext.getEntries()).isEmpty();
     } finally {
-      Context.current().detach(orig);
+      scope.close();
     }
   }
 
@@ -83,7 +83,7 @@ public class DistributedContextManagerSdkTest {
     try {
       assertThat(contextManager.getCurrentContext()).isSameInstanceAs(distContext);
       runnable =
-          Context.current()
+          ContextStorage.getInstance()
               .wrap(
                   new Runnable() {
                     @Override
@@ -99,4 +99,14 @@ public class DistributedContextManagerSdkTest {
     // When we run the runnable we will have the DistributedContext in the current Context.
     runnable.run();
   }
+
+  @Test
+  public void testGetBinaryFormat() {
+    assertThat(contextManager.getBinaryFormat()).isInstanceOf(BinaryDistributedContextFormat.class);
+  }
+
+  @Test
+  public void testGetHttpTextFormat() {
+    assertThat(contextManager.getHttpTextFormat()).isInstanceOf(BaggageHttpTextFormat.class);
+  }
 }
@@ -26,6 +26,9 @@ import io.opentelemetry.distributedcontext.Entry;
 import io.opentelemetry.distributedcontext.EntryKey;
 import io.opentelemetry.distributedcontext.EntryMetadata;
 import io.opentelemetry.distributedcontext.EntryValue;
+import java.util.Collection;
+import java.util.Collections;
+import javax.annotation.Nullable;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -81,6 +84,64 @@ public class DistributedContextSdkTest {
     assertThat(distContext.getEntries()).containsExactly(t1alt, T2);
   }
 
+  @Test
+  public void getEntries_cached() {
+    DistributedContextSdk distContext = listToDistributedContext(T1, T2);
+    assertThat(distContext.getEntries()).isSameInstanceAs(distContext.getEntries());
+  }
+
+  @Test
+  public void getEntries_unmodifiable() {
+    DistributedContextSdk distContext = listToDistributedContext(T1, T2);
+    thrown.expect(UnsupportedOperationException.class);
+    distContext.getEntries().clear();
+  }
+
+  @Test
+  public void getEntries_sharedWithUnchangedChild() {
+    DistributedContextSdk parent = listToDistributedContext(T1, T2);
+    DistributedContext distContext = contextManager.contextBuilder().setParent(parent).build();
+    assertThat(distContext.getEntries()).isSameInstanceAs(parent.getEntries());
+  }
+
+  @Test
+  public void getEntryValue_deepChain() {
+    DistributedContext distContext = listToDistributedContext(T1);
+    for (int i = 0; i < 100; i++) {
+      distContext =
+          contextManager
+              .contextBuilder()
+              .setParent(distContext)
+              .put(EntryKey.create("level" + i), V1, TMD)
+              .build();
+    }
+    assertThat(distContext.getEntryValue(K1)).isEqualTo(V1);
+    assertThat(distContext.getEntryValue(EntryKey.create("level99"))).isEqualTo(V1);
+    assertThat(distContext.getEntryValue(K2)).isNull();
+    assertThat(distContext.getEntries()).hasSize(101);
+  }
+
+  @Test
+  public void getEntryValue_otherParentImplementation() {
+    DistributedContext parent =
+        new DistributedContext() {
+          @Override
+          public Collection<Entry> getEntries() {
+            return Collections.singletonList(T1);
+          }
+
+          @Nullable
+          @Override
+          public EntryValue getEntryValue(EntryKey entryKey) {
+            return K1.equals(entryKey) ? V1 : null;
+          }
+        };
+    DistributedContext distContext =
+        contextManager.contextBuilder().setParent(parent).put(K2, V2, TMD).build();
+    assertThat(distContext.getEntryValue(K1)).isEqualTo(V1);
+    assertThat(distContext.getEntries()).containsExactly(T1, T2);
+  }
+
   @Test
   public void put_newKey() {
     DistributedContextSdk distContext = listToDistributedContext(T1);
@@ -180,7 +241,12 @@ public class DistributedContextSdkTest {
         .addEqualityGroup(
             contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V2, TMD).build(),
             contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V2, TMD).build(),
-            contextManager.contextBuilder().put(K2, V2, TMD).put(K1, V1, TMD).build())
+            contextManager.contextBuilder().put(K2, V2, TMD).put(K1, V1, TMD).build(),
+            contextManager
+                .contextBuilder()
+                .setParent(listToDistributedContext(T1))
+                .put(K2, V2, TMD)
+                .build())
         .addEqualityGroup(contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V1, TMD).build())
         .addEqualityGroup(contextManager.contextBuilder().put(K1, V2, TMD).put(K2, V1, TMD).build())
         .testEquals();
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link LoggingSpanExporter}. */
+@RunWith(JUnit4.class)
+public class LoggingSpanExporterTest {
+  private static final Logger logger = Logger.getLogger(LoggingSpanExporter.class.getName());
+
+  private final TestClock clock = TestClock.create();
+  private final CapturingHandler handler = new CapturingHandler();
+
+  private static final class CapturingHandler extends Handler {
+    private final List<String> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(LogRecord record) {
+      messages.add(record.getMessage());
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    private synchronized List<String> getMessages() {
+      return new ArrayList<>(messages);
+    }
+  }
+
+  @Before
+  public void setUp() {
+    logger.addHandler(handler);
+  }
+
+  @After
+  public void tearDown() {
+    logger.removeHandler(handler);
+  }
+
+  private static SpanData makeSpan(String name) {
+    return SpanData.newBuilder()
+        .setTraceId(TraceId.fromLowerBase16("0102030405060708090a0b0c0d0e0f10", 0))
+        .setSpanId(SpanId.fromLowerBase16("1112131415161718", 0))
+        .setParentSpanId(SpanId.fromLowerBase16("2122232425262728", 0))
+        .setName(name)
+        .setKind(Kind.SERVER)
+        .setStartTimestamp(Timestamp.create(100, 1_000))
+        .setEndTimestamp(Timestamp.create(101, 533_000))
+        .setAttributes(Collections.singletonMap("code", AttributeValue.longAttributeValue(200)))
+        .setStatus(Status.OK)
+        .build();
+  }
+
+  private static List<SpanData> makeSpans(int count) {
+    List<SpanData> spans = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      spans.add(makeSpan("span-" + i));
+    }
+    return spans;
+  }
+
+  @Test
+  public void export_SingleLine() {
+    LoggingSpanExporter exporter = LoggingSpanExporter.newBuilder().setClock(clock).build();
+    assertThat(exporter.export(Collections.singletonList(makeSpan("GET /api"))))
+        .isEqualTo(ResultCode.SUCCESS);
+    assertThat(handler.getMessages())
+        .containsExactly(
+            "span name=\"GET /api\" trace_id=0102030405060708090a0b0c0d0e0f10"
+                + " span_id=1112131415161718 parent_id=2122232425262728 kind=SERVER"
+                + " duration_us=1000532 status=OK attributes={code=200}");
+  }
+
+  @Test
+  public void export_RateLimited() {
+    LoggingSpanExporter exporter =
+        LoggingSpanExporter.newBuilder().setMaxLinesPerSecond(2).setClock(clock).build();
+    exporter.export(makeSpans(3));
+    exporter.export(makeSpans(1));
+    assertThat(handler.getMessages()).hasSize(2);
+    assertThat(exporter.getSuppressedSpans()).isEqualTo(2);
+
+    clock.advanceMillis(1000);
+    exporter.export(Arrays.asList(makeSpan("next")));
+    List<String> messages = handler.getMessages();
+    assertThat(messages).hasSize(4);
+    assertThat(messages.get(2))
+        .isEqualTo("suppressed 2 spans over the limit of 2 lines per second");
+    assertThat(messages.get(3)).startsWith("span name=\"next\"");
+  }
+
+  @Test
+  public void shutdown_LogsPendingSummary() {
+    LoggingSpanExporter exporter =
+        LoggingSpanExporter.newBuilder().setMaxLinesPerSecond(1).setClock(clock).build();
+    exporter.export(makeSpans(2));
+    exporter.shutdown();
+    assertThat(handler.getMessages())
+        .containsExactly(
+            handler.getMessages().get(0), "suppressed 1 spans over the limit of 1 lines per second")
+        .inOrder();
+  }
+
+  @Test
+  public void export_DisabledLevel() {
+    LoggingSpanExporter exporter = LoggingSpanExporter.newBuilder().setClock(clock).build();
+    Level level = logger.getLevel();
+    logger.setLevel(Level.WARNING);
+    try {
+      assertThat(exporter.export(makeSpans(1))).isEqualTo(ResultCode.SUCCESS);
+    } finally {
+      logger.setLevel(level);
+    }
+    assertThat(handler.getMessages()).isEmpty();
+    assertThat(exporter.getSuppressedSpans()).isEqualTo(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setMaxLinesPerSecond_NotPositive() {
+    LoggingSpanExporter.newBuilder().setMaxLinesPerSecond(0);
+  }
+}
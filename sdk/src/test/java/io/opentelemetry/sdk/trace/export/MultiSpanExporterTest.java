@@ -17,17 +17,23 @@
 package io.opentelemetry.sdk.trace.export;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.opentelemetry.sdk.trace.SpanData;
 import io.opentelemetry.sdk.trace.TestUtils;
+import io.opentelemetry.sdk.trace.export.MultiSpanExporter.ExporterStats;
 import io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -117,4 +123,175 @@ public class MultiSpanExporterTest {
     verify(spanExporter1).export(same(SPAN_LIST));
     verify(spanExporter2).export(same(SPAN_LIST));
   }
+
+  // A SpanExporter that blocks in export until released.
+  private static final class BlockingSpanExporter implements SpanExporter {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger exported = new AtomicInteger();
+    private volatile List<SpanData> spans;
+
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      this.spans = spans;
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return ResultCode.FAILED_RETRYABLE;
+      }
+      exported.incrementAndGet();
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public void shutdown() {}
+  }
+
+  @Test
+  public void parallel_TwoSpanExporter() {
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Arrays.asList(spanExporter1, spanExporter2))
+            .setParallel(true)
+            .build();
+    when(spanExporter1.export(eq(SPAN_LIST))).thenReturn(ResultCode.SUCCESS);
+    when(spanExporter2.export(eq(SPAN_LIST))).thenReturn(ResultCode.FAILED_RETRYABLE);
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.FAILED_RETRYABLE);
+    verify(spanExporter1).export(eq(SPAN_LIST));
+    verify(spanExporter2).export(eq(SPAN_LIST));
+
+    multiSpanExporter.shutdown();
+    verify(spanExporter1).shutdown();
+    verify(spanExporter2).shutdown();
+  }
+
+  @Test
+  public void parallel_FirstThrows() {
+    doThrow(new IllegalArgumentException("No export for you."))
+        .when(spanExporter1)
+        .export(ArgumentMatchers.<SpanData>anyList());
+    when(spanExporter2.export(eq(SPAN_LIST))).thenReturn(ResultCode.SUCCESS);
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Arrays.asList(spanExporter1, spanExporter2))
+            .setParallel(true)
+            .build();
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.FAILED_NOT_RETRYABLE);
+    multiSpanExporter.shutdown();
+  }
+
+  @Test
+  public void parallel_SlowExporterDoesNotBlockOthers() throws InterruptedException {
+    BlockingSpanExporter slowExporter = new BlockingSpanExporter();
+    when(spanExporter1.export(eq(SPAN_LIST))).thenReturn(ResultCode.SUCCESS);
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Arrays.<SpanExporter>asList(spanExporter1, slowExporter))
+            .setParallel(true)
+            .setMaxQueuedBatches(1)
+            .setExportTimeoutMillis(10)
+            .build();
+    // Taken by the slow exporter, which does not answer in time: not a failure.
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.SUCCESS);
+    slowExporter.started.await();
+    // Waits in the slow exporter's queue until the first batch is done.
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.SUCCESS);
+    // The slow exporter's queue is full, the batch is dropped for it.
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.FAILED_RETRYABLE);
+    verify(spanExporter1, times(3)).export(eq(SPAN_LIST));
+
+    List<ExporterStats> stats = multiSpanExporter.getExporterStats();
+    assertThat(stats).hasSize(2);
+    assertThat(stats.get(0).getSpanExporter()).isSameInstanceAs(spanExporter1);
+    assertThat(stats.get(0).getQueuedBatches()).isEqualTo(0);
+    assertThat(stats.get(0).getDroppedBatches()).isEqualTo(0);
+    assertThat(stats.get(0).getLagNanos()).isEqualTo(0);
+    assertThat(stats.get(1).getSpanExporter()).isSameInstanceAs(slowExporter);
+    assertThat(stats.get(1).getQueuedBatches()).isEqualTo(2);
+    assertThat(stats.get(1).getDroppedBatches()).isEqualTo(1);
+    assertThat(stats.get(1).getLagNanos()).isGreaterThan(0L);
+
+    slowExporter.release.countDown();
+    multiSpanExporter.shutdown();
+  }
+
+  // A SpanExporter that takes a while to export every batch.
+  private static final class SlowSpanExporter implements SpanExporter {
+    private final AtomicInteger exported = new AtomicInteger();
+    private volatile boolean exportedBeforeShutdown;
+
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return ResultCode.FAILED_RETRYABLE;
+      }
+      exported.incrementAndGet();
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public void shutdown() {
+      exportedBeforeShutdown = exported.get() == 5;
+    }
+  }
+
+  @Test
+  public void parallel_ShutdownExportsQueuedBatches() {
+    SlowSpanExporter slowExporter = new SlowSpanExporter();
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Collections.<SpanExporter>singletonList(slowExporter))
+            .setParallel(true)
+            .setExportTimeoutMillis(0)
+            .build();
+    for (int i = 0; i < 5; i++) {
+      assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.SUCCESS);
+    }
+    multiSpanExporter.shutdown();
+    // The in-flight and the queued batches are exported before the exporter is shut down.
+    assertThat(slowExporter.exported.get()).isEqualTo(5);
+    assertThat(slowExporter.exportedBeforeShutdown).isTrue();
+    assertThat(multiSpanExporter.export(SPAN_LIST)).isEqualTo(ResultCode.FAILED_NOT_RETRYABLE);
+  }
+
+  @Test
+  public void parallel_ExportsACopyOfTheSpans() throws InterruptedException {
+    BlockingSpanExporter blockingExporter = new BlockingSpanExporter();
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Collections.<SpanExporter>singletonList(blockingExporter))
+            .setParallel(true)
+            .setExportTimeoutMillis(0)
+            .build();
+    List<SpanData> spans = new ArrayList<>(SPAN_LIST);
+    multiSpanExporter.export(spans);
+    // The caller reuses its list while the exporter is still running.
+    spans.clear();
+    blockingExporter.started.await();
+    blockingExporter.release.countDown();
+    multiSpanExporter.shutdown();
+    assertThat(blockingExporter.spans).isEqualTo(SPAN_LIST);
+  }
+
+  @Test
+  public void parallel_ShutdownInterruptsAfterTimeout() throws InterruptedException {
+    BlockingSpanExporter blockingExporter = new BlockingSpanExporter();
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Collections.<SpanExporter>singletonList(blockingExporter))
+            .setParallel(true)
+            .setExportTimeoutMillis(0)
+            .setShutdownTimeoutMillis(10)
+            .build();
+    multiSpanExporter.export(SPAN_LIST);
+    blockingExporter.started.await();
+    multiSpanExporter.shutdown();
+    assertThat(blockingExporter.exported.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void sequential_NoStats() {
+    MultiSpanExporter multiSpanExporter =
+        MultiSpanExporter.newBuilder(Arrays.asList(spanExporter1, spanExporter2)).build();
+    assertThat(multiSpanExporter.getExporterStats()).isEmpty();
+  }
 }
@@ -17,36 +17,89 @@
 package io.opentelemetry.sdk.contrib.trace.export;
 
 import com.google.common.base.Preconditions;
+import com.lmax.disruptor.LiteTimeoutBlockingWaitStrategy;
 import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
+import io.opentelemetry.metrics.Meter;
+import io.opentelemetry.metrics.Observer.Callback;
+import io.opentelemetry.metrics.Observer.Handle;
+import io.opentelemetry.metrics.ObserverLong;
+import io.opentelemetry.metrics.ObserverLong.Result;
 import io.opentelemetry.sdk.contrib.trace.export.DisruptorEventQueue.EventType;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.BatchSpansProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A {@link SpanProcessor} implementation that uses {@code Disruptor} to execute all the hooks on an
  * async thread.
+ *
+ * <p>When built with a {@link SpanExporter} the Disruptor's thread batches the ended spans itself
+ * and exports them, without the second queue of a {@link BatchSpansProcessor}. A batch is exported
+ * when it is full, or when the thread caught up with the producers or waited for the timeout of the
+ * {@code WaitStrategy}, once the first span of the batch is older than the schedule delay.
  */
 @ThreadSafe
 public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
+  private static final Logger logger =
+      Logger.getLogger(DisruptorAsyncSpanProcessor.class.getName());
+
   // Number of events that can be enqueued at any one time. If more than this are enqueued,
   // then subsequent attempts to enqueue new entries will block.
   private static final int DEFAULT_DISRUPTOR_BUFFER_SIZE = 8192;
   // The default value of the Disruptor behavior, blocks when no space available.
-  private static final boolean DEFAULT_BLOCKING = true;
+  private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+  // The default maximum time to block with OverflowPolicy.BLOCK_WITH_TIMEOUT.
+  private static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 10;
   // The default number of retries for the SleepingWaitingStrategy.
   private static final int DEFAULT_NUM_RETRIES = 0;
   // The default waiting time in ns for the SleepingWaitingStrategy.
   private static final long DEFAULT_SLEEPING_TIME_NS = 1000 * 1000;
 
+  // The default number of consumer threads.
+  private static final int DEFAULT_CONSUMER_COUNT = 1;
+  private static final String CONSUMER_LABEL_KEY = "consumer";
+  private static final String OUTCOME_LABEL_KEY = "outcome";
+  // The default values of the batch export, as in the BatchSpansProcessor.
+  private static final long DEFAULT_SCHEDULE_DELAY_MILLIS = 5000;
+  private static final int DEFAULT_MAX_EXPORT_BATCH_SIZE = 512;
+
   private final DisruptorEventQueue disruptorEventQueue;
+  private final boolean startRequired;
 
-  // TODO: Add metrics for dropped spans.
+  /** What happens to the events of a span when the Disruptor's ring buffer is full. */
+  public enum OverflowPolicy {
+    /** Blocks the application thread until there is space in the ring buffer. */
+    BLOCK,
+
+    /** Blocks the application thread for at most the block timeout, then drops the event. */
+    BLOCK_WITH_TIMEOUT,
+
+    /** Drops the event. */
+    DROP_NEWEST,
+
+    /**
+     * Drops the events of not sampled spans when at most an eighth of the ring buffer is free,
+     * keeping the remaining space for sampled spans, then drops any event when the ring buffer is
+     * full.
+     */
+    DROP_NOT_SAMPLED_FIRST
+  }
 
   @Override
   public void onStart(ReadableSpan span) {
-    disruptorEventQueue.enqueue(span, EventType.ON_START);
+    if (startRequired) {
+      disruptorEventQueue.enqueue(span, EventType.ON_START);
+    }
   }
 
   @Override
@@ -59,6 +112,18 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     disruptorEventQueue.shutdown();
   }
 
+  /**
+   * Returns the fraction of the Disruptor's ring buffer in use, between {@code 0} and {@code 1}.
+   *
+   * <p>This is cheap enough to be called for every span, for example by a {@code Sampler} that
+   * samples fewer spans when the pressure gets high, before the ring buffer overflows.
+   *
+   * @return the fraction of the Disruptor's ring buffer in use.
+   */
+  public double getPressure() {
+    return disruptorEventQueue.getPressure();
+  }
+
   /**
    * Returns a new Builder for {@link DisruptorAsyncSpanProcessor}.
    *
@@ -67,29 +132,79 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
    * @throws NullPointerException if the {@code spanProcessor} is {@code null}.
    */
   public static Builder newBuilder(SpanProcessor spanProcessor) {
-    return new Builder(Preconditions.checkNotNull(spanProcessor));
+    return new Builder(Preconditions.checkNotNull(spanProcessor), null);
+  }
+
+  /**
+   * Returns a new Builder for {@link DisruptorAsyncSpanProcessor} that batches the ended spans on
+   * the Disruptor's thread and exports them with the given {@code SpanExporter}.
+   *
+   * @param spanExporter the {@code SpanExporter} to where the Spans are pushed.
+   * @return a new {@link DisruptorAsyncSpanProcessor}.
+   * @throws NullPointerException if the {@code spanExporter} is {@code null}.
+   */
+  public static Builder newBuilder(SpanExporter spanExporter) {
+    return new Builder(null, Preconditions.checkNotNull(spanExporter));
   }
 
   /** Builder class for {@link DisruptorAsyncSpanProcessor}. */
   public static final class Builder {
-    private final SpanProcessor spanProcessor;
+    @Nullable private final SpanProcessor spanProcessor;
+    @Nullable private final SpanExporter spanExporter;
     private int bufferSize = DEFAULT_DISRUPTOR_BUFFER_SIZE;
-    private boolean blocking = DEFAULT_BLOCKING;
-    private WaitStrategy waitStrategy =
-        new SleepingWaitStrategy(DEFAULT_NUM_RETRIES, DEFAULT_SLEEPING_TIME_NS);
+    private OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+    private long blockTimeoutMillis = DEFAULT_BLOCK_TIMEOUT_MILLIS;
+    @Nullable private WaitStrategy waitStrategy;
+    private int consumerCount = DEFAULT_CONSUMER_COUNT;
+    @Nullable private Meter meter;
+    private boolean sampled = true;
+    private long scheduleDelayMillis = DEFAULT_SCHEDULE_DELAY_MILLIS;
+    private int maxExportBatchSize = DEFAULT_MAX_EXPORT_BATCH_SIZE;
 
-    private Builder(SpanProcessor spanProcessor) {
+    private Builder(@Nullable SpanProcessor spanProcessor, @Nullable SpanExporter spanExporter) {
       this.spanProcessor = spanProcessor;
+      this.spanExporter = spanExporter;
     }
 
     /**
-     * If {@code true} blocks when the Disruptor's ring buffer is full.
+     * If {@code true} blocks when the Disruptor's ring buffer is full. Same as {@link
+     * #setOverflowPolicy(OverflowPolicy)} with {@link OverflowPolicy#BLOCK} or {@link
+     * OverflowPolicy#DROP_NEWEST}.
      *
      * @param blocking {@code true} blocks when the Disruptor's ring buffer is full.
      * @return this.
      */
     public Builder setBlocking(boolean blocking) {
-      this.blocking = blocking;
+      this.overflowPolicy = blocking ? OverflowPolicy.BLOCK : OverflowPolicy.DROP_NEWEST;
+      return this;
+    }
+
+    /**
+     * Sets what happens to the events of a span when the Disruptor's ring buffer is full.
+     *
+     * <p>Default value is {@link OverflowPolicy#BLOCK}.
+     *
+     * @param overflowPolicy what happens when the Disruptor's ring buffer is full.
+     * @return this.
+     */
+    public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy, "overflowPolicy");
+      return this;
+    }
+
+    /**
+     * Sets the maximum time an application thread blocks with {@link
+     * OverflowPolicy#BLOCK_WITH_TIMEOUT}.
+     *
+     * <p>Default value is {@code 10}ms.
+     *
+     * @param blockTimeoutMillis the maximum time an application thread blocks.
+     * @return this.
+     */
+    public Builder setBlockTimeoutMillis(long blockTimeoutMillis) {
+      Preconditions.checkArgument(
+          blockTimeoutMillis >= 0, "blockTimeoutMillis must be non-negative");
+      this.blockTimeoutMillis = blockTimeoutMillis;
       return this;
     }
 
@@ -105,9 +220,52 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
       return this;
     }
 
+    /**
+     * Sets the number of consumer threads. The events of a trace are always handled by the same
+     * consumer, chosen by the hash of the trace id.
+     *
+     * <p>With several consumers the {@code SpanProcessor} is called concurrently, or every consumer
+     * batches its own spans when exporting to a {@code SpanExporter}, which is called concurrently.
+     * The last {@code bufferSize} spans stay referenced by the ring buffer.
+     *
+     * <p>Default value is {@code 1}.
+     *
+     * @param consumerCount the number of consumer threads.
+     * @return this.
+     */
+    public Builder setConsumerCount(int consumerCount) {
+      Preconditions.checkArgument(consumerCount > 0, "consumerCount must be positive");
+      this.consumerCount = consumerCount;
+      return this;
+    }
+
+    /**
+     * Sets the {@code Meter} used to report the remaining capacity of the ring buffer, the lag of
+     * every consumer and the number of events that found the ring buffer full, by outcome.
+     *
+     * <p>The {@code Meter} must support the {@code ObserverLong} metrics, which no {@code Meter} in
+     * this repository implements yet. With a {@code Meter} that does not support them, such as the
+     * one returned by {@code OpenTelemetry.getMeter()} with the SDK, a warning is logged and the
+     * metrics are not reported.
+     *
+     * <p>By default the metrics are not reported.
+     *
+     * @param meter the {@code Meter} used to report the metrics.
+     * @return this.
+     */
+    public Builder setMeter(Meter meter) {
+      this.meter = Preconditions.checkNotNull(meter, "meter");
+      return this;
+    }
+
     /**
      * Sets the {@code WaitStrategy} for the Disruptor's worker thread.
      *
+     * <p>The default is a {@link SleepingWaitStrategy}, or a {@link
+     * LiteTimeoutBlockingWaitStrategy} with the schedule delay as timeout when exporting to a
+     * {@code SpanExporter}. With a {@code WaitStrategy} that never times out, the last spans ended
+     * before the application becomes idle are only exported by the next spans or the shutdown.
+     *
      * @param waitingStrategy the {@code WaitStrategy} for the Disruptor's worker thread.
      * @return this.
      */
@@ -116,18 +274,173 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
       return this;
     }
 
+    /**
+     * Set whether only sampled spans should be exported. Only used when exporting to a {@code
+     * SpanExporter}.
+     *
+     * <p>Default value is {@code true}.
+     *
+     * @param sampled export only sampled spans.
+     * @return this.
+     */
+    public Builder reportOnlySampled(boolean sampled) {
+      this.sampled = sampled;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time the first span of a batch that is not full waits before the batch is
+     * exported. Only used when exporting to a {@code SpanExporter}.
+     *
+     * <p>A delay of {@code 0} exports the spans every time the Disruptor's thread caught up with
+     * the producers. Default value is {@code 5000}ms.
+     *
+     * @param scheduleDelayMillis the maximum delay before a batch is exported.
+     * @return this.
+     */
+    public Builder setScheduleDelayMillis(long scheduleDelayMillis) {
+      Preconditions.checkArgument(
+          scheduleDelayMillis >= 0, "scheduleDelayMillis must be non-negative");
+      this.scheduleDelayMillis = scheduleDelayMillis;
+      return this;
+    }
+
+    /**
+     * Sets the maximum batch size for every export. Only used when exporting to a {@code
+     * SpanExporter}.
+     *
+     * <p>Default value is {@code 512}.
+     *
+     * @param maxExportBatchSize the maximum batch size for every export.
+     * @return this.
+     */
+    public Builder setMaxExportBatchSize(int maxExportBatchSize) {
+      Preconditions.checkArgument(maxExportBatchSize > 0, "maxExportBatchSize must be positive");
+      this.maxExportBatchSize = maxExportBatchSize;
+      return this;
+    }
+
     /**
      * Returns a new {@link DisruptorAsyncSpanProcessor}.
      *
      * @return a new {@link DisruptorAsyncSpanProcessor}.
      */
     public DisruptorAsyncSpanProcessor build() {
+      List<SpanProcessor> spanProcessors = new ArrayList<>(consumerCount);
+      if (spanExporter == null) {
+        for (int i = 0; i < consumerCount; i++) {
+          spanProcessors.add(Preconditions.checkNotNull(spanProcessor));
+        }
+        return new DisruptorAsyncSpanProcessor(
+            new DisruptorEventQueue(
+                bufferSize,
+                waitStrategy != null
+                    ? waitStrategy
+                    : new SleepingWaitStrategy(DEFAULT_NUM_RETRIES, DEFAULT_SLEEPING_TIME_NS),
+                spanProcessors,
+                overflowPolicy,
+                TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis)),
+            /* startRequired= */ true,
+            meter);
+      }
+      for (int i = 0; i < consumerCount; i++) {
+        // The last batcher to be shut down shuts the exporter down.
+        spanProcessors.add(
+            new SpanExportBatcher(
+                spanExporter,
+                sampled,
+                /* shutdownExporter= */ i == consumerCount - 1,
+                maxExportBatchSize,
+                scheduleDelayMillis));
+      }
       return new DisruptorAsyncSpanProcessor(
-          new DisruptorEventQueue(bufferSize, waitStrategy, spanProcessor, blocking));
+          new DisruptorEventQueue(
+              bufferSize,
+              waitStrategy != null
+                  ? waitStrategy
+                  : new LiteTimeoutBlockingWaitStrategy(
+                      Math.max(1, scheduleDelayMillis), TimeUnit.MILLISECONDS),
+              spanProcessors,
+              overflowPolicy,
+              TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis)),
+          /* startRequired= */ false,
+          meter);
     }
   }
 
-  private DisruptorAsyncSpanProcessor(DisruptorEventQueue disruptorEventQueue) {
+  private DisruptorAsyncSpanProcessor(
+      DisruptorEventQueue disruptorEventQueue, boolean startRequired, @Nullable Meter meter) {
     this.disruptorEventQueue = disruptorEventQueue;
+    this.startRequired = startRequired;
+    if (meter != null) {
+      try {
+        exportMetrics(meter);
+      } catch (UnsupportedOperationException e) {
+        logger.log(Level.WARNING, "The Meter does not support observers, metrics not reported.", e);
+      }
+    }
+  }
+
+  private void exportMetrics(Meter meter) {
+    final ObserverLong remainingCapacityMetric =
+        meter
+            .observerLongBuilder("disruptor_remaining_capacity")
+            .setDescription("Number of spans that can be enqueued before the ring buffer is full.")
+            .setUnit("1")
+            .setMonotonic(false)
+            .build();
+    final Handle remainingCapacity =
+        remainingCapacityMetric.getHandle(Collections.<String>emptyList());
+    remainingCapacityMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            result.put(remainingCapacity, disruptorEventQueue.getRemainingCapacity());
+          }
+        });
+    final ObserverLong consumerLagMetric =
+        meter
+            .observerLongBuilder("disruptor_consumer_lag")
+            .setDescription("Number of events enqueued but not yet handled by a consumer.")
+            .setUnit("1")
+            .setLabelKeys(Collections.singletonList(CONSUMER_LABEL_KEY))
+            .setMonotonic(false)
+            .build();
+    final List<Handle> consumerLags = new ArrayList<>(disruptorEventQueue.getConsumerCount());
+    for (int i = 0; i < disruptorEventQueue.getConsumerCount(); i++) {
+      consumerLags.add(consumerLagMetric.getHandle(Collections.singletonList(String.valueOf(i))));
+    }
+    consumerLagMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            for (int i = 0; i < consumerLags.size(); i++) {
+              result.put(consumerLags.get(i), disruptorEventQueue.getConsumerLag(i));
+            }
+          }
+        });
+    final ObserverLong overflowMetric =
+        meter
+            .observerLongBuilder("disruptor_overflow")
+            .setDescription("Number of events that found the ring buffer full.")
+            .setUnit("1")
+            .setLabelKeys(Collections.singletonList(OUTCOME_LABEL_KEY))
+            .setMonotonic(true)
+            .build();
+    final Handle blocked = overflowMetric.getHandle(Collections.singletonList("blocked"));
+    final Handle dropped = overflowMetric.getHandle(Collections.singletonList("dropped"));
+    final Handle droppedNotSampled =
+        overflowMetric.getHandle(Collections.singletonList("dropped_not_sampled"));
+    final Handle timedOut = overflowMetric.getHandle(Collections.singletonList("timed_out"));
+    overflowMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            result.put(blocked, disruptorEventQueue.getBlockedEvents());
+            result.put(dropped, disruptorEventQueue.getDroppedEvents());
+            result.put(droppedNotSampled, disruptorEventQueue.getDroppedNotSampledEvents());
+            result.put(timedOut, disruptorEventQueue.getTimedOutEvents());
+          }
+        });
   }
 }
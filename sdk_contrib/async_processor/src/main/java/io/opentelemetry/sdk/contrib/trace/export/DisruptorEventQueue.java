@@ -21,14 +21,24 @@ import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventTranslatorTwoArg;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutHandler;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
+import io.opentelemetry.sdk.contrib.trace.export.DisruptorAsyncSpanProcessor.OverflowPolicy;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -37,11 +47,20 @@ import javax.annotation.concurrent.ThreadSafe;
  * A low-latency event queue for background updating of (possibly contended) objects. This is
  * intended for use by instrumentation methods to ensure that they do not block foreground
  * activities.
+ *
+ * <p>The events are consumed by one thread per {@code SpanProcessor}. When there are several
+ * consumers, the events of a trace are always handled by the same consumer, chosen by the hash of
+ * the trace id.
  */
 @ThreadSafe
 final class DisruptorEventQueue {
   private static final Logger logger = Logger.getLogger(DisruptorEventQueue.class.getName());
   private static final String WORKER_THREAD_NAME = "DisruptorEventQueue_WorkerThread";
+  // Time between two attempts to publish an event when blocking with a timeout.
+  private static final long BLOCK_BACKOFF_NANOS = 1000;
+  // Not sampled spans are dropped when at most 1/NOT_SAMPLED_RESERVE_RATIO of the ring buffer is
+  // free with OverflowPolicy.DROP_NOT_SAMPLED_FIRST.
+  private static final int NOT_SAMPLED_RESERVE_RATIO = 8;
   private static final EventTranslatorTwoArg<DisruptorEvent, ReadableSpan, EventType>
       TRANSLATOR_TWO_ARG =
           new EventTranslatorTwoArg<DisruptorEvent, ReadableSpan, EventType>() {
@@ -63,9 +82,18 @@ final class DisruptorEventQueue {
   private final Disruptor<DisruptorEvent> disruptor;
   private final RingBuffer<DisruptorEvent> ringBuffer;
   private final AtomicBoolean loggedShutdownMessage = new AtomicBoolean(false);
-  private final CountDownLatch shutdownCounter = new CountDownLatch(1); // only one processor.
+  private final CountDownLatch shutdownCounter = new CountDownLatch(1);
+  private final List<DisruptorEventHandler> handlers;
   private volatile boolean isShutdown = false;
-  private final boolean blocking;
+  private final OverflowPolicy overflowPolicy;
+  private final long blockTimeoutNanos;
+  private final int bufferSize;
+  private final long notSampledReserve;
+  // Counters of the events that did not find space in the ring buffer.
+  private final AtomicLong blockedEvents = new AtomicLong();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final AtomicLong droppedNotSampledEvents = new AtomicLong();
+  private final AtomicLong timedOutEvents = new AtomicLong();
 
   enum EventType {
     ON_START,
@@ -73,9 +101,23 @@ final class DisruptorEventQueue {
     ON_SHUTDOWN
   }
 
-  // Creates a new EventQueue. Private to prevent creation of non-singleton instance.
+  // Implemented by the SpanProcessors that batch the spans, to be notified when the worker thread
+  // caught up with the producers, or when no event was published for the timeout of the
+  // WaitStrategy.
+  interface BatchListener {
+    void onEndOfBatch();
+
+    void onTimeout();
+  }
+
+  // Creates a new EventQueue with one consumer thread per SpanProcessor. A SpanProcessor may be
+  // used by several consumers, it is then called concurrently.
   DisruptorEventQueue(
-      int bufferSize, WaitStrategy waitStrategy, SpanProcessor spanProcessor, boolean blocking) {
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      List<? extends SpanProcessor> spanProcessors,
+      OverflowPolicy overflowPolicy,
+      long blockTimeoutNanos) {
     // Create new Disruptor for processing. Note that Disruptor creates a single thread per
     // consumer (see https://github.com/LMAX-Exchange/disruptor/issues/121 for details);
     // this ensures that the event handler can take unsynchronized actions whenever possible.
@@ -86,9 +128,63 @@ final class DisruptorEventQueue {
             new ThreadFactoryWithName(WORKER_THREAD_NAME),
             ProducerType.MULTI,
             waitStrategy);
-    disruptor.handleEventsWith(new DisruptorEventHandler(spanProcessor, shutdownCounter));
+    ConsumersShutdown consumersShutdown = new ConsumersShutdown(spanProcessors, shutdownCounter);
+    List<DisruptorEventHandler> handlers = new ArrayList<>(spanProcessors.size());
+    for (int i = 0; i < spanProcessors.size(); i++) {
+      handlers.add(
+          new DisruptorEventHandler(
+              spanProcessors.get(i), i, spanProcessors.size(), consumersShutdown));
+    }
+    this.handlers = Collections.unmodifiableList(handlers);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    EventHandler<DisruptorEvent>[] handlersArray = handlers.toArray(new EventHandler[0]);
+    disruptor.handleEventsWith(handlersArray);
     this.ringBuffer = disruptor.start();
-    this.blocking = blocking;
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutNanos = blockTimeoutNanos;
+    this.bufferSize = bufferSize;
+    this.notSampledReserve = bufferSize / NOT_SAMPLED_RESERVE_RATIO;
+  }
+
+  // Returns the number of consumer threads.
+  int getConsumerCount() {
+    return handlers.size();
+  }
+
+  // Returns the number of events that can be enqueued before the ring buffer is full.
+  long getRemainingCapacity() {
+    return ringBuffer.remainingCapacity();
+  }
+
+  // Returns the fraction of the ring buffer in use, between 0 and 1.
+  double getPressure() {
+    return 1 - (double) ringBuffer.remainingCapacity() / bufferSize;
+  }
+
+  // Returns the number of events that waited for space in the ring buffer.
+  long getBlockedEvents() {
+    return blockedEvents.get();
+  }
+
+  // Returns the number of events dropped because the ring buffer was full.
+  long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  // Returns the number of events of not sampled spans dropped to keep space for sampled spans.
+  long getDroppedNotSampledEvents() {
+    return droppedNotSampledEvents.get();
+  }
+
+  // Returns the number of events dropped after blocking for the timeout.
+  long getTimedOutEvents() {
+    return timedOutEvents.get();
+  }
+
+  // Returns the number of events published but not yet handled by the given consumer.
+  long getConsumerLag(int consumer) {
+    return Math.max(
+        0, ringBuffer.getCursor() - disruptor.getSequenceValueFor(handlers.get(consumer)));
   }
 
   // Enqueues an event on the {@link DisruptorEventQueue}.
@@ -100,14 +196,51 @@ final class DisruptorEventQueue {
       return;
     }
 
-    if (blocking) {
-      ringBuffer.publishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType);
-    } else {
-      // TODO: Record metrics if element not added.
-      ringBuffer.tryPublishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType);
+    switch (overflowPolicy) {
+      case BLOCK:
+        if (!ringBuffer.tryPublishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType)) {
+          blockedEvents.incrementAndGet();
+          ringBuffer.publishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType);
+        }
+        return;
+      case BLOCK_WITH_TIMEOUT:
+        if (!ringBuffer.tryPublishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType)) {
+          blockedEvents.incrementAndGet();
+          publishWithTimeout(readableSpan, eventType);
+        }
+        return;
+      case DROP_NOT_SAMPLED_FIRST:
+        if (readableSpan != null
+            && !readableSpan.getSpanContext().getTraceFlags().isSampled()
+            && ringBuffer.remainingCapacity() <= notSampledReserve) {
+          droppedNotSampledEvents.incrementAndGet();
+          return;
+        }
+        publishOrDrop(readableSpan, eventType);
+        return;
+      case DROP_NEWEST:
+        publishOrDrop(readableSpan, eventType);
+        return;
+    }
+  }
+
+  private void publishOrDrop(@Nullable ReadableSpan readableSpan, EventType eventType) {
+    if (!ringBuffer.tryPublishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType)) {
+      droppedEvents.incrementAndGet();
     }
   }
 
+  private void publishWithTimeout(@Nullable ReadableSpan readableSpan, EventType eventType) {
+    long deadline = System.nanoTime() + blockTimeoutNanos;
+    do {
+      LockSupport.parkNanos(BLOCK_BACKOFF_NANOS);
+      if (ringBuffer.tryPublishEvent(TRANSLATOR_TWO_ARG, readableSpan, eventType)) {
+        return;
+      }
+    } while (System.nanoTime() - deadline < 0);
+    timedOutEvents.incrementAndGet();
+  }
+
   // Shuts down the underlying disruptor.
   void shutdown() {
     if (isShutdown) {
@@ -117,7 +250,8 @@ final class DisruptorEventQueue {
       if (isShutdown) {
         return;
       }
-      enqueue(null, EventType.ON_SHUTDOWN);
+      // Never dropped, whatever the overflow policy.
+      ringBuffer.publishEvent(TRANSLATOR_TWO_ARG, null, EventType.ON_SHUTDOWN);
       isShutdown = true;
       try {
         shutdownCounter.await();
@@ -151,15 +285,69 @@ final class DisruptorEventQueue {
     }
   }
 
-  private static final class DisruptorEventHandler implements EventHandler<DisruptorEvent> {
-    private final SpanProcessor spanProcessor;
+  // Shuts down the SpanProcessors once all the consumers handled the shutdown event.
+  private static final class ConsumersShutdown {
+    private final List<SpanProcessor> spanProcessors;
+    private final AtomicInteger runningConsumers;
     private final CountDownLatch shutdownCounter;
 
-    private DisruptorEventHandler(SpanProcessor spanProcessor, CountDownLatch shutdownCounter) {
-      this.spanProcessor = spanProcessor;
+    private ConsumersShutdown(
+        List<? extends SpanProcessor> spanProcessors, CountDownLatch shutdownCounter) {
+      // A SpanProcessor used by several consumers is shut down once.
+      Set<SpanProcessor> distinct =
+          Collections.newSetFromMap(new IdentityHashMap<SpanProcessor, Boolean>());
+      List<SpanProcessor> distinctSpanProcessors = new ArrayList<>(spanProcessors.size());
+      for (SpanProcessor spanProcessor : spanProcessors) {
+        if (distinct.add(spanProcessor)) {
+          distinctSpanProcessors.add(spanProcessor);
+        }
+      }
+      this.spanProcessors = distinctSpanProcessors;
+      this.runningConsumers = new AtomicInteger(spanProcessors.size());
       this.shutdownCounter = shutdownCounter;
     }
 
+    private void onConsumerShutdown() {
+      if (runningConsumers.decrementAndGet() != 0) {
+        return;
+      }
+      // The other consumers do not call their SpanProcessor anymore.
+      for (SpanProcessor spanProcessor : spanProcessors) {
+        spanProcessor.shutdown();
+      }
+      shutdownCounter.countDown();
+    }
+  }
+
+  private static final class DisruptorEventHandler
+      implements EventHandler<DisruptorEvent>, TimeoutHandler {
+    private final SpanProcessor spanProcessor;
+    @Nullable private final BatchListener batchListener;
+    private final int consumer;
+    private final int consumerCount;
+    private final ConsumersShutdown consumersShutdown;
+    private boolean isShutdown = false;
+
+    private DisruptorEventHandler(
+        SpanProcessor spanProcessor,
+        int consumer,
+        int consumerCount,
+        ConsumersShutdown consumersShutdown) {
+      this.spanProcessor = spanProcessor;
+      this.batchListener =
+          spanProcessor instanceof BatchListener ? (BatchListener) spanProcessor : null;
+      this.consumer = consumer;
+      this.consumerCount = consumerCount;
+      this.consumersShutdown = consumersShutdown;
+    }
+
+    @Override
+    public void onTimeout(long sequence) {
+      if (batchListener != null && !isShutdown) {
+        batchListener.onTimeout();
+      }
+    }
+
     @Override
     public void onEvent(DisruptorEvent event, long sequence, boolean endOfBatch) {
       final ReadableSpan readableSpan = event.getReadableSpan();
@@ -168,23 +356,44 @@ final class DisruptorEventQueue {
         logger.warning("Disruptor enqueued null element type.");
         return;
       }
+      if (isShutdown) {
+        return;
+      }
       try {
         switch (eventType) {
           case ON_START:
-            spanProcessor.onStart(readableSpan);
+            if (isOwnTrace(readableSpan)) {
+              spanProcessor.onStart(readableSpan);
+            }
             break;
           case ON_END:
-            spanProcessor.onEnd(readableSpan);
+            if (isOwnTrace(readableSpan)) {
+              spanProcessor.onEnd(readableSpan);
+            }
             break;
           case ON_SHUTDOWN:
-            spanProcessor.shutdown();
-            shutdownCounter.countDown();
-            break;
+            isShutdown = true;
+            consumersShutdown.onConsumerShutdown();
+            return;
         }
       } finally {
-        // Remove the reference to the previous entry to allow the memory to be gc'ed.
-        event.setEntry(null, null);
+        // Remove the reference to the previous entry to allow the memory to be gc'ed. The other
+        // consumers may still have to read the entry when there are several.
+        if (consumerCount == 1) {
+          event.setEntry(null, null);
+        }
+      }
+      if (endOfBatch && batchListener != null) {
+        batchListener.onEndOfBatch();
+      }
+    }
+
+    private boolean isOwnTrace(@Nullable ReadableSpan readableSpan) {
+      if (consumerCount == 1 || readableSpan == null) {
+        return true;
       }
+      int hash = readableSpan.getSpanContext().getTraceId().hashCode();
+      return (hash & Integer.MAX_VALUE) % consumerCount == consumer;
     }
   }
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link SpanProcessor} that batches the ended spans and exports them with a {@link
+ * SpanExporter}. It must only be called by the {@link DisruptorEventQueue} worker thread, which
+ * notifies it of the end of every Disruptor batch.
+ *
+ * <p>A batch is exported when it reaches {@code maxExportBatchSize} spans, or at the end of a
+ * Disruptor batch or on a wait timeout once its first span waited for {@code scheduleDelayMillis}.
+ *
+ * <p>Several batchers may share a {@code SpanExporter}, only one of them shuts it down.
+ */
+@NotThreadSafe
+final class SpanExportBatcher implements SpanProcessor, DisruptorEventQueue.BatchListener {
+  private static final Logger logger = Logger.getLogger(SpanExportBatcher.class.getName());
+
+  private final SpanExporter spanExporter;
+  private final boolean sampled;
+  private final boolean shutdownExporter;
+  private final int maxExportBatchSize;
+  private final long scheduleDelayNanos;
+  private List<SpanData> batch;
+  // The time at which the first span was added to the batch.
+  private long batchStartNanos;
+
+  SpanExportBatcher(
+      SpanExporter spanExporter,
+      boolean sampled,
+      boolean shutdownExporter,
+      int maxExportBatchSize,
+      long scheduleDelayMillis) {
+    this.spanExporter = spanExporter;
+    this.sampled = sampled;
+    this.shutdownExporter = shutdownExporter;
+    this.maxExportBatchSize = maxExportBatchSize;
+    this.scheduleDelayNanos = TimeUnit.MILLISECONDS.toNanos(scheduleDelayMillis);
+    this.batch = new ArrayList<>(maxExportBatchSize);
+  }
+
+  @Override
+  public void onStart(ReadableSpan span) {}
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (sampled && !span.getSpanContext().getTraceFlags().isSampled()) {
+      return;
+    }
+    if (batch.isEmpty()) {
+      batchStartNanos = System.nanoTime();
+    }
+    batch.add(span.toSpanData());
+    if (batch.size() >= maxExportBatchSize) {
+      exportBatch();
+    }
+  }
+
+  @Override
+  public void onEndOfBatch() {
+    exportBatchIfDue();
+  }
+
+  @Override
+  public void onTimeout() {
+    exportBatchIfDue();
+  }
+
+  @Override
+  public void shutdown() {
+    exportBatch();
+    if (shutdownExporter) {
+      spanExporter.shutdown();
+    }
+  }
+
+  private void exportBatchIfDue() {
+    if (!batch.isEmpty() && System.nanoTime() - batchStartNanos >= scheduleDelayNanos) {
+      exportBatch();
+    }
+  }
+
+  private void exportBatch() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<SpanData> spans = Collections.unmodifiableList(batch);
+    batch = new ArrayList<>(maxExportBatchSize);
+    // In case of any exception thrown by the exporter continue to run.
+    try {
+      spanExporter.export(spans);
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by the export.", t);
+    }
+  }
+}
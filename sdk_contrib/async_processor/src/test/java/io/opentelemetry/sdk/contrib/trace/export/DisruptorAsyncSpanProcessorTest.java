@@ -18,10 +18,22 @@ package io.opentelemetry.sdk.contrib.trace.export;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.metrics.DefaultMeter;
 import io.opentelemetry.sdk.trace.MultiSpanProcessor;
 import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.util.Samplers;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +86,64 @@ public class DisruptorAsyncSpanProcessorTest {
     }
   }
 
+  // SpanProcessor that records the threads that handled the events of every trace.
+  private static class ThreadRecordingSpanProcessor implements SpanProcessor {
+    private final Map<TraceId, List<String>> threadsByTrace = new ConcurrentHashMap<>();
+    private final AtomicInteger counterOnEnd = new AtomicInteger(0);
+    private final AtomicInteger counterOnShutdown = new AtomicInteger(0);
+
+    @Override
+    public void onStart(ReadableSpan span) {
+      record(span);
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+      record(span);
+      counterOnEnd.incrementAndGet();
+    }
+
+    @Override
+    public void shutdown() {
+      counterOnShutdown.incrementAndGet();
+    }
+
+    private void record(ReadableSpan span) {
+      TraceId traceId = span.getSpanContext().getTraceId();
+      List<String> threads = threadsByTrace.get(traceId);
+      if (threads == null) {
+        threads = new ArrayList<>();
+        threadsByTrace.put(traceId, threads);
+      }
+      // Only one thread handles the events of a trace.
+      synchronized (threads) {
+        threads.add(Thread.currentThread().getName() + "@" + Thread.currentThread().getId());
+      }
+    }
+  }
+
+  // SpanExporter that counts the exported spans and batches.
+  private static class CountingSpanExporter implements SpanExporter {
+    private final AtomicInteger exportedSpans = new AtomicInteger(0);
+    private final AtomicInteger maxBatchSize = new AtomicInteger(0);
+    private final AtomicInteger shutdownCount = new AtomicInteger(0);
+
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      exportedSpans.addAndGet(spans.size());
+      int max = maxBatchSize.get();
+      while (spans.size() > max && !maxBatchSize.compareAndSet(max, spans.size())) {
+        max = maxBatchSize.get();
+      }
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public void shutdown() {
+      shutdownCount.incrementAndGet();
+    }
+  }
+
   @Test
   public void incrementOnce() {
     IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor();
@@ -89,6 +159,18 @@ public class DisruptorAsyncSpanProcessorTest {
     assertThat(incrementSpanProcessor.getCounterOnShutdown()).isEqualTo(1);
   }
 
+  @Test
+  public void setMeter_ObserversNotSupported() {
+    IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor();
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.newBuilder(incrementSpanProcessor)
+            .setMeter(OpenTelemetry.getMeter())
+            .build();
+    disruptorAsyncSpanProcessor.onEnd(readableSpan);
+    disruptorAsyncSpanProcessor.shutdown();
+    assertThat(incrementSpanProcessor.getCounterOnEnd()).isEqualTo(1);
+  }
+
   @Test
   public void shutdownIsCalledOnlyOnce() {
     IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor();
@@ -151,4 +233,89 @@ public class DisruptorAsyncSpanProcessorTest {
     assertThat(incrementSpanProcessor2.getCounterOnEnd()).isEqualTo(1);
     assertThat(incrementSpanProcessor2.getCounterOnShutdown()).isEqualTo(1);
   }
+
+  @Test
+  public void exportTenK() {
+    final int tenK = 10000;
+    ReadableSpan span =
+        (ReadableSpan)
+            new TracerSdk().spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan();
+    CountingSpanExporter spanExporter = new CountingSpanExporter();
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.newBuilder(spanExporter).setMaxExportBatchSize(100).build();
+    for (int i = 0; i < tenK; i++) {
+      disruptorAsyncSpanProcessor.onStart(span);
+      disruptorAsyncSpanProcessor.onEnd(span);
+    }
+    disruptorAsyncSpanProcessor.shutdown();
+    assertThat(spanExporter.exportedSpans.get()).isEqualTo(tenK);
+    assertThat(spanExporter.maxBatchSize.get()).isAtMost(100);
+    assertThat(spanExporter.shutdownCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void exportOnTimeout() throws InterruptedException {
+    ReadableSpan span =
+        (ReadableSpan)
+            new TracerSdk().spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan();
+    CountingSpanExporter spanExporter = new CountingSpanExporter();
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.newBuilder(spanExporter).setScheduleDelayMillis(10).build();
+    disruptorAsyncSpanProcessor.onEnd(span);
+    // Exported by the timeout of the WaitStrategy, without any other span.
+    for (int i = 0; i < 500 && spanExporter.exportedSpans.get() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(spanExporter.exportedSpans.get()).isEqualTo(1);
+    disruptorAsyncSpanProcessor.shutdown();
+  }
+
+  @Test
+  public void multipleConsumers_TraceHandledByOneConsumer() {
+    TracerSdk tracer = new TracerSdk();
+    List<ReadableSpan> spans = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      spans.add(
+          (ReadableSpan)
+              tracer.spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan());
+    }
+    ThreadRecordingSpanProcessor spanProcessor = new ThreadRecordingSpanProcessor();
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.newBuilder(spanProcessor).setConsumerCount(4).build();
+    for (int i = 0; i < 10; i++) {
+      for (ReadableSpan span : spans) {
+        disruptorAsyncSpanProcessor.onStart(span);
+        disruptorAsyncSpanProcessor.onEnd(span);
+      }
+    }
+    disruptorAsyncSpanProcessor.shutdown();
+    assertThat(spanProcessor.counterOnEnd.get()).isEqualTo(1000);
+    assertThat(spanProcessor.counterOnShutdown.get()).isEqualTo(1);
+    assertThat(spanProcessor.threadsByTrace).hasSize(100);
+    for (List<String> threads : spanProcessor.threadsByTrace.values()) {
+      assertThat(threads).hasSize(20);
+      assertThat(new HashSet<>(threads)).hasSize(1);
+    }
+  }
+
+  @Test
+  public void multipleConsumers_Export() {
+    TracerSdk tracer = new TracerSdk();
+    CountingSpanExporter spanExporter = new CountingSpanExporter();
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.newBuilder(spanExporter)
+            .setConsumerCount(3)
+            .setMaxExportBatchSize(10)
+            .setMeter(DefaultMeter.getInstance())
+            .build();
+    for (int i = 0; i < 1000; i++) {
+      disruptorAsyncSpanProcessor.onEnd(
+          (ReadableSpan)
+              tracer.spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan());
+    }
+    disruptorAsyncSpanProcessor.shutdown();
+    assertThat(spanExporter.exportedSpans.get()).isEqualTo(1000);
+    assertThat(spanExporter.maxBatchSize.get()).isAtMost(10);
+    assertThat(spanExporter.shutdownCount.get()).isEqualTo(1);
+  }
 }
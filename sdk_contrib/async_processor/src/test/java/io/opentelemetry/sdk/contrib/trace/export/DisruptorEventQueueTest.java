@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.lmax.disruptor.SleepingWaitStrategy;
+import io.opentelemetry.sdk.contrib.trace.export.DisruptorAsyncSpanProcessor.OverflowPolicy;
+import io.opentelemetry.sdk.contrib.trace.export.DisruptorEventQueue.EventType;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+/** Unit tests for {@link DisruptorEventQueue}. */
+@RunWith(JUnit4.class)
+public class DisruptorEventQueueTest {
+  private static final int BUFFER_SIZE = 16;
+
+  private final ReadableSpan readableSpan = Mockito.mock(ReadableSpan.class);
+  private final ReadableSpan notSampledSpan = Mockito.mock(ReadableSpan.class);
+  private final BlockingSpanProcessor spanProcessor = new BlockingSpanProcessor();
+
+  @Before
+  public void setUp() {
+    Mockito.when(readableSpan.getSpanContext())
+        .thenReturn(spanContext(TraceFlags.builder().setIsSampled(true).build()));
+    Mockito.when(notSampledSpan.getSpanContext()).thenReturn(spanContext(TraceFlags.getDefault()));
+  }
+
+  // SpanProcessor that blocks in onStart until released.
+  private static final class BlockingSpanProcessor implements SpanProcessor {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Override
+    public void onStart(ReadableSpan span) {
+      started.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {}
+
+    @Override
+    public void shutdown() {}
+  }
+
+  @Test
+  public void remainingCapacityAndLag() throws InterruptedException {
+    DisruptorEventQueue queue = newQueue(OverflowPolicy.BLOCK);
+    assertThat(queue.getConsumerCount()).isEqualTo(1);
+    assertThat(queue.getRemainingCapacity()).isEqualTo(BUFFER_SIZE);
+    assertThat(queue.getConsumerLag(0)).isEqualTo(0);
+    queue.enqueue(readableSpan, EventType.ON_START);
+    spanProcessor.started.await();
+    queue.enqueue(readableSpan, EventType.ON_END);
+    queue.enqueue(readableSpan, EventType.ON_END);
+    // The first event is being handled, the consumer did not move past it.
+    assertThat(queue.getRemainingCapacity()).isEqualTo(BUFFER_SIZE - 3);
+    assertThat(queue.getConsumerLag(0)).isEqualTo(3);
+    assertThat(queue.getPressure()).isWithin(1e-9).of(3.0 / BUFFER_SIZE);
+    spanProcessor.released.countDown();
+    queue.shutdown();
+  }
+
+  @Test
+  public void dropNewest() throws InterruptedException {
+    DisruptorEventQueue queue = newQueue(OverflowPolicy.DROP_NEWEST);
+    fill(queue);
+    queue.enqueue(readableSpan, EventType.ON_END);
+    queue.enqueue(notSampledSpan, EventType.ON_END);
+    assertThat(queue.getPressure()).isEqualTo(1.0);
+    assertThat(queue.getDroppedEvents()).isEqualTo(2);
+    assertThat(queue.getBlockedEvents()).isEqualTo(0);
+    spanProcessor.released.countDown();
+    queue.shutdown();
+  }
+
+  @Test
+  public void dropNotSampledFirst() throws InterruptedException {
+    DisruptorEventQueue queue = newQueue(OverflowPolicy.DROP_NOT_SAMPLED_FIRST);
+    queue.enqueue(readableSpan, EventType.ON_START);
+    spanProcessor.started.await();
+    // Keeps an eighth of the ring buffer for the sampled spans.
+    for (int i = 1; i < BUFFER_SIZE; i++) {
+      queue.enqueue(notSampledSpan, EventType.ON_END);
+    }
+    assertThat(queue.getRemainingCapacity()).isEqualTo(BUFFER_SIZE / 8);
+    assertThat(queue.getDroppedNotSampledEvents()).isEqualTo(BUFFER_SIZE / 8);
+    queue.enqueue(readableSpan, EventType.ON_END);
+    queue.enqueue(readableSpan, EventType.ON_END);
+    queue.enqueue(readableSpan, EventType.ON_END);
+    assertThat(queue.getRemainingCapacity()).isEqualTo(0);
+    assertThat(queue.getDroppedEvents()).isEqualTo(1);
+    spanProcessor.released.countDown();
+    queue.shutdown();
+  }
+
+  @Test
+  public void blockWithTimeout() throws InterruptedException {
+    DisruptorEventQueue queue = newQueue(OverflowPolicy.BLOCK_WITH_TIMEOUT);
+    fill(queue);
+    long startNanos = System.nanoTime();
+    queue.enqueue(readableSpan, EventType.ON_END);
+    assertThat(System.nanoTime() - startNanos).isAtLeast(TimeUnit.MILLISECONDS.toNanos(1));
+    assertThat(queue.getBlockedEvents()).isEqualTo(1);
+    assertThat(queue.getTimedOutEvents()).isEqualTo(1);
+    spanProcessor.released.countDown();
+    queue.enqueue(readableSpan, EventType.ON_END);
+    assertThat(queue.getTimedOutEvents()).isEqualTo(1);
+    queue.shutdown();
+  }
+
+  @Test
+  public void shutdownWhenFull() throws InterruptedException {
+    final DisruptorEventQueue queue = newQueue(OverflowPolicy.DROP_NEWEST);
+    fill(queue);
+    Thread shutdownThread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                queue.shutdown();
+              }
+            });
+    shutdownThread.start();
+    spanProcessor.released.countDown();
+    // The shutdown event is not dropped, the shutdown completes.
+    shutdownThread.join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(shutdownThread.isAlive()).isFalse();
+  }
+
+  private DisruptorEventQueue newQueue(OverflowPolicy overflowPolicy) {
+    return new DisruptorEventQueue(
+        BUFFER_SIZE,
+        new SleepingWaitStrategy(),
+        Collections.singletonList(spanProcessor),
+        overflowPolicy,
+        TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  // Fills the ring buffer, the consumer is blocked on the first event.
+  private void fill(DisruptorEventQueue queue) throws InterruptedException {
+    queue.enqueue(readableSpan, EventType.ON_START);
+    spanProcessor.started.await();
+    for (int i = 1; i < BUFFER_SIZE; i++) {
+      queue.enqueue(readableSpan, EventType.ON_END);
+    }
+    assertThat(queue.getRemainingCapacity()).isEqualTo(0);
+  }
+
+  private static SpanContext spanContext(TraceFlags traceFlags) {
+    return SpanContext.create(
+        TraceId.fromLowerBase16("0000000000000000000000000000abcd", 0),
+        SpanId.fromLowerBase16("000000000000abcd", 0),
+        traceFlags,
+        Tracestate.getDefault());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.util.Samplers;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpanExportBatcher}. */
+@RunWith(JUnit4.class)
+public class SpanExportBatcherTest {
+  private static final long NO_DELAY = 0;
+  private static final long LONG_DELAY = 60 * 1000;
+
+  private final TracerSdk tracer = new TracerSdk();
+  private final RecordingSpanExporter spanExporter = new RecordingSpanExporter();
+
+  @Test
+  public void exportsFullBatches() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 2, LONG_DELAY);
+    for (int i = 0; i < 5; i++) {
+      batcher.onEnd(sampledSpan());
+    }
+    assertThat(spanExporter.batchSizes).containsExactly(2, 2).inOrder();
+  }
+
+  @Test
+  public void endOfBatch_ExportsWithoutDelay() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 10, NO_DELAY);
+    batcher.onEnd(sampledSpan());
+    batcher.onEnd(sampledSpan());
+    assertThat(spanExporter.batchSizes).isEmpty();
+    batcher.onEndOfBatch();
+    assertThat(spanExporter.batchSizes).containsExactly(2);
+    batcher.onEndOfBatch();
+    assertThat(spanExporter.batchSizes).containsExactly(2);
+  }
+
+  @Test
+  public void endOfBatch_WaitsForTheDelay() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 10, LONG_DELAY);
+    batcher.onEnd(sampledSpan());
+    batcher.onEndOfBatch();
+    batcher.onTimeout();
+    assertThat(spanExporter.batchSizes).isEmpty();
+  }
+
+  @Test
+  public void timeout_ExportsAfterTheDelay() throws InterruptedException {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 10, 1);
+    batcher.onEnd(sampledSpan());
+    Thread.sleep(2);
+    batcher.onTimeout();
+    assertThat(spanExporter.batchSizes).containsExactly(1);
+  }
+
+  @Test
+  public void ignoresNotSampledSpans() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 10, NO_DELAY);
+    batcher.onEnd(notSampledSpan());
+    batcher.onEndOfBatch();
+    assertThat(spanExporter.batchSizes).isEmpty();
+  }
+
+  @Test
+  public void exportsNotSampledSpans() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, false, true, 10, NO_DELAY);
+    batcher.onEnd(notSampledSpan());
+    batcher.onEndOfBatch();
+    assertThat(spanExporter.batchSizes).containsExactly(1);
+  }
+
+  @Test
+  public void shutdown_ExportsAndShutsDownTheExporter() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, true, 10, LONG_DELAY);
+    batcher.onEnd(sampledSpan());
+    batcher.shutdown();
+    assertThat(spanExporter.batchSizes).containsExactly(1);
+    assertThat(spanExporter.shutdownCount).isEqualTo(1);
+  }
+
+  @Test
+  public void shutdown_SharedExporter() {
+    SpanExportBatcher batcher = new SpanExportBatcher(spanExporter, true, false, 10, LONG_DELAY);
+    batcher.onEnd(sampledSpan());
+    batcher.shutdown();
+    assertThat(spanExporter.batchSizes).containsExactly(1);
+    assertThat(spanExporter.shutdownCount).isEqualTo(0);
+  }
+
+  @Test
+  public void exporterException_DoesNotStopTheBatching() {
+    RecordingSpanExporter failingSpanExporter = new FailingSpanExporter();
+    SpanExportBatcher batcher = new SpanExportBatcher(failingSpanExporter, true, true, 1, NO_DELAY);
+    batcher.onEnd(sampledSpan());
+    batcher.onEnd(sampledSpan());
+    assertThat(failingSpanExporter.batchSizes).containsExactly(1, 1);
+  }
+
+  private ReadableSpan sampledSpan() {
+    return (ReadableSpan)
+        tracer.spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan();
+  }
+
+  private ReadableSpan notSampledSpan() {
+    // Recorded, otherwise the span is not a ReadableSpan.
+    return (ReadableSpan)
+        tracer
+            .spanBuilder("span")
+            .setSampler(Samplers.neverSample())
+            .setRecordEvents(true)
+            .startSpan();
+  }
+
+  private static class RecordingSpanExporter implements SpanExporter {
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private int shutdownCount;
+
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      batchSizes.add(spans.size());
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public void shutdown() {
+      shutdownCount++;
+    }
+  }
+
+  private static final class FailingSpanExporter extends RecordingSpanExporter {
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      super.export(spans);
+      throw new IllegalStateException("export failed");
+    }
+  }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A FIFO queue of opaque records persisted in memory-mapped segment files.
+ *
+ * <p>Records are appended to the newest segment; when it is full a new segment is created. Each
+ * record is prefixed by its length and a CRC32 so that a torn write (e.g. after a crash) is
+ * detected and the segment is truncated at the last complete record when the spool is reopened.
+ *
+ * <p>The read position is persisted in a checkpoint file that is replaced atomically every time the
+ * {@link Checkpoint} returned by {@link #commit()} is written, so a restart never replays a record
+ * whose checkpoint was written and never loses one that was not committed. Fully consumed segments
+ * are deleted.
+ *
+ * <p>When the total size of the segments would exceed the configured limit the oldest segments are
+ * deleted, even if they were not consumed yet.
+ *
+ * <p>Callers are responsible for synchronization, except for {@link Checkpoint#write()} which does
+ * not touch the spool and is meant to be called without holding the spool's lock.
+ */
+@NotThreadSafe
+final class DiskSpool {
+  private static final Logger logger = Logger.getLogger(DiskSpool.class.getName());
+  private static final String SEGMENT_PREFIX = "spool-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String CHECKPOINT_FILE_NAME = "spool.checkpoint";
+  private static final String CHECKPOINT_TMP_FILE_NAME = "spool.checkpoint.tmp";
+  private static final int SEGMENT_MAGIC = 0x4f54534c; // "OTSL"
+  private static final int SEGMENT_HEADER_SIZE = 4;
+  private static final int RECORD_HEADER_SIZE = 8; // length + crc32
+  private static final FilenameFilter SEGMENT_FILTER =
+      new FilenameFilter() {
+        @Override
+        public boolean accept(File dir, String name) {
+          return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        }
+      };
+
+  private final File directory;
+  private final int segmentSizeBytes;
+  private final long maxSpoolSizeBytes;
+  private final CRC32 crc32 = new CRC32();
+  // Oldest segment first, the last one is the one being written.
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+  private long totalSizeBytes;
+  private long nextSegmentId;
+  // Offset of the next record to read in the first segment.
+  private int readOffset = SEGMENT_HEADER_SIZE;
+  // Size of the record returned by the last call to peek, 0 if none.
+  private int peekedRecordSize;
+  private long droppedRecords;
+
+  private DiskSpool(File directory, int segmentSizeBytes, long maxSpoolSizeBytes) {
+    this.directory = directory;
+    this.segmentSizeBytes = segmentSizeBytes;
+    this.maxSpoolSizeBytes = maxSpoolSizeBytes;
+  }
+
+  /**
+   * Opens the spool stored in the given directory, recovering any record left by a previous
+   * instance.
+   *
+   * @param directory the directory where the segments are stored, created if missing.
+   * @param segmentSizeBytes the size of each segment file.
+   * @param maxSpoolSizeBytes the maximum size of all the segment files.
+   * @return the spool.
+   * @throws IOException if the directory or the existing segments cannot be read.
+   */
+  static DiskSpool open(File directory, int segmentSizeBytes, long maxSpoolSizeBytes)
+      throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create spool directory " + directory);
+    }
+    DiskSpool spool = new DiskSpool(directory, segmentSizeBytes, maxSpoolSizeBytes);
+    spool.recover();
+    return spool;
+  }
+
+  /**
+   * Appends a record at the end of the spool.
+   *
+   * @param record the record to append.
+   * @throws IOException if a new segment cannot be created.
+   */
+  void append(byte[] record) throws IOException {
+    int size = RECORD_HEADER_SIZE + record.length;
+    Segment segment = segments.peekLast();
+    if (segment == null || segment.buffer.remaining() < size) {
+      segment = newSegment(Math.max(segmentSizeBytes, SEGMENT_HEADER_SIZE + size));
+    }
+    crc32.reset();
+    crc32.update(record, 0, record.length);
+    MappedByteBuffer buffer = segment.buffer;
+    // Write the length last so that a partially written record is never considered complete.
+    int recordOffset = buffer.position();
+    buffer.position(recordOffset + 4);
+    buffer.putInt((int) crc32.getValue());
+    buffer.put(record);
+    buffer.putInt(recordOffset, record.length);
+  }
+
+  /**
+   * Returns the oldest record that was not committed yet, or {@code null} if the spool is empty.
+   * Calling this method again before {@link #commit()} returns the same record.
+   *
+   * @return the oldest record that was not committed yet.
+   */
+  @Nullable
+  byte[] peek() {
+    while (true) {
+      Segment segment = segments.peekFirst();
+      if (segment == null) {
+        return null;
+      }
+      if (readOffset < segment.buffer.position()) {
+        byte[] record = readRecord(segment.buffer, readOffset);
+        if (record != null) {
+          peekedRecordSize = RECORD_HEADER_SIZE + record.length;
+          return record;
+        }
+        // The segment was modified behind our back, skip what is left of it.
+        logger.log(Level.WARNING, "Corrupted record in " + segment.file + ", skipping segment.");
+        readOffset = segment.buffer.position();
+      }
+      if (segment == segments.peekLast()) {
+        return null;
+      }
+      // The first segment is fully consumed.
+      deleteFirstSegment();
+    }
+  }
+
+  /**
+   * Removes the record returned by the last call to {@link #peek()} and returns the new read
+   * position. The position is durable only once the returned {@link Checkpoint} is written, which
+   * must be done in the order the checkpoints were returned.
+   *
+   * @return the new read position, or {@code null} if no record was peeked.
+   */
+  @Nullable
+  Checkpoint commit() {
+    if (peekedRecordSize == 0) {
+      return null;
+    }
+    Segment segment = segments.peekFirst();
+    readOffset += peekedRecordSize;
+    peekedRecordSize = 0;
+    return segment == null ? null : new Checkpoint(directory, segment.id, readOffset);
+  }
+
+  /**
+   * Returns {@code true} if every appended record was committed.
+   *
+   * @return {@code true} if every appended record was committed.
+   */
+  boolean isEmpty() {
+    Segment first = segments.peekFirst();
+    return first == null || (first == segments.peekLast() && readOffset >= first.buffer.position());
+  }
+
+  /**
+   * Returns the number of records deleted because the spool was over its size limit.
+   *
+   * @return the number of records deleted because the spool was over its size limit.
+   */
+  long getDroppedRecords() {
+    return droppedRecords;
+  }
+
+  /**
+   * Returns the number of bytes currently allocated to the segment files.
+   *
+   * @return the number of bytes currently allocated to the segment files.
+   */
+  long getSizeBytes() {
+    return totalSizeBytes;
+  }
+
+  /** Flushes the segments to the storage device. The spool must not be used afterwards. */
+  void close() {
+    for (Segment segment : segments) {
+      segment.buffer.force();
+    }
+    segments.clear();
+  }
+
+  private void recover() throws IOException {
+    File[] files = directory.listFiles(SEGMENT_FILTER);
+    if (files == null) {
+      throw new IOException("Cannot list spool directory " + directory);
+    }
+    long[] ids = new long[files.length];
+    int count = 0;
+    for (File file : files) {
+      Long id = parseSegmentId(file.getName());
+      if (id != null) {
+        ids[count++] = id;
+      }
+    }
+    ids = Arrays.copyOf(ids, count);
+    Arrays.sort(ids);
+
+    long checkpointSegmentId = -1;
+    int checkpointOffset = SEGMENT_HEADER_SIZE;
+    File checkpointFile = new File(directory, CHECKPOINT_FILE_NAME);
+    if (checkpointFile.isFile()) {
+      DataInputStream in = new DataInputStream(new FileInputStream(checkpointFile));
+      try {
+        checkpointSegmentId = in.readLong();
+        checkpointOffset = in.readInt();
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Ignoring unreadable spool checkpoint.", e);
+      } finally {
+        in.close();
+      }
+    }
+
+    for (long id : ids) {
+      File file = segmentFile(id);
+      if (id < checkpointSegmentId) {
+        // Fully consumed before the restart.
+        deleteFile(file);
+        continue;
+      }
+      Segment segment = mapSegment(file, id, file.length());
+      // A crash may leave a segment shorter than its header, when it was just created.
+      if (segment.buffer.limit() < SEGMENT_HEADER_SIZE
+          || segment.buffer.getInt(0) != SEGMENT_MAGIC) {
+        logger.log(Level.WARNING, "Ignoring invalid spool segment " + file);
+        deleteFile(file);
+        continue;
+      }
+      // Find the end of the last complete record.
+      int offset = SEGMENT_HEADER_SIZE;
+      while (true) {
+        byte[] record = readRecord(segment.buffer, offset);
+        if (record == null) {
+          break;
+        }
+        offset += RECORD_HEADER_SIZE + record.length;
+      }
+      segment.buffer.position(offset);
+      segments.addLast(segment);
+      totalSizeBytes += segment.buffer.capacity();
+    }
+    Segment first = segments.peekFirst();
+    if (first != null && first.id == checkpointSegmentId) {
+      readOffset =
+          Math.min(Math.max(checkpointOffset, SEGMENT_HEADER_SIZE), first.buffer.position());
+    }
+    nextSegmentId = ids.length == 0 ? 0 : ids[ids.length - 1] + 1;
+  }
+
+  private Segment newSegment(int size) throws IOException {
+    // Make room for the new segment, deleting the oldest ones.
+    while (!segments.isEmpty() && totalSizeBytes + size > maxSpoolSizeBytes) {
+      Segment oldest = segments.peekFirst();
+      int lostRecords = countRecords(oldest.buffer, readOffset);
+      droppedRecords += lostRecords;
+      logger.log(
+          Level.WARNING,
+          "Spool is full, dropping " + lostRecords + " unsent records from " + oldest.file);
+      deleteFirstSegment();
+    }
+    long id = nextSegmentId++;
+    Segment segment = mapSegment(segmentFile(id), id, size);
+    segment.buffer.putInt(SEGMENT_MAGIC);
+    segments.addLast(segment);
+    totalSizeBytes += size;
+    if (segments.size() == 1) {
+      readOffset = SEGMENT_HEADER_SIZE;
+    }
+    return segment;
+  }
+
+  private void deleteFirstSegment() {
+    Segment segment = segments.removeFirst();
+    totalSizeBytes -= segment.buffer.capacity();
+    readOffset = SEGMENT_HEADER_SIZE;
+    peekedRecordSize = 0;
+    // The mapping is released when the buffer is garbage collected, this is fine on POSIX systems.
+    deleteFile(segment.file);
+  }
+
+  private File segmentFile(long id) {
+    return new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+  }
+
+  /** A read position to persist, the checkpoint file is only touched by {@link #write()}. */
+  @Immutable
+  static final class Checkpoint {
+    private final File directory;
+    private final long segmentId;
+    private final int offset;
+
+    private Checkpoint(File directory, long segmentId, int offset) {
+      this.directory = directory;
+      this.segmentId = segmentId;
+      this.offset = offset;
+    }
+
+    /**
+     * Durably replaces the checkpoint file: writes a temporary file, syncs it to the storage device
+     * and renames it atomically.
+     *
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    void write() throws IOException {
+      File tmpFile = new File(directory, CHECKPOINT_TMP_FILE_NAME);
+      FileOutputStream fileOut = new FileOutputStream(tmpFile);
+      try {
+        DataOutputStream out = new DataOutputStream(fileOut);
+        out.writeLong(segmentId);
+        out.writeInt(offset);
+        out.flush();
+        fileOut.getFD().sync();
+      } finally {
+        fileOut.close();
+      }
+      Files.move(
+          tmpFile.toPath(),
+          new File(directory, CHECKPOINT_FILE_NAME).toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+
+  // Returns the record at the given offset, or null if there is no complete record.
+  @Nullable
+  private byte[] readRecord(MappedByteBuffer buffer, int offset) {
+    if (offset + RECORD_HEADER_SIZE > buffer.capacity()) {
+      return null;
+    }
+    int length = buffer.getInt(offset);
+    if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_SIZE) {
+      return null;
+    }
+    int expectedCrc = buffer.getInt(offset + 4);
+    byte[] record = new byte[length];
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(offset + RECORD_HEADER_SIZE);
+    duplicate.get(record);
+    crc32.reset();
+    crc32.update(record, 0, length);
+    return (int) crc32.getValue() == expectedCrc ? record : null;
+  }
+
+  private static int countRecords(MappedByteBuffer buffer, int fromOffset) {
+    int count = 0;
+    int offset = fromOffset;
+    while (offset + RECORD_HEADER_SIZE <= buffer.position()) {
+      offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+      count++;
+    }
+    return count;
+  }
+
+  private static Segment mapSegment(File file, long id, long size) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    try {
+      randomAccessFile.setLength(size);
+      MappedByteBuffer buffer =
+          randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      return new Segment(id, file, buffer);
+    } finally {
+      // The mapping stays valid after the channel is closed.
+      randomAccessFile.close();
+    }
+  }
+
+  @Nullable
+  private static Long parseSegmentId(String name) {
+    try {
+      return Long.parseLong(
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static void deleteFile(File file) {
+    if (!file.delete()) {
+      logger.log(Level.WARNING, "Cannot delete spool file " + file);
+    }
+  }
+
+  // A segment file, the buffer position is the end of the last record written.
+  private static final class Segment {
+    private final long id;
+    private final File file;
+    private final MappedByteBuffer buffer;
+
+    private Segment(long id, File file, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.util.JsonFormat;
+import com.google.protobuf.util.Timestamps;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.sdk.internal.Clock;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanExporter} that writes the spans to local files, one OpenTelemetry protobuf {@link
+ * Span} per record, for offline analysis or later shipping.
+ *
+ * <p>Each exported batch is serialized into a reused in-memory buffer and appended to the current
+ * file with a single {@link FileChannel} write. The current file is rotated when it reaches {@code
+ * maxFileSizeBytes} or when it is older than {@code maxFileAgeMillis}; rotated files are gzipped by
+ * a background thread so the exporting thread never pays for the compression. The same thread
+ * checks the age of the current file periodically, so an idle file is rotated and compressed even
+ * when no more spans are exported.
+ *
+ * <p>Use {@link FileSpanReader} to read the files back.
+ */
+@ThreadSafe
+public final class FileSpanExporter implements SpanExporter {
+  private static final Logger logger = Logger.getLogger(FileSpanExporter.class.getName());
+  private static final String BACKGROUND_THREAD_NAME =
+      FileSpanExporter.class.getSimpleName() + "_BackgroundThread";
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+  private static final long MAX_AGE_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final String GZIP_EXTENSION = ".gz";
+
+  /** The encoding of the records in the files. */
+  public enum Format {
+    /** Length-delimited binary protobuf {@code Span} messages, with the {@code .pb} extension. */
+    PROTO(".pb"),
+    /** One protobuf JSON {@code Span} message per line, with the {@code .jsonl} extension. */
+    JSON(".jsonl");
+
+    private final String extension;
+
+    Format(String extension) {
+      this.extension = extension;
+    }
+
+    String getExtension() {
+      return extension;
+    }
+  }
+
+  private final File directory;
+  private final Format format;
+  private final long maxFileSizeBytes;
+  private final long maxFileAgeNanos;
+  private final boolean compress;
+  private final Clock clock;
+  private final ScheduledExecutorService backgroundExecutor;
+  private final JsonFormat.Printer jsonPrinter =
+      JsonFormat.printer().omittingInsignificantWhitespace();
+
+  @GuardedBy("this")
+  private final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream();
+
+  @GuardedBy("this")
+  private final Writer bufferWriter = new OutputStreamWriter(buffer, UTF_8);
+
+  @GuardedBy("this")
+  @Nullable
+  private File currentFile;
+
+  @GuardedBy("this")
+  @Nullable
+  private FileChannel currentChannel;
+
+  @GuardedBy("this")
+  private long currentFileSizeBytes;
+
+  @GuardedBy("this")
+  private long currentFileOpenedNanos;
+
+  @GuardedBy("this")
+  private long fileSequence;
+
+  @GuardedBy("this")
+  private boolean isShutdown;
+
+  @SuppressWarnings("FutureReturnValueIgnored") // The age checks are cancelled by shutdown().
+  private FileSpanExporter(
+      File directory,
+      Format format,
+      long maxFileSizeBytes,
+      long maxFileAgeMillis,
+      boolean compress,
+      Clock clock) {
+    this.directory = directory;
+    this.format = format;
+    this.maxFileSizeBytes = maxFileSizeBytes;
+    this.maxFileAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxFileAgeMillis);
+    this.compress = compress;
+    this.clock = clock;
+    this.backgroundExecutor =
+        Executors.newSingleThreadScheduledExecutor(new BackgroundThreadFactory());
+    long ageCheckIntervalMillis = Math.min(maxFileAgeMillis, MAX_AGE_CHECK_INTERVAL_MILLIS);
+    backgroundExecutor.scheduleWithFixedDelay(
+        new AgeChecker(), ageCheckIntervalMillis, ageCheckIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized ResultCode export(List<SpanData> spans) {
+    if (isShutdown) {
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+    try {
+      encode(spans);
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Failed to encode spans.", e);
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+    try {
+      maybeRotate(buffer.size());
+      ByteBuffer data = buffer.toByteBuffer();
+      while (data.hasRemaining()) {
+        currentFileSizeBytes += currentChannel.write(data);
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to write spans to " + currentFile + ".", e);
+      // Start a new file on the next export, the current one may be damaged.
+      closeCurrentFile();
+      return ResultCode.FAILED_RETRYABLE;
+    }
+    return ResultCode.SUCCESS;
+  }
+
+  /**
+   * Closes the current file if it is older than {@code maxFileAgeMillis}. The next export opens a
+   * new one. Called periodically from the background thread.
+   */
+  @VisibleForTesting
+  synchronized void rotateIfExpired() {
+    if (!isShutdown && isExpired()) {
+      closeCurrentFile();
+    }
+  }
+
+  /**
+   * Closes the current file and waits for the pending compressions. Spans exported after this call
+   * are rejected.
+   */
+  @Override
+  public void shutdown() {
+    synchronized (this) {
+      if (isShutdown) {
+        return;
+      }
+      isShutdown = true;
+      closeCurrentFile();
+    }
+    // Cancels the age checks but still runs the pending compressions.
+    backgroundExecutor.shutdown();
+    try {
+      if (!backgroundExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.log(Level.WARNING, "Timed out waiting for the compression of the span files.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @GuardedBy("this")
+  private void encode(List<SpanData> spans) throws IOException {
+    buffer.reset();
+    for (SpanData span : spans) {
+      Span protoSpan = ProtoSpanAdapter.toProtoSpan(span);
+      switch (format) {
+        case PROTO:
+          protoSpan.writeDelimitedTo(buffer);
+          break;
+        case JSON:
+          jsonPrinter.appendTo(protoSpan, bufferWriter);
+          bufferWriter.write('\n');
+          break;
+      }
+    }
+    bufferWriter.flush();
+  }
+
+  @GuardedBy("this")
+  private void maybeRotate(long pendingBytes) throws IOException {
+    if (currentChannel != null
+        && currentFileSizeBytes > 0
+        && (currentFileSizeBytes + pendingBytes > maxFileSizeBytes || isExpired())) {
+      closeCurrentFile();
+    }
+    if (currentChannel == null) {
+      openNewFile();
+    }
+  }
+
+  @GuardedBy("this")
+  private boolean isExpired() {
+    return currentChannel != null
+        && currentFileSizeBytes > 0
+        && clock.nowNanos() - currentFileOpenedNanos >= maxFileAgeNanos;
+  }
+
+  @GuardedBy("this")
+  private void openNewFile() throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory);
+    }
+    // The timestamp keeps the names unique across restarts, the sequence within a millisecond.
+    long millis = Timestamps.toMillis(clock.now());
+    File file =
+        new File(
+            directory,
+            String.format(
+                Locale.ROOT, "spans-%013d-%06d%s", millis, fileSequence++, format.getExtension()));
+    @SuppressWarnings("resource") // Closed with the channel.
+    FileOutputStream outputStream = new FileOutputStream(file, /* append= */ true);
+    currentChannel = outputStream.getChannel();
+    currentFile = file;
+    currentFileSizeBytes = currentChannel.size();
+    currentFileOpenedNanos = clock.nowNanos();
+  }
+
+  @GuardedBy("this")
+  private void closeCurrentFile() {
+    FileChannel channel = currentChannel;
+    File file = currentFile;
+    currentChannel = null;
+    currentFile = null;
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to close " + file + ".", e);
+    }
+    if (compress) {
+      backgroundExecutor.execute(new Compressor(file));
+    }
+  }
+
+  /**
+   * Returns a new Builder for {@link FileSpanExporter}.
+   *
+   * @param directory the directory where the span files are written.
+   * @return a new {@link Builder}.
+   * @throws NullPointerException if the {@code directory} is {@code null}.
+   */
+  public static Builder newBuilder(File directory) {
+    return new Builder(directory);
+  }
+
+  /** Builder class for {@link FileSpanExporter}. */
+  public static final class Builder {
+    private static final long MAX_FILE_SIZE_BYTES = 64 * 1024 * 1024;
+    private static final long MAX_FILE_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private final File directory;
+    private Format format = Format.PROTO;
+    private long maxFileSizeBytes = MAX_FILE_SIZE_BYTES;
+    private long maxFileAgeMillis = MAX_FILE_AGE_MILLIS;
+    private boolean compress = true;
+    private Clock clock = MillisClock.getInstance();
+
+    private Builder(File directory) {
+      this.directory = Utils.checkNotNull(directory, "directory");
+    }
+
+    /**
+     * Sets the encoding of the records.
+     *
+     * <p>Default value is {@link Format#PROTO}.
+     *
+     * @param format the encoding of the records.
+     * @return this.
+     */
+    public Builder setFormat(Format format) {
+      this.format = Utils.checkNotNull(format, "format");
+      return this;
+    }
+
+    /**
+     * Sets the size after which the current file is rotated. A batch is never split across files,
+     * so a file may exceed this size when it holds a single batch.
+     *
+     * <p>Default value is {@code 64} MiB.
+     *
+     * @param maxFileSizeBytes the size after which the current file is rotated.
+     * @return this.
+     */
+    public Builder setMaxFileSizeBytes(long maxFileSizeBytes) {
+      Utils.checkArgument(maxFileSizeBytes > 0, "maxFileSizeBytes must be positive.");
+      this.maxFileSizeBytes = maxFileSizeBytes;
+      return this;
+    }
+
+    /**
+     * Sets the age after which the current file is rotated. The age is checked on every export and
+     * at least once per second in the background, so an idle file is rotated on time too.
+     *
+     * <p>Default value is {@code 3600000}ms.
+     *
+     * @param maxFileAgeMillis the age after which the current file is rotated.
+     * @return this.
+     */
+    public Builder setMaxFileAgeMillis(long maxFileAgeMillis) {
+      Utils.checkArgument(maxFileAgeMillis > 0, "maxFileAgeMillis must be positive.");
+      this.maxFileAgeMillis = maxFileAgeMillis;
+      return this;
+    }
+
+    /**
+     * Sets whether rotated files are gzipped in the background.
+     *
+     * <p>Default value is {@code true}.
+     *
+     * @param compress {@code true} if rotated files must be gzipped.
+     * @return this.
+     */
+    public Builder setCompress(boolean compress) {
+      this.compress = compress;
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder setClock(Clock clock) {
+      this.clock = Utils.checkNotNull(clock, "clock");
+      return this;
+    }
+
+    /**
+     * Returns a new {@link FileSpanExporter}. Files are created lazily on the first export.
+     *
+     * @return a new {@link FileSpanExporter}.
+     */
+    public FileSpanExporter build() {
+      return new FileSpanExporter(
+          directory, format, maxFileSizeBytes, maxFileAgeMillis, compress, clock);
+    }
+  }
+
+  // Gzips a rotated file next to the original, then deletes the original.
+  private static final class Compressor implements Runnable {
+    private final File file;
+
+    private Compressor(File file) {
+      this.file = file;
+    }
+
+    @Override
+    public void run() {
+      File tmpFile = new File(file.getPath() + GZIP_EXTENSION + ".tmp");
+      File gzipFile = new File(file.getPath() + GZIP_EXTENSION);
+      try {
+        InputStream in = new FileInputStream(file);
+        try {
+          OutputStream out = new GZIPOutputStream(new FileOutputStream(tmpFile), 64 * 1024);
+          try {
+            byte[] chunk = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+              out.write(chunk, 0, read);
+            }
+          } finally {
+            out.close();
+          }
+        } finally {
+          in.close();
+        }
+        if (!tmpFile.renameTo(gzipFile)) {
+          throw new IOException("Cannot rename " + tmpFile + " to " + gzipFile);
+        }
+        if (!file.delete()) {
+          logger.log(Level.WARNING, "Failed to delete compressed file " + file + ".");
+        }
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Failed to compress " + file + ".", e);
+        if (tmpFile.exists() && !tmpFile.delete()) {
+          logger.log(Level.FINE, "Failed to delete " + tmpFile + ".");
+        }
+      }
+    }
+  }
+
+  private final class AgeChecker implements Runnable {
+    @Override
+    public void run() {
+      rotateIfExpired();
+    }
+  }
+
+  private static final class BackgroundThreadFactory implements ThreadFactory {
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = MoreExecutors.platformThreadFactory().newThread(runnable);
+      try {
+        thread.setDaemon(true);
+        thread.setName(BACKGROUND_THREAD_NAME);
+      } catch (SecurityException e) {
+        // OK if we can't set the name in this environment.
+      }
+      return thread;
+    }
+  }
+
+  // A ByteArrayOutputStream that gives access to its internal array to avoid a copy per batch.
+  private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+    private ExposedByteArrayOutputStream() {
+      super(64 * 1024);
+    }
+
+    private ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
+}
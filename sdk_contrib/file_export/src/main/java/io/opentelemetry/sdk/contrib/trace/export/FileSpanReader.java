@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import com.google.protobuf.util.JsonFormat;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.sdk.contrib.trace.export.FileSpanExporter.Format;
+import io.opentelemetry.sdk.trace.SpanData;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Streams the spans back from a file written by {@link FileSpanExporter}, one span at a time, so
+ * files of any size can be read with constant memory.
+ *
+ * <p>The format is detected from the file extension: {@code .pb} or {@code .jsonl}, optionally
+ * followed by {@code .gz}.
+ *
+ * <p>The OpenTelemetry protobuf {@code Span} does not carry the trace flags, all the spans read are
+ * marked as sampled.
+ */
+@NotThreadSafe
+public final class FileSpanReader implements Closeable {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Format format;
+  private final InputStream in;
+  @Nullable private final BufferedReader reader;
+  private final JsonFormat.Parser jsonParser = JsonFormat.parser().ignoringUnknownFields();
+
+  private FileSpanReader(Format format, InputStream in) {
+    this.format = format;
+    this.in = in;
+    this.reader =
+        format == Format.JSON ? new BufferedReader(new InputStreamReader(in, UTF_8)) : null;
+  }
+
+  /**
+   * Opens a file written by {@link FileSpanExporter}.
+   *
+   * @param file the file to read.
+   * @return a new {@link FileSpanReader}.
+   * @throws IOException if the file cannot be opened.
+   * @throws IllegalArgumentException if the file extension is not recognized.
+   */
+  public static FileSpanReader open(File file) throws IOException {
+    Utils.checkNotNull(file, "file");
+    String name = file.getName();
+    boolean gzipped = name.endsWith(FileSpanExporter.GZIP_EXTENSION);
+    if (gzipped) {
+      name = name.substring(0, name.length() - FileSpanExporter.GZIP_EXTENSION.length());
+    }
+    Format format = null;
+    for (Format candidate : Format.values()) {
+      if (name.endsWith(candidate.getExtension())) {
+        format = candidate;
+      }
+    }
+    Utils.checkArgument(format != null, "Unknown span file extension: " + file.getName());
+    InputStream in = new FileInputStream(file);
+    try {
+      in =
+          gzipped ? new GZIPInputStream(in, BUFFER_SIZE) : new BufferedInputStream(in, BUFFER_SIZE);
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    return new FileSpanReader(format, in);
+  }
+
+  /**
+   * Returns the next span in the file, or {@code null} when the end of the file is reached.
+   *
+   * @return the next span, or {@code null} at the end of the file.
+   * @throws IOException if the file cannot be read or is corrupted.
+   */
+  @Nullable
+  public SpanData read() throws IOException {
+    Span protoSpan;
+    if (reader != null) {
+      String line;
+      do {
+        line = reader.readLine();
+        if (line == null) {
+          return null;
+        }
+      } while (line.isEmpty());
+      Span.Builder builder = Span.newBuilder();
+      jsonParser.merge(line, builder);
+      protoSpan = builder.build();
+    } else {
+      protoSpan = Span.parseDelimitedFrom(in);
+      if (protoSpan == null) {
+        return null;
+      }
+    }
+    try {
+      return ProtoSpanAdapter.fromProtoSpan(protoSpan);
+    } catch (RuntimeException e) {
+      throw new IOException("Invalid span in " + format + " file.", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (reader != null) {
+      reader.close();
+    } else {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Link;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import io.opentelemetry.trace.util.Events;
+import io.opentelemetry.trace.util.Links;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Converts {@link SpanData} to and from the OpenTelemetry protobuf {@link Span}.
+ *
+ * <p>The proto does not carry the trace flags, spans read back are marked as sampled because only
+ * sampled spans are exported by default.
+ */
+@ThreadSafe
+final class ProtoSpanAdapter {
+  private static final TraceFlags SAMPLED = TraceFlags.builder().setIsSampled(true).build();
+  private static final Status.CanonicalCode[] CANONICAL_CODES = Status.CanonicalCode.values();
+
+  private ProtoSpanAdapter() {}
+
+  /**
+   * Converts a {@link SpanData} into a protobuf {@link Span}.
+   *
+   * @param span the span to convert.
+   * @return the protobuf span.
+   */
+  static Span toProtoSpan(SpanData span) {
+    Span.Builder builder =
+        Span.newBuilder()
+            .setTraceId(toByteString(span.getTraceId()))
+            .setSpanId(toByteString(span.getSpanId()))
+            .setTracestate(toProtoTracestate(span.getTracestate()))
+            .setResource(
+                io.opentelemetry.proto.resource.v1.Resource.newBuilder()
+                    .putAllLabels(span.getResource().getLabels()))
+            .setName(span.getName())
+            .setKind(toProtoKind(span.getKind()))
+            .setStartTime(toProtoTimestamp(span.getStartTimestamp()))
+            .setEndTime(toProtoTimestamp(span.getEndTimestamp()))
+            .setAttributes(toProtoAttributes(span.getAttributes()))
+            .setStatus(toProtoStatus(span.getStatus()));
+    if (span.getParentSpanId().isValid()) {
+      builder.setParentSpanId(toByteString(span.getParentSpanId()));
+    }
+    if (!span.getTimedEvents().isEmpty()) {
+      Span.TimedEvents.Builder timedEvents = Span.TimedEvents.newBuilder();
+      for (TimedEvent timedEvent : span.getTimedEvents()) {
+        timedEvents.addTimedEvent(
+            Span.TimedEvent.newBuilder()
+                .setTime(toProtoTimestamp(timedEvent.getTimestamp()))
+                .setEvent(
+                    Span.TimedEvent.Event.newBuilder()
+                        .setName(timedEvent.getName())
+                        .setAttributes(toProtoAttributes(timedEvent.getAttributes()))));
+      }
+      builder.setTimeEvents(timedEvents);
+    }
+    if (!span.getLinks().isEmpty()) {
+      Span.Links.Builder links = Span.Links.newBuilder();
+      for (Link link : span.getLinks()) {
+        SpanContext context = link.getContext();
+        links.addLink(
+            Span.Link.newBuilder()
+                .setTraceId(toByteString(context.getTraceId()))
+                .setSpanId(toByteString(context.getSpanId()))
+                .setTracestate(toProtoTracestate(context.getTracestate()))
+                .setAttributes(toProtoAttributes(link.getAttributes())));
+      }
+      builder.setLinks(links);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Converts a protobuf {@link Span} into a {@link SpanData}.
+   *
+   * @param span the protobuf span to convert.
+   * @return the span.
+   * @throws IllegalArgumentException if the protobuf span is not valid.
+   */
+  static SpanData fromProtoSpan(Span span) {
+    SpanData.Builder builder =
+        SpanData.newBuilder()
+            .setTraceId(TraceId.fromBytes(span.getTraceId().toByteArray(), 0))
+            .setSpanId(SpanId.fromBytes(span.getSpanId().toByteArray(), 0))
+            .setTraceFlags(SAMPLED)
+            .setTracestate(fromProtoTracestate(span.getTracestate()))
+            .setResource(Resource.create(span.getResource().getLabelsMap()))
+            .setName(span.getName())
+            .setKind(fromProtoKind(span.getKind()))
+            .setStartTimestamp(fromProtoTimestamp(span.getStartTime()))
+            .setEndTimestamp(fromProtoTimestamp(span.getEndTime()))
+            .setAttributes(fromProtoAttributes(span.getAttributes()))
+            .setStatus(fromProtoStatus(span.getStatus()));
+    if (!span.getParentSpanId().isEmpty()) {
+      builder.setParentSpanId(SpanId.fromBytes(span.getParentSpanId().toByteArray(), 0));
+    }
+    List<TimedEvent> timedEvents = new ArrayList<>(span.getTimeEvents().getTimedEventCount());
+    for (Span.TimedEvent timedEvent : span.getTimeEvents().getTimedEventList()) {
+      timedEvents.add(
+          TimedEvent.create(
+              fromProtoTimestamp(timedEvent.getTime()),
+              Events.create(
+                  timedEvent.getEvent().getName(),
+                  fromProtoAttributes(timedEvent.getEvent().getAttributes()))));
+    }
+    builder.setTimedEvents(timedEvents);
+    List<Link> links = new ArrayList<>(span.getLinks().getLinkCount());
+    for (Span.Link link : span.getLinks().getLinkList()) {
+      links.add(
+          Links.create(
+              SpanContext.create(
+                  TraceId.fromBytes(link.getTraceId().toByteArray(), 0),
+                  SpanId.fromBytes(link.getSpanId().toByteArray(), 0),
+                  SAMPLED,
+                  fromProtoTracestate(link.getTracestate())),
+              fromProtoAttributes(link.getAttributes())));
+    }
+    builder.setLinks(links);
+    return builder.build();
+  }
+
+  private static ByteString toByteString(TraceId traceId) {
+    byte[] bytes = new byte[TraceId.getSize()];
+    traceId.copyBytesTo(bytes, 0);
+    return ByteString.copyFrom(bytes);
+  }
+
+  private static ByteString toByteString(SpanId spanId) {
+    byte[] bytes = new byte[SpanId.getSize()];
+    spanId.copyBytesTo(bytes, 0);
+    return ByteString.copyFrom(bytes);
+  }
+
+  private static com.google.protobuf.Timestamp toProtoTimestamp(Timestamp timestamp) {
+    return com.google.protobuf.Timestamp.newBuilder()
+        .setSeconds(timestamp.getSeconds())
+        .setNanos(timestamp.getNanos())
+        .build();
+  }
+
+  private static Timestamp fromProtoTimestamp(com.google.protobuf.Timestamp timestamp) {
+    return Timestamp.create(timestamp.getSeconds(), timestamp.getNanos());
+  }
+
+  private static Span.Tracestate toProtoTracestate(Tracestate tracestate) {
+    Span.Tracestate.Builder builder = Span.Tracestate.newBuilder();
+    for (Tracestate.Entry entry : tracestate.getEntries()) {
+      builder.addEntries(
+          Span.Tracestate.Entry.newBuilder().setKey(entry.getKey()).setValue(entry.getValue()));
+    }
+    return builder.build();
+  }
+
+  private static Tracestate fromProtoTracestate(Span.Tracestate tracestate) {
+    if (tracestate.getEntriesCount() == 0) {
+      return Tracestate.getDefault();
+    }
+    // Tracestate.Builder#set adds entries in front, so insert them in reverse order.
+    Tracestate.Builder builder = Tracestate.builder();
+    for (int i = tracestate.getEntriesCount() - 1; i >= 0; i--) {
+      Span.Tracestate.Entry entry = tracestate.getEntries(i);
+      builder.set(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  private static Span.SpanKind toProtoKind(Kind kind) {
+    switch (kind) {
+      case INTERNAL:
+        return Span.SpanKind.INTERNAL;
+      case SERVER:
+        return Span.SpanKind.SERVER;
+      case CLIENT:
+        return Span.SpanKind.CLIENT;
+      case PRODUCER:
+        return Span.SpanKind.PRODUCER;
+      case CONSUMER:
+        return Span.SpanKind.CONSUMER;
+    }
+    return Span.SpanKind.SPAN_KIND_UNSPECIFIED;
+  }
+
+  private static Kind fromProtoKind(Span.SpanKind kind) {
+    switch (kind) {
+      case SERVER:
+        return Kind.SERVER;
+      case CLIENT:
+        return Kind.CLIENT;
+      case PRODUCER:
+        return Kind.PRODUCER;
+      case CONSUMER:
+        return Kind.CONSUMER;
+      case INTERNAL:
+      case SPAN_KIND_UNSPECIFIED:
+      case UNRECOGNIZED:
+        break;
+    }
+    return Kind.INTERNAL;
+  }
+
+  private static Span.Attributes toProtoAttributes(Map<String, AttributeValue> attributes) {
+    Span.Attributes.Builder builder = Span.Attributes.newBuilder();
+    for (Map.Entry<String, AttributeValue> entry : attributes.entrySet()) {
+      builder.putAttributeMap(entry.getKey(), toProtoAttributeValue(entry.getValue()));
+    }
+    return builder.build();
+  }
+
+  private static io.opentelemetry.proto.trace.v1.AttributeValue toProtoAttributeValue(
+      AttributeValue value) {
+    io.opentelemetry.proto.trace.v1.AttributeValue.Builder builder =
+        io.opentelemetry.proto.trace.v1.AttributeValue.newBuilder();
+    switch (value.getType()) {
+      case STRING:
+        builder.setStringValue(value.getStringValue());
+        break;
+      case BOOLEAN:
+        builder.setBoolValue(value.getBooleanValue());
+        break;
+      case LONG:
+        builder.setIntValue(value.getLongValue());
+        break;
+      case DOUBLE:
+        builder.setDoubleValue(value.getDoubleValue());
+        break;
+    }
+    return builder.build();
+  }
+
+  private static Map<String, AttributeValue> fromProtoAttributes(Span.Attributes attributes) {
+    Map<String, AttributeValue> result = new HashMap<>(attributes.getAttributeMapCount() * 2);
+    for (Map.Entry<String, io.opentelemetry.proto.trace.v1.AttributeValue> entry :
+        attributes.getAttributeMapMap().entrySet()) {
+      io.opentelemetry.proto.trace.v1.AttributeValue value = entry.getValue();
+      switch (value.getValueCase()) {
+        case STRING_VALUE:
+          result.put(entry.getKey(), AttributeValue.stringAttributeValue(value.getStringValue()));
+          break;
+        case BOOL_VALUE:
+          result.put(entry.getKey(), AttributeValue.booleanAttributeValue(value.getBoolValue()));
+          break;
+        case INT_VALUE:
+          result.put(entry.getKey(), AttributeValue.longAttributeValue(value.getIntValue()));
+          break;
+        case DOUBLE_VALUE:
+          result.put(entry.getKey(), AttributeValue.doubleAttributeValue(value.getDoubleValue()));
+          break;
+        case VALUE_NOT_SET:
+          break;
+      }
+    }
+    return result;
+  }
+
+  private static io.opentelemetry.proto.trace.v1.Status toProtoStatus(Status status) {
+    io.opentelemetry.proto.trace.v1.Status.Builder builder =
+        io.opentelemetry.proto.trace.v1.Status.newBuilder()
+            .setCode(status.getCanonicalCode().value());
+    if (status.getDescription() != null) {
+      builder.setMessage(status.getDescription());
+    }
+    return builder.build();
+  }
+
+  private static Status fromProtoStatus(io.opentelemetry.proto.trace.v1.Status status) {
+    for (Status.CanonicalCode code : CANONICAL_CODES) {
+      if (code.value() == status.getCode()) {
+        return code.toStatus()
+            .withDescription(status.getMessage().isEmpty() ? null : status.getMessage());
+      }
+    }
+    return Status.UNKNOWN.withDescription(status.getMessage());
+  }
+}
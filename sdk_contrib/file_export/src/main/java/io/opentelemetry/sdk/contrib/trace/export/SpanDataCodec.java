@@ -0,0 +1,370 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Link;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import io.opentelemetry.trace.util.Events;
+import io.opentelemetry.trace.util.Links;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Compact, lossless binary encoding of a batch of {@link SpanData}.
+ *
+ * <p>The encoding is private to this package, it is versioned so that records written by an older
+ * version can be detected, but it is not meant to be consumed by other tools.
+ */
+@Immutable
+final class SpanDataCodec {
+  private static final byte VERSION = 1;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final Kind[] KINDS = Kind.values();
+  private static final Status.CanonicalCode[] CANONICAL_CODES = Status.CanonicalCode.values();
+  private static final byte TYPE_STRING = 0;
+  private static final byte TYPE_BOOLEAN = 1;
+  private static final byte TYPE_LONG = 2;
+  private static final byte TYPE_DOUBLE = 3;
+
+  private SpanDataCodec() {}
+
+  /**
+   * Encodes the given batch of spans.
+   *
+   * @param spans the spans to encode.
+   * @return the encoded batch.
+   */
+  static byte[] encode(List<SpanData> spans) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * (spans.size() + 1));
+    try {
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(VERSION);
+      out.writeInt(spans.size());
+      for (SpanData span : spans) {
+        writeSpan(out, span);
+      }
+      out.flush();
+    } catch (IOException e) {
+      // Cannot happen, ByteArrayOutputStream does not throw.
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a batch of spans previously encoded with {@link #encode(List)}.
+   *
+   * @param record the encoded batch.
+   * @return the decoded spans.
+   * @throws IOException if the record is truncated, corrupted or has an unknown version.
+   */
+  static List<SpanData> decode(byte[] record) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported span record version: " + version);
+    }
+    int count = readCount(in);
+    List<SpanData> spans = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      spans.add(readSpan(in));
+    }
+    return Collections.unmodifiableList(spans);
+  }
+
+  private static void writeSpan(DataOutput out, SpanData span) throws IOException {
+    writeTraceId(out, span.getTraceId());
+    writeSpanId(out, span.getSpanId());
+    out.writeByte(span.getTraceFlags().getByte());
+    writeTracestate(out, span.getTracestate());
+    writeSpanId(out, span.getParentSpanId());
+    writeStringMap(out, span.getResource().getLabels());
+    writeString(out, span.getName());
+    out.writeByte(span.getKind().ordinal());
+    writeTimestamp(out, span.getStartTimestamp());
+    writeTimestamp(out, span.getEndTimestamp());
+    writeAttributes(out, span.getAttributes());
+    List<TimedEvent> timedEvents = span.getTimedEvents();
+    out.writeInt(timedEvents.size());
+    for (TimedEvent timedEvent : timedEvents) {
+      writeTimestamp(out, timedEvent.getTimestamp());
+      writeString(out, timedEvent.getName());
+      writeAttributes(out, timedEvent.getAttributes());
+    }
+    List<Link> links = span.getLinks();
+    out.writeInt(links.size());
+    for (Link link : links) {
+      SpanContext context = link.getContext();
+      writeTraceId(out, context.getTraceId());
+      writeSpanId(out, context.getSpanId());
+      out.writeByte(context.getTraceFlags().getByte());
+      writeTracestate(out, context.getTracestate());
+      writeAttributes(out, link.getAttributes());
+    }
+    Status status = span.getStatus();
+    out.writeByte(status.getCanonicalCode().ordinal());
+    writeNullableString(out, status.getDescription());
+  }
+
+  private static SpanData readSpan(DataInputStream in) throws IOException {
+    SpanData.Builder builder =
+        SpanData.newBuilder()
+            .setTraceId(readTraceId(in))
+            .setSpanId(readSpanId(in))
+            .setTraceFlags(TraceFlags.fromByte(in.readByte()))
+            .setTracestate(readTracestate(in))
+            .setParentSpanId(readSpanId(in))
+            .setResource(Resource.create(readStringMap(in)))
+            .setName(readString(in))
+            .setKind(KINDS[readOrdinal(in, KINDS.length)])
+            .setStartTimestamp(readTimestamp(in))
+            .setEndTimestamp(readTimestamp(in))
+            .setAttributes(readAttributes(in));
+    int timedEventCount = readCount(in);
+    List<TimedEvent> timedEvents = new ArrayList<>(timedEventCount);
+    for (int i = 0; i < timedEventCount; i++) {
+      Timestamp timestamp = readTimestamp(in);
+      String name = readString(in);
+      timedEvents.add(TimedEvent.create(timestamp, Events.create(name, readAttributes(in))));
+    }
+    builder.setTimedEvents(timedEvents);
+    int linkCount = readCount(in);
+    List<Link> links = new ArrayList<>(linkCount);
+    for (int i = 0; i < linkCount; i++) {
+      SpanContext context =
+          SpanContext.create(
+              readTraceId(in),
+              readSpanId(in),
+              TraceFlags.fromByte(in.readByte()),
+              readTracestate(in));
+      links.add(Links.create(context, readAttributes(in)));
+    }
+    builder.setLinks(links);
+    Status status = CANONICAL_CODES[readOrdinal(in, CANONICAL_CODES.length)].toStatus();
+    builder.setStatus(status.withDescription(readNullableString(in)));
+    return builder.build();
+  }
+
+  private static void writeTraceId(DataOutput out, TraceId traceId) throws IOException {
+    byte[] bytes = new byte[TraceId.getSize()];
+    traceId.copyBytesTo(bytes, 0);
+    out.write(bytes);
+  }
+
+  private static TraceId readTraceId(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[TraceId.getSize()];
+    in.readFully(bytes);
+    return TraceId.fromBytes(bytes, 0);
+  }
+
+  private static void writeSpanId(DataOutput out, SpanId spanId) throws IOException {
+    byte[] bytes = new byte[SpanId.getSize()];
+    spanId.copyBytesTo(bytes, 0);
+    out.write(bytes);
+  }
+
+  private static SpanId readSpanId(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[SpanId.getSize()];
+    in.readFully(bytes);
+    return SpanId.fromBytes(bytes, 0);
+  }
+
+  private static void writeTimestamp(DataOutput out, Timestamp timestamp) throws IOException {
+    out.writeLong(timestamp.getSeconds());
+    out.writeInt(timestamp.getNanos());
+  }
+
+  private static Timestamp readTimestamp(DataInputStream in) throws IOException {
+    long seconds = in.readLong();
+    int nanos = in.readInt();
+    try {
+      return Timestamp.create(seconds, nanos);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid timestamp", e);
+    }
+  }
+
+  private static void writeTracestate(DataOutput out, Tracestate tracestate) throws IOException {
+    List<Tracestate.Entry> entries = tracestate.getEntries();
+    out.writeInt(entries.size());
+    for (Tracestate.Entry entry : entries) {
+      writeString(out, entry.getKey());
+      writeString(out, entry.getValue());
+    }
+  }
+
+  private static Tracestate readTracestate(DataInputStream in) throws IOException {
+    int count = readCount(in);
+    if (count == 0) {
+      return Tracestate.getDefault();
+    }
+    String[] keys = new String[count];
+    String[] values = new String[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = readString(in);
+      values[i] = readString(in);
+    }
+    // Tracestate.Builder#set adds entries in front, so insert them in reverse order.
+    Tracestate.Builder builder = Tracestate.builder();
+    try {
+      for (int i = count - 1; i >= 0; i--) {
+        builder.set(keys[i], values[i]);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid tracestate entry", e);
+    }
+    return builder.build();
+  }
+
+  private static void writeAttributes(DataOutput out, Map<String, AttributeValue> attributes)
+      throws IOException {
+    out.writeInt(attributes.size());
+    for (Map.Entry<String, AttributeValue> entry : attributes.entrySet()) {
+      writeString(out, entry.getKey());
+      AttributeValue value = entry.getValue();
+      switch (value.getType()) {
+        case STRING:
+          out.writeByte(TYPE_STRING);
+          writeString(out, value.getStringValue());
+          break;
+        case BOOLEAN:
+          out.writeByte(TYPE_BOOLEAN);
+          out.writeBoolean(value.getBooleanValue());
+          break;
+        case LONG:
+          out.writeByte(TYPE_LONG);
+          out.writeLong(value.getLongValue());
+          break;
+        case DOUBLE:
+          out.writeByte(TYPE_DOUBLE);
+          out.writeDouble(value.getDoubleValue());
+          break;
+      }
+    }
+  }
+
+  private static Map<String, AttributeValue> readAttributes(DataInputStream in) throws IOException {
+    int count = readCount(in);
+    Map<String, AttributeValue> attributes = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      String key = readString(in);
+      byte type = in.readByte();
+      switch (type) {
+        case TYPE_STRING:
+          attributes.put(key, AttributeValue.stringAttributeValue(readString(in)));
+          break;
+        case TYPE_BOOLEAN:
+          attributes.put(key, AttributeValue.booleanAttributeValue(in.readBoolean()));
+          break;
+        case TYPE_LONG:
+          attributes.put(key, AttributeValue.longAttributeValue(in.readLong()));
+          break;
+        case TYPE_DOUBLE:
+          attributes.put(key, AttributeValue.doubleAttributeValue(in.readDouble()));
+          break;
+        default:
+          throw new IOException("Unknown attribute type: " + type);
+      }
+    }
+    return attributes;
+  }
+
+  private static void writeStringMap(DataOutput out, Map<String, String> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      writeString(out, entry.getKey());
+      writeString(out, entry.getValue());
+    }
+  }
+
+  private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+    int count = readCount(in);
+    Map<String, String> map = new LinkedHashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      map.put(readString(in), readString(in));
+    }
+    return map;
+  }
+
+  // DataOutput#writeUTF is limited to 64KB, attribute values are not.
+  private static void writeString(DataOutput out, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[readCount(in)];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void writeNullableString(DataOutput out, @Nullable String value)
+      throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeString(out, value);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  private static int readCount(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    // Every counted element takes at least one byte, reject lengths that cannot be satisfied
+    // before allocating anything for them.
+    if (count < 0 || count > in.available()) {
+      throw new IOException("Invalid length: " + count);
+    }
+    return count;
+  }
+
+  private static int readOrdinal(DataInputStream in, int size) throws IOException {
+    int ordinal = in.readUnsignedByte();
+    if (ordinal >= size) {
+      throw new IOException("Unknown ordinal: " + ordinal);
+    }
+    return ordinal;
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanExporter} that protects another exporter against backend outages by spooling the
+ * batches it cannot deliver to local disk.
+ *
+ * <p>As long as the delegate exporter succeeds, batches are passed through. As soon as it returns
+ * {@link ResultCode#FAILED_RETRYABLE}, the batch and all the following ones are appended to
+ * memory-mapped segment files and {@link ResultCode#SUCCESS} is returned immediately, so the
+ * calling thread (e.g. the {@code BatchSpansProcessor} worker) never waits on the unavailable
+ * backend. A background thread replays the spooled batches to the delegate, in order, retrying
+ * every {@code retryDelayMillis} until the delegate succeeds again; once the spool is drained the
+ * exporter goes back to passing batches through.
+ *
+ * <p>Spooled batches survive a restart of the process: the replay position is checkpointed after
+ * every delivered batch and a new instance using the same directory resumes from there. The disk
+ * usage is capped by {@code maxSpoolSizeBytes}, when the limit is reached the oldest batches are
+ * dropped.
+ *
+ * <p>Only one instance may use a given directory at a time.
+ */
+@ThreadSafe
+public final class SpoolingSpanExporter implements SpanExporter {
+  private static final Logger logger = Logger.getLogger(SpoolingSpanExporter.class.getName());
+  private static final String REPLAY_THREAD_NAME =
+      SpoolingSpanExporter.class.getSimpleName() + "_ReplayThread";
+
+  private final SpanExporter delegate;
+  private final long retryDelayMillis;
+  private final Thread replayThread;
+  private final Object monitor = new Object();
+
+  @GuardedBy("monitor")
+  private final DiskSpool spool;
+
+  // True while the spool contains batches that were not delivered, all exports are then spooled
+  // to preserve the order.
+  private volatile boolean spooling;
+
+  private SpoolingSpanExporter(SpanExporter delegate, DiskSpool spool, long retryDelayMillis) {
+    this.delegate = delegate;
+    this.spool = spool;
+    this.retryDelayMillis = retryDelayMillis;
+    this.spooling = !spool.isEmpty();
+    this.replayThread = new Thread(new Replayer(), REPLAY_THREAD_NAME);
+    this.replayThread.setDaemon(true);
+    this.replayThread.start();
+  }
+
+  @Override
+  public ResultCode export(List<SpanData> spans) {
+    if (!spooling) {
+      ResultCode resultCode = exportToDelegate(spans);
+      if (resultCode != ResultCode.FAILED_RETRYABLE) {
+        return resultCode;
+      }
+    }
+    // Encode outside of the lock, only the copy into the mapped segment is done while holding it.
+    byte[] record = SpanDataCodec.encode(spans);
+    synchronized (monitor) {
+      try {
+        spool.append(record);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Failed to spool spans.", e);
+        return ResultCode.FAILED_RETRYABLE;
+      }
+      spooling = true;
+      monitor.notifyAll();
+    }
+    return ResultCode.SUCCESS;
+  }
+
+  /**
+   * Returns {@code true} if batches are currently spooled to disk instead of being passed to the
+   * delegate exporter.
+   *
+   * @return {@code true} if batches are currently spooled to disk.
+   */
+  public boolean isSpooling() {
+    return spooling;
+  }
+
+  /**
+   * Returns the number of spooled batches dropped because the spool reached its size limit.
+   *
+   * @return the number of spooled batches dropped because the spool reached its size limit.
+   */
+  public long getDroppedBatches() {
+    synchronized (monitor) {
+      return spool.getDroppedRecords();
+    }
+  }
+
+  /**
+   * Stops the replay and shuts down the delegate exporter. Batches that were not replayed yet stay
+   * on disk and are replayed by the next instance using the same directory.
+   */
+  @Override
+  public void shutdown() {
+    replayThread.interrupt();
+    try {
+      replayThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (monitor) {
+      spool.close();
+    }
+    delegate.shutdown();
+  }
+
+  private ResultCode exportToDelegate(List<SpanData> spans) {
+    try {
+      return delegate.export(spans);
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by the export.", t);
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+  }
+
+  /**
+   * Returns a new Builder for {@link SpoolingSpanExporter}.
+   *
+   * @param delegate the {@code SpanExporter} to where the Spans are pushed.
+   * @param directory the directory where undelivered batches are spooled.
+   * @return a new {@link Builder}.
+   * @throws NullPointerException if the {@code delegate} or the {@code directory} is {@code null}.
+   */
+  public static Builder newBuilder(SpanExporter delegate, File directory) {
+    return new Builder(delegate, directory);
+  }
+
+  /** Builder class for {@link SpoolingSpanExporter}. */
+  public static final class Builder {
+    private static final int SEGMENT_SIZE_BYTES = 16 * 1024 * 1024;
+    private static final long MAX_SPOOL_SIZE_BYTES = 256 * 1024 * 1024;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+    private final SpanExporter delegate;
+    private final File directory;
+    private int segmentSizeBytes = SEGMENT_SIZE_BYTES;
+    private long maxSpoolSizeBytes = MAX_SPOOL_SIZE_BYTES;
+    private long retryDelayMillis = RETRY_DELAY_MILLIS;
+
+    private Builder(SpanExporter delegate, File directory) {
+      this.delegate = Utils.checkNotNull(delegate, "delegate");
+      this.directory = Utils.checkNotNull(directory, "directory");
+    }
+
+    /**
+     * Sets the size of each segment file. Batches larger than this get a dedicated segment.
+     *
+     * <p>Default value is {@code 16} MiB.
+     *
+     * @param segmentSizeBytes the size of each segment file.
+     * @return this.
+     */
+    public Builder setSegmentSizeBytes(int segmentSizeBytes) {
+      Utils.checkArgument(segmentSizeBytes > 0, "segmentSizeBytes must be positive.");
+      this.segmentSizeBytes = segmentSizeBytes;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes used by the segment files. When reached the oldest batches
+     * are dropped.
+     *
+     * <p>Default value is {@code 256} MiB.
+     *
+     * @param maxSpoolSizeBytes the maximum number of bytes used by the segment files.
+     * @return this.
+     */
+    public Builder setMaxSpoolSizeBytes(long maxSpoolSizeBytes) {
+      Utils.checkArgument(maxSpoolSizeBytes > 0, "maxSpoolSizeBytes must be positive.");
+      this.maxSpoolSizeBytes = maxSpoolSizeBytes;
+      return this;
+    }
+
+    /**
+     * Sets the delay between two attempts to replay a batch to a failing delegate exporter.
+     *
+     * <p>Default value is {@code 5000}ms.
+     *
+     * @param retryDelayMillis the delay between two replay attempts.
+     * @return this.
+     */
+    public Builder setRetryDelayMillis(long retryDelayMillis) {
+      Utils.checkArgument(retryDelayMillis >= 0, "retryDelayMillis must be non-negative.");
+      this.retryDelayMillis = retryDelayMillis;
+      return this;
+    }
+
+    /**
+     * Returns a new {@link SpoolingSpanExporter}, replaying any batch left in the directory by a
+     * previous instance.
+     *
+     * @return a new {@link SpoolingSpanExporter}.
+     * @throws IOException if the spool directory cannot be created or read.
+     */
+    public SpoolingSpanExporter build() throws IOException {
+      return new SpoolingSpanExporter(
+          delegate,
+          DiskSpool.open(directory, segmentSizeBytes, maxSpoolSizeBytes),
+          retryDelayMillis);
+    }
+  }
+
+  // Replays the spooled batches to the delegate, in order, then waits for new ones.
+  private final class Replayer implements Runnable {
+    @Override
+    public void run() {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          byte[] record;
+          synchronized (monitor) {
+            record = spool.peek();
+            if (record == null) {
+              // Drained, switch back to passing batches through until the next failure.
+              spooling = false;
+              monitor.wait();
+              continue;
+            }
+          }
+          if (replay(record) == ResultCode.FAILED_RETRYABLE) {
+            Thread.sleep(retryDelayMillis);
+            continue;
+          }
+          DiskSpool.Checkpoint checkpoint;
+          synchronized (monitor) {
+            checkpoint = spool.commit();
+          }
+          // Synced outside of the lock so that export() never waits for the storage device.
+          if (checkpoint != null) {
+            try {
+              checkpoint.write();
+            } catch (IOException e) {
+              logger.log(Level.WARNING, "Failed to checkpoint the spool.", e);
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        // Preserve the interruption status as per guidance and stop doing any work.
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private ResultCode replay(byte[] record) {
+      List<SpanData> spans;
+      try {
+        spans = SpanDataCodec.decode(record);
+      } catch (IOException | RuntimeException e) {
+        logger.log(Level.WARNING, "Dropping unreadable spooled batch.", e);
+        return ResultCode.FAILED_NOT_RETRYABLE;
+      }
+      ResultCode resultCode = exportToDelegate(spans);
+      if (resultCode == ResultCode.FAILED_NOT_RETRYABLE) {
+        logger.log(Level.WARNING, "Dropping spooled batch rejected by the exporter.");
+      }
+      return resultCode;
+    }
+  }
+}
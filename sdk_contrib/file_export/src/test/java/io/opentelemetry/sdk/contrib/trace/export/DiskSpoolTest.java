@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link DiskSpool}. */
+@RunWith(JUnit4.class)
+public class DiskSpoolTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final int SEGMENT_SIZE = 64;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static byte[] record(String value) {
+    return value.getBytes(UTF_8);
+  }
+
+  private static String take(DiskSpool spool) throws IOException {
+    byte[] record = spool.peek();
+    assertThat(record).isNotNull();
+    DiskSpool.Checkpoint checkpoint = spool.commit();
+    assertThat(checkpoint).isNotNull();
+    checkpoint.write();
+    return new String(record, UTF_8);
+  }
+
+  @Test
+  public void empty() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    assertThat(spool.isEmpty()).isTrue();
+    assertThat(spool.peek()).isNull();
+    assertThat(spool.getSizeBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void appendPeekCommit() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    spool.append(record("one"));
+    spool.append(record("two"));
+    assertThat(spool.isEmpty()).isFalse();
+    // Peek without commit returns the same record.
+    assertThat(new String(spool.peek(), UTF_8)).isEqualTo("one");
+    assertThat(take(spool)).isEqualTo("one");
+    assertThat(take(spool)).isEqualTo("two");
+    assertThat(spool.isEmpty()).isTrue();
+    assertThat(spool.peek()).isNull();
+  }
+
+  @Test
+  public void rotatesSegmentsAndDeletesConsumedOnes() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    for (int i = 0; i < 10; i++) {
+      spool.append(record("record-" + i));
+    }
+    assertThat(spool.getSizeBytes()).isGreaterThan((long) SEGMENT_SIZE);
+    for (int i = 0; i < 10; i++) {
+      assertThat(take(spool)).isEqualTo("record-" + i);
+    }
+    assertThat(spool.peek()).isNull();
+    assertThat(spool.getSizeBytes()).isEqualTo((long) SEGMENT_SIZE);
+  }
+
+  @Test
+  public void largeRecordGetsDedicatedSegment() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      large.append('x');
+    }
+    spool.append(record(large.toString()));
+    assertThat(take(spool)).isEqualTo(large.toString());
+  }
+
+  @Test
+  public void recoversUncommittedRecords() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    for (int i = 0; i < 10; i++) {
+      spool.append(record("record-" + i));
+    }
+    assertThat(take(spool)).isEqualTo("record-0");
+    assertThat(take(spool)).isEqualTo("record-1");
+    // Peeked but not committed, must be replayed again.
+    assertThat(spool.peek()).isNotNull();
+    spool.close();
+
+    DiskSpool reopened = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    for (int i = 2; i < 10; i++) {
+      assertThat(take(reopened)).isEqualTo("record-" + i);
+    }
+    assertThat(reopened.isEmpty()).isTrue();
+    reopened.append(record("after"));
+    assertThat(take(reopened)).isEqualTo("after");
+  }
+
+  @Test
+  public void recoveryReplaysRecordsWithoutWrittenCheckpoint() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    spool.append(record("one"));
+    spool.append(record("two"));
+    assertThat(take(spool)).isEqualTo("one");
+    // Committed in memory, but the checkpoint is never written.
+    assertThat(new String(spool.peek(), UTF_8)).isEqualTo("two");
+    assertThat(spool.commit()).isNotNull();
+    assertThat(spool.isEmpty()).isTrue();
+    assertThat(spool.commit()).isNull();
+    spool.close();
+
+    DiskSpool reopened = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 1024);
+    assertThat(take(reopened)).isEqualTo("two");
+    assertThat(reopened.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void recoveryIgnoresTornRecord() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), 1024, 4096);
+    spool.append(record("complete"));
+    spool.append(record("torn"));
+    spool.close();
+    // Corrupt the payload of the last record, as if the process died while writing it.
+    File[] segments = folder.getRoot().listFiles();
+    assertThat(segments).hasLength(1);
+    RandomAccessFile file = new RandomAccessFile(segments[0], "rw");
+    try {
+      // magic (4) + header (8) + "complete" (8) + header (8)
+      file.seek(28);
+      file.write('X');
+    } finally {
+      file.close();
+    }
+
+    DiskSpool reopened = DiskSpool.open(folder.getRoot(), 1024, 4096);
+    assertThat(take(reopened)).isEqualTo("complete");
+    assertThat(reopened.isEmpty()).isTrue();
+    // New records overwrite the torn one.
+    reopened.append(record("next"));
+    assertThat(take(reopened)).isEqualTo("next");
+  }
+
+  @Test
+  public void recoveryDeletesTruncatedSegments() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), 1024, 4096);
+    spool.append(record("one"));
+    spool.close();
+    // Segments shorter than their header, as if the process died while creating them.
+    File empty = new File(folder.getRoot(), "spool-00000000000000000001.seg");
+    assertThat(empty.createNewFile()).isTrue();
+    File truncated = new File(folder.getRoot(), "spool-00000000000000000002.seg");
+    RandomAccessFile file = new RandomAccessFile(truncated, "rw");
+    try {
+      file.write(new byte[] {'O', 'T'});
+    } finally {
+      file.close();
+    }
+
+    DiskSpool reopened = DiskSpool.open(folder.getRoot(), 1024, 4096);
+    assertThat(empty.exists()).isFalse();
+    assertThat(truncated.exists()).isFalse();
+    assertThat(take(reopened)).isEqualTo("one");
+    assertThat(reopened.isEmpty()).isTrue();
+    reopened.append(record("next"));
+    assertThat(take(reopened)).isEqualTo("next");
+  }
+
+  @Test
+  public void dropsOldestSegmentsWhenFull() throws IOException {
+    DiskSpool spool = DiskSpool.open(folder.getRoot(), SEGMENT_SIZE, 2 * SEGMENT_SIZE);
+    // Each segment holds 3 records of 10 bytes (18 bytes with the header).
+    for (int i = 0; i < 9; i++) {
+      spool.append(record("record-00" + i));
+    }
+    assertThat(spool.getSizeBytes()).isAtMost(2L * SEGMENT_SIZE);
+    assertThat(spool.getDroppedRecords()).isEqualTo(3);
+    for (int i = 3; i < 9; i++) {
+      assertThat(take(spool)).isEqualTo("record-00" + i);
+    }
+    assertThat(spool.isEmpty()).isTrue();
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.sdk.contrib.trace.export.FileSpanExporter.Format;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link FileSpanExporter} and {@link FileSpanReader}. */
+@RunWith(JUnit4.class)
+public class FileSpanExporterTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final TestClock clock = TestClock.create();
+
+  private static List<SpanData> batch(String... names) {
+    List<SpanData> spans = new ArrayList<>(names.length);
+    for (String name : names) {
+      spans.add(SpanDataCodecTest.makeSpan(name));
+    }
+    return spans;
+  }
+
+  // Returns the files in the directory in the order they were written.
+  private File[] listFiles() {
+    File[] files = folder.getRoot().listFiles();
+    Arrays.sort(files);
+    return files;
+  }
+
+  private static List<String> readNames(File file) throws IOException {
+    List<String> names = new ArrayList<>();
+    FileSpanReader reader = FileSpanReader.open(file);
+    try {
+      SpanData span;
+      while ((span = reader.read()) != null) {
+        names.add(span.getName());
+      }
+    } finally {
+      reader.close();
+    }
+    return names;
+  }
+
+  private void writeAndReadBack(Format format) throws IOException {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot())
+            .setFormat(format)
+            .setCompress(false)
+            .setClock(clock)
+            .build();
+    assertThat(exporter.export(batch("one", "two"))).isEqualTo(ResultCode.SUCCESS);
+    assertThat(exporter.export(batch("three"))).isEqualTo(ResultCode.SUCCESS);
+    exporter.shutdown();
+
+    File[] files = listFiles();
+    assertThat(files).hasLength(1);
+    assertThat(files[0].getName()).endsWith(format.getExtension());
+    assertThat(readNames(files[0])).containsExactly("one", "two", "three").inOrder();
+    FileSpanReader reader = FileSpanReader.open(files[0]);
+    try {
+      ProtoSpanAdapterTest.assertSameSpan(reader.read(), SpanDataCodecTest.makeSpan("one"));
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void writeAndReadBack_Proto() throws IOException {
+    writeAndReadBack(Format.PROTO);
+  }
+
+  @Test
+  public void writeAndReadBack_Json() throws IOException {
+    writeAndReadBack(Format.JSON);
+  }
+
+  @Test
+  public void rotatesBySize() throws IOException {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot())
+            .setMaxFileSizeBytes(1)
+            .setCompress(false)
+            .setClock(clock)
+            .build();
+    exporter.export(batch("one", "two"));
+    exporter.export(batch("three"));
+    exporter.export(batch("four"));
+    exporter.shutdown();
+
+    File[] files = listFiles();
+    assertThat(files).hasLength(3);
+    // A batch is never split across files.
+    assertThat(readNames(files[0])).containsExactly("one", "two").inOrder();
+    assertThat(readNames(files[1])).containsExactly("three");
+    assertThat(readNames(files[2])).containsExactly("four");
+  }
+
+  @Test
+  public void rotatesByAge() throws IOException {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot())
+            .setMaxFileAgeMillis(1000)
+            .setCompress(false)
+            .setClock(clock)
+            .build();
+    exporter.export(batch("one"));
+    clock.advanceMillis(999);
+    exporter.export(batch("two"));
+    clock.advanceMillis(1);
+    exporter.export(batch("three"));
+    exporter.shutdown();
+
+    File[] files = listFiles();
+    assertThat(files).hasLength(2);
+    assertThat(readNames(files[0])).containsExactly("one", "two").inOrder();
+    assertThat(readNames(files[1])).containsExactly("three");
+  }
+
+  @Test
+  public void rotatesIdleFileByAge() throws IOException {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot())
+            .setMaxFileAgeMillis(1000)
+            .setCompress(false)
+            .setClock(clock)
+            .build();
+    exporter.export(batch("one"));
+    clock.advanceMillis(999);
+    exporter.rotateIfExpired();
+    exporter.export(batch("two"));
+    clock.advanceMillis(1);
+    exporter.rotateIfExpired();
+    clock.advanceMillis(5000);
+    exporter.export(batch("three"));
+    exporter.shutdown();
+
+    File[] files = listFiles();
+    assertThat(files).hasLength(2);
+    assertThat(readNames(files[0])).containsExactly("one", "two").inOrder();
+    assertThat(readNames(files[1])).containsExactly("three");
+  }
+
+  @Test(timeout = 10000)
+  public void compressesIdleFileInBackground() throws Exception {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot()).setMaxFileAgeMillis(10).build();
+    try {
+      exporter.export(batch("one"));
+      File[] files = listFiles();
+      while (!files[0].getName().endsWith(FileSpanExporter.GZIP_EXTENSION)) {
+        Thread.sleep(10);
+        files = listFiles();
+      }
+      assertThat(files).hasLength(1);
+      assertThat(readNames(files[0])).containsExactly("one");
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  public void compressesRotatedFiles() throws IOException {
+    FileSpanExporter exporter =
+        FileSpanExporter.newBuilder(folder.getRoot())
+            .setFormat(Format.JSON)
+            .setMaxFileSizeBytes(1)
+            .setClock(clock)
+            .build();
+    exporter.export(batch("one"));
+    exporter.export(batch("two"));
+    // Waits for the compression of all the files.
+    exporter.shutdown();
+
+    File[] files = listFiles();
+    assertThat(files).hasLength(2);
+    assertThat(files[0].getName()).endsWith(".jsonl.gz");
+    assertThat(files[1].getName()).endsWith(".jsonl.gz");
+    assertThat(readNames(files[0])).containsExactly("one");
+    assertThat(readNames(files[1])).containsExactly("two");
+  }
+
+  @Test
+  public void exportAfterShutdownFails() {
+    FileSpanExporter exporter = FileSpanExporter.newBuilder(folder.getRoot()).build();
+    exporter.shutdown();
+    assertThat(exporter.export(Collections.singletonList(SpanDataCodecTest.makeSpan("span"))))
+        .isEqualTo(ResultCode.FAILED_NOT_RETRYABLE);
+    assertThat(folder.getRoot().list()).isEmpty();
+  }
+}
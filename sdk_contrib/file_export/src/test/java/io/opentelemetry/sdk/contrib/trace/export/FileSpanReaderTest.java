@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link FileSpanReader}. */
+@RunWith(JUnit4.class)
+public class FileSpanReaderTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void emptyFile() throws IOException {
+    FileSpanReader reader = FileSpanReader.open(folder.newFile("spans.pb"));
+    assertThat(reader.read()).isNull();
+    reader.close();
+  }
+
+  @Test
+  public void unknownExtension() throws IOException {
+    File file = folder.newFile("spans.txt");
+    thrown.expect(IllegalArgumentException.class);
+    FileSpanReader.open(file);
+  }
+
+  @Test
+  public void invalidJson() throws IOException {
+    File file = folder.newFile("spans.jsonl");
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write("{\"name\": ".getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+    FileSpanReader reader = FileSpanReader.open(file);
+    try {
+      thrown.expect(IOException.class);
+      reader.read();
+    } finally {
+      reader.close();
+    }
+  }
+}
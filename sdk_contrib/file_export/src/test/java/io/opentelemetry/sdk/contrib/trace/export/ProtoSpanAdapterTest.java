@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ProtoSpanAdapter}. */
+@RunWith(JUnit4.class)
+public class ProtoSpanAdapterTest {
+
+  static void assertSameSpan(SpanData actual, SpanData expected) {
+    assertThat(actual.getTraceId()).isEqualTo(expected.getTraceId());
+    assertThat(actual.getSpanId()).isEqualTo(expected.getSpanId());
+    assertThat(actual.getTracestate()).isEqualTo(expected.getTracestate());
+    assertThat(actual.getParentSpanId()).isEqualTo(expected.getParentSpanId());
+    assertThat(actual.getResource()).isEqualTo(expected.getResource());
+    assertThat(actual.getName()).isEqualTo(expected.getName());
+    assertThat(actual.getKind()).isEqualTo(expected.getKind());
+    assertThat(actual.getStartTimestamp()).isEqualTo(expected.getStartTimestamp());
+    assertThat(actual.getEndTimestamp()).isEqualTo(expected.getEndTimestamp());
+    assertThat(actual.getAttributes()).isEqualTo(expected.getAttributes());
+    assertThat(actual.getTimedEvents()).isEqualTo(expected.getTimedEvents());
+    assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+    assertThat(actual.getLinks()).hasSize(expected.getLinks().size());
+    for (int i = 0; i < expected.getLinks().size(); i++) {
+      assertThat(actual.getLinks().get(i).getContext())
+          .isEqualTo(expected.getLinks().get(i).getContext());
+      assertThat(actual.getLinks().get(i).getAttributes())
+          .isEqualTo(expected.getLinks().get(i).getAttributes());
+    }
+  }
+
+  @Test
+  public void roundTrip() {
+    SpanData span = SpanDataCodecTest.makeSpan("span");
+    Span protoSpan = ProtoSpanAdapter.toProtoSpan(span);
+    assertThat(protoSpan.getName()).isEqualTo("span");
+    assertThat(protoSpan.getKind()).isEqualTo(Span.SpanKind.CLIENT);
+    assertThat(protoSpan.getTracestate().getEntries(0).getKey()).isEqualTo("bar");
+    assertSameSpan(ProtoSpanAdapter.fromProtoSpan(protoSpan), span);
+  }
+
+  @Test
+  public void roundTrip_RootSpanWithoutDescription() {
+    SpanData span =
+        SpanData.newBuilder()
+            .setTraceId(TraceId.fromLowerBase16("0102030405060708090a0b0c0d0e0f10", 0))
+            .setSpanId(SpanId.fromLowerBase16("1112131415161718", 0))
+            .setName("root")
+            .setKind(Kind.SERVER)
+            .setStartTimestamp(Timestamp.create(100, 200))
+            .setEndTimestamp(Timestamp.create(300, 400))
+            .setStatus(Status.OK)
+            .build();
+    Span protoSpan = ProtoSpanAdapter.toProtoSpan(span);
+    assertThat(protoSpan.getParentSpanId().isEmpty()).isTrue();
+    assertThat(protoSpan.getStatus().getMessage()).isEmpty();
+    assertSameSpan(ProtoSpanAdapter.fromProtoSpan(protoSpan), span);
+  }
+
+  @Test
+  public void fromProtoSpan_MarksSampled() {
+    SpanData span =
+        ProtoSpanAdapter.fromProtoSpan(
+            ProtoSpanAdapter.toProtoSpan(SpanDataCodecTest.makeSpan("span")));
+    assertThat(span.getTraceFlags().isSampled()).isTrue();
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanData.TimedEvent;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Link;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import io.opentelemetry.trace.util.Events;
+import io.opentelemetry.trace.util.Links;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpanDataCodec}. */
+@RunWith(JUnit4.class)
+public class SpanDataCodecTest {
+  private static final TraceId TRACE_ID =
+      TraceId.fromLowerBase16("0102030405060708090a0b0c0d0e0f10", 0);
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16("1112131415161718", 0);
+  private static final SpanId PARENT_SPAN_ID = SpanId.fromLowerBase16("2122232425262728", 0);
+  private static final Tracestate TRACESTATE =
+      Tracestate.builder().set("foo", "bar").set("bar", "baz").build();
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  static SpanData makeSpan(String name) {
+    Map<String, AttributeValue> attributes = new HashMap<>();
+    attributes.put("string", AttributeValue.stringAttributeValue("value é"));
+    attributes.put("long", AttributeValue.longAttributeValue(Long.MIN_VALUE));
+    attributes.put("boolean", AttributeValue.booleanAttributeValue(true));
+    attributes.put("double", AttributeValue.doubleAttributeValue(1.5));
+    Link link =
+        Links.create(
+            SpanContext.create(
+                TRACE_ID,
+                PARENT_SPAN_ID,
+                TraceFlags.builder().setIsSampled(true).build(),
+                TRACESTATE),
+            attributes);
+    return SpanData.newBuilder()
+        .setTraceId(TRACE_ID)
+        .setSpanId(SPAN_ID)
+        .setTraceFlags(TraceFlags.builder().setIsSampled(true).build())
+        .setTracestate(TRACESTATE)
+        .setParentSpanId(PARENT_SPAN_ID)
+        .setResource(Resource.create(Collections.singletonMap("service", "test")))
+        .setName(name)
+        .setKind(Kind.CLIENT)
+        .setStartTimestamp(Timestamp.create(100, 200))
+        .setEndTimestamp(Timestamp.create(300, 400))
+        .setAttributes(attributes)
+        .setTimedEvents(
+            Collections.singletonList(
+                TimedEvent.create(Timestamp.create(150, 0), Events.create("event", attributes))))
+        .setLinks(Collections.singletonList(link))
+        .setStatus(Status.DEADLINE_EXCEEDED.withDescription("too slow"))
+        .build();
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    List<SpanData> spans = Arrays.asList(makeSpan("first"), makeSpan("second"));
+    List<SpanData> decoded = SpanDataCodec.decode(SpanDataCodec.encode(spans));
+    assertThat(decoded).hasSize(2);
+    for (int i = 0; i < spans.size(); i++) {
+      SpanData expected = spans.get(i);
+      SpanData actual = decoded.get(i);
+      assertThat(actual.getTraceId()).isEqualTo(expected.getTraceId());
+      assertThat(actual.getSpanId()).isEqualTo(expected.getSpanId());
+      assertThat(actual.getTraceFlags()).isEqualTo(expected.getTraceFlags());
+      assertThat(actual.getTracestate()).isEqualTo(expected.getTracestate());
+      assertThat(actual.getParentSpanId()).isEqualTo(expected.getParentSpanId());
+      assertThat(actual.getResource()).isEqualTo(expected.getResource());
+      assertThat(actual.getName()).isEqualTo(expected.getName());
+      assertThat(actual.getKind()).isEqualTo(expected.getKind());
+      assertThat(actual.getStartTimestamp()).isEqualTo(expected.getStartTimestamp());
+      assertThat(actual.getEndTimestamp()).isEqualTo(expected.getEndTimestamp());
+      assertThat(actual.getAttributes()).isEqualTo(expected.getAttributes());
+      assertThat(actual.getTimedEvents()).isEqualTo(expected.getTimedEvents());
+      assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+      assertThat(actual.getLinks()).hasSize(1);
+      assertThat(actual.getLinks().get(0).getContext())
+          .isEqualTo(expected.getLinks().get(0).getContext());
+      assertThat(actual.getLinks().get(0).getAttributes())
+          .isEqualTo(expected.getLinks().get(0).getAttributes());
+    }
+  }
+
+  @Test
+  public void roundTrip_EmptyBatch() throws IOException {
+    assertThat(SpanDataCodec.decode(SpanDataCodec.encode(Collections.<SpanData>emptyList())))
+        .isEmpty();
+  }
+
+  @Test
+  public void decode_Truncated() throws IOException {
+    byte[] record = SpanDataCodec.encode(Collections.singletonList(makeSpan("span")));
+    thrown.expect(IOException.class);
+    SpanDataCodec.decode(Arrays.copyOf(record, record.length / 2));
+  }
+
+  @Test
+  public void decode_UnknownVersion() throws IOException {
+    byte[] record = SpanDataCodec.encode(Collections.singletonList(makeSpan("span")));
+    record[0] = 42;
+    thrown.expect(IOException.class);
+    SpanDataCodec.decode(record);
+  }
+}
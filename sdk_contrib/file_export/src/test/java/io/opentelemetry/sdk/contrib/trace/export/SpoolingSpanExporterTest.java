@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.export;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter.ResultCode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpoolingSpanExporter}. */
+@RunWith(JUnit4.class)
+public class SpoolingSpanExporterTest {
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  // A SpanExporter that records the names of the exported spans and can be switched off.
+  private static final class SwitchableSpanExporter implements SpanExporter {
+    private final List<String> exported = new ArrayList<>();
+    private volatile ResultCode resultCode = ResultCode.SUCCESS;
+    private boolean isShutdown = false;
+
+    @Override
+    public ResultCode export(List<SpanData> spans) {
+      if (resultCode != ResultCode.SUCCESS) {
+        return resultCode;
+      }
+      synchronized (this) {
+        for (SpanData span : spans) {
+          exported.add(span.getName());
+        }
+      }
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+      isShutdown = true;
+    }
+
+    private synchronized List<String> getExported() {
+      return new ArrayList<>(exported);
+    }
+
+    private void waitForExported(int count) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+      while (getExported().size() < count && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+    }
+  }
+
+  private static List<SpanData> batch(String name) {
+    return Collections.singletonList(SpanDataCodecTest.makeSpan(name));
+  }
+
+  private SpoolingSpanExporter newExporter(SpanExporter delegate) throws IOException {
+    return SpoolingSpanExporter.newBuilder(delegate, folder.getRoot())
+        .setSegmentSizeBytes(4096)
+        .setRetryDelayMillis(5)
+        .build();
+  }
+
+  @Test
+  public void passThroughWhileDelegateSucceeds() throws IOException {
+    SwitchableSpanExporter delegate = new SwitchableSpanExporter();
+    SpoolingSpanExporter exporter = newExporter(delegate);
+    assertThat(exporter.export(batch("one"))).isEqualTo(ResultCode.SUCCESS);
+    assertThat(exporter.isSpooling()).isFalse();
+    assertThat(delegate.getExported()).containsExactly("one");
+    // Nothing was written to disk.
+    assertThat(folder.getRoot().list()).isEmpty();
+    exporter.shutdown();
+    assertThat(delegate.isShutdown).isTrue();
+  }
+
+  @Test
+  public void notRetryableFailureIsNotSpooled() throws IOException {
+    SwitchableSpanExporter delegate = new SwitchableSpanExporter();
+    delegate.resultCode = ResultCode.FAILED_NOT_RETRYABLE;
+    SpoolingSpanExporter exporter = newExporter(delegate);
+    assertThat(exporter.export(batch("one"))).isEqualTo(ResultCode.FAILED_NOT_RETRYABLE);
+    assertThat(exporter.isSpooling()).isFalse();
+    exporter.shutdown();
+  }
+
+  @Test
+  public void spoolsWhileDelegateIsDownThenReplaysInOrder()
+      throws IOException, InterruptedException {
+    SwitchableSpanExporter delegate = new SwitchableSpanExporter();
+    SpoolingSpanExporter exporter = newExporter(delegate);
+    assertThat(exporter.export(batch("one"))).isEqualTo(ResultCode.SUCCESS);
+
+    delegate.resultCode = ResultCode.FAILED_RETRYABLE;
+    assertThat(exporter.export(batch("two"))).isEqualTo(ResultCode.SUCCESS);
+    assertThat(exporter.isSpooling()).isTrue();
+    assertThat(exporter.export(batch("three"))).isEqualTo(ResultCode.SUCCESS);
+    assertThat(delegate.getExported()).containsExactly("one");
+
+    delegate.resultCode = ResultCode.SUCCESS;
+    // Exported while the spool is being drained, must come after the spooled batches.
+    assertThat(exporter.export(batch("four"))).isEqualTo(ResultCode.SUCCESS);
+    delegate.waitForExported(4);
+    assertThat(delegate.getExported()).containsExactly("one", "two", "three", "four").inOrder();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (exporter.isSpooling() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(exporter.isSpooling()).isFalse();
+    assertThat(exporter.export(batch("five"))).isEqualTo(ResultCode.SUCCESS);
+    assertThat(delegate.getExported())
+        .containsExactly("one", "two", "three", "four", "five")
+        .inOrder();
+    exporter.shutdown();
+  }
+
+  @Test
+  public void replaysSpooledBatchesAfterRestart() throws IOException, InterruptedException {
+    SwitchableSpanExporter downDelegate = new SwitchableSpanExporter();
+    downDelegate.resultCode = ResultCode.FAILED_RETRYABLE;
+    SpoolingSpanExporter exporter = newExporter(downDelegate);
+    exporter.export(batch("one"));
+    exporter.export(batch("two"));
+    exporter.shutdown();
+    assertThat(downDelegate.getExported()).isEmpty();
+
+    SwitchableSpanExporter upDelegate = new SwitchableSpanExporter();
+    SpoolingSpanExporter restarted = newExporter(upDelegate);
+    upDelegate.waitForExported(2);
+    assertThat(upDelegate.getExported()).containsExactly("one", "two").inOrder();
+    restarted.shutdown();
+
+    // Everything was checkpointed, nothing is replayed a second time.
+    SwitchableSpanExporter lastDelegate = new SwitchableSpanExporter();
+    SpoolingSpanExporter last = newExporter(lastDelegate);
+    assertThat(last.isSpooling()).isFalse();
+    last.shutdown();
+    assertThat(lastDelegate.getExported()).isEmpty();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Lock-free histogram of latencies, with the number of latencies per bucket and their sum. The
+ * number of latencies is the sum of the bucket counts.
+ *
+ * <p>The bucket {@code i} counts the latencies lower than {@code boundaries[i]} and greater than or
+ * equal to {@code boundaries[i - 1]}, the last bucket the latencies greater than or equal to the
+ * last boundary.
+ */
+@ThreadSafe
+final class LatencyHistogram {
+  private final long[] boundariesNanos;
+  private final AtomicLongArray bucketCounts;
+  private final AtomicLong sumNanos = new AtomicLong();
+
+  LatencyHistogram(long[] boundariesNanos) {
+    this.boundariesNanos = boundariesNanos;
+    this.bucketCounts = new AtomicLongArray(boundariesNanos.length + 1);
+  }
+
+  void record(long latencyNanos) {
+    bucketCounts.incrementAndGet(bucketIndex(latencyNanos));
+    sumNanos.addAndGet(latencyNanos);
+  }
+
+  long getSumNanos() {
+    return sumNanos.get();
+  }
+
+  List<Long> getBucketCounts() {
+    List<Long> counts = new ArrayList<>(bucketCounts.length());
+    for (int i = 0; i < bucketCounts.length(); i++) {
+      counts.add(bucketCounts.get(i));
+    }
+    return Collections.unmodifiableList(counts);
+  }
+
+  private int bucketIndex(long latencyNanos) {
+    // Binary search of the first boundary greater than the latency.
+    int low = 0;
+    int high = boundariesNanos.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (boundariesNanos[mid] <= latencyNanos) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
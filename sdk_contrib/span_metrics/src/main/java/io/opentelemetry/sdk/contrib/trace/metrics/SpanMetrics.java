@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.sdk.metrics.stats.BucketBoundaries;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.Status.CanonicalCode;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The aggregated metrics of the spans with the same name, {@link Kind} and status code, since the
+ * creation of the {@link SpanMetricsProcessor}.
+ */
+@Immutable
+@AutoValue
+public abstract class SpanMetrics {
+  SpanMetrics() {}
+
+  /**
+   * Returns the name of the spans.
+   *
+   * @return the name of the spans.
+   */
+  public abstract String getSpanName();
+
+  /**
+   * Returns the {@code Kind} of the spans.
+   *
+   * @return the {@code Kind} of the spans.
+   */
+  public abstract Kind getKind();
+
+  /**
+   * Returns the {@code CanonicalCode} of the status of the spans.
+   *
+   * @return the {@code CanonicalCode} of the status of the spans.
+   */
+  public abstract CanonicalCode getCanonicalCode();
+
+  /**
+   * Returns the number of spans.
+   *
+   * @return the number of spans.
+   */
+  public abstract long getCount();
+
+  /**
+   * Returns the sum of the latencies of the spans, in nanoseconds.
+   *
+   * @return the sum of the latencies of the spans.
+   */
+  public abstract long getLatencySumNanos();
+
+  /**
+   * Returns the boundaries of the latency histogram, in milliseconds.
+   *
+   * @return the boundaries of the latency histogram.
+   */
+  public abstract BucketBoundaries getBucketBoundaries();
+
+  /**
+   * Returns the number of spans in every bucket of the latency histogram. The bucket {@code i}
+   * counts the latencies lower than the boundary {@code i} and greater than or equal to the
+   * boundary {@code i - 1}, there is one more bucket than boundaries.
+   *
+   * @return the number of spans in every bucket of the latency histogram.
+   */
+  public abstract List<Long> getBucketCounts();
+
+  static SpanMetrics create(
+      String spanName,
+      Kind kind,
+      CanonicalCode canonicalCode,
+      long count,
+      long latencySumNanos,
+      BucketBoundaries bucketBoundaries,
+      List<Long> bucketCounts) {
+    return new AutoValue_SpanMetrics(
+        spanName, kind, canonicalCode, count, latencySumNanos, bucketBoundaries, bucketCounts);
+  }
+}
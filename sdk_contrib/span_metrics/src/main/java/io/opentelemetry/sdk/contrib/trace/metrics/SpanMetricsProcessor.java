@@ -0,0 +1,332 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.metrics.Meter;
+import io.opentelemetry.metrics.Observer.Callback;
+import io.opentelemetry.metrics.ObserverLong;
+import io.opentelemetry.metrics.ObserverLong.Result;
+import io.opentelemetry.sdk.metrics.stats.BucketBoundaries;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.Status.CanonicalCode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanProcessor} that aggregates the ended spans by name, {@link Kind} and status code
+ * into counters and latency histograms, the request rate, error rate and duration (RED) metrics of
+ * every operation.
+ *
+ * <p>The aggregation is lock-free and does not allocate once the operation is known, see {@link
+ * #getMetrics()} for the aggregated metrics. With a {@link Meter} the metrics are also reported as
+ * the monotonic {@code span_count}, {@code span_latency_sum} and {@code span_latency_bucket}
+ * observers, labelled by {@code span_name}, {@code span_kind} and {@code status_code}.
+ *
+ * <p>Only the recorded spans reach the {@code SpanProcessor}s: for exact metrics with a sampled
+ * export, record all the spans with {@code Span.Builder.setRecordEvents(true)} and export only the
+ * sampled spans, for example with {@code BatchSpansProcessor.Builder.reportOnlySampled(true)}.
+ */
+@ThreadSafe
+public final class SpanMetricsProcessor implements SpanProcessor {
+  /** The span name of the spans ended once the maximum number of span names is reached. */
+  public static final String OTHER_SPAN_NAME = "other";
+
+  private static final Logger logger = Logger.getLogger(SpanMetricsProcessor.class.getName());
+  private static final String SPAN_NAME_LABEL_KEY = "span_name";
+  private static final String SPAN_KIND_LABEL_KEY = "span_kind";
+  private static final String STATUS_CODE_LABEL_KEY = "status_code";
+  private static final String LE_LABEL_KEY = "le";
+  private static final String INFINITY = "+Inf";
+  private static final Kind[] KINDS = Kind.values();
+  private static final CanonicalCode[] CANONICAL_CODES = CanonicalCode.values();
+
+  private final BucketBoundaries bucketBoundaries;
+  private final long[] boundariesNanos;
+  private final int maxSpanNames;
+  private final ConcurrentMap<String, Operations> operationsByName = new ConcurrentHashMap<>();
+
+  private SpanMetricsProcessor(
+      BucketBoundaries bucketBoundaries, int maxSpanNames, @Nullable Meter meter) {
+    this.bucketBoundaries = bucketBoundaries;
+    List<Double> boundaries = bucketBoundaries.getBoundaries();
+    this.boundariesNanos = new long[boundaries.size()];
+    for (int i = 0; i < boundaries.size(); i++) {
+      boundariesNanos[i] = Math.round(boundaries.get(i) * 1e6);
+    }
+    this.maxSpanNames = maxSpanNames;
+    if (meter != null) {
+      try {
+        exportMetrics(meter);
+      } catch (UnsupportedOperationException e) {
+        logger.log(Level.WARNING, "The Meter does not support observers, metrics not reported.", e);
+      }
+    }
+  }
+
+  @Override
+  public void onStart(ReadableSpan span) {}
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    operationsFor(span.getName())
+        .histogramFor(span.getKind(), span.getStatus().getCanonicalCode())
+        .record(span.getLatencyNs());
+  }
+
+  @Override
+  public void shutdown() {}
+
+  /**
+   * Returns the metrics aggregated since the creation of this processor, for every name, {@code
+   * Kind} and status code of the ended spans.
+   *
+   * @return the aggregated metrics.
+   */
+  public List<SpanMetrics> getMetrics() {
+    List<SpanMetrics> metrics = new ArrayList<>();
+    for (Map.Entry<String, Operations> entry : operationsByName.entrySet()) {
+      Operations operations = entry.getValue();
+      for (int i = 0; i < operations.histograms.length(); i++) {
+        LatencyHistogram histogram = operations.histograms.get(i);
+        if (histogram == null) {
+          continue;
+        }
+        List<Long> bucketCounts = histogram.getBucketCounts();
+        long count = 0;
+        for (int j = 0; j < bucketCounts.size(); j++) {
+          count += bucketCounts.get(j);
+        }
+        metrics.add(
+            SpanMetrics.create(
+                entry.getKey(),
+                KINDS[i / CANONICAL_CODES.length],
+                CANONICAL_CODES[i % CANONICAL_CODES.length],
+                count,
+                histogram.getSumNanos(),
+                bucketBoundaries,
+                bucketCounts));
+      }
+    }
+    return metrics;
+  }
+
+  private Operations operationsFor(String spanName) {
+    Operations operations = operationsByName.get(spanName);
+    if (operations != null) {
+      return operations;
+    }
+    // Racy check, the number of span names may exceed the maximum by the number of threads.
+    if (operationsByName.size() >= maxSpanNames) {
+      spanName = OTHER_SPAN_NAME;
+      operations = operationsByName.get(spanName);
+      if (operations != null) {
+        return operations;
+      }
+    }
+    Operations newOperations = new Operations();
+    operations = operationsByName.putIfAbsent(spanName, newOperations);
+    return operations != null ? operations : newOperations;
+  }
+
+  private void exportMetrics(Meter meter) {
+    List<String> labelKeys =
+        Arrays.asList(SPAN_NAME_LABEL_KEY, SPAN_KIND_LABEL_KEY, STATUS_CODE_LABEL_KEY);
+    final ObserverLong countMetric =
+        meter
+            .observerLongBuilder("span_count")
+            .setDescription("Number of ended spans.")
+            .setUnit("1")
+            .setLabelKeys(labelKeys)
+            .setMonotonic(true)
+            .build();
+    countMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            for (SpanMetrics metrics : getMetrics()) {
+              result.put(countMetric.getHandle(labelValues(metrics)), metrics.getCount());
+            }
+          }
+        });
+    final ObserverLong latencySumMetric =
+        meter
+            .observerLongBuilder("span_latency_sum")
+            .setDescription("Sum of the latencies of the ended spans.")
+            .setUnit("ns")
+            .setLabelKeys(labelKeys)
+            .setMonotonic(true)
+            .build();
+    latencySumMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            for (SpanMetrics metrics : getMetrics()) {
+              result.put(
+                  latencySumMetric.getHandle(labelValues(metrics)), metrics.getLatencySumNanos());
+            }
+          }
+        });
+    List<String> bucketLabelKeys = new ArrayList<>(labelKeys);
+    bucketLabelKeys.add(LE_LABEL_KEY);
+    final ObserverLong latencyBucketMetric =
+        meter
+            .observerLongBuilder("span_latency_bucket")
+            .setDescription(
+                "Number of ended spans with a latency lower than the le label, in milliseconds.")
+            .setUnit("1")
+            .setLabelKeys(bucketLabelKeys)
+            .setMonotonic(true)
+            .build();
+    final List<String> upperBounds = new ArrayList<>();
+    for (Double boundary : bucketBoundaries.getBoundaries()) {
+      upperBounds.add(String.valueOf(boundary));
+    }
+    upperBounds.add(INFINITY);
+    latencyBucketMetric.setCallback(
+        new Callback<Result>() {
+          @Override
+          public void update(Result result) {
+            for (SpanMetrics metrics : getMetrics()) {
+              List<String> labelValues = labelValues(metrics);
+              List<Long> bucketCounts = metrics.getBucketCounts();
+              long cumulativeCount = 0;
+              for (int i = 0; i < bucketCounts.size(); i++) {
+                cumulativeCount += bucketCounts.get(i);
+                List<String> bucketLabelValues = new ArrayList<>(labelValues);
+                bucketLabelValues.add(upperBounds.get(i));
+                result.put(latencyBucketMetric.getHandle(bucketLabelValues), cumulativeCount);
+              }
+            }
+          }
+        });
+  }
+
+  private static List<String> labelValues(SpanMetrics metrics) {
+    return Arrays.asList(
+        metrics.getSpanName(), metrics.getKind().name(), metrics.getCanonicalCode().name());
+  }
+
+  /**
+   * Returns a new Builder for {@link SpanMetricsProcessor}.
+   *
+   * @return a new {@link Builder}.
+   */
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Builder class for {@link SpanMetricsProcessor}. */
+  public static final class Builder {
+    private static final BucketBoundaries BUCKET_BOUNDARIES =
+        BucketBoundaries.create(
+            Arrays.asList(
+                1.0, 2.0, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0, 2500.0, 5000.0,
+                10000.0));
+    private static final int MAX_SPAN_NAMES = 1000;
+    private BucketBoundaries bucketBoundaries = BUCKET_BOUNDARIES;
+    private int maxSpanNames = MAX_SPAN_NAMES;
+    @Nullable private Meter meter;
+
+    private Builder() {}
+
+    /**
+     * Sets the boundaries of the latency histograms, in milliseconds.
+     *
+     * <p>Default value is {@code [1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000]}.
+     *
+     * @param bucketBoundaries the boundaries of the latency histograms.
+     * @return this.
+     */
+    public Builder setBucketBoundaries(BucketBoundaries bucketBoundaries) {
+      this.bucketBoundaries = Utils.checkNotNull(bucketBoundaries, "bucketBoundaries");
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of span names aggregated separately, the spans with other names are
+     * aggregated with the name {@link #OTHER_SPAN_NAME}.
+     *
+     * <p>Default value is {@code 1000}.
+     *
+     * @param maxSpanNames the maximum number of span names.
+     * @return this.
+     */
+    public Builder setMaxSpanNames(int maxSpanNames) {
+      Utils.checkArgument(maxSpanNames > 0, "maxSpanNames must be positive.");
+      this.maxSpanNames = maxSpanNames;
+      return this;
+    }
+
+    /**
+     * Sets the {@code Meter} used to report the aggregated metrics.
+     *
+     * <p>The {@code Meter} must support the {@code ObserverLong} metrics, which no {@code Meter} in
+     * this repository implements yet. With a {@code Meter} that does not support them, such as the
+     * one returned by {@code OpenTelemetry.getMeter()} with the SDK, a warning is logged and the
+     * metrics are only available from {@link SpanMetricsProcessor#getMetrics()}.
+     *
+     * <p>By default the metrics are not reported.
+     *
+     * @param meter the {@code Meter} used to report the metrics.
+     * @return this.
+     */
+    public Builder setMeter(Meter meter) {
+      this.meter = Utils.checkNotNull(meter, "meter");
+      return this;
+    }
+
+    /**
+     * Returns a new {@link SpanMetricsProcessor}.
+     *
+     * @return a new {@link SpanMetricsProcessor}.
+     */
+    public SpanMetricsProcessor build() {
+      return new SpanMetricsProcessor(bucketBoundaries, maxSpanNames, meter);
+    }
+  }
+
+  // The histograms of the spans with the same name, by Kind and CanonicalCode.
+  private final class Operations {
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+        new AtomicReferenceArray<>(KINDS.length * CANONICAL_CODES.length);
+
+    private LatencyHistogram histogramFor(Kind kind, CanonicalCode canonicalCode) {
+      int index = kind.ordinal() * CANONICAL_CODES.length + canonicalCode.ordinal();
+      LatencyHistogram histogram = histograms.get(index);
+      if (histogram != null) {
+        return histogram;
+      }
+      LatencyHistogram newHistogram = new LatencyHistogram(boundariesNanos);
+      if (histograms.compareAndSet(index, null, newHistogram)) {
+        return newHistogram;
+      }
+      return histograms.get(index);
+    }
+  }
+}
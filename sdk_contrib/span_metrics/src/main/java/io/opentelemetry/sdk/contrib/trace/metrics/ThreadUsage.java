@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Reads the CPU time and the allocated bytes of the current thread, with the {@code ThreadMXBean}
+ * looked up once. The measurements enabled when the instance is created are used, the other ones
+ * return {@link #UNAVAILABLE}.
+ */
+@Immutable
+class ThreadUsage {
+  private static final Logger logger = Logger.getLogger(ThreadUsage.class.getName());
+
+  static final long UNAVAILABLE = -1;
+
+  @Nullable private final ThreadMXBean cpuTimeBean;
+  @Nullable private final AllocatedBytes allocatedBytes;
+
+  ThreadUsage(@Nullable ThreadMXBean cpuTimeBean, @Nullable AllocatedBytes allocatedBytes) {
+    this.cpuTimeBean = cpuTimeBean;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /** Returns a {@code ThreadUsage} using the platform {@code ThreadMXBean}. */
+  static ThreadUsage create() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    ThreadMXBean cpuTimeBean =
+        threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled()
+            ? threadBean
+            : null;
+    AllocatedBytes allocatedBytes = null;
+    try {
+      allocatedBytes = AllocatedBytes.create(threadBean);
+    } catch (LinkageError e) {
+      // Not a HotSpot based JVM.
+      logger.log(Level.FINE, "com.sun.management.ThreadMXBean not available.", e);
+    }
+    return new ThreadUsage(cpuTimeBean, allocatedBytes);
+  }
+
+  /** Returns the CPU time of the current thread in nanoseconds, or {@link #UNAVAILABLE}. */
+  long getCpuTimeNanos() {
+    return cpuTimeBean == null ? UNAVAILABLE : cpuTimeBean.getCurrentThreadCpuTime();
+  }
+
+  /** Returns the bytes allocated in the heap by the current thread, or {@link #UNAVAILABLE}. */
+  long getAllocatedBytes() {
+    return allocatedBytes == null ? UNAVAILABLE : allocatedBytes.get();
+  }
+
+  // Only loaded if the com.sun.management extension is present.
+  @Immutable
+  static final class AllocatedBytes {
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private AllocatedBytes(com.sun.management.ThreadMXBean threadBean) {
+      this.threadBean = threadBean;
+    }
+
+    @Nullable
+    private static AllocatedBytes create(ThreadMXBean threadBean) {
+      if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+        return null;
+      }
+      com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+      if (!sunThreadBean.isThreadAllocatedMemorySupported()
+          || !sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+        return null;
+      }
+      return new AllocatedBytes(sunThreadBean);
+    }
+
+    private long get() {
+      return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
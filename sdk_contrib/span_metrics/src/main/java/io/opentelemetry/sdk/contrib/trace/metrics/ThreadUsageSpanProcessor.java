@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.Status;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanProcessor} that attributes to every sampled span the CPU time and the heap
+ * allocations of the thread that ran it, then forwards the span to another {@code SpanProcessor},
+ * usually the one that exports it.
+ *
+ * <p>The thread CPU time and allocated bytes are read from the {@code ThreadMXBean} when the span
+ * starts and when it ends. If the span ends on the thread that started it, the differences are
+ * added to its {@code SpanData} as the {@value #CPU_TIME_NANOS} and {@value #ALLOCATED_BYTES}
+ * attributes. They include the work of the child spans run on the same thread, and none of the work
+ * done on other threads. The allocated bytes require the {@code com.sun.management} extension of
+ * the {@code ThreadMXBean}, and are omitted without it.
+ */
+@ThreadSafe
+public final class ThreadUsageSpanProcessor implements SpanProcessor {
+  /** The attribute with the CPU time of the thread during the span, in nanoseconds. */
+  public static final String CPU_TIME_NANOS = "thread.cpu_time_nanos";
+
+  /** The attribute with the bytes allocated in the heap by the thread during the span. */
+  public static final String ALLOCATED_BYTES = "thread.allocated_bytes";
+
+  // Bounds the memory kept for the spans that end on another thread or never end. Only their
+  // SpanContext is kept, so these spans can be garbage collected.
+  private static final int MAX_STARTED_SPANS_PER_THREAD = 64;
+
+  private final SpanProcessor spanProcessor;
+  private final ThreadUsage threadUsage;
+  // Not static, the thread usage at the start of a span is only meaningful for this processor.
+  @SuppressWarnings("ThreadLocalUsage")
+  private final ThreadLocal<StartedSpans> startedSpans =
+      new ThreadLocal<StartedSpans>() {
+        @Override
+        protected StartedSpans initialValue() {
+          return new StartedSpans();
+        }
+      };
+
+  ThreadUsageSpanProcessor(SpanProcessor spanProcessor, ThreadUsage threadUsage) {
+    this.spanProcessor = spanProcessor;
+    this.threadUsage = threadUsage;
+  }
+
+  /**
+   * Returns a new {@code ThreadUsageSpanProcessor} that forwards the spans to the given {@code
+   * SpanProcessor}.
+   *
+   * @param spanProcessor the {@code SpanProcessor} to where the spans are forwarded.
+   * @return a new {@code ThreadUsageSpanProcessor}.
+   * @throws NullPointerException if the {@code spanProcessor} is {@code null}.
+   */
+  public static ThreadUsageSpanProcessor create(SpanProcessor spanProcessor) {
+    return new ThreadUsageSpanProcessor(
+        Utils.checkNotNull(spanProcessor, "spanProcessor"), ThreadUsageHolder.INSTANCE);
+  }
+
+  @Override
+  public void onStart(ReadableSpan span) {
+    if (span.getSpanContext().getTraceFlags().isSampled()) {
+      startedSpans
+          .get()
+          .add(
+              span.getSpanContext(),
+              threadUsage.getCpuTimeNanos(),
+              threadUsage.getAllocatedBytes());
+    }
+    spanProcessor.onStart(span);
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (span.getSpanContext().getTraceFlags().isSampled()) {
+      StartedSpans started = startedSpans.get();
+      int index = started.indexOf(span.getSpanContext());
+      if (index != -1) {
+        long cpuTimeNanos = delta(started.cpuTimeNanos[index], threadUsage.getCpuTimeNanos());
+        long allocatedBytes = delta(started.allocatedBytes[index], threadUsage.getAllocatedBytes());
+        started.remove(index);
+        spanProcessor.onEnd(new ThreadUsageSpan(span, cpuTimeNanos, allocatedBytes));
+        return;
+      }
+    }
+    spanProcessor.onEnd(span);
+  }
+
+  @Override
+  public void shutdown() {
+    spanProcessor.shutdown();
+  }
+
+  private static long delta(long start, long end) {
+    return start == ThreadUsage.UNAVAILABLE || end == ThreadUsage.UNAVAILABLE
+        ? ThreadUsage.UNAVAILABLE
+        : end - start;
+  }
+
+  // Lazily creates the ThreadUsage, only if a ThreadUsageSpanProcessor is created.
+  private static final class ThreadUsageHolder {
+    private static final ThreadUsage INSTANCE = ThreadUsage.create();
+  }
+
+  // The contexts of the sampled spans started on a thread and not ended yet, with the thread usage
+  // at their start.
+  // Spans usually end in the reverse order, they are searched from the last one.
+  @NotThreadSafe
+  private static final class StartedSpans {
+    private final SpanContext[] spanContexts = new SpanContext[MAX_STARTED_SPANS_PER_THREAD];
+    private final long[] cpuTimeNanos = new long[MAX_STARTED_SPANS_PER_THREAD];
+    private final long[] allocatedBytes = new long[MAX_STARTED_SPANS_PER_THREAD];
+    private int size;
+
+    private void add(SpanContext spanContext, long cpuTimeNanos, long allocatedBytes) {
+      if (size == MAX_STARTED_SPANS_PER_THREAD) {
+        // Forgets the oldest span.
+        remove(0);
+      }
+      spanContexts[size] = spanContext;
+      this.cpuTimeNanos[size] = cpuTimeNanos;
+      this.allocatedBytes[size] = allocatedBytes;
+      size++;
+    }
+
+    private int indexOf(SpanContext spanContext) {
+      for (int i = size - 1; i >= 0; i--) {
+        if (spanContexts[i].equals(spanContext)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void remove(int index) {
+      int moved = size - index - 1;
+      System.arraycopy(spanContexts, index + 1, spanContexts, index, moved);
+      System.arraycopy(cpuTimeNanos, index + 1, cpuTimeNanos, index, moved);
+      System.arraycopy(allocatedBytes, index + 1, allocatedBytes, index, moved);
+      size--;
+      spanContexts[size] = null;
+    }
+  }
+
+  // An ended span with the thread usage added to its SpanData.
+  private static final class ThreadUsageSpan implements ReadableSpan {
+    private final ReadableSpan span;
+    private final long cpuTimeNanos;
+    private final long allocatedBytes;
+
+    private ThreadUsageSpan(ReadableSpan span, long cpuTimeNanos, long allocatedBytes) {
+      this.span = span;
+      this.cpuTimeNanos = cpuTimeNanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+      return span.getSpanContext();
+    }
+
+    @Override
+    public String getName() {
+      return span.getName();
+    }
+
+    @Override
+    public Kind getKind() {
+      return span.getKind();
+    }
+
+    @Override
+    public Status getStatus() {
+      return span.getStatus();
+    }
+
+    @Override
+    public long getLatencyNs() {
+      return span.getLatencyNs();
+    }
+
+    @Override
+    public SpanData toSpanData() {
+      SpanData spanData = span.toSpanData();
+      Map<String, AttributeValue> attributes = new HashMap<>(spanData.getAttributes());
+      if (cpuTimeNanos != ThreadUsage.UNAVAILABLE) {
+        attributes.put(CPU_TIME_NANOS, AttributeValue.longAttributeValue(cpuTimeNanos));
+      }
+      if (allocatedBytes != ThreadUsage.UNAVAILABLE) {
+        attributes.put(ALLOCATED_BYTES, AttributeValue.longAttributeValue(allocatedBytes));
+      }
+      return SpanData.newBuilder()
+          .setTraceId(spanData.getTraceId())
+          .setSpanId(spanData.getSpanId())
+          .setTraceFlags(spanData.getTraceFlags())
+          .setTracestate(spanData.getTracestate())
+          .setParentSpanId(spanData.getParentSpanId())
+          .setResource(spanData.getResource())
+          .setName(spanData.getName())
+          .setKind(spanData.getKind())
+          .setStartTimestamp(spanData.getStartTimestamp())
+          .setAttributes(attributes)
+          .setTimedEvents(spanData.getTimedEvents())
+          .setLinks(spanData.getLinks())
+          .setStatus(spanData.getStatus())
+          .setEndTimestamp(spanData.getEndTimestamp())
+          .build();
+    }
+  }
+}
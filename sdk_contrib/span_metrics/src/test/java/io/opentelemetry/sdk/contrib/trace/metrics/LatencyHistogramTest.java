@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link LatencyHistogram}. */
+@RunWith(JUnit4.class)
+public class LatencyHistogramTest {
+  private final LatencyHistogram histogram = new LatencyHistogram(new long[] {10, 20, 30});
+
+  @Test
+  public void emptyHistogram() {
+    assertThat(histogram.getBucketCounts()).containsExactly(0L, 0L, 0L, 0L).inOrder();
+    assertThat(histogram.getSumNanos()).isEqualTo(0);
+  }
+
+  @Test
+  public void record() {
+    histogram.record(0);
+    histogram.record(9);
+    histogram.record(10);
+    histogram.record(25);
+    histogram.record(30);
+    histogram.record(1000);
+    assertThat(histogram.getBucketCounts()).containsExactly(2L, 1L, 1L, 2L).inOrder();
+    assertThat(histogram.getSumNanos()).isEqualTo(1074);
+  }
+
+  @Test
+  public void noBoundaries() {
+    LatencyHistogram singleBucket = new LatencyHistogram(new long[0]);
+    singleBucket.record(5);
+    assertThat(singleBucket.getBucketCounts()).containsExactly(1L);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.metrics.DefaultMeter;
+import io.opentelemetry.sdk.metrics.stats.BucketBoundaries;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.Status.CanonicalCode;
+import io.opentelemetry.trace.util.Samplers;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpanMetricsProcessor}. */
+@RunWith(JUnit4.class)
+public class SpanMetricsProcessorTest {
+  private static final BucketBoundaries BUCKET_BOUNDARIES =
+      BucketBoundaries.create(Arrays.asList(10.0, 100.0));
+
+  private final SpanMetricsProcessor processor =
+      SpanMetricsProcessor.newBuilder().setBucketBoundaries(BUCKET_BOUNDARIES).build();
+
+  @Test
+  public void aggregatesByNameKindAndStatus() {
+    processor.onEnd(span("GET /api", Kind.SERVER, Status.OK, 5));
+    processor.onEnd(span("GET /api", Kind.SERVER, Status.OK, 50));
+    processor.onEnd(span("GET /api", Kind.SERVER, Status.INTERNAL, 500));
+    processor.onEnd(span("GET /api", Kind.CLIENT, Status.OK, 5));
+    processor.onEnd(span("POST /api", Kind.SERVER, Status.OK, 5));
+
+    List<SpanMetrics> metrics = processor.getMetrics();
+    assertThat(metrics).hasSize(4);
+    SpanMetrics ok = find(metrics, "GET /api", Kind.SERVER, CanonicalCode.OK);
+    assertThat(ok.getCount()).isEqualTo(2);
+    assertThat(ok.getLatencySumNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(55));
+    assertThat(ok.getBucketBoundaries()).isEqualTo(BUCKET_BOUNDARIES);
+    assertThat(ok.getBucketCounts()).containsExactly(1L, 1L, 0L).inOrder();
+    SpanMetrics error = find(metrics, "GET /api", Kind.SERVER, CanonicalCode.INTERNAL);
+    assertThat(error.getCount()).isEqualTo(1);
+    assertThat(error.getBucketCounts()).containsExactly(0L, 0L, 1L).inOrder();
+    assertThat(find(metrics, "GET /api", Kind.CLIENT, CanonicalCode.OK).getCount()).isEqualTo(1);
+    assertThat(find(metrics, "POST /api", Kind.SERVER, CanonicalCode.OK).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void maxSpanNames_AggregatesTheOtherNames() {
+    SpanMetricsProcessor limitedProcessor =
+        SpanMetricsProcessor.newBuilder().setMaxSpanNames(1).build();
+    limitedProcessor.onEnd(span("first", Kind.SERVER, Status.OK, 1));
+    limitedProcessor.onEnd(span("second", Kind.SERVER, Status.OK, 1));
+    limitedProcessor.onEnd(span("third", Kind.SERVER, Status.OK, 1));
+    limitedProcessor.onEnd(span("first", Kind.SERVER, Status.OK, 1));
+    List<SpanMetrics> metrics = limitedProcessor.getMetrics();
+    assertThat(metrics).hasSize(2);
+    assertThat(find(metrics, "first", Kind.SERVER, CanonicalCode.OK).getCount()).isEqualTo(2);
+    assertThat(
+            find(metrics, SpanMetricsProcessor.OTHER_SPAN_NAME, Kind.SERVER, CanonicalCode.OK)
+                .getCount())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void aggregatesNotSampledSpans() {
+    TracerSdk tracer = new TracerSdk();
+    tracer.addSpanProcessor(processor);
+    Span span =
+        tracer
+            .spanBuilder("span")
+            .setSpanKind(Kind.CONSUMER)
+            .setSampler(Samplers.neverSample())
+            .setRecordEvents(true)
+            .startSpan();
+    span.setStatus(Status.CANCELLED);
+    span.end();
+    assertThat(
+            find(processor.getMetrics(), "span", Kind.CONSUMER, CanonicalCode.CANCELLED).getCount())
+        .isEqualTo(1);
+    tracer.shutdown();
+  }
+
+  @Test
+  public void setMeter() {
+    SpanMetricsProcessor.newBuilder().setMeter(DefaultMeter.getInstance()).build();
+  }
+
+  @Test
+  public void setMeter_ObserversNotSupported() {
+    SpanMetricsProcessor processor =
+        SpanMetricsProcessor.newBuilder().setMeter(OpenTelemetry.getMeter()).build();
+    processor.onEnd(span("span", Kind.SERVER, Status.OK, 5));
+    assertThat(processor.getMetrics()).hasSize(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setMaxSpanNames_Zero() {
+    SpanMetricsProcessor.newBuilder().setMaxSpanNames(0);
+  }
+
+  private static ReadableSpan span(String name, Kind kind, Status status, long latencyMillis) {
+    ReadableSpan span = mock(ReadableSpan.class);
+    when(span.getName()).thenReturn(name);
+    when(span.getKind()).thenReturn(kind);
+    when(span.getStatus()).thenReturn(status);
+    when(span.getLatencyNs()).thenReturn(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    return span;
+  }
+
+  private static SpanMetrics find(
+      List<SpanMetrics> metrics, String spanName, Kind kind, CanonicalCode canonicalCode) {
+    for (SpanMetrics spanMetrics : metrics) {
+      if (spanMetrics.getSpanName().equals(spanName)
+          && spanMetrics.getKind() == kind
+          && spanMetrics.getCanonicalCode() == canonicalCode) {
+        return spanMetrics;
+      }
+    }
+    throw new AssertionError("No metrics for " + spanName + " " + kind + " " + canonicalCode);
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.util.Samplers;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ThreadUsageSpanProcessor}. */
+@RunWith(JUnit4.class)
+public class ThreadUsageSpanProcessorTest {
+  private final TracerSdk tracer = new TracerSdk();
+  private final RecordingSpanProcessor spanProcessor = new RecordingSpanProcessor();
+  private final FakeThreadUsage threadUsage = new FakeThreadUsage();
+
+  @Before
+  public void setUp() {
+    tracer.addSpanProcessor(new ThreadUsageSpanProcessor(spanProcessor, threadUsage));
+  }
+
+  @After
+  public void tearDown() {
+    tracer.shutdown();
+  }
+
+  @Test
+  public void addsTheThreadUsage() {
+    Span span = startSpan();
+    threadUsage.cpuTimeNanos += 300;
+    threadUsage.allocatedBytes += 4000;
+    span.end();
+
+    SpanData spanData = spanProcessor.ended.get(0);
+    assertThat(spanData.getAttributes())
+        .containsEntry(
+            ThreadUsageSpanProcessor.CPU_TIME_NANOS, AttributeValue.longAttributeValue(300));
+    assertThat(spanData.getAttributes())
+        .containsEntry(
+            ThreadUsageSpanProcessor.ALLOCATED_BYTES, AttributeValue.longAttributeValue(4000));
+    assertThat(spanData.getName()).isEqualTo("span");
+    assertThat(spanProcessor.started).hasSize(1);
+  }
+
+  @Test
+  public void keepsTheSpanAttributes() {
+    Span span = startSpan();
+    span.setAttribute("key", "value");
+    span.end();
+    assertThat(spanProcessor.ended.get(0).getAttributes()).hasSize(3);
+  }
+
+  @Test
+  public void nestedSpans() {
+    Span parent = startSpan();
+    threadUsage.cpuTimeNanos += 10;
+    Span child = startSpan();
+    threadUsage.cpuTimeNanos += 20;
+    child.end();
+    threadUsage.cpuTimeNanos += 40;
+    parent.end();
+
+    assertThat(spanProcessor.ended.get(0).getAttributes())
+        .containsEntry(
+            ThreadUsageSpanProcessor.CPU_TIME_NANOS, AttributeValue.longAttributeValue(20));
+    assertThat(spanProcessor.ended.get(1).getAttributes())
+        .containsEntry(
+            ThreadUsageSpanProcessor.CPU_TIME_NANOS, AttributeValue.longAttributeValue(70));
+  }
+
+  @Test
+  public void unavailable_OmitsTheAttribute() {
+    threadUsage.allocatedBytes = ThreadUsage.UNAVAILABLE;
+    startSpan().end();
+    assertThat(spanProcessor.ended.get(0).getAttributes())
+        .containsKey(ThreadUsageSpanProcessor.CPU_TIME_NANOS);
+    assertThat(spanProcessor.ended.get(0).getAttributes())
+        .doesNotContainKey(ThreadUsageSpanProcessor.ALLOCATED_BYTES);
+  }
+
+  @Test
+  public void notSampledSpan_ForwardedUnchanged() {
+    tracer
+        .spanBuilder("span")
+        .setSampler(Samplers.neverSample())
+        .setRecordEvents(true)
+        .startSpan()
+        .end();
+    assertThat(spanProcessor.ended.get(0).getAttributes()).isEmpty();
+  }
+
+  @Test
+  public void spanEndedOnAnotherThread_ForwardedUnchanged() throws InterruptedException {
+    final Span span = startSpan();
+    Thread thread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                span.end();
+              }
+            });
+    thread.start();
+    thread.join();
+    assertThat(spanProcessor.ended.get(0).getAttributes()).isEmpty();
+  }
+
+  @Test
+  public void startedSpan_NotRetained() throws InterruptedException {
+    TracerSdk tracer = new TracerSdk();
+    tracer.addSpanProcessor(new ThreadUsageSpanProcessor(new NoopSpanProcessor(), threadUsage));
+    WeakReference<Span> span =
+        new WeakReference<>(
+            tracer.spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan());
+    for (int i = 0; i < 100 && span.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(span.get()).isNull();
+    tracer.shutdown();
+  }
+
+  @Test
+  public void shutdown_ShutsDownTheSpanProcessor() {
+    tracer.shutdown();
+    assertThat(spanProcessor.shutdownCount).isEqualTo(1);
+  }
+
+  private Span startSpan() {
+    return tracer.spanBuilder("span").setSampler(Samplers.alwaysSample()).startSpan();
+  }
+
+  private static final class FakeThreadUsage extends ThreadUsage {
+    private long cpuTimeNanos = 1000;
+    private long allocatedBytes = 1000000;
+
+    private FakeThreadUsage() {
+      super(null, null);
+    }
+
+    @Override
+    long getCpuTimeNanos() {
+      return cpuTimeNanos;
+    }
+
+    @Override
+    long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+  }
+
+  private static final class NoopSpanProcessor implements SpanProcessor {
+    @Override
+    public void onStart(ReadableSpan span) {}
+
+    @Override
+    public void onEnd(ReadableSpan span) {}
+
+    @Override
+    public void shutdown() {}
+  }
+
+  private static final class RecordingSpanProcessor implements SpanProcessor {
+    private final List<ReadableSpan> started = new ArrayList<>();
+    private final List<SpanData> ended = new ArrayList<>();
+    private int shutdownCount;
+
+    @Override
+    public synchronized void onStart(ReadableSpan span) {
+      started.add(span);
+    }
+
+    @Override
+    public synchronized void onEnd(ReadableSpan span) {
+      ended.add(span.toSpanData());
+    }
+
+    @Override
+    public synchronized void shutdown() {
+      shutdownCount++;
+    }
+  }
+}
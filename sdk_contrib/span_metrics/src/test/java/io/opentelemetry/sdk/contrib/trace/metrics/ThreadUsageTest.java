@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ThreadUsage}. */
+@RunWith(JUnit4.class)
+public class ThreadUsageTest {
+  @Test
+  public void create_MeasuresTheCurrentThread() {
+    ThreadUsage threadUsage = ThreadUsage.create();
+    long allocatedBytes = threadUsage.getAllocatedBytes();
+    byte[] allocation = new byte[1024 * 1024];
+    // Available on the HotSpot JVMs running the tests.
+    assertThat(threadUsage.getCpuTimeNanos()).isAtLeast(0L);
+    assertThat(threadUsage.getAllocatedBytes() - allocatedBytes)
+        .isAtLeast((long) allocation.length);
+  }
+
+  @Test
+  public void unavailable() {
+    ThreadUsage threadUsage = new ThreadUsage(null, null);
+    assertThat(threadUsage.getCpuTimeNanos()).isEqualTo(ThreadUsage.UNAVAILABLE);
+    assertThat(threadUsage.getAllocatedBytes()).isEqualTo(ThreadUsage.UNAVAILABLE);
+  }
+}
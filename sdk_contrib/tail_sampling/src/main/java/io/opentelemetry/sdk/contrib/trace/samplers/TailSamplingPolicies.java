@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.Immutable;
+
+/** Static factory methods for the {@link TailSamplingPolicy}s. */
+public final class TailSamplingPolicies {
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private TailSamplingPolicies() {}
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that keeps the traces with a span that lasted at least the
+   * given latency.
+   *
+   * @param latency the minimum latency.
+   * @param unit the unit of {@code latency}.
+   * @return a {@code TailSamplingPolicy} that keeps the traces with a slow span.
+   * @throws IllegalArgumentException if {@code latency} is negative.
+   */
+  public static TailSamplingPolicy minLatency(long latency, TimeUnit unit) {
+    Utils.checkArgument(latency >= 0, "latency must be non-negative.");
+    return new MinLatencyPolicy(Utils.checkNotNull(unit, "unit").toNanos(latency));
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that keeps the traces with a span whose {@code Status} is
+   * not OK.
+   *
+   * @return a {@code TailSamplingPolicy} that keeps the traces with an error.
+   */
+  public static TailSamplingPolicy errorStatus() {
+    return ErrorStatusPolicy.INSTANCE;
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that keeps the traces with a span that has the given
+   * attribute.
+   *
+   * @param key the key of the attribute.
+   * @param value the value of the attribute.
+   * @return a {@code TailSamplingPolicy} that keeps the traces with the given attribute.
+   */
+  public static TailSamplingPolicy attributeEquals(String key, AttributeValue value) {
+    return new AttributeEqualsPolicy(
+        Utils.checkNotNull(key, "key"), Utils.checkNotNull(value, "value"));
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that keeps a fraction of the traces, chosen by trace id as
+   * in the {@code ProbabilitySampler}. Usually the last policy, as a fallback for the traces not
+   * kept by the other policies.
+   *
+   * @param probability the probability to keep a trace, between {@code 0} and {@code 1}.
+   * @return a {@code TailSamplingPolicy} that keeps a fraction of the traces.
+   * @throws IllegalArgumentException if {@code probability} is out of range.
+   */
+  public static TailSamplingPolicy probability(double probability) {
+    Utils.checkArgument(
+        probability >= 0.0 && probability <= 1.0, "probability must be in range [0.0, 1.0]");
+    long idUpperBound;
+    // Special case the limits, to avoid any possible issues with lack of precision across
+    // double/long boundaries. For probability == 0.0, we use Long.MIN_VALUE as this guarantees
+    // that we will never keep a trace, even in the case where the id == Long.MIN_VALUE, since
+    // Math.Abs(Long.MIN_VALUE) == Long.MIN_VALUE.
+    if (probability == 0.0) {
+      idUpperBound = Long.MIN_VALUE;
+    } else if (probability == 1.0) {
+      idUpperBound = Long.MAX_VALUE;
+    } else {
+      idUpperBound = (long) (probability * Long.MAX_VALUE);
+    }
+    return new ProbabilityPolicy(idUpperBound);
+  }
+
+  @Immutable
+  private static final class MinLatencyPolicy implements TailSamplingPolicy {
+    private final long minLatencyNanos;
+
+    private MinLatencyPolicy(long minLatencyNanos) {
+      this.minLatencyNanos = minLatencyNanos;
+    }
+
+    @Override
+    public boolean shouldKeep(List<SpanData> spans) {
+      for (int i = 0; i < spans.size(); i++) {
+        SpanData span = spans.get(i);
+        if (nanosBetween(span.getStartTimestamp(), span.getEndTimestamp()) >= minLatencyNanos) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static long nanosBetween(Timestamp start, Timestamp end) {
+      return (end.getSeconds() - start.getSeconds()) * NANOS_PER_SECOND
+          + (end.getNanos() - start.getNanos());
+    }
+  }
+
+  @Immutable
+  private static final class ErrorStatusPolicy implements TailSamplingPolicy {
+    private static final ErrorStatusPolicy INSTANCE = new ErrorStatusPolicy();
+
+    @Override
+    public boolean shouldKeep(List<SpanData> spans) {
+      for (int i = 0; i < spans.size(); i++) {
+        if (!spans.get(i).getStatus().isOk()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  @Immutable
+  private static final class AttributeEqualsPolicy implements TailSamplingPolicy {
+    private final String key;
+    private final AttributeValue value;
+
+    private AttributeEqualsPolicy(String key, AttributeValue value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public boolean shouldKeep(List<SpanData> spans) {
+      for (int i = 0; i < spans.size(); i++) {
+        if (value.equals(spans.get(i).getAttributes().get(key))) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  @Immutable
+  private static final class ProbabilityPolicy implements TailSamplingPolicy {
+    private final long idUpperBound;
+
+    private ProbabilityPolicy(long idUpperBound) {
+      this.idUpperBound = idUpperBound;
+    }
+
+    @Override
+    public boolean shouldKeep(List<SpanData> spans) {
+      // All the spans have the same trace id.
+      return !spans.isEmpty() && Math.abs(spans.get(0).getTraceId().getLowerLong()) < idUpperBound;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import java.util.List;
+
+/**
+ * A policy that decides whether a complete trace is exported by the {@link
+ * TailSamplingSpanProcessor}. See {@link TailSamplingPolicies} for the available policies.
+ *
+ * <p>Implementations must be thread-safe.
+ */
+public interface TailSamplingPolicy {
+
+  /**
+   * Returns {@code true} if the trace must be exported.
+   *
+   * @param spans the ended spans of the trace, in the order they ended.
+   * @return {@code true} if the trace must be exported.
+   */
+  boolean shouldKeep(List<SpanData> spans);
+}
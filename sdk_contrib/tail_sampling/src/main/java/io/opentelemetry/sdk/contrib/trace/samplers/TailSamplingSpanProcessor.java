@@ -0,0 +1,437 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.contrib.trace.samplers.TraceBuffer.BufferedTrace;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.TraceId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link SpanProcessor} that decides which traces to export once they are complete.
+ *
+ * <p>The ended spans are buffered by trace id until no span of their trace ended for the decision
+ * window. The trace is then exported to the {@link SpanExporter} if any of the {@link
+ * TailSamplingPolicy}s keeps it, and dropped otherwise. The spans of a trace that end after its
+ * decision follow the same decision.
+ *
+ * <p>The memory is bounded by a budget of estimated bytes: when it is exceeded the least recently
+ * updated traces are dropped before any decision, see {@link #getEvictedTraceCount()}.
+ *
+ * <p>The head sampling should keep all the traces that the policies may keep, usually with {@code
+ * Samplers.alwaysSample()}.
+ */
+@ThreadSafe
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+  private static final Logger logger = Logger.getLogger(TailSamplingSpanProcessor.class.getName());
+  private static final String WORKER_THREAD_NAME =
+      TailSamplingSpanProcessor.class.getSimpleName() + "_WorkerThread";
+  private static final long MAX_TICK_MILLIS = 1000;
+
+  private final SpanExporter spanExporter;
+  private final List<TailSamplingPolicy> policies;
+  private final boolean sampled;
+  private final long decisionWaitNanos;
+  private final int maxExportBatchSize;
+  private final TraceBuffer traceBuffer;
+  private final DecisionCache decisions;
+  private final AtomicLong keptTraces = new AtomicLong();
+  private final AtomicLong droppedTraces = new AtomicLong();
+  private final Object exportLock = new Object();
+  private final Thread workerThread;
+
+  private TailSamplingSpanProcessor(
+      SpanExporter spanExporter,
+      List<TailSamplingPolicy> policies,
+      boolean sampled,
+      long decisionWaitMillis,
+      long maxBufferedBytes,
+      int maxExportBatchSize,
+      int maxDecisions) {
+    this.spanExporter = spanExporter;
+    this.policies = policies;
+    this.sampled = sampled;
+    this.decisionWaitNanos = TimeUnit.MILLISECONDS.toNanos(decisionWaitMillis);
+    this.maxExportBatchSize = maxExportBatchSize;
+    int segmentCount = Runtime.getRuntime().availableProcessors() * 2;
+    this.traceBuffer = new TraceBuffer(segmentCount, maxBufferedBytes);
+    this.decisions = new DecisionCache(segmentCount, maxDecisions);
+    this.workerThread =
+        newThread(new Worker(Math.max(1, Math.min(decisionWaitMillis / 4, MAX_TICK_MILLIS))));
+    this.workerThread.start();
+  }
+
+  @Override
+  public void onStart(ReadableSpan span) {}
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (sampled && !span.getSpanContext().getTraceFlags().isSampled()) {
+      return;
+    }
+    Boolean kept = decisions.get(span.getSpanContext().getTraceId());
+    if (kept == null) {
+      traceBuffer.add(span.toSpanData(), /* kept= */ false, System.nanoTime());
+    } else if (kept) {
+      // Late span of a kept trace, exported after the decision window without a new decision.
+      traceBuffer.add(span.toSpanData(), /* kept= */ true, System.nanoTime());
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    workerThread.interrupt();
+    try {
+      workerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    decide(traceBuffer.removeAll());
+    spanExporter.shutdown();
+  }
+
+  /**
+   * Returns the number of traces exported since the creation of this processor.
+   *
+   * @return the number of traces exported.
+   */
+  public long getKeptTraceCount() {
+    return keptTraces.get();
+  }
+
+  /**
+   * Returns the number of traces dropped by the policies since the creation of this processor.
+   *
+   * @return the number of traces dropped by the policies.
+   */
+  public long getDroppedTraceCount() {
+    return droppedTraces.get();
+  }
+
+  /**
+   * Returns the number of traces evicted before their decision to stay within the byte budget.
+   *
+   * @return the number of traces evicted.
+   */
+  public long getEvictedTraceCount() {
+    return traceBuffer.getEvictedTraceCount();
+  }
+
+  // Decides and exports the traces not updated for the decision window.
+  void decideIdleTraces(long nowNanos) {
+    decide(traceBuffer.removeIdle(nowNanos, decisionWaitNanos));
+  }
+
+  long getBufferedBytes() {
+    return traceBuffer.getBufferedBytes();
+  }
+
+  private void decide(List<BufferedTrace> traces) {
+    if (traces.isEmpty()) {
+      return;
+    }
+    // Exports one batch at a time, the SpanExporter does not need to be thread-safe.
+    synchronized (exportLock) {
+      List<SpanData> batch = new ArrayList<>(Math.min(maxExportBatchSize, traces.size()));
+      for (BufferedTrace trace : traces) {
+        List<SpanData> spans = trace.getSpans();
+        TraceId traceId = spans.get(0).getTraceId();
+        // A span that ended while its trace was being decided, after onEnd found no decision, is
+        // buffered again as a new trace: it follows the decision instead of being decided alone.
+        Boolean decided = decisions.get(traceId);
+        boolean keep;
+        if (decided != null) {
+          keep = decided;
+        } else {
+          keep = trace.isKept() || shouldKeep(spans);
+          decisions.put(traceId, keep);
+          if (keep) {
+            keptTraces.incrementAndGet();
+          } else {
+            droppedTraces.incrementAndGet();
+          }
+        }
+        if (!keep) {
+          continue;
+        }
+        for (int i = 0; i < spans.size(); i++) {
+          batch.add(spans.get(i));
+          if (batch.size() == maxExportBatchSize) {
+            export(batch);
+            batch.clear();
+          }
+        }
+      }
+      if (!batch.isEmpty()) {
+        export(batch);
+      }
+    }
+  }
+
+  private boolean shouldKeep(List<SpanData> spans) {
+    for (int i = 0; i < policies.size(); i++) {
+      try {
+        if (policies.get(i).shouldKeep(spans)) {
+          return true;
+        }
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Exception thrown by a TailSamplingPolicy.", e);
+      }
+    }
+    return false;
+  }
+
+  @GuardedBy("exportLock")
+  private void export(List<SpanData> batch) {
+    try {
+      spanExporter.export(Collections.unmodifiableList(new ArrayList<>(batch)));
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Exception thrown by the export.", e);
+    }
+  }
+
+  /**
+   * Returns a new Builder for {@link TailSamplingSpanProcessor}.
+   *
+   * @param spanExporter the {@code SpanExporter} to where the kept traces are pushed.
+   * @return a new {@link Builder}.
+   * @throws NullPointerException if the {@code spanExporter} is {@code null}.
+   */
+  public static Builder newBuilder(SpanExporter spanExporter) {
+    return new Builder(spanExporter);
+  }
+
+  /** Builder class for {@link TailSamplingSpanProcessor}. */
+  public static final class Builder {
+    private static final long DECISION_WAIT_MILLIS = 10000;
+    private static final long MAX_BUFFERED_BYTES = 64 * 1024 * 1024;
+    private static final int MAX_EXPORT_BATCH_SIZE = 512;
+    private static final int MAX_DECISIONS = 16384;
+    private final SpanExporter spanExporter;
+    private final List<TailSamplingPolicy> policies = new ArrayList<>();
+    private boolean sampled = true;
+    private long decisionWaitMillis = DECISION_WAIT_MILLIS;
+    private long maxBufferedBytes = MAX_BUFFERED_BYTES;
+    private int maxExportBatchSize = MAX_EXPORT_BATCH_SIZE;
+    private int maxDecisions = MAX_DECISIONS;
+
+    private Builder(SpanExporter spanExporter) {
+      this.spanExporter = Utils.checkNotNull(spanExporter, "spanExporter");
+    }
+
+    /**
+     * Adds a policy. A trace is exported if any of the policies keeps it.
+     *
+     * @param policy the policy.
+     * @return this.
+     */
+    public Builder addPolicy(TailSamplingPolicy policy) {
+      policies.add(Utils.checkNotNull(policy, "policy"));
+      return this;
+    }
+
+    /**
+     * Set whether only sampled spans should be buffered.
+     *
+     * @param sampled buffer only sampled spans.
+     * @return this.
+     */
+    public Builder reportOnlySampled(boolean sampled) {
+      this.sampled = sampled;
+      return this;
+    }
+
+    /**
+     * Sets the time without any span ended in a trace after which the trace is decided.
+     *
+     * <p>Default value is {@code 10000}ms.
+     *
+     * @param decisionWaitMillis the decision window.
+     * @return this.
+     */
+    public Builder setDecisionWaitMillis(long decisionWaitMillis) {
+      Utils.checkArgument(decisionWaitMillis >= 0, "decisionWaitMillis must be non-negative.");
+      this.decisionWaitMillis = decisionWaitMillis;
+      return this;
+    }
+
+    /**
+     * Sets the budget of estimated bytes of the buffered spans, beyond which the least recently
+     * updated traces are dropped.
+     *
+     * <p>Default value is {@code 64}MiB.
+     *
+     * @param maxBufferedBytes the budget of the buffered spans.
+     * @return this.
+     */
+    public Builder setMaxBufferedBytes(long maxBufferedBytes) {
+      Utils.checkArgument(maxBufferedBytes > 0, "maxBufferedBytes must be positive.");
+      this.maxBufferedBytes = maxBufferedBytes;
+      return this;
+    }
+
+    /**
+     * Sets the maximum batch size for every export.
+     *
+     * <p>Default value is {@code 512}.
+     *
+     * @param maxExportBatchSize the maximum batch size for every export.
+     * @return this.
+     */
+    public Builder setMaxExportBatchSize(int maxExportBatchSize) {
+      Utils.checkArgument(maxExportBatchSize > 0, "maxExportBatchSize must be positive.");
+      this.maxExportBatchSize = maxExportBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of recent decisions remembered for the spans that end after the decision of
+     * their trace. The decisions are spread by trace id over segments, each remembering an equal
+     * share of them.
+     *
+     * <p>Default value is {@code 16384}.
+     *
+     * @param maxDecisions the number of decisions remembered.
+     * @return this.
+     */
+    public Builder setMaxDecisions(int maxDecisions) {
+      Utils.checkArgument(maxDecisions >= 0, "maxDecisions must be non-negative.");
+      this.maxDecisions = maxDecisions;
+      return this;
+    }
+
+    /**
+     * Returns a new {@link TailSamplingSpanProcessor} with the policies added to this builder.
+     *
+     * @return a new {@link TailSamplingSpanProcessor}.
+     */
+    public TailSamplingSpanProcessor build() {
+      return new TailSamplingSpanProcessor(
+          spanExporter,
+          Collections.unmodifiableList(new ArrayList<>(policies)),
+          sampled,
+          decisionWaitMillis,
+          maxBufferedBytes,
+          maxExportBatchSize,
+          maxDecisions);
+    }
+  }
+
+  private static Thread newThread(Runnable runnable) {
+    Thread thread = MoreExecutors.platformThreadFactory().newThread(runnable);
+    try {
+      thread.setName(WORKER_THREAD_NAME);
+    } catch (SecurityException e) {
+      // OK if we can't set the name in this environment.
+    }
+    return thread;
+  }
+
+  // Worker is a thread that periodically decides and exports the idle traces.
+  private final class Worker implements Runnable {
+    private final long tickMillis;
+
+    private Worker(long tickMillis) {
+      this.tickMillis = tickMillis;
+    }
+
+    @Override
+    public void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+        try {
+          Thread.sleep(tickMillis);
+        } catch (InterruptedException e) {
+          // Preserve the interruption status as per guidance and stop doing any work.
+          Thread.currentThread().interrupt();
+          return;
+        }
+        decideIdleTraces(System.nanoTime());
+      }
+    }
+  }
+
+  // Bounded map of the most recent decisions, by trace id. As in the TraceBuffer the decisions are
+  // spread over segments by trace id, every segment has its own lock and an equal share of the
+  // maximum number of decisions.
+  @ThreadSafe
+  private static final class DecisionCache {
+    private final Segment[] segments;
+
+    private DecisionCache(int segmentCount, int maxDecisions) {
+      segments = new Segment[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        segments[i] = new Segment((maxDecisions + segmentCount - 1) / segmentCount);
+      }
+    }
+
+    @Nullable
+    private Boolean get(TraceId traceId) {
+      return segmentFor(traceId).get(traceId);
+    }
+
+    private void put(TraceId traceId, boolean kept) {
+      segmentFor(traceId).put(traceId, kept);
+    }
+
+    private Segment segmentFor(TraceId traceId) {
+      return segments[(traceId.hashCode() & Integer.MAX_VALUE) % segments.length];
+    }
+
+    @ThreadSafe
+    private static final class Segment {
+      @GuardedBy("this")
+      private final Map<TraceId, Boolean> decisions;
+
+      private Segment(final int maxDecisions) {
+        this.decisions =
+            new LinkedHashMap<TraceId, Boolean>() {
+              private static final long serialVersionUID = 0L;
+
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<TraceId, Boolean> eldest) {
+                return size() > maxDecisions;
+              }
+            };
+      }
+
+      @Nullable
+      private synchronized Boolean get(TraceId traceId) {
+        return decisions.get(traceId);
+      }
+
+      private synchronized void put(TraceId traceId, boolean kept) {
+        decisions.put(traceId, kept);
+      }
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.TraceId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Buffers the ended spans by trace id, within a fixed budget of estimated bytes.
+ *
+ * <p>The traces are spread over segments by trace id, every segment has its own lock and an equal
+ * share of the budget. Within a segment the traces are ordered by last update, when the budget is
+ * exceeded the least recently updated traces are evicted, and the traces whose last update is older
+ * than the decision window are the first ones.
+ */
+@ThreadSafe
+final class TraceBuffer {
+  // Rough estimates of the retained sizes, only the relative sizes matter.
+  private static final int SPAN_BYTES = 256;
+  private static final int TRACE_BYTES = 128;
+  private static final int ENTRY_BYTES = 64;
+
+  private final Segment[] segments;
+  private final AtomicLong evictedTraces = new AtomicLong();
+  private final AtomicLong evictedSpans = new AtomicLong();
+
+  TraceBuffer(int segmentCount, long maxBytes) {
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(Math.max(1, maxBytes / segmentCount));
+    }
+  }
+
+  /**
+   * Adds the span to the buffered trace, evicting the least recently updated traces of its segment
+   * if the budget is exceeded.
+   *
+   * @param span the ended span.
+   * @param kept whether the trace is already known to be kept.
+   * @param nowNanos the current {@code System.nanoTime()}.
+   */
+  void add(SpanData span, boolean kept, long nowNanos) {
+    segmentFor(span.getTraceId()).add(span, kept, nowNanos);
+  }
+
+  /**
+   * Removes and returns the traces not updated for at least {@code idleNanos}.
+   *
+   * @param nowNanos the current {@code System.nanoTime()}.
+   * @param idleNanos the decision window.
+   * @return the removed traces.
+   */
+  List<BufferedTrace> removeIdle(long nowNanos, long idleNanos) {
+    List<BufferedTrace> idle = new ArrayList<>();
+    for (Segment segment : segments) {
+      segment.removeIdle(nowNanos, idleNanos, idle);
+    }
+    return idle;
+  }
+
+  /** Removes and returns all the buffered traces. */
+  List<BufferedTrace> removeAll() {
+    List<BufferedTrace> all = new ArrayList<>();
+    for (Segment segment : segments) {
+      segment.removeAll(all);
+    }
+    return all;
+  }
+
+  /** Returns the estimated size of the buffered spans. */
+  long getBufferedBytes() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      bytes += segment.getBytes();
+    }
+    return bytes;
+  }
+
+  /** Returns the number of traces evicted to stay within the budget. */
+  long getEvictedTraceCount() {
+    return evictedTraces.get();
+  }
+
+  /** Returns the number of spans of the traces evicted to stay within the budget. */
+  long getEvictedSpanCount() {
+    return evictedSpans.get();
+  }
+
+  private Segment segmentFor(TraceId traceId) {
+    return segments[(traceId.hashCode() & Integer.MAX_VALUE) % segments.length];
+  }
+
+  static long estimateSize(SpanData span) {
+    long bytes = SPAN_BYTES + 2L * span.getName().length();
+    bytes += estimateSize(span.getAttributes());
+    for (SpanData.TimedEvent event : span.getTimedEvents()) {
+      bytes += ENTRY_BYTES + 2L * event.getName().length() + estimateSize(event.getAttributes());
+    }
+    bytes += (long) ENTRY_BYTES * span.getLinks().size();
+    return bytes;
+  }
+
+  private static long estimateSize(Map<String, AttributeValue> attributes) {
+    long bytes = 0;
+    for (Map.Entry<String, AttributeValue> attribute : attributes.entrySet()) {
+      bytes += ENTRY_BYTES + 2L * attribute.getKey().length();
+      if (attribute.getValue().getType() == AttributeValue.Type.STRING) {
+        bytes += 2L * attribute.getValue().getStringValue().length();
+      }
+    }
+    return bytes;
+  }
+
+  /** The ended spans of a trace, with the state needed to decide when and whether to export it. */
+  static final class BufferedTrace {
+    private final List<SpanData> spans = new ArrayList<>();
+    private long bytes = TRACE_BYTES;
+    private long lastUpdateNanos;
+    private boolean kept;
+
+    List<SpanData> getSpans() {
+      return Collections.unmodifiableList(spans);
+    }
+
+    boolean isKept() {
+      return kept;
+    }
+  }
+
+  private final class Segment {
+    private final long maxBytes;
+
+    // Access order, the eldest trace is the least recently updated one.
+    @GuardedBy("this")
+    private final LinkedHashMap<TraceId, BufferedTrace> traces =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    @GuardedBy("this")
+    private long bytes;
+
+    private Segment(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    private synchronized void add(SpanData span, boolean kept, long nowNanos) {
+      BufferedTrace trace = traces.get(span.getTraceId());
+      if (trace == null) {
+        trace = new BufferedTrace();
+        traces.put(span.getTraceId(), trace);
+        bytes += trace.bytes;
+      }
+      long spanBytes = estimateSize(span);
+      trace.spans.add(span);
+      trace.bytes += spanBytes;
+      trace.lastUpdateNanos = nowNanos;
+      trace.kept |= kept;
+      bytes += spanBytes;
+      Iterator<BufferedTrace> eldest = traces.values().iterator();
+      while (bytes > maxBytes && eldest.hasNext()) {
+        BufferedTrace evicted = eldest.next();
+        eldest.remove();
+        bytes -= evicted.bytes;
+        evictedTraces.incrementAndGet();
+        evictedSpans.addAndGet(evicted.spans.size());
+      }
+    }
+
+    private synchronized void removeIdle(
+        long nowNanos, long idleNanos, List<BufferedTrace> removed) {
+      Iterator<BufferedTrace> eldest = traces.values().iterator();
+      while (eldest.hasNext()) {
+        BufferedTrace trace = eldest.next();
+        if (nowNanos - trace.lastUpdateNanos < idleNanos) {
+          // The next traces were updated later.
+          break;
+        }
+        eldest.remove();
+        bytes -= trace.bytes;
+        removed.add(trace);
+      }
+    }
+
+    private synchronized void removeAll(List<BufferedTrace> removed) {
+      removed.addAll(traces.values());
+      traces.clear();
+      bytes = 0;
+    }
+
+    private synchronized long getBytes() {
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opentelemetry.common.Timestamp;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link TailSamplingPolicies}. */
+@RunWith(JUnit4.class)
+public class TailSamplingPoliciesTest {
+  private static final TraceId TRACE_ID = new TraceId(1, 2);
+
+  static SpanData.Builder spanBuilder(TraceId traceId) {
+    return SpanData.newBuilder()
+        .setTraceId(traceId)
+        .setSpanId(new SpanId(3))
+        .setName("GET /api")
+        .setKind(Kind.SERVER)
+        .setStartTimestamp(Timestamp.create(100, 900000000))
+        .setEndTimestamp(Timestamp.create(101, 100000000))
+        .setStatus(Status.OK);
+  }
+
+  @Test
+  public void minLatency() {
+    SpanData fast = spanBuilder(TRACE_ID).build();
+    SpanData slow = spanBuilder(TRACE_ID).setEndTimestamp(Timestamp.create(101, 500000000)).build();
+    TailSamplingPolicy policy = TailSamplingPolicies.minLatency(600, TimeUnit.MILLISECONDS);
+    assertThat(policy.shouldKeep(Collections.singletonList(fast))).isFalse();
+    assertThat(policy.shouldKeep(Arrays.asList(fast, slow))).isTrue();
+    // Latency of the fast span is exactly 200ms.
+    assertThat(
+            TailSamplingPolicies.minLatency(200, TimeUnit.MILLISECONDS)
+                .shouldKeep(Collections.singletonList(fast)))
+        .isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void minLatency_Negative() {
+    TailSamplingPolicies.minLatency(-1, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void errorStatus() {
+    SpanData ok = spanBuilder(TRACE_ID).build();
+    SpanData error = spanBuilder(TRACE_ID).setStatus(Status.INTERNAL).build();
+    TailSamplingPolicy policy = TailSamplingPolicies.errorStatus();
+    assertThat(policy.shouldKeep(Collections.singletonList(ok))).isFalse();
+    assertThat(policy.shouldKeep(Arrays.asList(ok, error))).isTrue();
+  }
+
+  @Test
+  public void attributeEquals() {
+    SpanData span =
+        spanBuilder(TRACE_ID)
+            .setAttributes(
+                Collections.singletonMap("http.status", AttributeValue.longAttributeValue(500)))
+            .build();
+    assertThat(
+            TailSamplingPolicies.attributeEquals(
+                    "http.status", AttributeValue.longAttributeValue(500))
+                .shouldKeep(Collections.singletonList(span)))
+        .isTrue();
+    assertThat(
+            TailSamplingPolicies.attributeEquals(
+                    "http.status", AttributeValue.longAttributeValue(200))
+                .shouldKeep(Collections.singletonList(span)))
+        .isFalse();
+    assertThat(
+            TailSamplingPolicies.attributeEquals(
+                    "http.method", AttributeValue.longAttributeValue(500))
+                .shouldKeep(Collections.singletonList(span)))
+        .isFalse();
+  }
+
+  @Test
+  public void probability() {
+    SpanData low = spanBuilder(new TraceId(1000, 0)).build();
+    SpanData high = spanBuilder(new TraceId(Long.MAX_VALUE - 1000, 0)).build();
+    TailSamplingPolicy policy = TailSamplingPolicies.probability(0.5);
+    assertThat(policy.shouldKeep(Collections.singletonList(low))).isTrue();
+    assertThat(policy.shouldKeep(Collections.singletonList(high))).isFalse();
+    assertThat(TailSamplingPolicies.probability(1.0).shouldKeep(Collections.singletonList(high)))
+        .isTrue();
+    assertThat(TailSamplingPolicies.probability(0.0).shouldKeep(Collections.singletonList(low)))
+        .isFalse();
+    assertThat(TailSamplingPolicies.probability(1.0).shouldKeep(Collections.<SpanData>emptyList()))
+        .isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void probability_OutOfRange() {
+    TailSamplingPolicies.probability(1.5);
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.TracerSdk;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.util.Samplers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/** Unit tests for {@link TailSamplingSpanProcessor}. */
+@RunWith(JUnit4.class)
+public class TailSamplingSpanProcessorTest {
+  private static final long LONG_WAIT_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final TracerSdk tracer = new TracerSdk();
+  private final RecordingSpanExporter spanExporter = new RecordingSpanExporter();
+
+  @After
+  public void tearDown() {
+    tracer.shutdown();
+  }
+
+  @Test
+  public void exportsOnlyTheKeptTraces() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicies.errorStatus()).setMaxExportBatchSize(2).build();
+    tracer.addSpanProcessor(processor);
+    Span errorRoot = startSpan(null);
+    Span errorChild = startSpan(errorRoot);
+    errorChild.setStatus(Status.INTERNAL);
+    errorChild.end();
+    Span okRoot = startSpan(null);
+    startSpan(okRoot).end();
+    okRoot.end();
+    errorRoot.end();
+
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(2);
+    for (SpanData span : spanExporter.spans) {
+      assertThat(span.getTraceId()).isEqualTo(errorRoot.getContext().getTraceId());
+    }
+    assertThat(processor.getKeptTraceCount()).isEqualTo(1);
+    assertThat(processor.getDroppedTraceCount()).isEqualTo(1);
+    assertThat(processor.getBufferedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void waitsForTheDecisionWindow() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicies.probability(1.0)).build();
+    tracer.addSpanProcessor(processor);
+    startSpan(null).end();
+    processor.decideIdleTraces(System.nanoTime());
+    assertThat(spanExporter.spans).isEmpty();
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(1);
+  }
+
+  @Test
+  public void lateSpans_FollowTheDecision() {
+    TailSamplingSpanProcessor processor = newProcessor(TailSamplingPolicies.errorStatus()).build();
+    tracer.addSpanProcessor(processor);
+    Span keptRoot = startSpan(null);
+    Span keptChild = startSpan(keptRoot);
+    keptChild.setStatus(Status.INTERNAL);
+    keptChild.end();
+    Span droppedRoot = startSpan(null);
+    startSpan(droppedRoot).end();
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(1);
+
+    keptRoot.end();
+    droppedRoot.end();
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(2);
+    assertThat(spanExporter.spans.get(1).getSpanId()).isEqualTo(keptRoot.getContext().getSpanId());
+    // The late spans do not count as new traces.
+    assertThat(processor.getKeptTraceCount()).isEqualTo(1);
+    assertThat(processor.getDroppedTraceCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void lateSpans_ManyTraces_FollowTheirDecision() {
+    TailSamplingSpanProcessor processor = newProcessor(TailSamplingPolicies.errorStatus()).build();
+    tracer.addSpanProcessor(processor);
+    List<Span> roots = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Span root = startSpan(null);
+      Span child = startSpan(root);
+      if (i % 2 == 0) {
+        child.setStatus(Status.INTERNAL);
+      }
+      child.end();
+      roots.add(root);
+    }
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(50);
+
+    for (Span root : roots) {
+      root.end();
+    }
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(100);
+    assertThat(processor.getKeptTraceCount()).isEqualTo(50);
+    assertThat(processor.getDroppedTraceCount()).isEqualTo(50);
+  }
+
+  @Test
+  public void spanEndingWhileItsTraceIsDecided_FollowsTheDecision() throws Exception {
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+                new TailSamplingPolicy() {
+                  @Override
+                  public boolean shouldKeep(List<SpanData> spans) {
+                    for (SpanData span : spans) {
+                      if (span.getName().equals("kept")) {
+                        return true;
+                      }
+                    }
+                    return false;
+                  }
+                })
+            .build();
+    Span root = tracer.spanBuilder("kept").setSampler(Samplers.alwaysSample()).startSpan();
+    final ReadableSpan child = (ReadableSpan) startSpan(root);
+    root.end();
+    ((Span) child).end();
+    processor.onEnd((ReadableSpan) root);
+
+    // onEnd finds no decision for the child, then its trace is decided before it is buffered.
+    final CountDownLatch lookedUp = new CountDownLatch(1);
+    final CountDownLatch decided = new CountDownLatch(1);
+    ReadableSpan racingChild = mock(ReadableSpan.class);
+    when(racingChild.getSpanContext()).thenReturn(child.getSpanContext());
+    when(racingChild.toSpanData())
+        .thenAnswer(
+            new Answer<SpanData>() {
+              @Override
+              public SpanData answer(InvocationOnMock invocation) throws InterruptedException {
+                lookedUp.countDown();
+                decided.await();
+                return child.toSpanData();
+              }
+            });
+    Thread ending = new Thread(new OnEnd(processor, racingChild));
+    ending.start();
+    lookedUp.await();
+    decideIdleTraces(processor);
+    decided.countDown();
+    ending.join();
+    assertThat(spanExporter.spans).hasSize(1);
+
+    // Buffered as a new trace without the root, still kept.
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).hasSize(2);
+    assertThat(spanExporter.spans.get(1).getSpanId()).isEqualTo(child.getSpanContext().getSpanId());
+    assertThat(processor.getKeptTraceCount()).isEqualTo(1);
+    assertThat(processor.getDroppedTraceCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void evictsTracesOverTheBudget() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicies.probability(1.0)).setMaxBufferedBytes(1).build();
+    tracer.addSpanProcessor(processor);
+    startSpan(null).end();
+    assertThat(processor.getEvictedTraceCount()).isEqualTo(1);
+    assertThat(processor.getBufferedBytes()).isEqualTo(0);
+    decideIdleTraces(processor);
+    assertThat(spanExporter.spans).isEmpty();
+  }
+
+  @Test
+  public void ignoresNotSampledSpans() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicies.probability(1.0)).build();
+    tracer.addSpanProcessor(processor);
+    tracer
+        .spanBuilder("span")
+        .setSampler(Samplers.neverSample())
+        .setRecordEvents(true)
+        .startSpan()
+        .end();
+    assertThat(processor.getBufferedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void shutdown_FlushesAndShutsDownTheExporter() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicies.probability(1.0)).build();
+    tracer.addSpanProcessor(processor);
+    startSpan(null).end();
+    tracer.shutdown();
+    assertThat(spanExporter.spans).hasSize(1);
+    assertThat(spanExporter.shutdownCount).isEqualTo(1);
+  }
+
+  @Test
+  public void worker_DecidesAfterTheWindow() throws InterruptedException {
+    TailSamplingSpanProcessor processor =
+        TailSamplingSpanProcessor.newBuilder(spanExporter)
+            .addPolicy(TailSamplingPolicies.probability(1.0))
+            .setDecisionWaitMillis(10)
+            .build();
+    tracer.addSpanProcessor(processor);
+    startSpan(null).end();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (processor.getKeptTraceCount() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(processor.getKeptTraceCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void policyException_DropsTheTrace() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+                new TailSamplingPolicy() {
+                  @Override
+                  public boolean shouldKeep(List<SpanData> spans) {
+                    throw new IllegalStateException("policy failed");
+                  }
+                })
+            .build();
+    tracer.addSpanProcessor(processor);
+    startSpan(null).end();
+    decideIdleTraces(processor);
+    assertThat(processor.getDroppedTraceCount()).isEqualTo(1);
+  }
+
+  private TailSamplingSpanProcessor.Builder newProcessor(TailSamplingPolicy policy) {
+    return TailSamplingSpanProcessor.newBuilder(spanExporter)
+        .addPolicy(policy)
+        .setDecisionWaitMillis(LONG_WAIT_MILLIS);
+  }
+
+  private static void decideIdleTraces(TailSamplingSpanProcessor processor) {
+    processor.decideIdleTraces(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LONG_WAIT_MILLIS));
+  }
+
+  private Span startSpan(Span parent) {
+    Span.Builder builder = tracer.spanBuilder("span").setSampler(Samplers.alwaysSample());
+    if (parent == null) {
+      builder.setNoParent();
+    } else {
+      builder.setParent(parent);
+    }
+    return builder.startSpan();
+  }
+
+  private static final class OnEnd implements Runnable {
+    private final TailSamplingSpanProcessor processor;
+    private final ReadableSpan span;
+
+    private OnEnd(TailSamplingSpanProcessor processor, ReadableSpan span) {
+      this.processor = processor;
+      this.span = span;
+    }
+
+    @Override
+    public void run() {
+      processor.onEnd(span);
+    }
+  }
+
+  private static final class RecordingSpanExporter implements SpanExporter {
+    private final List<SpanData> spans = new ArrayList<>();
+    private int shutdownCount;
+
+    @Override
+    public synchronized ResultCode export(List<SpanData> spans) {
+      this.spans.addAll(spans);
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+      shutdownCount++;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.contrib.trace.samplers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.opentelemetry.sdk.contrib.trace.samplers.TailSamplingPoliciesTest.spanBuilder;
+
+import io.opentelemetry.sdk.contrib.trace.samplers.TraceBuffer.BufferedTrace;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.TraceId;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link TraceBuffer}. */
+@RunWith(JUnit4.class)
+public class TraceBufferTest {
+  private static final long IDLE_NANOS = 1000;
+  private static final SpanData SPAN_1 = spanBuilder(new TraceId(1, 1)).build();
+  private static final SpanData SPAN_2 = spanBuilder(new TraceId(2, 2)).build();
+  private static final SpanData SPAN_3 = spanBuilder(new TraceId(3, 3)).build();
+
+  @Test
+  public void groupsSpansByTrace() {
+    TraceBuffer buffer = new TraceBuffer(4, Long.MAX_VALUE);
+    buffer.add(SPAN_1, false, 0);
+    buffer.add(SPAN_2, false, 0);
+    buffer.add(SPAN_1, false, 0);
+    List<BufferedTrace> traces = buffer.removeAll();
+    assertThat(traces).hasSize(2);
+    assertThat(spanCount(traces)).isEqualTo(3);
+    assertThat(buffer.getBufferedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void removeIdle_WaitsForTheLastUpdate() {
+    TraceBuffer buffer = new TraceBuffer(1, Long.MAX_VALUE);
+    buffer.add(SPAN_1, false, 0);
+    buffer.add(SPAN_2, false, 500);
+    buffer.add(SPAN_1, false, 800);
+    assertThat(buffer.removeIdle(1000, IDLE_NANOS)).isEmpty();
+    List<BufferedTrace> idle = buffer.removeIdle(1500, IDLE_NANOS);
+    assertThat(idle).hasSize(1);
+    assertThat(idle.get(0).getSpans()).containsExactly(SPAN_2);
+    idle = buffer.removeIdle(1800, IDLE_NANOS);
+    assertThat(idle).hasSize(1);
+    assertThat(idle.get(0).getSpans()).containsExactly(SPAN_1, SPAN_1);
+    assertThat(buffer.getBufferedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void keptIsSticky() {
+    TraceBuffer buffer = new TraceBuffer(1, Long.MAX_VALUE);
+    buffer.add(SPAN_1, true, 0);
+    buffer.add(SPAN_1, false, 0);
+    assertThat(buffer.removeAll().get(0).isKept()).isTrue();
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUpdatedTraces() {
+    long spanBytes = TraceBuffer.estimateSize(SPAN_1);
+    // Room for two traces of one span.
+    TraceBuffer buffer = new TraceBuffer(1, 2 * (spanBytes + 128));
+    buffer.add(SPAN_1, false, 0);
+    buffer.add(SPAN_2, false, 1);
+    buffer.add(SPAN_1, false, 2);
+    assertThat(buffer.getEvictedTraceCount()).isEqualTo(1);
+    assertThat(buffer.getEvictedSpanCount()).isEqualTo(1);
+    List<BufferedTrace> traces = buffer.removeAll();
+    assertThat(traces).hasSize(1);
+    assertThat(traces.get(0).getSpans()).containsExactly(SPAN_1, SPAN_1);
+
+    buffer.add(SPAN_1, false, 3);
+    buffer.add(SPAN_2, false, 4);
+    buffer.add(SPAN_3, false, 5);
+    assertThat(buffer.getEvictedTraceCount()).isEqualTo(2);
+    assertThat(buffer.getBufferedBytes()).isAtMost(2 * (spanBytes + 128));
+    traces = buffer.removeAll();
+    assertThat(traces).hasSize(2);
+    assertThat(traces.get(0).getSpans()).containsExactly(SPAN_2);
+    assertThat(traces.get(1).getSpans()).containsExactly(SPAN_3);
+  }
+
+  @Test
+  public void estimateSize_GrowsWithTheContent() {
+    SpanData longName = spanBuilder(new TraceId(1, 1)).setName("a much longer span name").build();
+    assertThat(TraceBuffer.estimateSize(longName)).isGreaterThan(TraceBuffer.estimateSize(SPAN_1));
+  }
+
+  private static int spanCount(List<BufferedTrace> traces) {
+    int count = 0;
+    for (BufferedTrace trace : traces) {
+      count += trace.getSpans().size();
+    }
+    return count;
+  }
+}